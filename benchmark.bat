@@ -0,0 +1,3 @@
+REM Usage:   benchmark.bat [benchmark names] [parameter:value ...]
+REM Example: benchmark.bat TWEANN PacMan benchmarkIterations:10
+java -cp "dist/MM-NEATv2.jar" edu.utexas.cs.nn.benchmarks.BenchmarkRunner %*
\ No newline at end of file
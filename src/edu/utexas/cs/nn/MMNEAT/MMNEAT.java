@@ -39,6 +39,7 @@ import edu.utexas.cs.nn.networks.hyperneat.SubstrateCoordinateMapping;
 import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.scores.Score;
+import edu.utexas.cs.nn.tasks.EvaluationExecutor;
 import edu.utexas.cs.nn.tasks.MultiplePopulationTask;
 import edu.utexas.cs.nn.tasks.Task;
 import edu.utexas.cs.nn.tasks.breve2D.Breve2DTask;
@@ -105,6 +106,8 @@ public class MMNEAT {
 	public static Experiment experiment;
 	public static Task task;
 	public static GenerationalEA ea;
+	// Threads shared by all parallel evaluations of the experiment
+	public static EvaluationExecutor evaluationExecutor;
 	@SuppressWarnings("rawtypes") // could hold any type, depending on command line
 	public static Genotype genotype;
 	@SuppressWarnings("rawtypes") // could hold any type, depending on command line
@@ -641,6 +644,11 @@ public class MMNEAT {
 				seedExample = true;
 			}
 			setupTWEANNGenotypeDataTracking(coevolution);
+			if (Parameters.parameters.booleanParameter("parallelEvaluations")) {
+				int threads = Parameters.parameters.integerParameter("threads");
+				int queueSize = Parameters.parameters.integerParameter("evaluationQueueSize");
+				evaluationExecutor = new EvaluationExecutor(threads, queueSize > 0 ? queueSize : threads);
+			}
 			// An Experiment is always needed
 			System.out.println("Create Experiment");
 			experiment = (Experiment) ClassCreation.createObject("experiment");
@@ -727,6 +735,10 @@ public class MMNEAT {
 		experiment = null;
 		performanceLog = null;
 		EvolutionaryHistory.archetypes = null;
+		if (evaluationExecutor != null) {
+			evaluationExecutor.close();
+			evaluationExecutor = null;
+		}
 		Executor.close();
 	}
 
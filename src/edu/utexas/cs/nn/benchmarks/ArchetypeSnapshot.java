@@ -0,0 +1,44 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import java.util.ArrayList;
+
+import edu.utexas.cs.nn.evolution.EvolutionaryHistory;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype.NodeGene;
+
+/**
+ * Archetype and innovation number of the first population at one moment.
+ * Mutations add nodes to the archetype, so benchmarks that mutate restore
+ * this before each iteration, and every iteration does the same work.
+ */
+class ArchetypeSnapshot {
+
+	private final ArrayList<NodeGene> archetype;
+	private final int archetypeOut;
+	private final long innovation;
+
+	/**
+	 * Remember the current archetype of population 0
+	 */
+	ArchetypeSnapshot() {
+		archetype = copy(EvolutionaryHistory.archetypes[0]);
+		archetypeOut = EvolutionaryHistory.archetypeOut[0];
+		innovation = EvolutionaryHistory.largestUnusedInnovationNumber;
+	}
+
+	/**
+	 * Put back the archetype of population 0 as it was when remembered
+	 */
+	void restore() {
+		EvolutionaryHistory.archetypes[0] = copy(archetype);
+		EvolutionaryHistory.archetypeOut[0] = archetypeOut;
+		EvolutionaryHistory.setInnovation(innovation);
+	}
+
+	private static ArrayList<NodeGene> copy(ArrayList<NodeGene> nodes) {
+		ArrayList<NodeGene> result = new ArrayList<NodeGene>(nodes.size());
+		for (NodeGene node : nodes) {
+			result.add(node.clone());
+		}
+		return result;
+	}
+}
@@ -0,0 +1,99 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.EvolutionaryHistory;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+
+/**
+ * One operation whose speed is measured by BenchmarkRunner. Each benchmark
+ * has a preset of parameters, loaded through Parameters exactly as for an
+ * experiment, and a fixed random seed, so every run measures the same work.
+ * Setting up everything the operation needs happens once, outside of the
+ * measured time.
+ */
+public abstract class Benchmark {
+
+	/**
+	 * Parameters shared by all benchmarks: no files are written, and
+	 * algorithmic randomness always starts from the same seed.
+	 */
+	private static final String[] COMMON_PARAMETERS = new String[] { "io:false", "netio:false", "randomSeed:0" };
+
+	/**
+	 * @return name shown in the results
+	 */
+	public String name() {
+		return getClass().getSimpleName().replace("Benchmark", "");
+	}
+
+	/**
+	 * Parameter preset of this benchmark, in the same name:value form as
+	 * command line parameters.
+	 *
+	 * @return parameters added to the common ones
+	 */
+	protected String[] parameters() {
+		return new String[0];
+	}
+
+	/**
+	 * Whether MMNEAT.loadClasses needs to be called before prepare
+	 *
+	 * @return true if the benchmark uses classes chosen by parameters
+	 */
+	protected boolean loadsClasses() {
+		return true;
+	}
+
+	/**
+	 * Load the parameters and create everything the operation needs
+	 *
+	 * @param overrides
+	 *            parameters that replace those of the preset
+	 */
+	public void setUp(String[] overrides) {
+		ArrayList<String> args = new ArrayList<String>(Arrays.asList(COMMON_PARAMETERS));
+		args.addAll(Arrays.asList(parameters()));
+		args.addAll(Arrays.asList(overrides));
+		MMNEAT.clearClasses();
+		EvolutionaryHistory.setInnovation(0);
+		EvolutionaryHistory.setHighestGenotypeId(0);
+		Parameters.initializeParameterCollections(args.toArray(new String[args.size()]));
+		if (loadsClasses()) {
+			MMNEAT.loadClasses();
+		}
+		RandomNumbers.reset();
+		prepare();
+	}
+
+	/**
+	 * Create everything the operation needs, after parameters are loaded
+	 */
+	protected abstract void prepare();
+
+	/**
+	 * Perform the operation once. The result is kept by the runner, so the
+	 * work that produced it cannot be optimized away.
+	 *
+	 * @return any value computed by the operation
+	 */
+	public abstract double operation();
+
+	/**
+	 * Undo changes to shared state made by earlier operations. Called before
+	 * each iteration, outside of the measured time.
+	 */
+	public void resetIteration() {
+	}
+
+	/**
+	 * Release everything created by setUp
+	 */
+	public void tearDown() {
+		MMNEAT.clearClasses();
+	}
+}
@@ -0,0 +1,119 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import java.util.ArrayList;
+
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.util.stats.StatisticsUtilities;
+
+/**
+ * Measures the average time of one operation of each benchmark. Each
+ * benchmark first runs benchmarkWarmups iterations that are not measured,
+ * so that the JIT compiler has optimized the code, and then
+ * benchmarkIterations measured iterations. An iteration repeats the
+ * operation until benchmarkMillis milliseconds have passed.
+ *
+ * Command line arguments without a colon select the benchmarks whose names
+ * contain them, ignoring case. All benchmarks run if none are given.
+ * Arguments of the form name:value are parameters that override the preset
+ * of every benchmark, including the three above. For example:
+ *
+ * java -cp dist/MM-NEATv2.jar edu.utexas.cs.nn.benchmarks.BenchmarkRunner
+ * TWEANN PacMan benchmarkIterations:10
+ */
+public class BenchmarkRunner {
+
+	public static final Benchmark[] BENCHMARKS = new Benchmark[] { new TWEANNProcessBenchmark(),
+			new SubstrateMLPProcessBenchmark(), new SubstrateMLPBatchBenchmark(), new HyperNEATPhenotypeBenchmark(), new TWEANNMutationBenchmark(),
+			new TWEANNCrossoverBenchmark(100), new TWEANNCrossoverBenchmark(1000), new TWEANNCrossoverBenchmark(10000),
+			new TWEANNCrossoverBenchmark(50000), new NSGA2SelectionBenchmark(), new PacManGameBenchmark(),
+			new PathsCacheBenchmark(), new TorusPredPreyBenchmark(), new TetrisAfterStateBenchmark() };
+
+	// Sum of all operation results, so that the JIT cannot discard the work
+	private static volatile double sink = 0;
+
+	public static void main(String[] args) {
+		ArrayList<String> names = new ArrayList<String>();
+		ArrayList<String> overrides = new ArrayList<String>();
+		for (String arg : args) {
+			if (arg.contains(":")) {
+				overrides.add(arg);
+			} else {
+				names.add(arg.toLowerCase());
+			}
+		}
+		ArrayList<String> results = new ArrayList<String>();
+		for (Benchmark benchmark : BENCHMARKS) {
+			if (selected(benchmark, names)) {
+				double[] nanos = run(benchmark, overrides.toArray(new String[overrides.size()]));
+				String result = String.format("%-24s %16.1f %14.1f", benchmark.name(), StatisticsUtilities.average(nanos),
+						nanos.length > 1 ? StatisticsUtilities.sampleStandardDeviation(nanos) : 0.0);
+				System.out.println(result);
+				results.add(result);
+			}
+		}
+		System.out.println();
+		System.out.println(String.format("%-24s %16s %14s", "Benchmark", "ns/op", "std dev"));
+		for (String result : results) {
+			System.out.println(result);
+		}
+	}
+
+	private static boolean selected(Benchmark benchmark, ArrayList<String> names) {
+		if (names.isEmpty()) {
+			return true;
+		}
+		for (String name : names) {
+			if (benchmark.name().toLowerCase().contains(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Set up a benchmark, warm it up, and measure it
+	 *
+	 * @param benchmark
+	 *            benchmark to run
+	 * @param overrides
+	 *            parameters that replace those of its preset
+	 * @return average nanoseconds per operation in each measured iteration
+	 */
+	public static double[] run(Benchmark benchmark, String[] overrides) {
+		benchmark.setUp(overrides);
+		int warmups = Parameters.parameters.integerParameter("benchmarkWarmups");
+		int iterations = Parameters.parameters.integerParameter("benchmarkIterations");
+		long millis = Parameters.parameters.integerParameter("benchmarkMillis");
+		for (int i = 0; i < warmups; i++) {
+			iteration(benchmark, millis);
+		}
+		double[] nanos = new double[iterations];
+		for (int i = 0; i < iterations; i++) {
+			nanos[i] = iteration(benchmark, millis);
+		}
+		benchmark.tearDown();
+		return nanos;
+	}
+
+	/**
+	 * Repeat the operation until the given time has passed, after resetting
+	 * the benchmark. Always performs at least one operation.
+	 *
+	 * @return average nanoseconds per operation
+	 */
+	private static double iteration(Benchmark benchmark, long millis) {
+		long budget = millis * 1000000L;
+		double total = 0;
+		long operations = 0;
+		benchmark.resetIteration();
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			total += benchmark.operation();
+			operations++;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < budget);
+		sink += total;
+		return (double) elapsed / operations;
+	}
+}
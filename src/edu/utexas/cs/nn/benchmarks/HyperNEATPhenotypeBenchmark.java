@@ -0,0 +1,35 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import edu.utexas.cs.nn.evolution.genotypes.HyperNEATCPPNGenotype;
+
+/**
+ * Building the substrate network of a HyperNEAT CPPN, which queries the CPPN
+ * once for every pair of connected substrate neurons. Uses the substrates
+ * of HyperNEATSpeedTask. A genotype caches its substrate network, so each
+ * operation builds the network of a fresh copy, and the time includes the
+ * copy.
+ */
+public class HyperNEATPhenotypeBenchmark extends Benchmark {
+
+	private static final int MUTATIONS = 100;
+
+	private HyperNEATCPPNGenotype cppn;
+
+	@Override
+	protected String[] parameters() {
+		return SubstrateMLPProcessBenchmark.HYPERNEAT_PARAMETERS;
+	}
+
+	@Override
+	protected void prepare() {
+		cppn = new HyperNEATCPPNGenotype();
+		for (int i = 0; i < MUTATIONS; i++) {
+			cppn.mutate();
+		}
+	}
+
+	@Override
+	public double operation() {
+		return cppn.copy().getPhenotype().numOutputs();
+	}
+}
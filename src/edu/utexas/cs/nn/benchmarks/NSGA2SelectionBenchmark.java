@@ -0,0 +1,50 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import java.util.ArrayList;
+
+import edu.utexas.cs.nn.evolution.nsga2.NSGA2;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.scores.Score;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+
+/**
+ * NSGA2 selection of mu parents from a combined population of parents and
+ * children, as done once per generation. Scores are random, with few
+ * distinct values per objective so that there are ties and many fronts.
+ */
+public class NSGA2SelectionBenchmark extends Benchmark {
+
+	private static final int OBJECTIVES = 3;
+	private static final int DISTINCT_VALUES = 20;
+
+	private ArrayList<Score<Object>> scores;
+	private int mu;
+
+	@Override
+	protected String[] parameters() {
+		return new String[] { "mu:200" };
+	}
+
+	@Override
+	protected boolean loadsClasses() {
+		return false;
+	}
+
+	@Override
+	protected void prepare() {
+		mu = Parameters.parameters.integerParameter("mu");
+		scores = new ArrayList<Score<Object>>(2 * mu);
+		for (int i = 0; i < 2 * mu; i++) {
+			double[] objectives = new double[OBJECTIVES];
+			for (int j = 0; j < OBJECTIVES; j++) {
+				objectives[j] = RandomNumbers.randomGenerator.nextInt(DISTINCT_VALUES);
+			}
+			scores.add(new Score<Object>(null, objectives, null));
+		}
+	}
+
+	@Override
+	public double operation() {
+		return NSGA2.staticSelection(mu, NSGA2.staticNSGA2Scores(scores)).size();
+	}
+}
@@ -0,0 +1,43 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import pacman.controllers.Controller;
+import pacman.controllers.NewGhostController;
+import pacman.controllers.examples.RandomGhosts;
+import pacman.controllers.examples.RandomNonRevPacMan;
+import pacman.game.Constants.MOVE;
+import pacman.game.Game;
+
+/**
+ * One time step of a Ms. Pac-Man game. Random controllers choose the moves,
+ * so that almost all of the time is spent in Game.advanceGame. A new game is
+ * started whenever one ends, with the next seed in sequence.
+ */
+public class PacManGameBenchmark extends Benchmark {
+
+	private Controller<MOVE> pacman;
+	private NewGhostController ghosts;
+	private Game game;
+	private long seed;
+
+	@Override
+	protected boolean loadsClasses() {
+		return false;
+	}
+
+	@Override
+	protected void prepare() {
+		pacman = new RandomNonRevPacMan();
+		ghosts = new RandomGhosts();
+		seed = 0;
+		game = new Game(seed);
+	}
+
+	@Override
+	public double operation() {
+		game.advanceGame(pacman.getMove(game, -1), ghosts.getMove(game, -1));
+		if (game.gameOver()) {
+			game = new Game(++seed);
+		}
+		return game.getScore();
+	}
+}
@@ -0,0 +1,75 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import java.util.ArrayList;
+
+import pacman.controllers.Controller;
+import pacman.controllers.NewGhostController;
+import pacman.controllers.examples.RandomGhosts;
+import pacman.controllers.examples.RandomNonRevPacMan;
+import pacman.game.Constants.GHOST;
+import pacman.game.Constants.MOVE;
+import pacman.game.Game;
+import pacman.game.internal.PathsCache;
+
+/**
+ * Path distance queries from a ghost to Ms. Pac-Man, which ghosts and many
+ * sensors make every time step. The queries are recorded from games played
+ * by random controllers in the first maze, so that every query is one that
+ * could really be made.
+ */
+public class PathsCacheBenchmark extends Benchmark {
+
+	private static final int QUERIES = 4096;
+
+	private PathsCache cache;
+	private int[] from;
+	private int[] to;
+	private MOVE[] lastMoves;
+	private int next;
+
+	@Override
+	protected boolean loadsClasses() {
+		return false;
+	}
+
+	@Override
+	protected void prepare() {
+		Controller<MOVE> pacman = new RandomNonRevPacMan();
+		NewGhostController ghosts = new RandomGhosts();
+		ArrayList<Integer> fromNodes = new ArrayList<Integer>(QUERIES);
+		ArrayList<Integer> toNodes = new ArrayList<Integer>(QUERIES);
+		ArrayList<MOVE> moves = new ArrayList<MOVE>(QUERIES);
+		long seed = 0;
+		Game game = new Game(seed, 0);
+		while (fromNodes.size() < QUERIES) {
+			for (GHOST ghost : GHOST.values()) {
+				if (game.getGhostLairTime(ghost) == 0) {
+					fromNodes.add(game.getGhostCurrentNodeIndex(ghost));
+					toNodes.add(game.getPacmanCurrentNodeIndex());
+					moves.add(game.getGhostLastMoveMade(ghost));
+				}
+			}
+			game.advanceGame(pacman.getMove(game, -1), ghosts.getMove(game, -1));
+			if (game.gameOver() || game.getMazeIndex() != 0) {
+				game = new Game(++seed, 0);
+			}
+		}
+		cache = Game.caches[0];
+		from = new int[QUERIES];
+		to = new int[QUERIES];
+		lastMoves = new MOVE[QUERIES];
+		for (int i = 0; i < QUERIES; i++) {
+			from[i] = fromNodes.get(i);
+			to[i] = toNodes.get(i);
+			lastMoves[i] = moves.get(i);
+		}
+		next = 0;
+	}
+
+	@Override
+	public double operation() {
+		int i = next;
+		next = (next + 1) % QUERIES;
+		return cache.getPathDistanceFromA2B(from[i], to[i], lastMoves[i]);
+	}
+}
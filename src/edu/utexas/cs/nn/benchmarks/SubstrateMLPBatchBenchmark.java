@@ -0,0 +1,31 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+
+/**
+ * Activation of the same SubstrateMLP as SubstrateMLPProcessBenchmark for a
+ * batch of input vectors at once. One operation processes the whole batch,
+ * so dividing by BATCH_SIZE gives the time per input vector.
+ */
+public class SubstrateMLPBatchBenchmark extends SubstrateMLPProcessBenchmark {
+
+	public static final int BATCH_SIZE = 32;
+
+	private double[][] batch;
+
+	@Override
+	protected void prepare() {
+		super.prepare();
+		batch = new double[BATCH_SIZE][network.numInputs()];
+		for (int b = 0; b < BATCH_SIZE; b++) {
+			for (int i = 0; i < batch[b].length; i++) {
+				batch[b][i] = RandomNumbers.fullSmallRand();
+			}
+		}
+	}
+
+	@Override
+	public double operation() {
+		return network.process(batch)[BATCH_SIZE - 1][0];
+	}
+}
@@ -0,0 +1,48 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.genotypes.HyperNEATCPPNGenotype;
+import edu.utexas.cs.nn.networks.SubstrateMLP;
+import edu.utexas.cs.nn.networks.hyperneat.HyperNEATTask;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+
+/**
+ * Activation of a SubstrateMLP built from an evolved CPPN, using the
+ * substrates of HyperNEATSpeedTask.
+ */
+public class SubstrateMLPProcessBenchmark extends Benchmark {
+
+	/**
+	 * Preset shared by the HyperNEAT benchmarks
+	 */
+	static final String[] HYPERNEAT_PARAMETERS = new String[] { "allowMultipleFunctions:true", "recurrency:false",
+			"hyperNEAT:true", "task:edu.utexas.cs.nn.networks.hyperneat.HyperNEATSpeedTask", "ftype:1" };
+	private static final int MUTATIONS = 100;
+
+	protected SubstrateMLP network;
+	protected double[] inputs;
+
+	@Override
+	protected String[] parameters() {
+		return HYPERNEAT_PARAMETERS;
+	}
+
+	@Override
+	protected void prepare() {
+		HyperNEATCPPNGenotype cppn = new HyperNEATCPPNGenotype();
+		for (int i = 0; i < MUTATIONS; i++) {
+			cppn.mutate();
+		}
+		HyperNEATTask task = (HyperNEATTask) MMNEAT.task;
+		network = new SubstrateMLP(task.getSubstrateInformation(), task.getSubstrateConnectivity(), cppn.getCPPN());
+		inputs = new double[network.numInputs()];
+		for (int i = 0; i < inputs.length; i++) {
+			inputs[i] = RandomNumbers.fullSmallRand();
+		}
+	}
+
+	@Override
+	public double operation() {
+		return network.process(inputs)[0];
+	}
+}
@@ -0,0 +1,71 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.EvolutionaryHistory;
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
+import edu.utexas.cs.nn.networks.TWEANN;
+
+/**
+ * Crossover of two TWEANN genotypes that evolved separately from the same
+ * ancestor, so they share most genes and differ in others. The ancestor is
+ * fully connected, with enough inputs to give it the requested number of
+ * links, so the cost of crossover can be compared across genome sizes.
+ * Crossover modifies its parents, so each operation crosses copies of them,
+ * and the time includes the copies. The archetype is restored before each
+ * iteration, so genes added during crossover do not accumulate.
+ */
+public class TWEANNCrossoverBenchmark extends Benchmark {
+
+	private static final int OUTPUTS = 10;
+	private static final int SEPARATE_MUTATIONS = 20;
+
+	private final int links;
+	private TWEANNGenotype mother;
+	private TWEANNGenotype father;
+	private ArchetypeSnapshot archetype;
+
+	/**
+	 * @param links
+	 *            approximate number of links in each parent
+	 */
+	public TWEANNCrossoverBenchmark(int links) {
+		this.links = links;
+	}
+
+	@Override
+	public String name() {
+		return super.name() + links;
+	}
+
+	@Override
+	protected String[] parameters() {
+		return new String[] { "mating:true", "fs:false" };
+	}
+
+	@Override
+	protected void prepare() {
+		TWEANNGenotype ancestor = new TWEANNGenotype(Math.max(1, links / OUTPUTS), OUTPUTS, 0);
+		MMNEAT.genotype = ancestor.copy();
+		EvolutionaryHistory.initArchetype(0);
+		mother = (TWEANNGenotype) ancestor.copy();
+		father = (TWEANNGenotype) ancestor.copy();
+		for (int i = 0; i < SEPARATE_MUTATIONS; i++) {
+			mother.mutate();
+			father.mutate();
+		}
+		archetype = new ArchetypeSnapshot();
+	}
+
+	@Override
+	public void resetIteration() {
+		archetype.restore();
+	}
+
+	@Override
+	public double operation() {
+		Genotype<TWEANN> child = mother.copy();
+		Genotype<TWEANN> otherChild = child.crossover(father.copy());
+		return ((TWEANNGenotype) child).links.size() + ((TWEANNGenotype) otherChild).links.size();
+	}
+}
@@ -0,0 +1,37 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
+import edu.utexas.cs.nn.networks.TWEANN;
+
+/**
+ * Creating a mutated child of an evolved TWEANN genotype. Each operation
+ * copies the same parent before mutating it, so the genotype does not grow
+ * as the benchmark runs, and the time includes the copy. Mutations add
+ * nodes to the archetype, so it is restored before each iteration.
+ */
+public class TWEANNMutationBenchmark extends Benchmark {
+
+	private static final int MUTATIONS = 200;
+
+	private TWEANNGenotype parent;
+	private ArchetypeSnapshot archetype;
+
+	@Override
+	protected void prepare() {
+		parent = TWEANNProcessBenchmark.evolvedGenotype(MUTATIONS);
+		archetype = new ArchetypeSnapshot();
+	}
+
+	@Override
+	public void resetIteration() {
+		archetype.restore();
+	}
+
+	@Override
+	public double operation() {
+		Genotype<TWEANN> child = parent.copy();
+		child.mutate();
+		return ((TWEANNGenotype) child).links.size();
+	}
+}
@@ -0,0 +1,60 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.EvolutionaryHistory;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
+import edu.utexas.cs.nn.networks.TWEANN;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+
+/**
+ * Activation of an evolved TWEANN, which is what every step of every task
+ * spends most of its time on.
+ */
+public class TWEANNProcessBenchmark extends Benchmark {
+
+	private static final int INPUTS = 20;
+	private static final int OUTPUTS = 4;
+	// Enough mutations to give the network hidden neurons and many links
+	private static final int MUTATIONS = 200;
+
+	private TWEANN network;
+	private double[] inputs;
+
+	@Override
+	protected String[] parameters() {
+		return new String[] { "recurrency:false" };
+	}
+
+	@Override
+	protected void prepare() {
+		network = evolvedGenotype(MUTATIONS).getPhenotype();
+		inputs = new double[network.numInputs()];
+		for (int i = 0; i < inputs.length; i++) {
+			inputs[i] = RandomNumbers.fullSmallRand();
+		}
+	}
+
+	/**
+	 * Mutate a new genotype of the first population. The archetype of the
+	 * population is started from the new genotype first, as an experiment
+	 * would do.
+	 *
+	 * @param mutations
+	 *            number of times to mutate
+	 * @return mutated genotype
+	 */
+	static TWEANNGenotype evolvedGenotype(int mutations) {
+		TWEANNGenotype genotype = new TWEANNGenotype(INPUTS, OUTPUTS, 0);
+		MMNEAT.genotype = genotype.copy();
+		EvolutionaryHistory.initArchetype(0);
+		for (int i = 0; i < mutations; i++) {
+			genotype.mutate();
+		}
+		return genotype;
+	}
+
+	@Override
+	public double operation() {
+		return network.process(inputs)[0];
+	}
+}
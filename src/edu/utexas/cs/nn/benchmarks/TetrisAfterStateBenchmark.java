@@ -0,0 +1,50 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import org.rlcommunity.environments.tetris.TetrisState;
+
+import edu.utexas.cs.nn.tasks.rlglue.tetris.TetrisAfterStateGenerator;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+
+/**
+ * Finding every after-state of a newly spawned Tetris piece, which
+ * TetrisAfterStateAgent does once per piece. Boards are random, with columns
+ * of different heights and some holes.
+ */
+public class TetrisAfterStateBenchmark extends Benchmark {
+
+	private static final int BOARDS = 256;
+
+	private TetrisState[] states;
+	private int next;
+
+	@Override
+	protected boolean loadsClasses() {
+		return false;
+	}
+
+	@Override
+	protected void prepare() {
+		states = new TetrisState[BOARDS];
+		for (int i = 0; i < BOARDS; i++) {
+			TetrisState ts = new TetrisState();
+			for (int x = 0; x < TetrisState.worldWidth; x++) {
+				int columnHeight = RandomNumbers.randomGenerator.nextInt(TetrisState.worldHeight / 2);
+				for (int y = TetrisState.worldHeight - columnHeight; y < TetrisState.worldHeight; y++) {
+					if (RandomNumbers.randomGenerator.nextDouble() < 0.85) {
+						ts.worldState[y * TetrisState.worldWidth + x] = 1;
+					}
+				}
+			}
+			ts.spawn_block();
+			states[i] = ts;
+		}
+		next = 0;
+	}
+
+	@Override
+	public double operation() {
+		TetrisState ts = states[next];
+		next = (next + 1) % BOARDS;
+		return TetrisAfterStateGenerator.generateAfterStates(ts).size();
+	}
+}
@@ -0,0 +1,54 @@
+package edu.utexas.cs.nn.benchmarks;
+
+import edu.utexas.cs.nn.gridTorus.TorusPredPreyGame;
+import edu.utexas.cs.nn.gridTorus.controllers.TorusPredPreyController;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.util.datastructures.ArrayUtil;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+
+/**
+ * One time step of a predator/prey game on the torus grid, with random moves
+ * for every agent. A new game is started whenever one ends.
+ */
+public class TorusPredPreyBenchmark extends Benchmark {
+
+	private TorusPredPreyGame game;
+	private int[][] predatorActions;
+	private int[][] preyActions;
+	private int[][] predatorMoves;
+	private int[][] preyMoves;
+
+	@Override
+	protected boolean loadsClasses() {
+		return false;
+	}
+
+	@Override
+	protected void prepare() {
+		predatorActions = TorusPredPreyController.predatorActions();
+		preyActions = TorusPredPreyController.preyActions();
+		predatorMoves = new int[Parameters.parameters.integerParameter("torusPredators")][];
+		preyMoves = new int[Parameters.parameters.integerParameter("torusPreys")][];
+		newGame();
+	}
+
+	private void newGame() {
+		game = new TorusPredPreyGame(Parameters.parameters.integerParameter("torusXDimensions"),
+				Parameters.parameters.integerParameter("torusYDimensions"), predatorMoves.length, preyMoves.length);
+	}
+
+	@Override
+	public double operation() {
+		for (int i = 0; i < predatorMoves.length; i++) {
+			predatorMoves[i] = predatorActions[RandomNumbers.randomGenerator.nextInt(predatorActions.length)];
+		}
+		for (int i = 0; i < preyMoves.length; i++) {
+			preyMoves[i] = preyActions[RandomNumbers.randomGenerator.nextInt(preyActions.length)];
+		}
+		game.advance(predatorMoves, preyMoves);
+		if (game.getTime() >= game.getTimeLimit() || ArrayUtil.countOccurrences(null, game.getPrey()) == preyMoves.length) {
+			newGame();
+		}
+		return game.getTime();
+	}
+}
@@ -8,6 +8,7 @@ import edu.utexas.cs.nn.breve2D.sensor.RaySensor;
 import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.util.CartesianGeometricUtilities;
 import edu.utexas.cs.nn.util.datastructures.Triple;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
 import edu.utexas.cs.nn.util.util2D.Box2D;
 import edu.utexas.cs.nn.util.util2D.Distance2DComparator;
 import edu.utexas.cs.nn.util.util2D.ILocated2D;
@@ -16,11 +17,9 @@ import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Random;
 
 public class Breve2DGame {
 
-	public static Random rand = new Random(0);
 	public static final int SIZE_X = 500;
 	public static final int SIZE_Y = 500;
 	public static final double FORCE_MULTIPLIER = 2; // 3;
@@ -84,9 +83,7 @@ public class Breve2DGame {
 		resetAll = true;
 		double heading = 0;
 		if (!Parameters.parameters.booleanParameter("deterministic")) {
-			heading = rand.nextDouble() * 2 * Math.PI;
-		} else {
-			rand = new Random(0);
+			heading = RandomNumbers.generator().nextDouble() * 2 * Math.PI;
 		}
 		player = new Agent(new Tuple2D(SIZE_X / 2, SIZE_Y / 2), heading);
 
@@ -0,0 +1,295 @@
+package edu.utexas.cs.nn.data;
+
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
+import edu.utexas.cs.nn.util.PopulationUtil;
+import edu.utexas.cs.nn.util.file.XMLFilter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import wox.serial.Easy;
+
+/**
+ * A whole population of genotypes saved in a single binary file, instead of
+ * one wox XML file per genotype. Each genotype is encoded by the
+ * BinarySerializer, and optionally compressed. The file starts with a table
+ * of where each genotype is stored, so that a single individual can be read
+ * without decoding the rest of the file.
+ *
+ * File layout (version 1): magic number, version, flags, number of genotypes
+ * n, n + 1 offsets of the genotype records from the start of the file (the
+ * last being the end of the file), then the records.
+ *
+ * Running this class converts between the two formats:
+ * "toBinary xmlDirectory populationFile" or
+ * "toXML populationFile xmlDirectory filePrefix".
+ */
+public class BinaryPopulation {
+
+	public static final String EXTENSION = ".pop";
+	public static final int MAGIC = 0x4D4D504F; // "MMPO"
+	public static final int VERSION = 1;
+	private static final int COMPRESSED = 1;
+	// Size of magic number, version, flags and count
+	private static final int HEADER_BYTES = 16;
+
+	/**
+	 * Save a population to a single binary file.
+	 *
+	 * @param <T>
+	 *            phenotype
+	 * @param population
+	 *            genotypes to save
+	 * @param filename
+	 *            file to create, usually ending in EXTENSION
+	 * @param compress
+	 *            whether each genotype is compressed
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public static <T> void save(ArrayList<Genotype<T>> population, String filename, boolean compress)
+			throws IOException {
+		ArrayList<byte[]> records = new ArrayList<byte[]>(population.size());
+		for (Genotype<T> g : population) {
+			records.add(encode(g, compress));
+		}
+		long[] offsets = new long[records.size() + 1];
+		offsets[0] = HEADER_BYTES + 8L * offsets.length;
+		for (int i = 0; i < records.size(); i++) {
+			offsets[i + 1] = offsets[i] + records.get(i).length;
+		}
+		RandomAccessFile file = new RandomAccessFile(filename, "rw");
+		try {
+			file.setLength(0);
+			ByteBuffer header = ByteBuffer.allocate((int) offsets[0]);
+			header.putInt(MAGIC);
+			header.putInt(VERSION);
+			header.putInt(compress ? COMPRESSED : 0);
+			header.putInt(records.size());
+			for (long offset : offsets) {
+				header.putLong(offset);
+			}
+			file.write(header.array());
+			for (byte[] record : records) {
+				file.write(record);
+			}
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Load every genotype in a binary population file.
+	 *
+	 * @param <T>
+	 *            phenotype
+	 * @param filename
+	 *            file created by save
+	 * @return genotypes in the order they were saved
+	 * @throws IOException
+	 *             if the file cannot be read or is not a population file
+	 */
+	public static <T> ArrayList<Genotype<T>> load(String filename) throws IOException {
+		MappedPopulation file = new MappedPopulation(filename);
+		ArrayList<Genotype<T>> population = new ArrayList<Genotype<T>>(file.size());
+		for (int i = 0; i < file.size(); i++) {
+			population.add(file.<T> genotype(i));
+		}
+		return population;
+	}
+
+	/**
+	 * Load a single genotype from a binary population file. Only the
+	 * requested genotype is read and decoded.
+	 *
+	 * @param <T>
+	 *            phenotype
+	 * @param filename
+	 *            file created by save
+	 * @param index
+	 *            position of the genotype in the saved population
+	 * @return the genotype
+	 * @throws IOException
+	 *             if the file cannot be read or is not a population file
+	 */
+	public static <T> Genotype<T> load(String filename, int index) throws IOException {
+		return new MappedPopulation(filename).<T> genotype(index);
+	}
+
+	/**
+	 * @param filename
+	 *            file created by save
+	 * @return number of genotypes in the file
+	 * @throws IOException
+	 *             if the file cannot be read or is not a population file
+	 */
+	public static int size(String filename) throws IOException {
+		return new MappedPopulation(filename).size();
+	}
+
+	/**
+	 * Convert a directory of genotypes saved as wox XML files into a binary
+	 * population file.
+	 *
+	 * @param xmlDirectory
+	 *            directory of genotype xml files
+	 * @param filename
+	 *            binary file to create
+	 * @param compress
+	 *            whether each genotype is compressed
+	 * @return number of genotypes converted
+	 * @throws IOException
+	 *             if the directory cannot be read or file cannot be written
+	 */
+	public static int fromXML(String xmlDirectory, String filename, boolean compress) throws IOException {
+		String[] children = new File(xmlDirectory).list(new XMLFilter());
+		if (children == null) {
+			throw new IOException("Directory " + xmlDirectory + " does not exist");
+		}
+		// Directory listings have no fixed order
+		Arrays.sort(children);
+		ArrayList<Genotype<Object>> population = new ArrayList<Genotype<Object>>(children.length);
+		for (String child : children) {
+			Genotype<Object> g = PopulationUtil.extractGenotype(xmlDirectory + "/" + child);
+			if (g != null) {
+				population.add(g);
+			}
+		}
+		save(population, filename, compress);
+		return population.size();
+	}
+
+	/**
+	 * Convert a binary population file into a directory of wox XML files,
+	 * named the way evolution experiments name them: prefix followed by the
+	 * index of the genotype.
+	 *
+	 * @param filename
+	 *            binary file created by save
+	 * @param xmlDirectory
+	 *            directory to save xml files in, created if needed
+	 * @param prefix
+	 *            start of each xml file name
+	 * @return number of genotypes converted
+	 * @throws IOException
+	 *             if the binary file cannot be read
+	 */
+	public static int toXML(String filename, String xmlDirectory, String prefix) throws IOException {
+		ArrayList<Genotype<Object>> population = load(filename);
+		new File(xmlDirectory).mkdirs();
+		for (int i = 0; i < population.size(); i++) {
+			Easy.save(population.get(i), xmlDirectory + "/" + prefix + i + ".xml");
+		}
+		return population.size();
+	}
+
+	private static byte[] encode(Object o, boolean compress) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(compress ? new DeflaterOutputStream(bytes) : bytes);
+		BinarySerializer.write(o, out);
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Binary population file mapped into memory, so that records are only
+	 * read from disk when decoded.
+	 */
+	private static class MappedPopulation {
+
+		private final ByteBuffer buffer;
+		private final boolean compressed;
+		private final int size;
+
+		MappedPopulation(String filename) throws IOException {
+			RandomAccessFile file = new RandomAccessFile(filename, "r");
+			try {
+				// The mapping remains valid after the file is closed
+				buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+			} finally {
+				file.close();
+			}
+			if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+				throw new IOException(filename + " is not a binary population file");
+			}
+			int version = buffer.getInt(4);
+			if (version != VERSION) {
+				throw new IOException(filename + " has unsupported version " + version);
+			}
+			compressed = (buffer.getInt(8) & COMPRESSED) != 0;
+			size = buffer.getInt(12);
+		}
+
+		int size() {
+			return size;
+		}
+
+		@SuppressWarnings("unchecked")
+		<T> Genotype<T> genotype(int index) throws IOException {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index " + index + " in population of " + size);
+			}
+			int start = (int) buffer.getLong(HEADER_BYTES + 8 * index);
+			int end = (int) buffer.getLong(HEADER_BYTES + 8 * (index + 1));
+			ByteBuffer record = buffer.duplicate();
+			record.position(start);
+			record.limit(end);
+			InputStream bytes = new ByteBufferInputStream(record.slice());
+			DataInputStream in = new DataInputStream(compressed ? new InflaterInputStream(bytes) : bytes);
+			return (Genotype<T>) BinarySerializer.read(in);
+		}
+	}
+
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			len = Math.min(len, buffer.remaining());
+			buffer.get(b, off, len);
+			return len;
+		}
+	}
+
+	/**
+	 * Convert between XML and binary populations from the command line.
+	 *
+	 * @param args
+	 *            "toBinary xmlDirectory populationFile" or
+	 *            "toXML populationFile xmlDirectory filePrefix"
+	 * @throws IOException
+	 *             if a file cannot be read or written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 3 && args[0].equals("toBinary")) {
+			System.out.println(fromXML(args[1], args[2], true) + " genotypes saved to " + args[2]);
+		} else if (args.length == 4 && args[0].equals("toXML")) {
+			System.out.println(toXML(args[1], args[2], args[3]) + " genotypes saved to " + args[2]);
+		} else {
+			System.out.println("Usage: toBinary xmlDirectory populationFile");
+			System.out.println("       toXML populationFile xmlDirectory filePrefix");
+		}
+	}
+}
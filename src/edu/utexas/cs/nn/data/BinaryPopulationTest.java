@@ -0,0 +1,127 @@
+package edu.utexas.cs.nn.data;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.EvolutionaryHistory;
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
+import edu.utexas.cs.nn.evolution.genotypes.HyperNEATCPPNGenotype;
+import edu.utexas.cs.nn.evolution.genotypes.RealValuedGenotype;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
+import edu.utexas.cs.nn.parameters.Parameters;
+import wox.serial.Easy;
+
+public class BinaryPopulationTest {
+
+	final static int MUTATIONS = 20;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private ArrayList<Genotype<Object>> population;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Before
+	public void setUp() throws Exception {
+		Parameters.initializeParameterCollections(
+				new String[] { "io:false", "netio:false", "allowMultipleFunctions:true", "recurrency:false" });
+		MMNEAT.loadClasses();
+		EvolutionaryHistory.setInnovation(0);
+		EvolutionaryHistory.setHighestGenotypeId(0);
+		TWEANNGenotype tg = new TWEANNGenotype(5, 2, 0);
+		MMNEAT.genotype = tg.copy();
+		EvolutionaryHistory.initArchetype(0);
+		population = new ArrayList<Genotype<Object>>();
+		for (int i = 0; i < 3; i++) {
+			TWEANNGenotype mutant = (TWEANNGenotype) tg.copy();
+			for (int j = 0; j < MUTATIONS; j++) {
+				mutant.mutate();
+			}
+			population.add((Genotype) mutant);
+		}
+		population.add((Genotype) new HyperNEATCPPNGenotype(4, 1, 0));
+		population.add((Genotype) new RealValuedGenotype(new double[] { 0.5, -1, 3 }));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	/**
+	 * Encoding of everything wox would save for an object. Unlike the XML
+	 * itself, this does not depend on the capacity of array lists.
+	 */
+	private static String state(Object o) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinarySerializer.write(o, new DataOutputStream(bytes));
+		return Arrays.toString(bytes.toByteArray());
+	}
+
+	private void assertSamePopulation(ArrayList<Genotype<Object>> expected, ArrayList<Genotype<Object>> actual)
+			throws IOException {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+			assertEquals(state(expected.get(i)), state(actual.get(i)));
+		}
+	}
+
+	@Test
+	public void test_saveAndLoad() throws Exception {
+		for (boolean compress : new boolean[] { false, true }) {
+			String file = folder.newFile("pop" + compress + BinaryPopulation.EXTENSION).getPath();
+			BinaryPopulation.save(population, file, compress);
+			assertEquals(population.size(), BinaryPopulation.size(file));
+			ArrayList<Genotype<Object>> loaded = BinaryPopulation.load(file);
+			assertSamePopulation(population, loaded);
+			// Loaded networks still work
+			TWEANNGenotype network = (TWEANNGenotype) (Genotype<?>) loaded.get(0);
+			network.mutate();
+			network.getPhenotype().process(new double[] { 1, 0, 1, 0, 1 });
+		}
+	}
+
+	@Test
+	public void test_loadSingle() throws Exception {
+		String file = folder.newFile("pop" + BinaryPopulation.EXTENSION).getPath();
+		BinaryPopulation.save(population, file, true);
+		for (int i = population.size() - 1; i >= 0; i--) {
+			assertEquals(state(population.get(i)), state(BinaryPopulation.load(file, i)));
+		}
+	}
+
+	@Test
+	public void test_xmlConversion() throws Exception {
+		File xmlDir = folder.newFolder("xml");
+		long xmlBytes = 0;
+		for (int i = 0; i < population.size(); i++) {
+			File xml = new File(xmlDir, "genotype" + i + ".xml");
+			Easy.save(population.get(i), xml.getPath());
+			xmlBytes += xml.length();
+		}
+		String file = folder.newFile("pop" + BinaryPopulation.EXTENSION).getPath();
+		assertEquals(population.size(), BinaryPopulation.fromXML(xmlDir.getPath(), file, true));
+		assertSamePopulation(population, BinaryPopulation.<Object> load(file));
+		assertTrue(new File(file).length() * 10 < xmlBytes);
+
+		String backDir = new File(folder.getRoot(), "back").getPath();
+		assertEquals(population.size(), BinaryPopulation.toXML(file, backDir, "genotype"));
+		for (int i = 0; i < population.size(); i++) {
+			assertEquals(state(population.get(i)), state(Easy.load(backDir + "/genotype" + i + ".xml")));
+		}
+	}
+}
@@ -0,0 +1,482 @@
+package edu.utexas.cs.nn.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import wox.serial.Util;
+
+/**
+ * Compact binary replacement for the wox XML serialization of objects.
+ * Objects are stored exactly as wox stores them: every field that is neither
+ * static nor final is saved, references to the same object are preserved,
+ * and objects are recreated with a no-argument constructor when one exists.
+ * So anything that can be saved with wox.serial.Easy can also be saved
+ * here, and converted back and forth between the two formats.
+ *
+ * Primitive fields are written directly as primitives, so a link or node
+ * gene takes a few dozen bytes instead of the many lines of XML wox needs.
+ * The class name and field names of each class are written only once per
+ * serialized object graph. Fields are matched by name on reading, so fields
+ * added to or removed from a class since saving are simply skipped.
+ */
+public class BinarySerializer {
+
+	// Tags identifying the kind of each reference value
+	private static final byte NULL = 0;
+	private static final byte REFERENCE = 1;
+	private static final byte STRING = 2;
+	private static final byte BOXED = 3;
+	private static final byte PRIMITIVE_ARRAY = 4;
+	private static final byte OBJECT_ARRAY = 5;
+	private static final byte ARRAY_LIST = 6;
+	private static final byte OBJECT = 7;
+	private static final byte ENUM = 8;
+	private static final byte CLASS = 9;
+
+	// Type code of reference fields. Primitives use JVM descriptor codes.
+	private static final char REFERENCE_FIELD = 'L';
+
+	/**
+	 * Serialize an object and everything it refers to.
+	 *
+	 * @param object
+	 *            object to save, or null
+	 * @param out
+	 *            stream to write to
+	 * @throws IOException
+	 *             if the stream cannot be written
+	 */
+	public static void write(Object object, DataOutputStream out) throws IOException {
+		new Writer(out).writeValue(object);
+	}
+
+	/**
+	 * Recreate an object saved by write.
+	 *
+	 * @param in
+	 *            stream positioned at the start of a saved object
+	 * @return the recreated object
+	 * @throws IOException
+	 *             if the stream cannot be read, or refers to classes that do
+	 *             not exist
+	 */
+	public static Object read(DataInputStream in) throws IOException {
+		return new Reader(in, true).readValue();
+	}
+
+	/**
+	 * Deep copy of an object, holding exactly the state that saving the
+	 * object would save, so that the copy can be saved later while the
+	 * original keeps changing. No constructors are run to create the copy,
+	 * so creating it has no side effects such as drawing random numbers or
+	 * genotype ids, but final fields of the copy are not initialized. So the
+	 * copy is only fit to be saved, and not to be used in any other way.
+	 *
+	 * @param <T>
+	 *            type of object
+	 * @param object
+	 *            object to copy
+	 * @return copy for saving
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T snapshot(T object) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			write(object, new DataOutputStream(bytes));
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+			return (T) new Reader(in, false).readValue();
+		} catch (IOException ex) {
+			// Cannot happen with byte arrays unless objects cannot be accessed
+			throw new IllegalStateException("Could not copy " + object, ex);
+		}
+	}
+
+	/**
+	 * Fields of a class that wox would serialize: all non-static, non-final
+	 * fields of the class and its superclasses, most derived class first.
+	 */
+	private static ArrayList<Field> serializedFields(Class<?> c) {
+		ArrayList<Field> fields = new ArrayList<Field>();
+		for (; c != null && c != Object.class; c = c.getSuperclass()) {
+			for (Field f : c.getDeclaredFields()) {
+				int mod = f.getModifiers();
+				if (!Modifier.isStatic(mod) && !Modifier.isFinal(mod)) {
+					f.setAccessible(true);
+					fields.add(f);
+				}
+			}
+		}
+		return fields;
+	}
+
+	/**
+	 * JVM descriptor code of a field type, e.g. 'D' for double, or
+	 * REFERENCE_FIELD for any object type.
+	 */
+	private static char typeCode(Class<?> type) {
+		if (!type.isPrimitive()) {
+			return REFERENCE_FIELD;
+		}
+		// Descriptor of the primitive array type is "[" followed by the code
+		return Array.newInstance(type, 0).getClass().getName().charAt(1);
+	}
+
+	private static class Writer {
+
+		private final DataOutputStream out;
+		private final IdentityHashMap<Object, Integer> handles = new IdentityHashMap<Object, Integer>();
+		private final HashMap<Class<?>, Integer> classes = new HashMap<Class<?>, Integer>();
+		private final HashMap<Class<?>, ArrayList<Field>> layouts = new HashMap<Class<?>, ArrayList<Field>>();
+
+		Writer(DataOutputStream out) {
+			this.out = out;
+		}
+
+		/**
+		 * Index of a class in the class table, which is followed by the
+		 * class name and its field layout the first time the class is used.
+		 */
+		private void writeClass(Class<?> c) throws IOException {
+			Integer index = classes.get(c);
+			if (index != null) {
+				out.writeInt(index);
+				return;
+			}
+			out.writeInt(classes.size());
+			classes.put(c, classes.size());
+			out.writeUTF(c.getName());
+			ArrayList<Field> fields = c.isArray() || c.isEnum() ? new ArrayList<Field>() : serializedFields(c);
+			layouts.put(c, fields);
+			out.writeInt(fields.size());
+			for (Field f : fields) {
+				out.writeUTF(f.getName());
+				out.writeChar(typeCode(f.getType()));
+			}
+		}
+
+		void writeValue(Object o) throws IOException {
+			if (o == null) {
+				out.writeByte(NULL);
+				return;
+			}
+			Integer handle = handles.get(o);
+			if (handle != null) {
+				out.writeByte(REFERENCE);
+				out.writeInt(handle);
+				return;
+			}
+			handles.put(o, handles.size());
+			Class<?> c = o.getClass();
+			if (c == String.class) {
+				out.writeByte(STRING);
+				out.writeUTF((String) o);
+			} else if (isBoxed(c)) {
+				out.writeByte(BOXED);
+				char code = typeCode((Class<?>) unboxedType(c));
+				out.writeChar(code);
+				writePrimitive(code, o);
+			} else if (c.isArray() && c.getComponentType().isPrimitive()) {
+				out.writeByte(PRIMITIVE_ARRAY);
+				char code = typeCode(c.getComponentType());
+				int length = Array.getLength(o);
+				out.writeChar(code);
+				out.writeInt(length);
+				for (int i = 0; i < length; i++) {
+					writePrimitive(code, Array.get(o, i));
+				}
+			} else if (c.isArray()) {
+				out.writeByte(OBJECT_ARRAY);
+				writeClass(c);
+				Object[] array = (Object[]) o;
+				out.writeInt(array.length);
+				for (Object element : array) {
+					writeValue(element);
+				}
+			} else if (c == ArrayList.class) {
+				out.writeByte(ARRAY_LIST);
+				ArrayList<?> list = (ArrayList<?>) o;
+				out.writeInt(list.size());
+				for (Object element : list) {
+					writeValue(element);
+				}
+			} else if (o instanceof Enum) {
+				out.writeByte(ENUM);
+				writeClass(((Enum<?>) o).getDeclaringClass());
+				out.writeUTF(((Enum<?>) o).name());
+			} else if (c == Class.class) {
+				out.writeByte(CLASS);
+				out.writeUTF(((Class<?>) o).getName());
+			} else {
+				out.writeByte(OBJECT);
+				writeClass(c);
+				try {
+					for (Field f : layouts.get(c)) {
+						if (f.getType().isPrimitive()) {
+							writePrimitive(typeCode(f.getType()), f.get(o));
+						} else {
+							writeValue(f.get(o));
+						}
+					}
+				} catch (IllegalAccessException ex) {
+					throw new IOException("Could not access fields of " + c.getName(), ex);
+				}
+			}
+		}
+
+		private void writePrimitive(char code, Object value) throws IOException {
+			switch (code) {
+			case 'Z':
+				out.writeBoolean((Boolean) value);
+				break;
+			case 'B':
+				out.writeByte((Byte) value);
+				break;
+			case 'C':
+				out.writeChar((Character) value);
+				break;
+			case 'S':
+				out.writeShort((Short) value);
+				break;
+			case 'I':
+				out.writeInt((Integer) value);
+				break;
+			case 'J':
+				out.writeLong((Long) value);
+				break;
+			case 'F':
+				out.writeFloat((Float) value);
+				break;
+			case 'D':
+				out.writeDouble((Double) value);
+				break;
+			default:
+				throw new IOException("Unknown primitive type code " + code);
+			}
+		}
+	}
+
+	private static class Reader {
+
+		private final DataInputStream in;
+		// Whether objects are created the way wox creates them
+		private final boolean constructors;
+		private final ArrayList<Object> handles = new ArrayList<Object>();
+		private final ArrayList<Class<?>> classes = new ArrayList<Class<?>>();
+		// For each saved field of each class: its current field, or null if
+		// the class no longer has it
+		private final ArrayList<Field[]> fields = new ArrayList<Field[]>();
+		private final ArrayList<char[]> codes = new ArrayList<char[]>();
+
+		Reader(DataInputStream in, boolean constructors) {
+			this.in = in;
+			this.constructors = constructors;
+		}
+
+		private int readClass() throws IOException {
+			int index = in.readInt();
+			if (index < classes.size()) {
+				return index;
+			}
+			String name = in.readUTF();
+			Class<?> c;
+			try {
+				c = Class.forName(name);
+			} catch (ClassNotFoundException ex) {
+				throw new IOException("Saved class " + name + " does not exist", ex);
+			}
+			int numFields = in.readInt();
+			ArrayList<Field> current = c.isArray() || c.isEnum() ? new ArrayList<Field>() : serializedFields(c);
+			Field[] matched = new Field[numFields];
+			char[] types = new char[numFields];
+			for (int i = 0; i < numFields; i++) {
+				String fieldName = in.readUTF();
+				types[i] = in.readChar();
+				for (int j = 0; j < current.size(); j++) {
+					Field f = current.get(j);
+					if (f.getName().equals(fieldName) && typeCode(f.getType()) == types[i]) {
+						matched[i] = f;
+						// Shadowed fields with the same name match in order
+						current.remove(j);
+						break;
+					}
+				}
+			}
+			classes.add(c);
+			fields.add(matched);
+			codes.add(types);
+			return index;
+		}
+
+		Object readValue() throws IOException {
+			byte tag = in.readByte();
+			switch (tag) {
+			case NULL:
+				return null;
+			case REFERENCE:
+				return handles.get(in.readInt());
+			case STRING:
+				return register(in.readUTF());
+			case BOXED:
+				return register(readPrimitive(in.readChar()));
+			case PRIMITIVE_ARRAY: {
+				char code = in.readChar();
+				int length = in.readInt();
+				Object array = Array.newInstance(primitiveType(code), length);
+				register(array);
+				for (int i = 0; i < length; i++) {
+					Array.set(array, i, readPrimitive(code));
+				}
+				return array;
+			}
+			case OBJECT_ARRAY: {
+				Class<?> c = classes.get(readClass());
+				Object[] array = (Object[]) Array.newInstance(c.getComponentType(), in.readInt());
+				register(array);
+				for (int i = 0; i < array.length; i++) {
+					array[i] = readValue();
+				}
+				return array;
+			}
+			case ARRAY_LIST: {
+				int size = in.readInt();
+				ArrayList<Object> list = new ArrayList<Object>(size);
+				register(list);
+				for (int i = 0; i < size; i++) {
+					list.add(readValue());
+				}
+				return list;
+			}
+			case ENUM: {
+				Class<?> c = classes.get(readClass());
+				return register(enumConstant(c, in.readUTF()));
+			}
+			case CLASS:
+				try {
+					return register(Class.forName(in.readUTF()));
+				} catch (ClassNotFoundException ex) {
+					throw new IOException(ex);
+				}
+			case OBJECT:
+				return readObject(readClass());
+			default:
+				throw new IOException("Corrupt binary data: unknown tag " + tag);
+			}
+		}
+
+		private Object readObject(int classIndex) throws IOException {
+			Class<?> c = classes.get(classIndex);
+			Object o = newInstance(c, constructors);
+			register(o);
+			Field[] matched = fields.get(classIndex);
+			char[] types = codes.get(classIndex);
+			try {
+				for (int i = 0; i < matched.length; i++) {
+					Object value = types[i] == REFERENCE_FIELD ? readValue() : readPrimitive(types[i]);
+					if (matched[i] != null) {
+						matched[i].set(o, value);
+					}
+				}
+			} catch (IllegalAccessException ex) {
+				throw new IOException("Could not set fields of " + c.getName(), ex);
+			}
+			return o;
+		}
+
+		private Object register(Object o) {
+			handles.add(o);
+			return o;
+		}
+
+		private Object readPrimitive(char code) throws IOException {
+			switch (code) {
+			case 'Z':
+				return in.readBoolean();
+			case 'B':
+				return in.readByte();
+			case 'C':
+				return in.readChar();
+			case 'S':
+				return in.readShort();
+			case 'I':
+				return in.readInt();
+			case 'J':
+				return in.readLong();
+			case 'F':
+				return in.readFloat();
+			case 'D':
+				return in.readDouble();
+			default:
+				throw new IOException("Unknown primitive type code " + code);
+			}
+		}
+	}
+
+	private static final Class<?>[] PRIMITIVES = { boolean.class, byte.class, char.class, short.class, int.class,
+			long.class, float.class, double.class };
+	private static final Class<?>[] WRAPPERS = { Boolean.class, Byte.class, Character.class, Short.class,
+			Integer.class, Long.class, Float.class, Double.class };
+
+	private static boolean isBoxed(Class<?> c) {
+		return unboxedType(c) != null;
+	}
+
+	private static Class<?> unboxedType(Class<?> c) {
+		for (int i = 0; i < WRAPPERS.length; i++) {
+			if (WRAPPERS[i] == c) {
+				return PRIMITIVES[i];
+			}
+		}
+		return null;
+	}
+
+	private static Class<?> primitiveType(char code) throws IOException {
+		for (Class<?> p : PRIMITIVES) {
+			if (typeCode(p) == code) {
+				return p;
+			}
+		}
+		throw new IOException("Unknown primitive type code " + code);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Object enumConstant(Class<?> c, String name) {
+		return Enum.valueOf((Class<? extends Enum>) c, name);
+	}
+
+	/**
+	 * Create an object the way wox does: with the no-argument constructor if
+	 * the class has one, and without running any constructor otherwise.
+	 *
+	 * @param constructors
+	 *            false if no constructor should be run, even if there is a
+	 *            no-argument constructor
+	 */
+	private static Object newInstance(Class<?> c, boolean constructors) throws IOException {
+		try {
+			Constructor<?> constructor = null;
+			if (constructors) {
+				try {
+					constructor = c.getDeclaredConstructor();
+				} catch (NoSuchMethodException ex) {
+					// Handled below
+				}
+			}
+			if (constructor == null) {
+				constructor = Util.forceDefaultConstructor(c);
+			}
+			constructor.setAccessible(true);
+			return constructor.newInstance();
+		} catch (Exception ex) {
+			throw new IOException("Could not create instance of " + c.getName(), ex);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package edu.utexas.cs.nn.data;
+
+import java.util.LinkedList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.utexas.cs.nn.util.datastructures.Pair;
+
+/**
+ * Writes checkpoints in a background thread, one at a time and in the order
+ * they were submitted, so that evolution can move on to the next generation
+ * while the previous one is saved. Each checkpoint must only work with data
+ * that evolution will not change, such as snapshots made by
+ * BinarySerializer.snapshot.
+ *
+ * If checkpoints are submitted faster than they can be written, submitting
+ * blocks until the number of unfinished checkpoints falls below a limit, so
+ * that unwritten snapshots cannot pile up in memory.
+ *
+ * Work that must not happen in the background, such as updating the
+ * parameters, can be given as a second step. It runs in the thread that
+ * submits checkpoints, once the checkpoint is written: the next time a
+ * checkpoint is submitted or pending is called, or in finish.
+ */
+public class CheckpointWriter {
+
+	private final ExecutorService writer = Executors.newSingleThreadExecutor();
+	// Checkpoints submitted but not yet known to be finished, oldest first,
+	// each with the step to perform once it is written
+	private final LinkedList<Pair<Future<?>, Runnable>> pending = new LinkedList<Pair<Future<?>, Runnable>>();
+	private final int maxPending;
+
+	/**
+	 * @param maxPending
+	 *            number of unfinished checkpoints allowed before submitting
+	 *            another one blocks
+	 */
+	public CheckpointWriter(int maxPending) {
+		assert maxPending > 0 : "Must allow at least one pending checkpoint";
+		this.maxPending = maxPending;
+	}
+
+	/**
+	 * Write a checkpoint once all previously submitted checkpoints are
+	 * written. Blocks while maxPending checkpoints are unfinished.
+	 *
+	 * @param checkpoint
+	 *            code that writes the checkpoint
+	 */
+	public void submit(Runnable checkpoint) {
+		submit(checkpoint, null);
+	}
+
+	/**
+	 * Write a checkpoint once all previously submitted checkpoints are
+	 * written, and afterward perform a step in the submitting thread. Blocks
+	 * while maxPending checkpoints are unfinished.
+	 *
+	 * @param checkpoint
+	 *            code that writes the checkpoint
+	 * @param written
+	 *            code to run in this thread once the checkpoint is written,
+	 *            or null
+	 */
+	public void submit(Runnable checkpoint, Runnable written) {
+		if (pending() >= maxPending) {
+			System.out.println("Waiting for previous checkpoint to be written");
+			while (pending() >= maxPending) {
+				waitForOldest();
+			}
+		}
+		pending.add(new Pair<Future<?>, Runnable>(writer.submit(checkpoint), written));
+	}
+
+	/**
+	 * @return number of submitted checkpoints that are not finished yet
+	 */
+	public int pending() {
+		while (!pending.isEmpty() && pending.getFirst().t1.isDone()) {
+			waitForOldest();
+		}
+		return pending.size();
+	}
+
+	/**
+	 * Wait for all submitted checkpoints to be written, and stop the
+	 * background thread. No checkpoints can be submitted afterward.
+	 */
+	public void finish() {
+		while (!pending.isEmpty()) {
+			waitForOldest();
+		}
+		writer.shutdown();
+	}
+
+	/**
+	 * Wait for the oldest pending checkpoint, then perform its step for
+	 * after it is written. A checkpoint that failed cannot be recovered
+	 * from, so the failure ends the program.
+	 */
+	private void waitForOldest() {
+		Pair<Future<?>, Runnable> oldest = pending.removeFirst();
+		try {
+			oldest.t1.get();
+		} catch (InterruptedException | ExecutionException ex) {
+			ex.printStackTrace();
+			System.out.println("Failure writing checkpoint");
+			System.exit(1);
+		}
+		if (oldest.t2 != null) {
+			oldest.t2.run();
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package edu.utexas.cs.nn.data;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+public class CheckpointWriterTest {
+
+	/**
+	 * Checkpoints are written in order, and submitting waits when too many
+	 * checkpoints are unfinished
+	 */
+	@Test
+	public void test_orderAndBackPressure() throws Exception {
+		CheckpointWriter writer = new CheckpointWriter(2);
+		final List<Integer> written = Collections.synchronizedList(new ArrayList<Integer>());
+		final CountDownLatch release = new CountDownLatch(1);
+		writer.submit(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+				written.add(0);
+			}
+		});
+		writer.submit(new Runnable() {
+			@Override
+			public void run() {
+				written.add(1);
+			}
+		});
+		assertEquals(2, writer.pending());
+		// Release the first checkpoint only after the next submit has blocked
+		Thread releaser = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+				}
+				release.countDown();
+			}
+		};
+		long start = System.currentTimeMillis();
+		releaser.start();
+		writer.submit(new Runnable() {
+			@Override
+			public void run() {
+				written.add(2);
+			}
+		});
+		assertTrue(System.currentTimeMillis() - start >= 150);
+		assertTrue(writer.pending() <= 2);
+		writer.finish();
+		assertEquals(0, writer.pending());
+		assertEquals(3, written.size());
+		for (int i = 0; i < written.size(); i++) {
+			assertEquals(i, written.get(i).intValue());
+		}
+	}
+
+	/**
+	 * The step after a checkpoint is written runs in the submitting thread,
+	 * after the checkpoint, and in submission order
+	 */
+	@Test
+	public void test_writtenStepInSubmittingThread() throws Exception {
+		CheckpointWriter writer = new CheckpointWriter(1);
+		final Thread submitter = Thread.currentThread();
+		final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+		for (int i = 0; i < 3; i++) {
+			final int gen = i;
+			writer.submit(new Runnable() {
+				@Override
+				public void run() {
+					assertNotSame(submitter, Thread.currentThread());
+					events.add("write" + gen);
+				}
+			}, new Runnable() {
+				@Override
+				public void run() {
+					assertSame(submitter, Thread.currentThread());
+					events.add("written" + gen);
+				}
+			});
+		}
+		writer.finish();
+		assertEquals(6, events.size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals("write" + i, events.get(2 * i));
+			assertEquals("written" + i, events.get(2 * i + 1));
+		}
+	}
+
+	/**
+	 * A snapshot does not change when the original does
+	 */
+	@Test
+	public void test_snapshot() {
+		ArrayList<double[]> original = new ArrayList<double[]>();
+		double[] shared = new double[] { 1, 2 };
+		original.add(shared);
+		original.add(shared);
+		ArrayList<double[]> snapshot = BinarySerializer.snapshot(original);
+		shared[0] = 5;
+		original.add(new double[0]);
+		assertEquals(2, snapshot.size());
+		assertEquals(1, snapshot.get(0)[0], 0.0);
+		assertSame(snapshot.get(0), snapshot.get(1));
+		assertNotSame(shared, snapshot.get(0));
+	}
+}
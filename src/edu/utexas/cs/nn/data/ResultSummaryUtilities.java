@@ -3,7 +3,9 @@ package edu.utexas.cs.nn.data;
 import edu.utexas.cs.nn.log.PerformanceLog;
 import edu.utexas.cs.nn.log.TWEANNLog;
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.nsga2.Hypervolume;
 import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.tasks.EvaluationExecutor;
 import edu.utexas.cs.nn.tasks.GroupTask;
 import edu.utexas.cs.nn.tasks.LonerTask;
 import edu.utexas.cs.nn.tasks.MultiplePopulationTask;
@@ -19,7 +21,9 @@ import java.io.FileOutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Scanner;
-import jmetal.qualityIndicator.Hypervolume;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import jmetal.qualityIndicator.util.MetricsUtil;
 
 /**
  * After several runs of an experiment have been executed, this class can be
@@ -233,8 +237,11 @@ public class ResultSummaryUtilities {
 	}
 
 	/**
-	 * Calls hypervolumesByGeneration for each run, which calls hypervolumeForGeneration for each generation, 
-	 * which will print out the hypervolumes for each generation
+	 * Writes the hypervolume and Pareto front size of each generation of each
+	 * run to a file per run. Runs whose hypervolumes were logged during
+	 * evolution (logHV) are copied from their logs. All other generations of
+	 * all runs are computed in parallel, using the number of threads given by
+	 * the threads parameter.
 	 * @param dirPrefix, directory prefix
 	 * @param runs, number of process runs
 	 * @param filePrefix, file prefix
@@ -245,9 +252,31 @@ public class ResultSummaryUtilities {
 	 */
 	public static void hypervolumesByGenerationForAllRuns(String dirPrefix, int runs, String filePrefix,
 			String fileMiddle, String fileExtension, int generations) throws FileNotFoundException {
+		ArrayList<ArrayList<Pair<Double, Integer>>> hypervolumes = new ArrayList<ArrayList<Pair<Double, Integer>>>(runs);
+		ArrayList<HypervolumeCalculation> calls = new ArrayList<HypervolumeCalculation>();
 		for (int i = 0; i < runs; i++) {
-			hypervolumesByGeneration(dirPrefix, i, filePrefix, fileMiddle, fileExtension, generations,
-					dirPrefix + i + "/" + filePrefix);
+			ArrayList<Pair<Double, Integer>> logged = loggedHypervolumes(dirPrefix, i, filePrefix, fileMiddle, generations);
+			hypervolumes.add(logged);
+			if (logged == null) {
+				for (int g = 0; g < generations; g++) {
+					calls.add(new HypervolumeCalculation(dirPrefix, i, filePrefix, fileMiddle, g, fileExtension));
+				}
+			}
+		}
+		ArrayList<Pair<Double, Integer>> computed = null;
+		try {
+			computed = EvaluationExecutor.evaluateAll(calls, Parameters.parameters.integerParameter("threads"));
+		} catch (InterruptedException | ExecutionException ex) {
+			ex.printStackTrace();
+			System.exit(1);
+		}
+		int next = 0;
+		for (int i = 0; i < runs; i++) {
+			if (hypervolumes.get(i) == null) {
+				hypervolumes.set(i, new ArrayList<Pair<Double, Integer>>(computed.subList(next, next + generations)));
+				next += generations;
+			}
+			writeHypervolumes(hypervolumes.get(i), dirPrefix + i + "/" + filePrefix + i + fileMiddle + "HV.txt");
 		}
 	}
 
@@ -264,16 +293,93 @@ public class ResultSummaryUtilities {
 	 */
 	public static void hypervolumesByGeneration(String dirPrefix, int run, String filePrefix, String fileMiddle,
 			String fileExtension, int generations, String outputPrefix) throws FileNotFoundException {
-		PrintStream out = new PrintStream(new FileOutputStream(outputPrefix + run + fileMiddle + "HV.txt"));
+		ArrayList<Pair<Double, Integer>> hypervolumes = new ArrayList<Pair<Double, Integer>>(generations);
 		for (int i = 0; i < generations; i++) {
-			Pair<Double, Integer> hypervolumeAndFrontSize = hypervolumeForGeneration(dirPrefix, run, filePrefix,
-					fileMiddle, i, fileExtension);
-			// out.println(i + "\t" + hypervolume);
-			out.println(i + "\t" + hypervolumeAndFrontSize.t1 + "\t" + hypervolumeAndFrontSize.t2);
+			hypervolumes.add(hypervolumeForGeneration(dirPrefix, run, filePrefix, fileMiddle, i, fileExtension));
+		}
+		writeHypervolumes(hypervolumes, outputPrefix + run + fileMiddle + "HV.txt");
+	}
+
+	/**
+	 * Write one line per generation: generation, hypervolume, and the size of
+	 * the Pareto front
+	 * @param hypervolumes, hypervolume and front size of each generation
+	 * @param file, name of file to write
+	 * @throws FileNotFoundException
+	 */
+	private static void writeHypervolumes(ArrayList<Pair<Double, Integer>> hypervolumes, String file) throws FileNotFoundException {
+		PrintStream out = new PrintStream(new FileOutputStream(file));
+		for (int i = 0; i < hypervolumes.size(); i++) {
+			out.println(i + "\t" + hypervolumes.get(i).t1 + "\t" + hypervolumes.get(i).t2);
 		}
 		out.close();
 	}
 
+	/**
+	 * Hypervolumes that NSGA2 logged during evolution because of logHV. The
+	 * log is named like the generation files, with HV in place of _gen.
+	 * @param dirPrefix, directory prefix
+	 * @param run, number of the run
+	 * @param filePrefix, file prefix
+	 * @param fileMiddle, middle of the generation file names
+	 * @param generations, number of generations needed
+	 * @return hypervolume and front size of each generation, or null if the
+	 *         log does not exist or does not cover all generations
+	 * @throws FileNotFoundException
+	 */
+	private static ArrayList<Pair<Double, Integer>> loggedHypervolumes(String dirPrefix, int run, String filePrefix,
+			String fileMiddle, int generations) throws FileNotFoundException {
+		File log = new File(dirPrefix + run + "/" + filePrefix + run + fileMiddle.replace("_gen", "HV") + "_log.txt");
+		if (!log.exists()) {
+			return null;
+		}
+		ArrayList<Pair<Double, Integer>> result = new ArrayList<Pair<Double, Integer>>(generations);
+		Scanner file = new Scanner(log);
+		while (result.size() < generations && file.hasNextLine()) {
+			Scanner line = new Scanner(file.nextLine());
+			if (line.nextInt() != result.size()) {
+				break; // Log is out of order, so compute everything instead
+			}
+			result.add(new Pair<Double, Integer>(line.nextDouble(), (int) line.nextDouble()));
+			line.close();
+		}
+		file.close();
+		if (result.size() < generations) {
+			return null;
+		}
+		System.out.println("Hypervolumes of run " + run + " from " + log.getPath());
+		return result;
+	}
+
+	/**
+	 * Calculates the hypervolume of one generation, so that different
+	 * generations and runs can be calculated by different threads
+	 */
+	private static class HypervolumeCalculation implements Callable<Pair<Double, Integer>> {
+
+		private final String dirPrefix;
+		private final int run;
+		private final String filePrefix;
+		private final String fileMiddle;
+		private final int generation;
+		private final String fileExtension;
+
+		public HypervolumeCalculation(String dirPrefix, int run, String filePrefix, String fileMiddle, int generation,
+				String fileExtension) {
+			this.dirPrefix = dirPrefix;
+			this.run = run;
+			this.filePrefix = filePrefix;
+			this.fileMiddle = fileMiddle;
+			this.generation = generation;
+			this.fileExtension = fileExtension;
+		}
+
+		@Override
+		public Pair<Double, Integer> call() {
+			return hypervolumeForGeneration(dirPrefix, run, filePrefix, fileMiddle, generation, fileExtension);
+		}
+	}
+
 	/**
 	 * Actually returns both the hypervolume (as a Double) and the size of the
 	 * Pareto front (the Integer)
@@ -294,10 +400,9 @@ public class ResultSummaryUtilities {
 	 */
 	public static Pair<Double, Integer> hypervolumeForGeneration(String dirPrefix, int run, String filePrefix,
 			String fileMiddle, int generation, String fileExtension) {
-		Hypervolume qualityIndicator = new Hypervolume();
 		// Read the front from the files
 		String file = dirPrefix + run + "/" + filePrefix + run + fileMiddle + generation + "." + fileExtension;
-		double[][] fileData = qualityIndicator.utils_.readFront(file);
+		double[][] fileData = new MetricsUtil().readFront(file);
 		double[][] solutions;
 		// First drop solution number
 		double[][] step1 = dropColumn(fileData, 0);
@@ -316,7 +421,7 @@ public class ResultSummaryUtilities {
 			solutions = dropColumn(solutions, solutions[0].length - 1);
 		}
 
-		// Adjust for possibly negative min scores
+		// Hypervolume is measured from the possibly negative min scores
 		double[] mins = null;
 		if(task instanceof LonerTask || task instanceof CooperativeMsPacManTask) {
 			mins = MMNEAT.task.minScores();
@@ -326,17 +431,7 @@ public class ResultSummaryUtilities {
 			//the cooperativeTorusPredPreyTask minScore override.
 			mins = ((GroupTask) task).minScores();
 		}
-		for (int i = 0; i < solutions.length; i++) {
-			for (int j = 0; j < solutions[0].length; j++) {
-				solutions[i][j] -= mins[j];
-			}
-		}
-
-		int noNondominatedPoints = qualityIndicator.filterNondominatedSet(solutions, solutions.length, solutions[0].length);
-		// Obtain hypervolume
-		double value = qualityIndicator.calculateHypervolume(solutions, solutions.length, solutions[0].length);
-		// return value;
-		return new Pair<Double, Integer>(value, noNondominatedPoints);
+		return Hypervolume.ofFront(solutions, mins, run, generation);
 	}
 
 	/**
@@ -45,6 +45,8 @@ public class EvolutionaryHistory {
 	public static TWEANNLog tweannLog = null;
 	public static MMNEATLog mutationLog = null;
 	public static MMNEATLog lineageLog = null;
+	// Journal of the litter being created by the current thread, if any
+	private static final ThreadLocal<InnovationJournal> journal = new ThreadLocal<InnovationJournal>();
 
 	/**
 	 * Commonly used/shared networks (hierarchical architectures). Raw types are
@@ -114,11 +116,34 @@ public class EvolutionaryHistory {
 	}
 
 	/**
-	 * Returns the next innovation number and increases the counter
+	 * Make the current thread record its changes to the evolutionary history
+	 * in a journal instead of applying them, so that several threads can
+	 * create offspring at once.
+	 *
+	 * @param j
+	 *            journal for this thread, or null to apply changes directly
+	 *            again
+	 */
+	public static void setJournal(InnovationJournal j) {
+		if (j == null) {
+			journal.remove();
+		} else {
+			journal.set(j);
+		}
+	}
+
+	/**
+	 * Returns the next innovation number and increases the counter. A thread
+	 * with a journal gets a provisional number instead.
 	 *
 	 * @return next innovation number
 	 */
 	public static long nextInnovation() {
+		InnovationJournal j = journal.get();
+		return j == null ? allocateInnovation() : j.nextInnovation();
+	}
+
+	private static synchronized long allocateInnovation() {
 		long result = largestUnusedInnovationNumber;
 		largestUnusedInnovationNumber++;
 		Parameters.parameters.setLong("lastInnovation", largestUnusedInnovationNumber);
@@ -126,17 +151,49 @@ public class EvolutionaryHistory {
 	}
 
 	/**
-	 * Returns the next GenotypeID and increases the counter
+	 * Returns the next GenotypeID and increases the counter. A thread with a
+	 * journal gets a provisional id instead.
 	 * 
 	 * @return next Genotype ID
 	 */
 	public static long nextGenotypeId() {
+		InnovationJournal j = journal.get();
+		return j == null ? allocateGenotypeId() : j.nextGenotypeId();
+	}
+
+	private static synchronized long allocateGenotypeId() {
 		long result = largestUnusedGenotypeId;
 		largestUnusedGenotypeId++;
 		Parameters.parameters.setLong("lastGenotypeId", largestUnusedGenotypeId);
 		return result;
 	}
 
+	/**
+	 * Archetype as seen by the current thread: the private view of its
+	 * journal if it has one, and the shared archetype otherwise.
+	 *
+	 * @param populationIndex
+	 *            index of archetype
+	 * @return archetype, or null if there is none
+	 */
+	public static ArrayList<NodeGene> archetype(int populationIndex) {
+		InnovationJournal j = journal.get();
+		if (j != null) {
+			return j.archetype(populationIndex);
+		}
+		return archetypes == null ? null : archetypes[populationIndex];
+	}
+
+	/**
+	 * @param populationIndex
+	 *            index of archetype
+	 * @return number of output nodes in archetype seen by the current thread
+	 */
+	private static int archetypeOut(int populationIndex) {
+		InnovationJournal j = journal.get();
+		return j == null ? archetypeOut[populationIndex] : j.archetypeOut(populationIndex);
+	}
+
 	/**
 	 * Checks for a pre-existing file that is a genotype archetype for all
 	 * genotypes in the population. This file assures that crossover aligns
@@ -255,9 +312,7 @@ public class EvolutionaryHistory {
 	public static void saveArchetype(int populationIndex) {
 		if (archetypes != null && archetypes[populationIndex] != null && CommonConstants.netio) {
 			System.out.println("Saving archetype");
-			String file = FileUtilities.getSaveDirectory() + "/" + "archetype";
-			Parameters.parameters.setString("archetype", file);
-			file += populationIndex + ".xml";
+			String file = archetypeFile(populationIndex);
 			Easy.save(archetypes[populationIndex], file);
 			System.out.println("Done saving " + file);
 			// Could make more explicit using
@@ -267,6 +322,21 @@ public class EvolutionaryHistory {
 		}
 	}
 
+	/**
+	 * Name of the file that an archetype is saved in. The parameter
+	 * "archetype" is set so that the archetype is loaded from this file when
+	 * evolution is resumed.
+	 *
+	 * @param populationIndex
+	 *            index of population the archetype is for
+	 * @return file name
+	 */
+	public static String archetypeFile(int populationIndex) {
+		String file = FileUtilities.getSaveDirectory() + "/" + "archetype";
+		Parameters.parameters.setString("archetype", file);
+		return file + populationIndex + ".xml";
+	}
+
 	/**
 	 * Initializes the mutation and lineage logs of an archetype
 	 */
@@ -309,7 +379,10 @@ public class EvolutionaryHistory {
 	 *            to be added to mutationLog
 	 */
 	public static void logMutationData(String data) {
-		if (mutationLog != null) {
+		InnovationJournal j = journal.get();
+		if (j != null) {
+			j.logMutationData(data);
+		} else if (mutationLog != null) {
 			mutationLog.log(data);
 		}
 	}
@@ -321,7 +394,10 @@ public class EvolutionaryHistory {
 	 *            to be added to lineage log
 	 */
 	public static void logLineageData(String data) {
-		if (lineageLog != null) {
+		InnovationJournal j = journal.get();
+		if (j != null) {
+			j.logLineageData(data);
+		} else if (lineageLog != null) {
 			lineageLog.log(data);
 		}
 	}
@@ -336,9 +412,10 @@ public class EvolutionaryHistory {
 	 * @return the index of the innovation number from the archetypes array
 	 */
 	public static int indexOfArchetypeInnovation(int populationIndex, long sourceInnovation) {
-		if (archetypes[populationIndex] != null) {
-			for (int i = 0; i < archetypes[populationIndex].size(); i++) {
-				if (archetypes[populationIndex].get(i).innovation == sourceInnovation) {
+		ArrayList<NodeGene> archetype = archetype(populationIndex);
+		if (archetype != null) {
+			for (int i = 0; i < archetype.size(); i++) {
+				if (archetype.get(i).innovation == sourceInnovation) {
 					return i;
 				}
 			}
@@ -411,6 +488,11 @@ public class EvolutionaryHistory {
 	 *            debugging purposes only
 	 */
 	public static void archetypeAdd(int populationIndex, NodeGene node, String origin) {
+		InnovationJournal j = journal.get();
+		if (j != null) {
+			j.append(populationIndex, node, origin);
+			return;
+		}
 		// Make sure that the archetype exists, and does not already contain the
 		// innovation number
 		if (archetypes != null && archetypes[populationIndex] != null
@@ -442,7 +524,10 @@ public class EvolutionaryHistory {
 	 *            debugging purposes only
 	 */
 	public static void archetypeAdd(int populationIndex, int pos, NodeGene node, boolean combineCopy, String origin) {
-		if (archetypes != null && archetypes[populationIndex] != null) {
+		InnovationJournal j = journal.get();
+		if (j != null) {
+			j.insert(populationIndex, pos, node, combineCopy, origin);
+		} else if (archetypes != null && archetypes[populationIndex] != null) {
 			// node.origin = origin + " (" + (order++) + ")";
 			// System.out.println("Archetype " + populationIndex + " Add
 			// "+pos+": " + node.innovation + ":" + node);
@@ -454,7 +539,7 @@ public class EvolutionaryHistory {
 			}
 		}
 		assert orderedArchetype(populationIndex) : "Archetype " + populationIndex
-				+ " did not exhibit proper node order after node addition: " + archetypes[populationIndex];
+				+ " did not exhibit proper node order after node addition: " + archetype(populationIndex);
 	}
 
 	/**
@@ -514,10 +599,10 @@ public class EvolutionaryHistory {
 	 * @return index of first output node in archetype
 	 */
 	public static int firstArchetypeOutputIndex(int archetypeIndex) {
-		int result = archetypeSize(archetypeIndex) - archetypeOut[archetypeIndex];
-		assert archetypes[archetypeIndex]
+		int result = archetypeSize(archetypeIndex) - archetypeOut(archetypeIndex);
+		assert archetype(archetypeIndex)
 				.get(result).ntype == TWEANN.Node.NTYPE_OUTPUT : "First output is not an output! pos " + result + " in "
-						+ archetypes[archetypeIndex];
+						+ archetype(archetypeIndex);
 		return result;
 		/**
 		 * code for testing purposes
@@ -551,7 +636,8 @@ public class EvolutionaryHistory {
 	 * @return size of archetype
 	 */
 	public static int archetypeSize(int populationIndex) {
-		return archetypes[populationIndex] == null ? 0 : archetypes[populationIndex].size();
+		ArrayList<NodeGene> archetype = archetype(populationIndex);
+		return archetype == null ? 0 : archetype.size();
 	}
 
 	/**
@@ -591,8 +677,9 @@ public class EvolutionaryHistory {
 	 */
 	private static boolean orderedArchetype(int populationIndex) {
 		int sectionType = TWEANN.Node.NTYPE_INPUT;
-		for (int i = 0; i < archetypes[populationIndex].size(); i++) {
-			NodeGene node = archetypes[populationIndex].get(i);
+		ArrayList<NodeGene> archetype = archetype(populationIndex);
+		for (int i = 0; i < archetype.size(); i++) {
+			NodeGene node = archetype.get(i);
 			if (node.ntype != sectionType) {
 				switch (sectionType) {
 				case TWEANN.Node.NTYPE_INPUT:
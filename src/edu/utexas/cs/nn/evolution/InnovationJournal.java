@@ -0,0 +1,247 @@
+package edu.utexas.cs.nn.evolution;
+
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype.LinkGene;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype.NodeGene;
+import edu.utexas.cs.nn.networks.TWEANN;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Everything that creating one litter of offspring would change in
+ * EvolutionaryHistory, recorded instead of applied, so that litters can be
+ * created by different threads at the same time. While a journal is set for
+ * a thread, EvolutionaryHistory gives that thread provisional innovation
+ * numbers and genotype ids, a private view of each archetype, and buffers
+ * its log entries.
+ *
+ * Once all litters are done, commit is called for each journal in the order
+ * of the litters. This assigns real innovation numbers in the order they were
+ * requested, inserts new archetype nodes next to the same neighbors they had
+ * in the private view, and writes the logs. The result therefore only
+ * depends on the order of the litters, and not on which threads created
+ * them or when.
+ */
+public class InnovationJournal {
+
+	/**
+	 * Provisional innovation numbers and genotype ids start here, far above
+	 * any number that the counters of EvolutionaryHistory will reach.
+	 */
+	public static final long PROVISIONAL = 1L << 62;
+
+	/**
+	 * Node added to an archetype: appended to the end if absent, or inserted
+	 * after the node that preceded it in the private view
+	 */
+	private static class Addition {
+		final int populationIndex;
+		final NodeGene node;
+		final boolean append;
+		// Innovation of the node before the insertion point, or null if the
+		// node was inserted at the very start
+		final Long previous;
+		final boolean combineCopy;
+		final String origin;
+
+		Addition(int populationIndex, NodeGene node, boolean append, Long previous, boolean combineCopy, String origin) {
+			this.populationIndex = populationIndex;
+			this.node = node;
+			this.append = append;
+			this.previous = previous;
+			this.combineCopy = combineCopy;
+			this.origin = origin;
+		}
+	}
+
+	private long innovations = 0;
+	private long genotypeIds = 0;
+	// Copies of the shared archetypes, made when first needed, plus the nodes
+	// added by this journal
+	private final HashMap<Integer, ArrayList<NodeGene>> archetypes = new HashMap<Integer, ArrayList<NodeGene>>();
+	private final HashMap<Integer, Integer> archetypeOut = new HashMap<Integer, Integer>();
+	private final ArrayList<Addition> additions = new ArrayList<Addition>();
+	private final ArrayList<String> mutationLog = new ArrayList<String>();
+	private final ArrayList<String> lineageLog = new ArrayList<String>();
+
+	/**
+	 * @return provisional innovation number, unique within this journal
+	 */
+	public long nextInnovation() {
+		return PROVISIONAL + innovations++;
+	}
+
+	/**
+	 * Genotypes created while breeding a litter are only temporary: the
+	 * offspring themselves are copies made before breeding starts. Their ids
+	 * are never committed.
+	 *
+	 * @return provisional genotype id, unique within this journal
+	 */
+	public long nextGenotypeId() {
+		return PROVISIONAL + genotypeIds++;
+	}
+
+	/**
+	 * Private view of an archetype, copied from the shared archetype when it
+	 * is first needed
+	 *
+	 * @param populationIndex
+	 *            index of archetype
+	 * @return archetype seen by this journal, or null if there is none
+	 */
+	public ArrayList<NodeGene> archetype(int populationIndex) {
+		ArrayList<NodeGene> view = archetypes.get(populationIndex);
+		if (view == null) {
+			if (EvolutionaryHistory.archetypes == null || EvolutionaryHistory.archetypes[populationIndex] == null) {
+				return null;
+			}
+			view = new ArrayList<NodeGene>(EvolutionaryHistory.archetypes[populationIndex]);
+			archetypes.put(populationIndex, view);
+			archetypeOut.put(populationIndex, EvolutionaryHistory.archetypeOut[populationIndex]);
+		}
+		return view;
+	}
+
+	/**
+	 * @param populationIndex
+	 *            index of archetype
+	 * @return number of output nodes in the private view of the archetype
+	 */
+	public int archetypeOut(int populationIndex) {
+		archetype(populationIndex);
+		Integer out = archetypeOut.get(populationIndex);
+		return out == null ? 0 : out;
+	}
+
+	/**
+	 * Append node to the end of the private view if it is not there yet, and
+	 * record the addition
+	 *
+	 * @param populationIndex
+	 *            index of archetype
+	 * @param node
+	 *            node to add
+	 * @param origin
+	 *            where the node came from, for debugging
+	 */
+	public void append(int populationIndex, NodeGene node, String origin) {
+		ArrayList<NodeGene> view = archetype(populationIndex);
+		if (view != null && indexOf(view, node.innovation) == -1) {
+			view.add(node);
+			if (node.ntype == TWEANN.Node.NTYPE_OUTPUT) {
+				archetypeOut.put(populationIndex, archetypeOut.get(populationIndex) + 1);
+			}
+			additions.add(new Addition(populationIndex, node, true, null, false, origin));
+		}
+	}
+
+	/**
+	 * Insert node into the private view at the given position, and record
+	 * which node precedes it
+	 *
+	 * @param populationIndex
+	 *            index of archetype
+	 * @param pos
+	 *            position in the private view
+	 * @param node
+	 *            node to add
+	 * @param combineCopy
+	 *            whether combining crossover information is tracked for it
+	 * @param origin
+	 *            where the node came from, for debugging
+	 */
+	public void insert(int populationIndex, int pos, NodeGene node, boolean combineCopy, String origin) {
+		ArrayList<NodeGene> view = archetype(populationIndex);
+		if (view != null) {
+			Long previous = pos == 0 ? null : view.get(pos - 1).innovation;
+			view.add(pos, node);
+			additions.add(new Addition(populationIndex, node, false, previous, combineCopy, origin));
+		}
+	}
+
+	/**
+	 * @param data
+	 *            line for the mutation log
+	 */
+	public void logMutationData(String data) {
+		mutationLog.add(data);
+	}
+
+	/**
+	 * @param data
+	 *            line for the lineage log
+	 */
+	public void logLineageData(String data) {
+		lineageLog.add(data);
+	}
+
+	/**
+	 * Apply everything recorded to EvolutionaryHistory, and give the
+	 * offspring their real innovation numbers. Must be called without a
+	 * journal set for the current thread, once per journal, in litter order.
+	 *
+	 * @param <T>
+	 *            phenotype
+	 * @param offspring
+	 *            offspring of the litter
+	 */
+	public <T> void commit(List<Genotype<T>> offspring) {
+		long[] real = new long[(int) innovations];
+		for (int i = 0; i < real.length; i++) {
+			real[i] = EvolutionaryHistory.nextInnovation();
+		}
+		for (Genotype<T> g : offspring) {
+			if (g.getId() >= PROVISIONAL) {
+				throw new IllegalStateException("Offspring must be created before breeding: " + g.getId());
+			}
+			if (g instanceof TWEANNGenotype) {
+				TWEANNGenotype tg = (TWEANNGenotype) g;
+				for (NodeGene ng : tg.nodes) {
+					ng.innovation = renumber(ng.innovation, real);
+				}
+				for (LinkGene lg : tg.links) {
+					lg.innovation = renumber(lg.innovation, real);
+					lg.sourceInnovation = renumber(lg.sourceInnovation, real);
+					lg.targetInnovation = renumber(lg.targetInnovation, real);
+				}
+				tg.nodesChanged();
+				tg.linksChanged();
+			} else if (real.length > 0) {
+				throw new IllegalStateException("Cannot assign innovation numbers to " + g.getClass().getSimpleName());
+			}
+		}
+		for (Addition a : additions) {
+			a.node.innovation = renumber(a.node.innovation, real);
+			if (a.append) {
+				EvolutionaryHistory.archetypeAdd(a.populationIndex, a.node, a.origin);
+			} else {
+				int pos = a.previous == null ? 0
+						: EvolutionaryHistory.indexOfArchetypeInnovation(a.populationIndex, renumber(a.previous, real)) + 1;
+				EvolutionaryHistory.archetypeAdd(a.populationIndex, pos, a.node, a.combineCopy, a.origin);
+			}
+		}
+		for (String data : mutationLog) {
+			EvolutionaryHistory.logMutationData(data);
+		}
+		for (String data : lineageLog) {
+			EvolutionaryHistory.logLineageData(data);
+		}
+	}
+
+	private static long renumber(long innovation, long[] real) {
+		return innovation >= PROVISIONAL ? real[(int) (innovation - PROVISIONAL)] : innovation;
+	}
+
+	private static int indexOf(ArrayList<NodeGene> archetype, long innovation) {
+		for (int i = 0; i < archetype.size(); i++) {
+			if (archetype.get(i).innovation == innovation) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
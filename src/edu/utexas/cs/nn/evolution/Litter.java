@@ -0,0 +1,203 @@
+package edu.utexas.cs.nn.evolution;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.crossover.network.CombiningTWEANNCrossover;
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
+import edu.utexas.cs.nn.evolution.genotypes.NumericArrayGenotype;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
+import edu.utexas.cs.nn.parameters.CommonConstants;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.tasks.EvaluationExecutor;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+import edu.utexas.cs.nn.util.random.SplitMixRandom;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Offspring resulting from one selection event: a copy of a selected parent,
+ * and possibly a copy of a second parent that it is crossed with. Parents are
+ * selected and copied when the litter is created, which is cheap. Breeding,
+ * meaning the crossover and mutation that turn the copies into offspring, is
+ * where the time goes, and can be done for many litters at once by breedAll.
+ *
+ * @param <T>
+ *            phenotype
+ */
+public class Litter<T> {
+
+	private final Genotype<T> first;
+	private final long parentId1;
+	// Generation set in first before it is mutated, or -1 to leave it
+	private final int generation;
+	// Whether crossover and mutation happen at all
+	private final boolean change;
+	private Genotype<T> second = null;
+	private long parentId2 = -1;
+	// Whether second is already an offspring of crossover with first
+	private boolean crossed = false;
+	// Whether the offspring of second is kept
+	private boolean keepSecond = false;
+
+	/**
+	 * Litter with one selected parent
+	 *
+	 * @param first
+	 *            copy of the parent, which will become an offspring
+	 * @param parentId1
+	 *            id of the parent
+	 * @param generation
+	 *            generation given to first before mutation, or -1 to leave
+	 *            it unchanged
+	 * @param change
+	 *            if false, the copy is an offspring without any crossover or
+	 *            mutation
+	 */
+	public Litter(Genotype<T> first, long parentId1, int generation, boolean change) {
+		this.first = first;
+		this.parentId1 = parentId1;
+		this.generation = generation;
+		this.change = change;
+	}
+
+	/**
+	 * Add a second parent to cross with the first
+	 *
+	 * @param second
+	 *            copy of the second parent, or an offspring it already
+	 *            produced with first
+	 * @param parentId2
+	 *            id of the second parent
+	 * @param crossed
+	 *            true if crossover already happened
+	 * @param keepSecond
+	 *            whether the offspring of second is kept, or only the
+	 *            offspring of first
+	 */
+	public void mate(Genotype<T> second, long parentId2, boolean crossed, boolean keepSecond) {
+		this.second = second;
+		this.parentId2 = parentId2;
+		this.crossed = crossed;
+		this.keepSecond = keepSecond;
+	}
+
+	/**
+	 * @return number of offspring the litter produces
+	 */
+	public int size() {
+		return second != null && keepSecond ? 2 : 1;
+	}
+
+	/**
+	 * Cross and mutate the copies of the parents, and log the lineage of the
+	 * offspring
+	 *
+	 * @return offspring: the offspring of second if it is kept, then the
+	 *         offspring of first
+	 */
+	public ArrayList<Genotype<T>> breed() {
+		ArrayList<Genotype<T>> offspring = new ArrayList<Genotype<T>>(2);
+		if (second != null) {
+			Genotype<T> otherOffspring = crossed ? second : first.crossover(second);
+			if (keepSecond) {
+				otherOffspring.mutate();
+				offspring.add(otherOffspring);
+				EvolutionaryHistory.logLineageData(parentId1 + " X " + parentId2 + " -> " + otherOffspring.getId());
+			}
+		}
+		if (change) {
+			if (generation >= 0) {
+				// for phased search
+				first.setGeneration(generation);
+			}
+			first.mutate();
+		}
+		offspring.add(first);
+		if (second == null) {
+			EvolutionaryHistory.logLineageData(parentId1 + " -> " + first.getId());
+		} else {
+			EvolutionaryHistory.logLineageData(parentId1 + " X " + parentId2 + " -> " + first.getId());
+		}
+		return offspring;
+	}
+
+	/**
+	 * Whether offspring of parents like the given one can be bred in
+	 * parallel. Requires the parallelOffspring parameter, and genotypes whose
+	 * breeding only changes the evolutionary history through innovation
+	 * numbers and archetype nodes.
+	 *
+	 * @param example
+	 *            any one of the parents
+	 * @return true if breedAll should be used
+	 */
+	public static boolean canBreedInParallel(Genotype<?> example) {
+		return Parameters.parameters.booleanParameter("parallelOffspring") && !CommonConstants.cullCrossovers
+				&& !CommonConstants.trackCombiningCrossover
+				&& !(MMNEAT.crossoverOperator instanceof CombiningTWEANNCrossover)
+				&& (example instanceof TWEANNGenotype || example instanceof NumericArrayGenotype);
+	}
+
+	/**
+	 * Breed all litters in parallel. Each litter draws random numbers from its
+	 * own stream, derived from one draw of the shared generator and the
+	 * position of the litter, and records its changes to the evolutionary
+	 * history in its own journal. The journals are then committed in order,
+	 * so the offspring, innovation numbers, archetype and logs are the same
+	 * no matter how many threads are used.
+	 *
+	 * @param <T>
+	 *            phenotype
+	 * @param litters
+	 *            litters to breed
+	 * @return offspring of all litters, in order
+	 */
+	public static <T> ArrayList<Genotype<T>> breedAll(ArrayList<Litter<T>> litters) {
+		long seed = RandomNumbers.generator().nextLong();
+		ArrayList<BreedingThread<T>> calls = new ArrayList<BreedingThread<T>>(litters.size());
+		for (int i = 0; i < litters.size(); i++) {
+			calls.add(new BreedingThread<T>(litters.get(i), new SplitMixRandom(SplitMixRandom.derive(seed, i))));
+		}
+		ArrayList<ArrayList<Genotype<T>>> results = null;
+		try {
+			results = EvaluationExecutor.evaluateAll(calls, Parameters.parameters.integerParameter("threads"));
+		} catch (InterruptedException | ExecutionException ex) {
+			ex.printStackTrace();
+			System.exit(1);
+		}
+		ArrayList<Genotype<T>> offspring = new ArrayList<Genotype<T>>();
+		for (int i = 0; i < calls.size(); i++) {
+			calls.get(i).journal.commit(results.get(i));
+			offspring.addAll(results.get(i));
+		}
+		return offspring;
+	}
+
+	/**
+	 * Breeds one litter with its own random stream and journal
+	 */
+	private static class BreedingThread<T> implements Callable<ArrayList<Genotype<T>>> {
+
+		private final Litter<T> litter;
+		private final SplitMixRandom random;
+		private final InnovationJournal journal = new InnovationJournal();
+
+		public BreedingThread(Litter<T> litter, SplitMixRandom random) {
+			this.litter = litter;
+			this.random = random;
+		}
+
+		@Override
+		public ArrayList<Genotype<T>> call() {
+			RandomNumbers.setThreadGenerator(random);
+			EvolutionaryHistory.setJournal(journal);
+			try {
+				return litter.breed();
+			} finally {
+				EvolutionaryHistory.setJournal(null);
+				RandomNumbers.setThreadGenerator(null);
+			}
+		}
+	}
+}
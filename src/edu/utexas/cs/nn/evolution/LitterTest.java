@@ -0,0 +1,93 @@
+package edu.utexas.cs.nn.evolution;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Test;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.scores.ObjectiveBasedSelector;
+import edu.utexas.cs.nn.scores.Score;
+import edu.utexas.cs.nn.util.PopulationUtil;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+
+/**
+ * Offspring bred in parallel must not depend on the number of threads
+ */
+public class LitterTest {
+
+	private static final int POPULATION = 20;
+	private static final int MUTATIONS = 20;
+
+	@SuppressWarnings("rawtypes")
+	private ArrayList<Genotype> children;
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	/**
+	 * Breed one generation of TWEANN offspring with the given number of
+	 * threads, starting from the same seed and evolutionary history
+	 *
+	 * @param threads
+	 *            number of threads
+	 * @return offspring, followed by the archetype and next innovation number
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private String breed(int threads) {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "randomSeed:0", "mating:true",
+				"crossoverRate:0.5", "parallelOffspring:true", "threads:" + threads, "mmdRate:0.1", "netLinkRate:0.4",
+				"netSpliceRate:0.4" });
+		MMNEAT.loadClasses();
+		RandomNumbers.reset(0);
+		EvolutionaryHistory.setInnovation(0);
+		EvolutionaryHistory.setHighestGenotypeId(0);
+		TWEANNGenotype start = new TWEANNGenotype(5, 3, 0);
+		MMNEAT.genotype = start.copy();
+		EvolutionaryHistory.initArchetype(0);
+		ArrayList<Score> parents = new ArrayList<Score>();
+		for (int i = 0; i < POPULATION; i++) {
+			TWEANNGenotype g = (TWEANNGenotype) start.copy();
+			for (int j = 0; j < MUTATIONS; j++) {
+				g.mutate();
+			}
+			parents.add(new Score(g, new double[] { RandomNumbers.generator().nextDouble() }, null));
+		}
+		assertTrue(Litter.canBreedInParallel(parents.get(0).individual));
+		children = PopulationUtil.childrenFromTournamentSelection(POPULATION, parents,
+				new ObjectiveBasedSelector(0), true, 0.5);
+		assertEquals(POPULATION, children.size());
+		return children + "\n" + EvolutionaryHistory.archetypes[0] + "\n" + EvolutionaryHistory.largestUnusedInnovationNumber;
+	}
+
+	@Test
+	public void test_sameOffspringForAnyThreads() {
+		String sequential = breed(1);
+		assertEquals(sequential, breed(4));
+		assertEquals(sequential, breed(1));
+	}
+
+	@Test
+	public void test_offspringFitArchetype() {
+		breed(4);
+		// Nodes of every offspring must appear in the same order in the
+		// archetype
+		for (Genotype<?> g : children) {
+			int pos = 0;
+			for (TWEANNGenotype.NodeGene node : ((TWEANNGenotype) g).nodes) {
+				while (pos < EvolutionaryHistory.archetypes[0].size()
+						&& EvolutionaryHistory.archetypes[0].get(pos).innovation != node.innovation) {
+					pos++;
+				}
+				assertTrue("Node " + node.innovation + " out of order", pos < EvolutionaryHistory.archetypes[0].size());
+			}
+		}
+	}
+}
@@ -408,6 +408,8 @@ public class CombiningTWEANNCrossover extends TWEANNCrossover {
 		// The network to modify has the combined1 network
 		tToModify.nodes = combinedNodes;
 		tToModify.links = combinedLinks;
+		tToModify.nodesChanged();
+		tToModify.linksChanged();
 		tToModify.standardMultitask = multitask;
 		tToModify.calculateNumModules();
 
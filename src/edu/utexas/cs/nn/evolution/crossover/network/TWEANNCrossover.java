@@ -14,8 +14,10 @@ import edu.utexas.cs.nn.evolution.mutation.tweann.MeltThenFreezePreferenceMutati
 import edu.utexas.cs.nn.networks.TWEANN;
 import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.util.datastructures.LongIntHashMap;
 import edu.utexas.cs.nn.util.datastructures.Pair;
 import edu.utexas.cs.nn.util.random.RandomNumbers;
+import edu.utexas.cs.nn.util.random.SplitMixRandom;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -29,7 +31,6 @@ import java.util.Arrays;
 public class TWEANNCrossover extends Crossover<TWEANN> {
 	// this is the rate at which disjoint/excess nodes are included in children of crossover
 	private final double includeExcessRate;
-	private boolean includeExcess = false;
 
 	/**
 	 * Default constructor for a TWEANN crossover. Calls on another constructor
@@ -66,28 +67,28 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 	 */
         @Override
 	public Genotype<TWEANN> crossover(Genotype<TWEANN> toModify, Genotype<TWEANN> toReturn) {
-		includeExcess = RandomNumbers.randomGenerator.nextFloat() < includeExcessRate;
+		// Local rather than a field, since one crossover operator is shared
+		// by all threads creating offspring
+		boolean includeExcess = RandomNumbers.generator().nextFloat() < includeExcessRate;
 
 		TWEANNGenotype tr = (TWEANNGenotype) toReturn;
 		TWEANNGenotype tm = (TWEANNGenotype) toModify;
 
 		// Align and cross nodes. Nodes are aligned to archetype
-		ArrayList<ArrayList<NodeGene>> alignedNodes = new ArrayList<ArrayList<NodeGene>>(2);
-		// makes sure to add and adjust nodes so archetypes of both parents match
-		alignedNodes.add(alignNodesToArchetype(tm.nodes, tr.archetypeIndex));
-		// makes sure to check the number of nodes match the archetype of the network
-		alignedNodes.add(alignNodesToArchetype(tr.nodes, tr.archetypeIndex));
-		// crosses nodes// crosses nodes
-		ArrayList<ArrayList<NodeGene>> crossedNodes = cross(alignedNodes.get(0), alignedNodes.get(1));
+		ArrayList<ArrayList<NodeGene>> alignedNodes = alignNodesToArchetype(tm.nodes, tr.nodes, tr.archetypeIndex);
+		// crosses nodes
+		ArrayList<ArrayList<NodeGene>> crossedNodes = cross(alignedNodes.get(0), alignedNodes.get(1), includeExcess);
 		// Align and cross links. Links are aligned based on innovation order
 		// aligns links to faciliate crossover
 		ArrayList<ArrayList<LinkGene>> alignedLinks = alignLinkGenes(((TWEANNGenotype) toModify).links, tr.links);
-		ArrayList<ArrayList<LinkGene>> crossedLinks = cross(alignedLinks.get(0), alignedLinks.get(1));// crosses links
+		ArrayList<ArrayList<LinkGene>> crossedLinks = cross(alignedLinks.get(0), alignedLinks.get(1), includeExcess);// crosses links
 
 		// Assign new lists
 		int[] originalAssociations = Arrays.copyOf(tm.moduleAssociations, tm.moduleAssociations.length);
 		tm.nodes = crossedNodes.get(0);
 		tm.links = crossedLinks.get(0);
+		tm.nodesChanged();
+		tm.linksChanged();
 		tm.calculateNumModules(); // Needed because excess crossover can result in unknown number of modes
 		if (CommonConstants.hierarchicalMultitask) {
 			tm.crossModuleAssociations(originalAssociations, tr.moduleAssociations);
@@ -98,6 +99,8 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
                 // This seems to avoid a memory leak ... hopefully it doesn't cause any problems.
                 tr.nodes = crossedNodes.get(1);
                 tr.links = crossedLinks.get(1);              
+                tr.nodesChanged();
+                tr.linksChanged();
                 tr.calculateNumModules(); // Needed because excess crossover can result in unknown number of modes
 		if (CommonConstants.hierarchicalMultitask) {
 			tr.crossModuleAssociations(tr.moduleAssociations, originalAssociations);
@@ -150,11 +153,13 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 	 *            One list of parent Genes
 	 * @param right
 	 *            Other list of parent Genes
+	 * @param includeExcess
+	 *            whether disjoint/excess genes go to both offspring
 	 * @return ArrayList containing both lists of offspring Genes (with no
 	 *         nulls)
 	 */
 	@SuppressWarnings("unchecked")
-	public <G extends Gene> ArrayList<ArrayList<G>> cross(ArrayList<G> left, ArrayList<G> right) {
+	public <G extends Gene> ArrayList<ArrayList<G>> cross(ArrayList<G> left, ArrayList<G> right, boolean includeExcess) {
 		assert(left.size() == right.size()) : "Can't cross lists of different size!\n" + left.size() + ":" + left + "\n" + right.size() + ":" + right;
 
 		ArrayList<G> crossedLeft = new ArrayList<G>(left.size());
@@ -208,7 +213,7 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 	 *            partially finished list of genes for offspring 2
 	 */
 	public <G extends Gene> void crossIndex(G leftGene, G rightGene, ArrayList<G> crossedLeft, ArrayList<G> crossedRight) {
-		boolean swap = RandomNumbers.randomGenerator.nextBoolean();
+		boolean swap = RandomNumbers.generator().nextBoolean();
 		if (swap) {
 			Pair<G, G> p = swap(leftGene, rightGene);
 			leftGene = p.t1;
@@ -219,53 +224,55 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 	}
 
 	/**
-	 * Takes a list of NodeGenes and inserts nulls (in a different returned
-	 * list) in order to align the list to the archetype list of nodes, which
-	 * tracks the universal ordering of nodes across all networks.
+	 * Aligns the NodeGenes of both parents to the archetype list of nodes,
+	 * which tracks the universal ordering of nodes across all networks. Both
+	 * parents are aligned in the same pass over the archetype. Archetype
+	 * nodes that neither parent has are left out, since crossing them would
+	 * not do anything.
 	 *
-	 * @param list
-	 *            = list of node genes to be aligned
-	 * @return aligned list with nulls in the slots that don't match with
-	 *         archetype.
+	 * @param left
+	 *            = node genes of one parent
+	 * @param right
+	 *            = node genes of the other parent
+	 * @param archetypeIndex
+	 *            = archetype both parents are aligned to
+	 * @return ArrayList of two lists: the aligned node genes of each parent,
+	 *         with nulls in slots where only the other parent has a node
 	 */
-	private static ArrayList<NodeGene> alignNodesToArchetype(ArrayList<NodeGene> list, int archetypeIndex) {
-		ArrayList<NodeGene> archetype = EvolutionaryHistory.archetypes[archetypeIndex];
-		ArrayList<NodeGene> aligned = new ArrayList<NodeGene>(archetype.size());
+	private static ArrayList<ArrayList<NodeGene>> alignNodesToArchetype(ArrayList<NodeGene> left, ArrayList<NodeGene> right, int archetypeIndex) {
+		ArrayList<NodeGene> archetype = EvolutionaryHistory.archetype(archetypeIndex);
+		int maxSize = Math.min(left.size() + right.size(), archetype.size());
+		ArrayList<NodeGene> alignedLeft = new ArrayList<NodeGene>(maxSize);
+		ArrayList<NodeGene> alignedRight = new ArrayList<NodeGene>(maxSize);
 
-		// Deal with matching and disjoint genes
-		int listPos = 0, archetypePos = 0;
-		while (listPos < list.size() && archetypePos < archetype.size()) {
-			long leftInnovation = list.get(listPos).innovation;
-			long rightInnovation = archetype.get(archetypePos).innovation;
-			if (leftInnovation == rightInnovation) {
-				aligned.add(list.get(listPos++));
-				archetypePos++;
-			} else {// checks if misaligned
-				assert (containsInnovationAt(archetype, leftInnovation) != null) :
-					"archetypeIndex: " + archetypeIndex + "\n" +
-					"How can archetype not have innovation? " + leftInnovation + "\n" +
-					"Archetype:" + archetype + "\n" +
-					"List:" + list;
-				assert (containsInnovationAt(archetype, leftInnovation) > archetypePos) :
-					"Mappings:" + CombiningTWEANNCrossover.oldToNew + "\n" +
-					"archetypeIndex: " + archetypeIndex + "\n" +
-					"Already passed the innovation! " + leftInnovation + "\n" +
-					"Archetype:" + archetype + "\n" +
-					"List:" + list;
-					//printNodeAlignmentColumns(list, archetypeIndex);
-				// Fill with blanks until gene is reached
-				aligned.add(null);
-				// Corresponding archetype gene is somewhere ahead
-				archetypePos++;
+		int leftPos = 0, rightPos = 0, archetypePos = 0;
+		while ((leftPos < left.size() || rightPos < right.size()) && archetypePos < archetype.size()) {
+			long innovation = archetype.get(archetypePos++).innovation;
+			NodeGene leftGene = leftPos < left.size() && left.get(leftPos).innovation == innovation ? left.get(leftPos++) : null;
+			NodeGene rightGene = rightPos < right.size() && right.get(rightPos).innovation == innovation ? right.get(rightPos++) : null;
+			if (leftGene != null || rightGene != null) {
+				alignedLeft.add(leftGene);
+				alignedRight.add(rightGene);
 			}
 		}
+		// Every node must have been matched, in archetype order
+		assert (leftPos == left.size()) : 
+			"archetypeIndex: " + archetypeIndex + "\n" +
+			"Archetype lacks or already passed innovation " + left.get(leftPos).innovation + "\n" +
+			"Mappings:" + CombiningTWEANNCrossover.oldToNew + "\n" +
+			"Archetype:" + archetype + "\n" +
+			"List:" + left;
+		assert (rightPos == right.size()) : 
+			"archetypeIndex: " + archetypeIndex + "\n" +
+			"Archetype lacks or already passed innovation " + right.get(rightPos).innovation + "\n" +
+			"Mappings:" + CombiningTWEANNCrossover.oldToNew + "\n" +
+			"Archetype:" + archetype + "\n" +
+			"List:" + right;
 
-		// adds nulls to fill out archetype so both matches
-		while (archetypePos < archetype.size()) {
-			aligned.add(null);
-			archetypePos++;
-		}
-		return aligned;
+		ArrayList<ArrayList<NodeGene>> pair = new ArrayList<ArrayList<NodeGene>>(2);
+		pair.add(alignedLeft);
+		pair.add(alignedRight);
+		return pair;
 	}
 
 	/**
@@ -279,7 +286,7 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 	 *            generation from the evolutionary history
 	 */
 	public static void printNodeAlignmentColumns(ArrayList<NodeGene> list, int archetypeIndex) {
-		ArrayList<NodeGene> archetype = EvolutionaryHistory.archetypes[archetypeIndex];
+		ArrayList<NodeGene> archetype = EvolutionaryHistory.archetype(archetypeIndex);
 		// Deal with matching and disjoint genes
 		int listPos = 0, archetypePos = 0;
 		while (listPos < list.size() && archetypePos < archetype.size()) {
@@ -339,7 +346,9 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 	/**
 	 * Aligns link genes by innovation numbers. Easier to do in the LinkGene
 	 * case because no ordering is required for correct network execution.
-	 * Therefore, links are simply sorted by their innovation numbers.
+	 * Therefore, links are simply sorted by their innovation numbers, and
+	 * hashed by innovation so that the presence of a gene in the other
+	 * parent is checked in constant time.
 	 *
 	 * @param left
 	 *            = list of parent link genes
@@ -352,40 +361,28 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 		mergeDuplicates(left, right);
 		TWEANNGenotype.sortLinkGenes(left);
 		TWEANNGenotype.sortLinkGenes(right);
+		LongIntHashMap leftIndex = indexByInnovation(left);
+		LongIntHashMap rightIndex = indexByInnovation(right);
 
 		int maxSize = Math.max(left.size(), right.size());
 		ArrayList<LinkGene> alignedLeft = new ArrayList<LinkGene>(maxSize);
 		ArrayList<LinkGene> alignedRight = new ArrayList<LinkGene>(maxSize);
 
-		// System.out.println("Align loop start");
 		// Deal with matching and disjoint genes
 		int leftPos = 0, rightPos = 0;
 		while (leftPos < left.size() && rightPos < right.size()) {
 			int l = leftPos, r = rightPos;
-			// System.out.println("l: " + l + ", r: " + r);
 			long leftInnovation = left.get(leftPos).innovation;
 			long rightInnovation = right.get(rightPos).innovation;
 			if (leftInnovation == rightInnovation) {
-				// System.out.println("Same innovation: " + leftInnovation);
 				alignedLeft.add(left.get(leftPos++));
 				alignedRight.add(right.get(rightPos++));
-			} else {
-				// System.out.println("Diff innovation: " + leftInnovation + ",
-				// " + rightInnovation);
-				Integer leftHasRightAt = containsInnovationAt(left, rightInnovation);
-				Integer rightHasLeftAt = containsInnovationAt(right, leftInnovation);
-				// System.out.println("Innovation: leftHasRight: " +
-				// leftHasRightAt + ", rightHasLeft: " + rightHasLeftAt);
-
-				if (leftHasRightAt == null) {
-					// System.out.println("leftHasRight is null");
-					alignedLeft.add(null);
-					alignedRight.add(right.get(rightPos++));
-				} else if (rightHasLeftAt == null) {
-					// System.out.println("rightHasLeftAt is null");
-					alignedLeft.add(left.get(leftPos++));
-					alignedRight.add(null);
-				}
+			} else if (!leftIndex.containsKey(rightInnovation)) {
+				alignedLeft.add(null);
+				alignedRight.add(right.get(rightPos++));
+			} else if (!rightIndex.containsKey(leftInnovation)) {
+				alignedLeft.add(left.get(leftPos++));
+				alignedRight.add(null);
 			}
 			if (l == leftPos && r == rightPos) {
 				System.out.println("No progress performing crossover: " + l + "," + r);
@@ -397,7 +394,6 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 				return null;
 			}
 		}
-		// System.out.println("Align loop done");
 
 		// Deal with excess genes
 		while (leftPos < left.size()) {
@@ -416,10 +412,32 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 		return pair;
 	}
 
+	/**
+	 * Map from the innovation number of each gene to its index
+	 *
+	 * @param genes
+	 *            = list of genes
+	 * @return map from innovation to index in genes
+	 */
+	private static <G extends Gene> LongIntHashMap indexByInnovation(ArrayList<G> genes) {
+		LongIntHashMap index = new LongIntHashMap(genes.size(), -1);
+		for (int i = 0; i < genes.size(); i++) {
+			index.put(genes.get(i).innovation, i);
+		}
+		return index;
+	}
+
 	/**
 	 * When crossing excess genes, networks can have multiple links connecting
 	 * the same two nodes. This method merges those links into one by changing
-	 * innovation numbers
+	 * innovation numbers: each link of right gets the innovation of the last
+	 * link of left that connects the same two nodes.
+	 *
+	 * Links of left are hashed by a combination of their source and target
+	 * innovations, so each link of right is matched in constant time. Two
+	 * different connections can hash to the same key, so every match is
+	 * checked, and a link whose entry belongs to another connection is
+	 * matched by scanning all of left instead.
 	 *
 	 * @param left
 	 *            link genes of parent 1
@@ -427,13 +445,38 @@ public class TWEANNCrossover extends Crossover<TWEANN> {
 	 *            link genes of parent 2
 	 */
 	private static void mergeDuplicates(ArrayList<LinkGene> left, ArrayList<LinkGene> right) {
-		for (LinkGene lg : left) {
-			for (LinkGene rg : right) {
-				if (lg.sourceInnovation == rg.sourceInnovation && lg.targetInnovation == rg.targetInnovation
-						&& lg.innovation != rg.innovation) {
-					rg.innovation = lg.innovation;
+		LongIntHashMap connections = new LongIntHashMap(left.size(), -1);
+		for (int i = 0; i < left.size(); i++) {
+			LinkGene lg = left.get(i);
+			connections.put(connectionKey(lg), i);
+		}
+		for (LinkGene rg : right) {
+			int i = connections.get(connectionKey(rg));
+			if (i == -1) {
+				continue; // No left link has this key, so none connects the same nodes
+			}
+			LinkGene lg = left.get(i);
+			if (lg.sourceInnovation != rg.sourceInnovation || lg.targetInnovation != rg.targetInnovation) {
+				// Entry belongs to a different connection with the same key
+				lg = null;
+				for (LinkGene candidate : left) {
+					if (candidate.sourceInnovation == rg.sourceInnovation && candidate.targetInnovation == rg.targetInnovation) {
+						lg = candidate;
+					}
 				}
 			}
+			if (lg != null && lg.innovation != rg.innovation) {
+				rg.innovation = lg.innovation;
+			}
 		}
 	}
+
+	/**
+	 * @param lg
+	 *            link gene
+	 * @return hash of the innovations of the two nodes it connects
+	 */
+	private static long connectionKey(LinkGene lg) {
+		return SplitMixRandom.mix(lg.sourceInnovation) + lg.targetInnovation;
+	}
 }
@@ -11,7 +11,9 @@ import org.junit.After;
 import org.junit.Test;
 
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.EvolutionaryHistory;
 import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype.LinkGene;
 import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype.NodeGene;
 import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.util.datastructures.ArrayUtil;
@@ -234,4 +236,50 @@ public class TWEANNCrossoverTest {
 		}
 	}
 
+	/**
+	 * Parents that separately added the same link under different innovation
+	 * numbers. Crossover must merge the two links, so each offspring gets
+	 * exactly one link between the nodes, with the innovation of the first
+	 * parent.
+	 */
+	@Test
+	public void test_Merge_Duplicate_Links() {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "connectToInputs:false",
+				"crossExcessRate:1.0", "mating:true" });
+		MMNEAT.loadClasses();
+		TWEANNGenotype m = new TWEANNGenotype(DEFAULT_NUMIN, DEFAULT_NUMOUT, true, 1, 1, 0);
+		MMNEAT.genotype = m.copy();
+		EvolutionaryHistory.initArchetype(0);
+		TWEANNGenotype f = (TWEANNGenotype) m.copy();
+		// Input innovation numbers are negative, so a flag marks success
+		boolean found = false;
+		long source = 0, target = 0;
+		for (int j = m.outputStartIndex(); !found && j < m.nodes.size(); j++) {
+			for (int i = 0; i < m.numIn; i++) {// finds an input not connected to the output
+				if (m.getLinkBetween(m.nodes.get(i).innovation, m.nodes.get(j).innovation) == null) {
+					source = m.nodes.get(i).innovation;
+					target = m.nodes.get(j).innovation;
+					found = true;
+					break;
+				}
+			}
+		}
+		assertTrue(found);
+		long mInnovation = EvolutionaryHistory.nextInnovation();
+		long fInnovation = EvolutionaryHistory.nextInnovation();
+		m.addLink(source, target, 0.5, mInnovation);
+		f.addLink(source, target, -0.5, fInnovation);
+
+		TWEANNGenotype o = (TWEANNGenotype) m.crossover(f);
+		for (TWEANNGenotype offspring : new TWEANNGenotype[] { m, o }) {
+			int count = 0;
+			for (LinkGene lg : offspring.links) {
+				if (lg.sourceInnovation == source && lg.targetInnovation == target) {
+					count++;
+					assertEquals(mInnovation, lg.innovation);
+				}
+			}
+			assertEquals(1, count);
+		}
+	}
 }
@@ -8,6 +8,7 @@ import edu.utexas.cs.nn.networks.NetworkUtil;
 import edu.utexas.cs.nn.networks.TWEANN;
 import edu.utexas.cs.nn.networks.hyperneat.HyperNEATTask;
 import edu.utexas.cs.nn.networks.hyperneat.Substrate;
+import edu.utexas.cs.nn.networks.hyperneat.SubstrateCoordinateMapping;
 import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.util.datastructures.Pair;
 import edu.utexas.cs.nn.util.util2D.ILocated2D;
@@ -28,6 +29,9 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 	public static boolean constructingNetwork = false;
 	public static final double BIAS = 1.0;// Necessary for most CPPN networks
 	public int innovationID = 0;// provides unique innovation numbers for links and genes
+	// Substrate built by the most recent call to getPhenotype. Final so that it
+	// is not serialized, which means it is null in genotypes loaded from file.
+	private final SubstrateCache substrateCache = new SubstrateCache();
 
 	/**
 	 * Default constructor
@@ -92,8 +96,74 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 	 */
 	@Override
 	public TWEANN getPhenotype() {
-		TWEANNGenotype tg = getSubstrateGenotype((HyperNEATTask) MMNEAT.task) ;
-		return tg.getPhenotype();//return call to substrate genotype
+		HyperNEATTask hnt = (HyperNEATTask) MMNEAT.task;
+		if (substrateCache == null) {
+			return getSubstrateGenotype(hnt).getPhenotype();//return call to substrate genotype
+		}
+		return substrateCache.phenotype(this, hnt);
+	}
+
+	/**
+	 * Remembers the substrate genotype built from a CPPN, so that repeated
+	 * requests for the phenotype of the same genotype do not query the CPPN
+	 * for every potential link again. The substrate is rebuilt whenever the
+	 * CPPN genes, the task, or the substrate mapping differ from the last
+	 * build. The cached genotype is never handed out, and each phenotype is a
+	 * fresh network built from it while holding the lock, since building a
+	 * phenotype resets the module usage of the genotype it comes from.
+	 */
+	private static class SubstrateCache {
+		private TWEANNGenotype substrate = null;
+		private long fingerprint;
+		private HyperNEATTask task;
+		private SubstrateCoordinateMapping mapping;
+		// Module usage of the CPPN after querying it for the substrate
+		private int[] cppnUsage;
+
+		public synchronized TWEANN phenotype(HyperNEATCPPNGenotype cppn, HyperNEATTask hnt) {
+			long current = cppn.geneFingerprint();
+			if (substrate == null || fingerprint != current || task != hnt || mapping != MMNEAT.substrateMapping) {
+				substrate = cppn.getSubstrateGenotype(hnt);
+				fingerprint = current;
+				task = hnt;
+				mapping = MMNEAT.substrateMapping;
+				cppnUsage = cppn.moduleUsage.clone();
+			} else {
+				// Building the substrate resets the module usage of the CPPN
+				// and then counts the queries, so reuse leaves the same usage
+				cppn.moduleUsage = cppnUsage.clone();
+			}
+			return substrate.getPhenotype();
+		}
+	}
+
+	/**
+	 * Hash of every node and link gene of the CPPN. Mutations change gene
+	 * values in place without changing the genotype id, so the cached
+	 * substrate is only reused when this matches.
+	 *
+	 * @return 64 bit hash of CPPN genes
+	 */
+	private long geneFingerprint() {
+		long hash = nodes.size() * 31L + links.size();
+		for (NodeGene ng : nodes) {
+			hash = mix(hash, ng.innovation);
+			hash = mix(hash, (ng.ntype << 16) ^ ng.ftype);
+			hash = mix(hash, Double.doubleToLongBits(ng.getBias()));
+		}
+		for (LinkGene lg : links) {
+			hash = mix(hash, lg.innovation);
+			hash = mix(hash, lg.sourceInnovation);
+			hash = mix(hash, lg.targetInnovation);
+			hash = mix(hash, Double.doubleToLongBits(lg.weight));
+			hash = mix(hash, lg.isActive() ? 1 : 0);
+		}
+		return hash;
+	}
+
+	private static long mix(long hash, long value) {
+		long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+		return h ^ (h >>> 29);
 	}
 
         /**
@@ -198,6 +268,9 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 	 */
 	public ArrayList<NodeGene> createSubstrateNodes(TWEANN cppn, List<Substrate> subs) {
 		ArrayList<NodeGene> newNodes = new ArrayList<NodeGene>();
+		// CPPN input and output buffers reused for every query
+		double[] inputs = new double[]{0, 0, 0, 0, BIAS};
+		double[] outputs = NetworkUtil.outputBuffer(cppn, null);
 		// loops through substrate list
 		for (int i = 0; i < subs.size(); i++) {
 			for (int y = 0; y < subs.get(i).size.t2; y++) {
@@ -207,7 +280,10 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 					// Non-input substrates can have a bias if desired
 					if(CommonConstants.evolveHyperNEATBias && subs.get(i).stype != Substrate.INPUT_SUBSTRATE) {
 						// Ask CPPN to generate a bias for each neuron
-						bias = cppn.process(new double[]{0, 0, x, y, BIAS})[biasIndex];
+						inputs[2] = x;
+						inputs[3] = y;
+						cppn.process(inputs, outputs);
+						bias = outputs[biasIndex];
 					}
 					newNodes.add(newNodeGene(CommonConstants.ftype, subs.get(i).getStype(), innovationID++, false, bias));
 				}
@@ -269,35 +345,47 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 	 *
 	 */
 	public void loopThroughLinks(ArrayList<LinkGene> linksSoFar, TWEANN cppn, int outputIndex, Substrate s1, Substrate s2, int s1Index, int s2Index, List<Substrate> subs) {
+		// CPPN inputs need to be centered and scaled, but this only depends on the neuron
+		double[] sourceCoordinates = scaledCoordinates(s1);
+		double[] targetCoordinates = scaledCoordinates(s2);
+		long sourceOffset = getInnovationID(0, 0, s1Index, subs);
+		long targetOffset = getInnovationID(0, 0, s2Index, subs);
+		int linkIndex = (numCPPNOutputsPerLayerPair * outputIndex) + LINK_INDEX;
+		int expressionIndex = (numCPPNOutputsPerLayerPair * outputIndex) + leoIndex;
+		// inputs to CPPN, filled in for each query
+		double[] inputs = new double[HyperNEATTask.NUM_CPPN_INPUTS];
+		inputs[4] = BIAS;
+		double[] outputs = NetworkUtil.outputBuffer(cppn, null);
 		// searches through width of first substrate
 		for (int X1 = 0; X1 < s1.size.t1; X1++) {
 			// searches through height of first substrate
 			for (int Y1 = 0; Y1 < s1.size.t2; Y1++) {
 				if(!s1.isNeuronDead(X1, Y1)) {
+					int source = 2 * (X1 * s1.size.t2 + Y1);
+					inputs[0] = sourceCoordinates[source];
+					inputs[1] = sourceCoordinates[source + 1];
 					// searches through width of second substrate
 					for (int X2 = 0; X2 < s2.size.t1; X2++) {
 						// searches through height of second substrate
 						for (int Y2 = 0; Y2 < s2.size.t2; Y2++) {
 							if(!s2.isNeuronDead(X2, Y2)) {
-								// CPPN inputs need to be centered and scaled
-								ILocated2D scaledSourceCoordinates = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(X1, Y1), s1.size.t1, s1.size.t2);
-								ILocated2D scaledTargetCoordinates = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(X2, Y2), s2.size.t1, s2.size.t2);
-								// inputs to CPPN 
-								double[] inputs = {scaledSourceCoordinates.getX(), scaledSourceCoordinates.getY(), scaledTargetCoordinates.getX(), scaledTargetCoordinates.getY(), BIAS};
-								double[] outputs = cppn.process(inputs);
+								int target = 2 * (X2 * s2.size.t2 + Y2);
+								inputs[2] = targetCoordinates[target];
+								inputs[3] = targetCoordinates[target + 1];
+								cppn.process(inputs, outputs);
 								boolean expressLink = CommonConstants.leo
 										// Specific network output determines link expression
-										? outputs[(numCPPNOutputsPerLayerPair * outputIndex) + leoIndex] > CommonConstants.linkExpressionThreshold
+										? outputs[expressionIndex] > CommonConstants.linkExpressionThreshold
 										// Output magnitude determines link expression
-										: Math.abs(outputs[(numCPPNOutputsPerLayerPair * outputIndex) + LINK_INDEX]) > CommonConstants.linkExpressionThreshold;
+										: Math.abs(outputs[linkIndex]) > CommonConstants.linkExpressionThreshold;
 								if (expressLink) {
-									long sourceID = getInnovationID(X1, Y1, s1Index, subs);
-									long targetID = getInnovationID(X2, Y2, s2Index, subs);
+									long sourceID = sourceOffset + (s1.size.t1 * Y1) + X1;
+									long targetID = targetOffset + (s2.size.t1 * Y2) + X2;
 									double weight = CommonConstants.leo
 													// LEO takes its weight directly from the designated network output
-													? outputs[(numCPPNOutputsPerLayerPair * outputIndex) + LINK_INDEX]
+													? outputs[linkIndex]
 													// Standard HyperNEAT must scale the weight
-													: NetworkUtil.calculateWeight(outputs[(numCPPNOutputsPerLayerPair * outputIndex) + LINK_INDEX]);
+													: NetworkUtil.calculateWeight(outputs[linkIndex]);
 									linksSoFar.add(newLinkGene(sourceID, targetID, weight, innovationID++, false));
 								}
 
@@ -309,6 +397,31 @@ public class HyperNEATCPPNGenotype extends TWEANNGenotype {
 		}
 	}
 
+	/**
+	 * Centered and scaled CPPN coordinates of every neuron in a substrate,
+	 * computed once per substrate instead of once per potential link. The
+	 * coordinates of neuron (x,y) are at indices 2*(x*height + y) and
+	 * 2*(x*height + y) + 1.
+	 *
+	 * @param s
+	 *            substrate
+	 * @return array of x,y coordinate pairs
+	 */
+	public static double[] scaledCoordinates(Substrate s) {
+		int width = s.size.t1;
+		int height = s.size.t2;
+		double[] result = new double[2 * width * height];
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				ILocated2D scaled = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(x, y), width, height);
+				int index = 2 * (x * height + y);
+				result[index] = scaled.getX();
+				result[index + 1] = scaled.getY();
+			}
+		}
+		return result;
+	}
+
 
 	/**
 	 * Given the substrate coordinates and sizes that a particular link is supposed to connect,
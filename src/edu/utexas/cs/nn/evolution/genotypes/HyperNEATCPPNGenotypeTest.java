@@ -3,6 +3,7 @@ package edu.utexas.cs.nn.evolution.genotypes;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 
@@ -126,6 +127,76 @@ public class HyperNEATCPPNGenotypeTest {
 		assertTrue(!hcppn.getPhenotype().equals(hcppn.getCPPN()));
 	}
 
+	/**
+	 * Links must match those from querying the CPPN separately for each pair
+	 * of neurons with freshly scaled coordinates
+	 */
+	@Test
+	public void testLoopThroughLinksMatchesDirectQueries() {
+		ArrayList<LinkGene> newLinks = new ArrayList<LinkGene>();
+		hcppn.loopThroughLinks(newLinks, cppn, 0, subs.get(sub1Index), subs.get(sub2Index), sub1Index, sub2Index, subs);
+		cppn.flush();
+		Substrate s1 = subs.get(sub1Index);
+		Substrate s2 = subs.get(sub2Index);
+		int link = 0;
+		for (int X1 = 0; X1 < s1.size.t1; X1++) {
+			for (int Y1 = 0; Y1 < s1.size.t2; Y1++) {
+				for (int X2 = 0; X2 < s2.size.t1; X2++) {
+					for (int Y2 = 0; Y2 < s2.size.t2; Y2++) {
+						ILocated2D source = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(X1, Y1), s1.size.t1, s1.size.t2);
+						ILocated2D target = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(X2, Y2), s2.size.t1, s2.size.t2);
+						double[] outputs = cppn.process(new double[] { source.getX(), source.getY(), target.getX(), target.getY(), HyperNEATCPPNGenotype.BIAS });
+						if (Math.abs(outputs[HyperNEATCPPNGenotype.LINK_INDEX]) > CommonConstants.linkExpressionThreshold) {
+							LinkGene lg = newLinks.get(link++);
+							assertEquals(hcppn.getInnovationID(X1, Y1, sub1Index, subs), lg.sourceInnovation);
+							assertEquals(hcppn.getInnovationID(X2, Y2, sub2Index, subs), lg.targetInnovation);
+							assertEquals(NetworkUtil.calculateWeight(outputs[HyperNEATCPPNGenotype.LINK_INDEX]), lg.weight, 0.0);
+						}
+					}
+				}
+			}
+		}
+		assertEquals(link, newLinks.size());
+	}
+
+	/**
+	 * Repeated phenotypes reuse the cached substrate, but are separate
+	 * networks, and changing a CPPN weight changes the substrate
+	 */
+	@Test
+	public void testPhenotypeCache() {
+		HyperNEATTask task = (HyperNEATTask) MMNEAT.task;
+		TWEANN first = hcppn.getPhenotype();
+		TWEANN second = hcppn.getPhenotype();
+		assertNotSame(first, second);
+		assertEquals(first.toString(), second.toString());
+		assertEquals(hcppn.getSubstrateGenotype(task).getPhenotype().toString(), second.toString());
+		for (LinkGene lg : hcppn.links) {
+			lg.weight += 0.5;
+		}
+		TWEANN changed = hcppn.getPhenotype();
+		assertFalse(first.toString().equals(changed.toString()));
+		assertEquals(hcppn.getSubstrateGenotype(task).getPhenotype().toString(), changed.toString());
+	}
+
+	/**
+	 * Building a phenotype replaces the module usage of the CPPN with the
+	 * usage from querying it, whether or not the cached substrate is reused
+	 */
+	@Test
+	public void testPhenotypeCacheResetsModuleUsage() {
+		int[] old = new int[hcppn.numModules];
+		Arrays.fill(old, -1);
+		hcppn.setModuleUsage(old.clone());
+		hcppn.getPhenotype();
+		int[] queried = hcppn.getModuleUsage().clone();
+		assertTrue(queried[0] >= 0);
+		hcppn.setModuleUsage(old.clone());
+		hcppn.getPhenotype();
+		assertArrayEquals(queried, hcppn.getModuleUsage());
+		assertNotSame(queried, hcppn.getModuleUsage());
+	}
+
 	/**
 	 * Tests that the hash mapping is correct
 	 */
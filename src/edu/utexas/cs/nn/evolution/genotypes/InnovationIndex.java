@@ -0,0 +1,178 @@
+package edu.utexas.cs.nn.evolution.genotypes;
+
+import java.util.ArrayList;
+
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype.LinkGene;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype.NodeGene;
+import edu.utexas.cs.nn.util.datastructures.LongIntHashMap;
+
+/**
+ * Index from innovation numbers to positions in the node and link gene lists
+ * of a TWEANNGenotype, so that genes can be found in constant time instead of
+ * by scanning the lists. Links are indexed both by their own innovation
+ * number and by the innovation numbers of the nodes they connect.
+ *
+ * The genotype reports changes to its lists: appended links are added to the
+ * index directly, and any other structural change causes the affected index
+ * to be rebuilt on the next lookup. As a safeguard, an index is also rebuilt
+ * if the list it describes has been replaced or changed size, and every
+ * position found is checked against the gene actually stored there. When a
+ * gene innovation appears more than once, the first position is used, just as
+ * with a linear search.
+ */
+public class InnovationIndex {
+
+    public static final int NOT_FOUND = -1;
+
+    private final LongIntHashMap nodePositions = new LongIntHashMap();
+    private final LongIntHashMap linkPositions = new LongIntHashMap();
+    // Keyed by a mix of the source and target innovation numbers
+    private final LongIntHashMap connectionPositions = new LongIntHashMap();
+    // Lists that the index currently describes, and their sizes when indexed
+    private ArrayList<NodeGene> indexedNodes = null;
+    private int indexedNodeCount = 0;
+    private ArrayList<LinkGene> indexedLinks = null;
+    private int indexedLinkCount = 0;
+
+    /**
+     * Single key for a link between two nodes. Different pairs can share a
+     * key, so positions retrieved this way must be checked.
+     */
+    private static long connectionKey(long sourceInnovation, long targetInnovation) {
+        return (sourceInnovation * 0x9E3779B97F4A7C15L) ^ targetInnovation;
+    }
+
+    /**
+     * Position of node gene with given innovation number
+     *
+     * @param nodes node genes of the genotype
+     * @param innovation innovation number to find
+     * @return index in nodes, or NOT_FOUND
+     */
+    public int indexOfNode(ArrayList<NodeGene> nodes, long innovation) {
+        if (nodes != indexedNodes || nodes.size() != indexedNodeCount) {
+            indexNodes(nodes);
+        }
+        int index = nodePositions.get(innovation);
+        if (index != NOT_FOUND && nodes.get(index).innovation != innovation) {
+            // Genes were rearranged without notification
+            indexNodes(nodes);
+            index = nodePositions.get(innovation);
+        }
+        return index;
+    }
+
+    /**
+     * Position of link gene with given innovation number
+     *
+     * @param links link genes of the genotype
+     * @param innovation innovation number to find
+     * @return index in links, or NOT_FOUND
+     */
+    public int indexOfLink(ArrayList<LinkGene> links, long innovation) {
+        if (links != indexedLinks || links.size() != indexedLinkCount) {
+            indexLinks(links);
+        }
+        int index = linkPositions.get(innovation);
+        if (index != NOT_FOUND && links.get(index).innovation != innovation) {
+            // Genes were rearranged without notification
+            indexLinks(links);
+            index = linkPositions.get(innovation);
+        }
+        return index;
+    }
+
+    /**
+     * Position of the first link gene from source to target
+     *
+     * @param links link genes of the genotype
+     * @param sourceInnovation innovation number of source node
+     * @param targetInnovation innovation number of target node
+     * @return index in links, or NOT_FOUND
+     */
+    public int indexOfLinkBetween(ArrayList<LinkGene> links, long sourceInnovation, long targetInnovation) {
+        if (links != indexedLinks || links.size() != indexedLinkCount) {
+            indexLinks(links);
+        }
+        int index = connectionPositions.get(connectionKey(sourceInnovation, targetInnovation));
+        if (index == NOT_FOUND || connects(links.get(index), sourceInnovation, targetInnovation)) {
+            return index;
+        }
+        // Either the genes were rearranged, or two connections share a key
+        indexLinks(links);
+        index = connectionPositions.get(connectionKey(sourceInnovation, targetInnovation));
+        if (index == NOT_FOUND || connects(links.get(index), sourceInnovation, targetInnovation)) {
+            return index;
+        }
+        for (int i = 0; i < links.size(); i++) {
+            if (connects(links.get(i), sourceInnovation, targetInnovation)) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private static boolean connects(LinkGene lg, long sourceInnovation, long targetInnovation) {
+        return lg.sourceInnovation == sourceInnovation && lg.targetInnovation == targetInnovation;
+    }
+
+    /**
+     * Must be called right after a link gene is added to the end of links
+     *
+     * @param links link genes of the genotype
+     */
+    public void linkAppended(ArrayList<LinkGene> links) {
+        if (links == indexedLinks && links.size() == indexedLinkCount + 1) {
+            addLink(links.get(indexedLinkCount), indexedLinkCount);
+            indexedLinkCount++;
+        } // Otherwise, the index is rebuilt on the next lookup
+    }
+
+    /**
+     * Must be called after node genes are inserted anywhere other than the end
+     * of the list, or are removed.
+     */
+    public void nodesChanged() {
+        indexedNodes = null;
+    }
+
+    /**
+     * Must be called after link genes are inserted anywhere other than the end
+     * of the list, or are removed.
+     */
+    public void linksChanged() {
+        indexedLinks = null;
+    }
+
+    private void indexNodes(ArrayList<NodeGene> nodes) {
+        nodePositions.clear();
+        for (int i = 0; i < nodes.size(); i++) {
+            long innovation = nodes.get(i).innovation;
+            if (!nodePositions.containsKey(innovation)) {
+                nodePositions.put(innovation, i);
+            }
+        }
+        indexedNodes = nodes;
+        indexedNodeCount = nodes.size();
+    }
+
+    private void indexLinks(ArrayList<LinkGene> links) {
+        linkPositions.clear();
+        connectionPositions.clear();
+        for (int i = 0; i < links.size(); i++) {
+            addLink(links.get(i), i);
+        }
+        indexedLinks = links;
+        indexedLinkCount = links.size();
+    }
+
+    private void addLink(LinkGene lg, int index) {
+        if (!linkPositions.containsKey(lg.innovation)) {
+            linkPositions.put(lg.innovation, index);
+        }
+        long key = connectionKey(lg.sourceInnovation, lg.targetInnovation);
+        if (!connectionPositions.containsKey(key)) {
+            connectionPositions.put(key, index);
+        }
+    }
+}
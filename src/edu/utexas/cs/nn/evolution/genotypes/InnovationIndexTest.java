@@ -0,0 +1,101 @@
+package edu.utexas.cs.nn.evolution.genotypes;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.EvolutionaryHistory;
+import edu.utexas.cs.nn.evolution.crossover.network.TWEANNCrossover;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype.LinkGene;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype.NodeGene;
+import edu.utexas.cs.nn.parameters.Parameters;
+
+public class InnovationIndexTest {
+
+	final static int MUTATIONS = 60;
+
+	@Before
+	public void setUp() throws Exception {
+		MMNEAT.clearClasses();
+		EvolutionaryHistory.setInnovation(0);
+		EvolutionaryHistory.setHighestGenotypeId(0);
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false",
+				"allowMultipleFunctions:true", "recurrency:true", "mmdRate:0.1", "deleteLinkRate:0.1",
+				"redirectLinkRate:0.1", "crossExcessRate:0.5", "mating:true" });
+		MMNEAT.loadClasses();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	/**
+	 * Slow version of getLinkBetween
+	 */
+	private static LinkGene linearLinkBetween(TWEANNGenotype g, long source, long target) {
+		for (LinkGene lg : g.links) {
+			if (lg.sourceInnovation == source && lg.targetInnovation == target) {
+				return lg;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Every pair of nodes must give the same answer as a linear search
+	 */
+	private static void assertConsistent(TWEANNGenotype g) {
+		for (NodeGene source : g.nodes) {
+			for (NodeGene target : g.nodes) {
+				assertSame(linearLinkBetween(g, source.innovation, target.innovation),
+						g.getLinkBetween(source.innovation, target.innovation));
+			}
+		}
+	}
+
+	/**
+	 * The index must stay in sync through link addition, splicing, link and
+	 * node deletion, module duplication and crossover.
+	 */
+	@Test
+	public void test_indexMatchesLinearSearch() {
+		TWEANNGenotype tg1 = new TWEANNGenotype(4, 2, 0);
+		MMNEAT.genotype = tg1.copy();
+		EvolutionaryHistory.initArchetype(0);
+		TWEANNGenotype tg2 = new TWEANNGenotype(4, 2, 0);
+		TWEANNCrossover cross = new TWEANNCrossover();
+		for (int i = 0; i < MUTATIONS; i++) {
+			tg1.mutate();
+			tg2.mutate();
+			tg1.spliceMutation();
+			assertConsistent(tg1);
+			if (i % 7 == 0) {
+				tg2.deleteNodeMutation();
+				assertConsistent(tg2);
+			}
+			if (i % 20 == 0) {
+				tg1.moduleDuplication();
+				assertConsistent(tg1);
+			}
+			if (i % 10 == 0) {
+				TWEANNGenotype child = (TWEANNGenotype) cross.crossover(tg1, tg2);
+				assertConsistent(child);
+				assertConsistent(tg1);
+				child.mutate();
+				assertConsistent(child);
+			}
+		}
+		// Phenotype built from the index must have every active link
+		int activeLinks = 0;
+		for (LinkGene lg : tg1.links) {
+			if (lg.isActive()) {
+				activeLinks++;
+			}
+		}
+		assertEquals(activeLinks, new TWEANNGenotype(tg1.getPhenotype()).links.size());
+	}
+}
@@ -7,6 +7,7 @@ import edu.utexas.cs.nn.evolution.nsga2.bd.characterizations.GeneralNetworkChara
 import edu.utexas.cs.nn.evolution.nsga2.bd.localcompetition.TWEANNModulesNicheDefinition;
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
 import edu.utexas.cs.nn.networks.ActivationFunctions;
+import edu.utexas.cs.nn.networks.CompiledTWEANN;
 import edu.utexas.cs.nn.networks.TWEANN;
 import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.parameters.Parameters;
@@ -382,6 +383,12 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
     protected int[] moduleUsage;
     private long id = EvolutionaryHistory.nextGenotypeId();
     public int archetypeIndex;
+    /**
+     * Constant time lookup of genes by innovation number. Final so that wox
+     * does not save it in genotype files. Genotypes loaded from file therefore
+     * have no index, and fall back on linear search.
+     */
+    private final InnovationIndex innovationIndex = new InnovationIndex();
 
     /**
      * Copy constructor
@@ -811,7 +818,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
      * @return The link deleted
      */
     public LinkGene deleteLinkMutation() {
-        return deleteLink(RandomNumbers.randomGenerator.nextInt(links.size()));
+        return deleteLink(RandomNumbers.generator().nextInt(links.size()));
     }
 
     /**
@@ -821,7 +828,9 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
      * @return The link deleted
      */
     public LinkGene deleteLink(int index) {
-        return links.remove(index);
+        LinkGene removed = links.remove(index);
+        linksChanged();
+        return removed;
     }
 
     public NodeGene deleteNodeMutation() {
@@ -831,7 +840,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
         if (hiddenNodes.length == 0) {
             return null;
         }
-        return deleteNode(hiddenNodes[RandomNumbers.randomGenerator.nextInt(hiddenNodes.length)]);
+        return deleteNode(hiddenNodes[RandomNumbers.generator().nextInt(hiddenNodes.length)]);
     }
 
     public NodeGene deleteNode(NodeGene node) {
@@ -842,6 +851,8 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
 
         links.removeAll(connectedLinks);
         nodes.remove(node);
+        linksChanged();
+        nodesChanged();
 
         return node;
     }
@@ -851,7 +862,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
      */
     public void deleteRandomModeMutation() {
         if (numModules > 1) {
-            deleteMode(RandomNumbers.randomGenerator.nextInt(numModules));
+            deleteMode(RandomNumbers.generator().nextInt(numModules));
         }
     }
 
@@ -917,6 +928,8 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
             }
         }
         nodes.remove(nodeNum);
+        linksChanged();
+        nodesChanged();
         numOut--;
     }
 
@@ -935,7 +948,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
      */
     public void allWeightMutation(RandomGenerator rand, double rate) {
         for (LinkGene l : links) {
-            if (!l.isFrozen() && RandomNumbers.randomGenerator.nextDouble() < rate) {
+            if (!l.isFrozen() && RandomNumbers.generator().nextDouble() < rate) {
                 perturbLink(l, rand.randomOutput());
             }
         }
@@ -974,7 +987,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
             System.out.println("No links to choose from. All are frozen!");
             System.exit(1);
         }
-        return indicies.get(RandomNumbers.randomGenerator.nextInt(indicies.size()));
+        return indicies.get(RandomNumbers.generator().nextInt(indicies.size()));
     }
 
     /**
@@ -1033,6 +1046,10 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
      * @return = null on failure, LinkGene otherwise
      */
     public LinkGene getLinkBetween(long sourceInnovation, long targetInnovation) {
+        if (innovationIndex != null) {
+            int index = innovationIndex.indexOfLinkBetween(links, sourceInnovation, targetInnovation);
+            return index == InnovationIndex.NOT_FOUND ? null : links.get(index);
+        }
         for (LinkGene l : links) {
             if (l.sourceInnovation == sourceInnovation && l.targetInnovation == targetInnovation) {
                 return l;
@@ -1069,7 +1086,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
      */
     private long getRandomLinkSourceNodeInnovationNumber() {
         return nodes.get(
-                RandomNumbers.randomGenerator.nextInt(nodes.size() + (CommonConstants.recurrency ? 0 : -1))).innovation;
+                RandomNumbers.generator().nextInt(nodes.size() + (CommonConstants.recurrency ? 0 : -1))).innovation;
     }
 
     /**
@@ -1078,7 +1095,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
      * @return any node innovation that is not an output node
      */
     private long getRandomNonOutputNodeInnovationNumber() {
-        return nodes.get(RandomNumbers.randomGenerator.nextInt(outputStartIndex())).innovation;
+        return nodes.get(RandomNumbers.generator().nextInt(outputStartIndex())).innovation;
     }
 
     /**
@@ -1141,7 +1158,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
             }
         }
         Long[] options = new Long[sourceInnovationNumbers.size()];
-        return sourceInnovationNumbers.toArray(options)[RandomNumbers.randomGenerator.nextInt(sourceInnovationNumbers.size())];
+        return sourceInnovationNumbers.toArray(options)[RandomNumbers.generator().nextInt(sourceInnovationNumbers.size())];
     }
 
     /**
@@ -1159,6 +1176,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
             // System.out.println(nodeInnovation + "->" + sourceInnovation);
             LinkGene lg = newLinkGene(sourceInnovation, targetInnovation, weight, innovation, target <= source);
             links.add(lg);
+            linkAppended();
         }
     }
 
@@ -1212,13 +1230,16 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
         LinkGene lg = getLinkBetween(sourceInnovation, targetInnovation);
         lg.setActive(CommonConstants.minimizeSpliceImpact);
         nodes.add(Math.min(outputStartIndex(), Math.max(numIn, indexOfNodeInnovation(sourceInnovation) + 1)), ng);
+        nodesChanged();
         int index = EvolutionaryHistory.indexOfArchetypeInnovation(archetypeIndex, sourceInnovation);
         int pos = Math.min(EvolutionaryHistory.firstArchetypeOutputIndex(archetypeIndex), Math.max(numIn, index + 1));
         EvolutionaryHistory.archetypeAdd(archetypeIndex, pos, ng.clone(), numModules == 1, "splice " + sourceInnovation + "->" + targetInnovation);
         LinkGene toNew = newLinkGene(sourceInnovation, newNodeInnovation, weight1, toLinkInnovation, indexOfNodeInnovation(newNodeInnovation) <= indexOfNodeInnovation(sourceInnovation));
         LinkGene fromNew = newLinkGene(newNodeInnovation, targetInnovation, weight2, fromLinkInnovation, indexOfNodeInnovation(targetInnovation) <= indexOfNodeInnovation(newNodeInnovation));
         links.add(toNew);
+        linkAppended();
         links.add(fromNew);
+        linkAppended();
     }
 
     /**
@@ -1235,6 +1256,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
         for (int i = 0; i < numIn; i++) {
             LinkGene toNew = newLinkGene(nodes.get(i).innovation, newNodeInnovation, weights.get(i), linkInnovations.get(i), false);
             links.add(toNew);
+            linkAppended();
         }
     }
 
@@ -1295,6 +1317,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
                 addedLinks.add(sourceInnovations[i]);
                 LinkGene toNew = newLinkGene(sourceInnovations[i], newNodeInnovation, weights[i], linkInnovations[i], false);
                 links.add(toNew);
+                linkAppended();
             }
         }
         nodes.add(ng);
@@ -1312,6 +1335,9 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
      * @return Index in list where gene is located
      */
     private int indexOfNodeInnovation(long innovation) {
+        if (innovationIndex != null) {
+            return reportMissing(innovation, innovationIndex.indexOfNode(nodes, innovation));
+        }
         return indexOfGeneInnovation(innovation, nodes);
     }
 
@@ -1324,17 +1350,58 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
      */
     @SuppressWarnings("unused")
     private int indexOfLinkInnovation(long innovation) {
+        if (innovationIndex != null) {
+            return reportMissing(innovation, innovationIndex.indexOfLink(links, innovation));
+        }
         return indexOfGeneInnovation(innovation, links);
     }
 
+    /**
+     * Linear search for a gene, used when there is no innovation index
+     */
     private int indexOfGeneInnovation(long innovation, ArrayList<? extends Gene> genes) {
         for (int i = 0; i < genes.size(); i++) {
             if (genes.get(i).innovation == innovation) {
                 return i;
             }
         }
-        System.out.println("innovation " + innovation + " not found in net " + this.getId());
-        return -1;
+        return reportMissing(innovation, -1);
+    }
+
+    private int reportMissing(long innovation, int index) {
+        if (index == -1) {
+            System.out.println("innovation " + innovation + " not found in net " + this.getId());
+        }
+        return index;
+    }
+
+    /**
+     * Must be called right after adding a link gene to the end of links
+     */
+    private void linkAppended() {
+        if (innovationIndex != null) {
+            innovationIndex.linkAppended(links);
+        }
+    }
+
+    /**
+     * Must be called after node genes are inserted before the end of nodes,
+     * removed, or have their innovation numbers changed.
+     */
+    public void nodesChanged() {
+        if (innovationIndex != null) {
+            innovationIndex.nodesChanged();
+        }
+    }
+
+    /**
+     * Must be called after link genes are inserted before the end of links,
+     * removed, or have their innovation numbers changed.
+     */
+    public void linksChanged() {
+        if (innovationIndex != null) {
+            innovationIndex.linksChanged();
+        }
     }
 
     /**
@@ -1372,7 +1439,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
      */
     @Override
     public TWEANN getPhenotype() {
-        TWEANN result = new TWEANN(this);
+        TWEANN result = CommonConstants.compiledTWEANN ? new CompiledTWEANN(this) : new TWEANN(this);
         // This is the point where old parent module usage is finally erased
         this.moduleUsage = result.moduleUsage;
         return result;
@@ -1514,7 +1581,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
      * randomly duplicates a module in the network
      */
     public void moduleDuplication() {
-        int module = RandomNumbers.randomGenerator.nextInt(this.numModules);
+        int module = RandomNumbers.generator().nextInt(this.numModules);
         duplicateModule(module);
     }
 
@@ -1580,7 +1647,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
                 + desiredPreferenceLoc + ",nodes.size()=" + nodes.size() + ",neuronsPerModule=" + neuronsPerModule
                 + ",outputStart=" + outputStart;
         // Node that will link into the new preference neuron
-        long randomSourceInnovation = nodes.get(RandomNumbers.randomGenerator.nextInt(outputStart)).innovation;
+        long randomSourceInnovation = nodes.get(RandomNumbers.generator().nextInt(outputStart)).innovation;
         // Last mode?
         long newNodeInnovation;
         if (desiredPreferenceLoc == nodes.size()) {
@@ -1611,6 +1678,8 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
                     l.targetInnovation--;
                 }
             }
+            nodesChanged();
+            linksChanged();
             // The last node is actually the one with the new innovation, so it
             // is added to archetype
             EvolutionaryHistory.archetypeAdd(archetypeIndex, nodes.get(nodes.size() - 1).clone(),
@@ -1651,6 +1720,7 @@ public class TWEANNGenotype implements NetworkGenotype<TWEANN> {
                     duplicate = newLinkGene(p.innovation, ng.innovation, lg.weight, EvolutionaryHistory.nextInnovation(), false);
                 }
                 links.add(duplicate);
+                linkAppended();
             }
         }
         nodes.add(ng);
@@ -270,6 +270,18 @@ public abstract class MuLambda<T> implements SinglePopulationGenerationalEA<T> {
 	public ArrayList<Genotype<T>> selectAndAdvance(ArrayList<Score<T>> parentScores, ArrayList<Score<T>> childrenScores) {
 		ArrayList<Score<T>> population = prepareSourcePopulation(parentScores, childrenScores);
 		ArrayList<Genotype<T>> newParents = selection(mu, population);
+		advanceGeneration(newParents);
+		return newParents;
+	}
+
+	/**
+	 * End the current generation: mark the end in the logs, advance the
+	 * generation count, and make any updates that depend on the generation.
+	 *
+	 * @param newParents
+	 *            Parent population of the next generation
+	 */
+	protected void advanceGeneration(ArrayList<Genotype<T>> newParents) {
 		EvolutionaryHistory.logMutationData("---Gen " + generation + " Over-----------------");
 		EvolutionaryHistory.logLineageData("---Gen " + generation + " Over-----------------");
 		generation++;
@@ -288,7 +300,6 @@ public abstract class MuLambda<T> implements SinglePopulationGenerationalEA<T> {
                     VariableDirectionKStepDeathScentBlock.updateScentMaps(); // For pacman
                     DangerousAreaModeSelector.updateScentMaps(); // For pacman
                 }
-		return newParents;
 	}
 
 	/**
@@ -400,6 +411,13 @@ public abstract class MuLambda<T> implements SinglePopulationGenerationalEA<T> {
 		// Evaluate final parents (haven't technically been evaluated yet)
 		ArrayList<Score<T>> parentScores = task.evaluateAll(population);
 		logParentInfo(parentScores);
+		closeLogs();
+	}
+
+	/**
+	 * Close all log files at the end of evolution
+	 */
+	protected void closeLogs() {
 		if (writeOutput) {
 			parentLog.close();
 			if (childLog != null) {
@@ -26,7 +26,7 @@ public class ReplaceMutation extends Mutation<ArrayList<Integer>> {
 	 */
 	@Override
 	public boolean perform() {
-		return RandomNumbers.randomGenerator.nextDouble() <= rate;
+		return RandomNumbers.generator().nextDouble() <= rate;
 	}
 
 	@Override
@@ -39,6 +39,6 @@ public class ReplaceMutation extends Mutation<ArrayList<Integer>> {
 	}
 
 	public void mutateIndex(BoundedIntegerValuedGenotype genotype, int i) {
-		genotype.getPhenotype().set(i, RandomNumbers.randomGenerator.nextInt(MMNEAT.discreteCeilings[i]));
+		genotype.getPhenotype().set(i, RandomNumbers.generator().nextInt(MMNEAT.discreteCeilings[i]));
 	}
 }
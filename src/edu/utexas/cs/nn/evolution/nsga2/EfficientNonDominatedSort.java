@@ -0,0 +1,158 @@
+package edu.utexas.cs.nn.evolution.nsga2;
+
+/**
+ * Efficient Non-dominated Sort with binary search (ENS-BS) by Zhang et al.
+ * Points are first sorted lexicographically, so that no point can be
+ * dominated by a point that comes after it. Each point is then placed in the
+ * first front that has no member dominating it, and binary search over the
+ * fronts finds this front with a logarithmic number of front checks. Only
+ * primitive arrays are used, and no lists of dominated points are kept, so
+ * memory use is linear in the number of points.
+ *
+ * Domination is defined exactly as in MultiObjectiveScore.isBetter: all
+ * objectives are maximized, and a point dominates another if it is at least
+ * as high in every objective and higher in at least one.
+ */
+public class EfficientNonDominatedSort {
+
+	/**
+	 * Pareto front of each point, where front 0 is non-dominated
+	 *
+	 * @param objectives
+	 *            objectives[i] holds the objective scores of point i. Must not
+	 *            contain NaN.
+	 * @return rank of each point
+	 */
+	public static int[] ranks(final double[][] objectives) {
+		final int n = objectives.length;
+		int[] ranks = new int[n];
+		if (n == 0) {
+			return ranks;
+		}
+		int[] order = lexicographicOrder(objectives);
+		// Members of each front in the order they were added. Front f holds
+		// fronts[f][0] to fronts[f][frontSizes[f] - 1].
+		int[][] fronts = new int[n][];
+		int[] frontSizes = new int[n];
+		int numFronts = 0;
+		for (int p = 0; p < n; p++) {
+			int point = order[p];
+			// Find first front with no member dominating the point. If a
+			// front has a dominating member, then so does every earlier
+			// front, so binary search applies.
+			int low = 0;
+			int high = numFronts;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (frontDominates(objectives, fronts[mid], frontSizes[mid], objectives[point])) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			if (low == numFronts) {
+				fronts[numFronts++] = new int[4];
+			} else if (frontSizes[low] == fronts[low].length) {
+				int[] larger = new int[Math.min(n, 2 * fronts[low].length)];
+				System.arraycopy(fronts[low], 0, larger, 0, frontSizes[low]);
+				fronts[low] = larger;
+			}
+			fronts[low][frontSizes[low]++] = point;
+			ranks[point] = low;
+		}
+		return ranks;
+	}
+
+	/**
+	 * Whether any member of the front dominates the point. Recently added
+	 * members are most similar to the point, so they are checked first.
+	 */
+	private static boolean frontDominates(double[][] objectives, int[] front, int size, double[] point) {
+		for (int i = size - 1; i >= 0; i--) {
+			if (dominates(objectives[front[i]], point)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param a
+	 *            objective scores
+	 * @param b
+	 *            objective scores
+	 * @return true if a dominates b
+	 */
+	public static boolean dominates(double[] a, double[] b) {
+		boolean better = false;
+		for (int i = 0; i < a.length; i++) {
+			if (a[i] < b[i]) {
+				return false;
+			}
+			if (a[i] > b[i]) {
+				better = true;
+			}
+		}
+		return better;
+	}
+
+	/**
+	 * Indices of the points sorted by decreasing first objective, then by
+	 * decreasing second objective, and so on. A point that dominates another
+	 * always comes first.
+	 */
+	private static int[] lexicographicOrder(final double[][] objectives) {
+		int n = objectives.length;
+		int[] order = new int[n];
+		int[] buffer = new int[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+		}
+		mergeSort(objectives, order, buffer, 0, n);
+		return order;
+	}
+
+	/**
+	 * Stable merge sort of order[from] to order[to - 1]
+	 */
+	private static void mergeSort(double[][] objectives, int[] order, int[] buffer, int from, int to) {
+		if (to - from < 2) {
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		mergeSort(objectives, order, buffer, from, mid);
+		mergeSort(objectives, order, buffer, mid, to);
+		int left = from;
+		int right = mid;
+		int out = from;
+		while (left < mid && right < to) {
+			if (compare(objectives[order[right]], objectives[order[left]]) < 0) {
+				buffer[out++] = order[right++];
+			} else {
+				buffer[out++] = order[left++];
+			}
+		}
+		while (left < mid) {
+			buffer[out++] = order[left++];
+		}
+		while (right < to) {
+			buffer[out++] = order[right++];
+		}
+		System.arraycopy(buffer, from, order, from, to - from);
+	}
+
+	/**
+	 * Negative if a comes before b in decreasing lexicographic order
+	 */
+	private static int compare(double[] a, double[] b) {
+		for (int i = 0; i < a.length; i++) {
+			if (a[i] > b[i]) {
+				return -1;
+			}
+			if (a[i] < b[i]) {
+				return 1;
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,86 @@
+package edu.utexas.cs.nn.evolution.nsga2;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import edu.utexas.cs.nn.evolution.nsga2.tug.TUGNSGA2Score;
+import edu.utexas.cs.nn.parameters.CommonConstants;
+import edu.utexas.cs.nn.scores.Score;
+
+public class EfficientNonDominatedSortTest {
+
+	final static int POP_SIZE = 300;
+
+	@After
+	public void tearDown() throws Exception {
+		CommonConstants.efficientNonDominatedSort = false;
+	}
+
+	/**
+	 * Random population, where a small number of distinct values creates many
+	 * ties and duplicate points
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static NSGA2Score<Object>[] population(Random random, int objectives, int distinctValues, boolean[] active) {
+		NSGA2Score<Object>[] scores = new NSGA2Score[POP_SIZE];
+		for (int i = 0; i < scores.length; i++) {
+			double[] s = new double[objectives];
+			for (int j = 0; j < s.length; j++) {
+				s[j] = distinctValues > 0 ? random.nextInt(distinctValues) : random.nextGaussian();
+			}
+			Score<Object> score = new Score<Object>(null, s, null);
+			scores[i] = active == null ? new NSGA2Score<Object>(score) : new TUGNSGA2Score<Object>(score, active);
+		}
+		return scores;
+	}
+
+	private static void assertSameLayers(NSGA2Score<Object>[] scores) {
+		CommonConstants.efficientNonDominatedSort = false;
+		ArrayList<ArrayList<NSGA2Score<Object>>> expected = NSGA2.getParetoLayers(scores);
+		int[] expectedRanks = new int[scores.length];
+		for (int i = 0; i < scores.length; i++) {
+			expectedRanks[i] = scores[i].getRank();
+		}
+		CommonConstants.efficientNonDominatedSort = true;
+		ArrayList<ArrayList<NSGA2Score<Object>>> actual = NSGA2.getParetoLayers(scores);
+		assertEquals(expected.size(), actual.size());
+		for (int f = 0; f < expected.size(); f++) {
+			assertEquals(expected.get(f), actual.get(f));
+		}
+		for (int i = 0; i < scores.length; i++) {
+			assertEquals(expectedRanks[i], scores[i].getRank());
+			assertTrue(scores[i].isAssigned);
+		}
+	}
+
+	@Test
+	public void test_sameLayers() {
+		Random random = new Random(42);
+		for (int objectives = 1; objectives <= 4; objectives++) {
+			for (int distinctValues : new int[] { 0, 3, 10 }) {
+				assertSameLayers(population(random, objectives, distinctValues, null));
+			}
+		}
+	}
+
+	@Test
+	public void test_sameLayersInactiveObjectives() {
+		Random random = new Random(7);
+		boolean[] active = new boolean[] { true, false, true };
+		assertSameLayers(population(random, active.length, 5, active));
+	}
+
+	@Test
+	public void test_ranks() {
+		double[][] points = new double[][] { { 1, 5 }, { 4, 4 }, { 5, 1 }, { 1, 4 }, { 3, 3 }, { 4, 1 }, { 3, 3 },
+				{ 1, 1 }, { 0, 0 } };
+		int[] ranks = EfficientNonDominatedSort.ranks(points);
+		assertArrayEquals(new int[] { 0, 0, 0, 1, 1, 1, 1, 2, 3 }, ranks);
+		assertEquals(0, EfficientNonDominatedSort.ranks(new double[0][]).length);
+	}
+}
@@ -0,0 +1,277 @@
+package edu.utexas.cs.nn.evolution.nsga2;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.util.datastructures.Pair;
+import edu.utexas.cs.nn.util.random.SplitMixRandom;
+
+/**
+ * Hypervolume of a set of points whose objectives are maximized: the volume
+ * of the region that the points dominate, bounded below by a reference
+ * point.
+ *
+ * The exact computation follows the WFG algorithm of While, Bradstreet and
+ * Barone. Points are sorted by their last objective, best first. Each point
+ * is then the worst of the points processed so far in that objective, so its
+ * exclusive contribution is its last objective times a hypervolume in one
+ * fewer dimension: the volume of the point minus that of the earlier points
+ * limited to it. Limited points that are dominated are pruned before
+ * recursing, and two objectives are handled by a sweep. This stays fast far
+ * beyond the three or four objectives where the slicing algorithm of jMetal
+ * becomes impractical.
+ *
+ * For many objectives, the Monte-Carlo estimator samples the box between the
+ * reference point and the best value of each objective, and scales the box
+ * volume by the fraction of samples that some point dominates.
+ */
+public class Hypervolume {
+
+	/**
+	 * Hypervolume of the nondominated points among the given ones, measured
+	 * from the minimum scores. Computed exactly for up to hvExactObjectives
+	 * objectives, and estimated with hvSamples Monte-Carlo samples otherwise.
+	 * The samples come from a stream determined by the run and generation, so
+	 * the value logged during evolution equals the value computed afterwards.
+	 *
+	 * @param points
+	 *            scores of each individual, one row each
+	 * @param mins
+	 *            minimum possible score in each objective
+	 * @param run
+	 *            run number
+	 * @param generation
+	 *            generation of the points
+	 * @return hypervolume and number of nondominated points
+	 */
+	public static Pair<Double, Integer> ofFront(double[][] points, double[] mins, int run, int generation) {
+		double[][] front = nondominated(points, mins.length);
+		double volume;
+		if (mins.length <= Parameters.parameters.integerParameter("hvExactObjectives")) {
+			volume = exact(front, mins);
+		} else {
+			Random random = new SplitMixRandom(SplitMixRandom.derive(run, generation));
+			volume = monteCarlo(front, mins, Parameters.parameters.integerParameter("hvSamples"), random);
+		}
+		return new Pair<Double, Integer>(volume, front.length);
+	}
+
+	/**
+	 * Exact hypervolume
+	 *
+	 * @param points
+	 *            points with at least as many objectives as the reference
+	 *            point. Extra columns are ignored.
+	 * @param reference
+	 *            reference point, worse than every point in every objective
+	 * @return hypervolume
+	 */
+	public static double exact(double[][] points, double[] reference) {
+		return wfg(prune(shifted(points, reference), reference.length), reference.length);
+	}
+
+	/**
+	 * Monte-Carlo estimate of the hypervolume
+	 *
+	 * @param points
+	 *            points with at least as many objectives as the reference
+	 *            point. Extra columns are ignored.
+	 * @param reference
+	 *            reference point, worse than every point in every objective
+	 * @param samples
+	 *            number of samples
+	 * @param random
+	 *            source of the samples
+	 * @return estimated hypervolume
+	 */
+	public static double monteCarlo(double[][] points, double[] reference, int samples, Random random) {
+		int d = reference.length;
+		double[][] front = prune(shifted(points, reference), d);
+		if (front.length == 0) {
+			return 0;
+		}
+		double[] upper = new double[d];
+		double box = 1;
+		for (int j = 0; j < d; j++) {
+			for (double[] p : front) {
+				upper[j] = Math.max(upper[j], p[j]);
+			}
+			box *= upper[j];
+		}
+		double[] sample = new double[d];
+		int hits = 0;
+		for (int s = 0; s < samples; s++) {
+			for (int j = 0; j < d; j++) {
+				sample[j] = random.nextDouble() * upper[j];
+			}
+			for (double[] p : front) {
+				if (weaklyDominates(p, sample, d)) {
+					hits++;
+					break;
+				}
+			}
+		}
+		return box * hits / samples;
+	}
+
+	/**
+	 * Points that no other point dominates. Identical points do not dominate
+	 * each other, so all of them are kept.
+	 *
+	 * @param points
+	 *            points to filter
+	 * @param d
+	 *            number of objectives to compare
+	 * @return nondominated points, in their original order
+	 */
+	public static double[][] nondominated(double[][] points, int d) {
+		return filter(points, d, false);
+	}
+
+	/**
+	 * Points that no other point dominates, keeping only one of several
+	 * identical points, since the others add no volume
+	 */
+	private static double[][] prune(double[][] points, int d) {
+		return filter(points, d, true);
+	}
+
+	private static double[][] filter(double[][] points, int d, boolean removeDuplicates) {
+		boolean[] dominated = new boolean[points.length];
+		int n = points.length;
+		for (int i = 0; i < points.length; i++) {
+			for (int k = i + 1; !dominated[i] && k < points.length; k++) {
+				if (dominated[k]) {
+					continue;
+				}
+				boolean iCoversK = weaklyDominates(points[i], points[k], d);
+				boolean kCoversI = weaklyDominates(points[k], points[i], d);
+				if (iCoversK && (removeDuplicates || !kCoversI)) {
+					dominated[k] = true;
+					n--;
+				} else if (kCoversI && !iCoversK) {
+					dominated[i] = true;
+					n--;
+				}
+			}
+		}
+		double[][] result = new double[n][];
+		n = 0;
+		for (int i = 0; i < points.length; i++) {
+			if (!dominated[i]) {
+				result[n++] = points[i];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Points moved so the reference point is the origin. Points that are not
+	 * better than the reference in every objective dominate no volume, and are
+	 * left out.
+	 */
+	private static double[][] shifted(double[][] points, double[] reference) {
+		int d = reference.length;
+		double[][] result = new double[points.length][];
+		int n = 0;
+		for (double[] p : points) {
+			double[] q = new double[d];
+			boolean positive = true;
+			for (int j = 0; j < d; j++) {
+				q[j] = p[j] - reference[j];
+				positive = positive && q[j] > 0;
+			}
+			if (positive) {
+				result[n++] = q;
+			}
+		}
+		return Arrays.copyOf(result, n);
+	}
+
+	/**
+	 * Hypervolume of the first d objectives of the points, measured from the
+	 * origin. The order of the points array is changed.
+	 */
+	private static double wfg(double[][] points, int d) {
+		int n = points.length;
+		if (n == 0) {
+			return 0;
+		}
+		if (d == 1) {
+			double max = 0;
+			for (double[] p : points) {
+				max = Math.max(max, p[0]);
+			}
+			return max;
+		}
+		if (d == 2) {
+			return sweep(points);
+		}
+		sortDescending(points, d - 1);
+		double volume = 0;
+		double[][] limited = new double[n][];
+		for (int k = 0; k < n; k++) {
+			double[] p = points[k];
+			// Earlier points limited to p, in the remaining objectives
+			for (int i = 0; i < k; i++) {
+				double[] q = new double[d - 1];
+				for (int j = 0; j < d - 1; j++) {
+					q[j] = Math.min(points[i][j], p[j]);
+				}
+				limited[i] = q;
+			}
+			double exclusive = product(p, d - 1) - wfg(prune(Arrays.copyOf(limited, k), d - 1), d - 1);
+			volume += p[d - 1] * exclusive;
+		}
+		return volume;
+	}
+
+	/**
+	 * Hypervolume in two objectives, measured from the origin: sweep the
+	 * points from best to worst in the first objective, adding the area each
+	 * one adds above the best second objective so far.
+	 */
+	private static double sweep(double[][] points) {
+		sortDescending(points, 0);
+		double area = 0;
+		double height = 0;
+		for (double[] p : points) {
+			if (p[1] > height) {
+				area += p[0] * (p[1] - height);
+				height = p[1];
+			}
+		}
+		return area;
+	}
+
+	private static void sortDescending(double[][] points, final int objective) {
+		Arrays.sort(points, new Comparator<double[]>() {
+			@Override
+			public int compare(double[] p1, double[] p2) {
+				return Double.compare(p2[objective], p1[objective]);
+			}
+		});
+	}
+
+	private static double product(double[] p, int d) {
+		double result = 1;
+		for (int j = 0; j < d; j++) {
+			result *= p[j];
+		}
+		return result;
+	}
+
+	/**
+	 * Whether p is at least as good as q in each of the first d objectives
+	 */
+	private static boolean weaklyDominates(double[] p, double[] q, int d) {
+		for (int j = 0; j < d; j++) {
+			if (p[j] < q[j]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
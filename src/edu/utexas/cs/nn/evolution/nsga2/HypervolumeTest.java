@@ -0,0 +1,105 @@
+package edu.utexas.cs.nn.evolution.nsga2;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.utexas.cs.nn.util.random.SplitMixRandom;
+
+public class HypervolumeTest {
+
+	/**
+	 * Random points, where a small number of distinct values creates ties
+	 * and duplicate points, and some points are below the reference point
+	 */
+	private static double[][] points(Random random, int size, int objectives, int distinctValues) {
+		double[][] points = new double[size][objectives];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < objectives; j++) {
+				points[i][j] = distinctValues > 0 ? random.nextInt(distinctValues) - 1 : random.nextDouble();
+			}
+		}
+		return points;
+	}
+
+	private static double[][] copy(double[][] points) {
+		double[][] result = new double[points.length][];
+		for (int i = 0; i < points.length; i++) {
+			result[i] = points[i].clone();
+		}
+		return result;
+	}
+
+	/**
+	 * Hypervolume computed as before, by jMetal, with the reference point at
+	 * the origin
+	 */
+	private static double jMetal(double[][] points, int objectives) {
+		jmetal.qualityIndicator.Hypervolume hv = new jmetal.qualityIndicator.Hypervolume();
+		double[][] front = copy(points);
+		for (double[] p : front) {
+			for (int j = 0; j < objectives; j++) {
+				p[j] = Math.max(0, p[j]);
+			}
+		}
+		int n = hv.filterNondominatedSet(front, front.length, objectives);
+		return hv.calculateHypervolume(front, n, objectives);
+	}
+
+	@Test
+	public void test_simple() {
+		double[] origin = new double[] { 0, 0 };
+		assertEquals(0, Hypervolume.exact(new double[0][], origin), 0);
+		assertEquals(6, Hypervolume.exact(new double[][] { { 2, 3 } }, origin), 0);
+		// 3x1 and 1x3 boxes overlap in a 1x1 square
+		assertEquals(5, Hypervolume.exact(new double[][] { { 3, 1 }, { 1, 3 } }, origin), 0);
+		// Dominated and duplicate points add nothing
+		assertEquals(5, Hypervolume.exact(new double[][] { { 3, 1 }, { 1, 3 }, { 1, 1 }, { 3, 1 } }, origin), 0);
+		// Points are measured from the reference point
+		assertEquals(2, Hypervolume.exact(new double[][] { { 3, 3 } }, new double[] { 1, 2 }), 0);
+		// Unit cube minus the corner cube of side 0.5
+		double[][] cube = new double[][] { { 1, 1, 0.5 }, { 1, 0.5, 1 }, { 0.5, 1, 1 } };
+		assertEquals(1 - 0.125, Hypervolume.exact(cube, new double[] { 0, 0, 0 }), 1e-12);
+	}
+
+	@Test
+	public void test_sameAsJMetal() {
+		Random random = new Random(0);
+		for (int objectives = 2; objectives <= 5; objectives++) {
+			double[] origin = new double[objectives];
+			for (int trial = 0; trial < 20; trial++) {
+				double[][] points = points(random, 40, objectives, trial % 2 == 0 ? 6 : 0);
+				double expected = jMetal(points, objectives);
+				assertEquals(expected, Hypervolume.exact(copy(points), origin), 1e-9 * Math.max(1, expected));
+			}
+		}
+	}
+
+	@Test
+	public void test_nondominatedCount() {
+		Random random = new Random(1);
+		for (int objectives = 2; objectives <= 4; objectives++) {
+			for (int trial = 0; trial < 20; trial++) {
+				double[][] points = points(random, 50, objectives, 4);
+				int expected = new jmetal.qualityIndicator.Hypervolume().filterNondominatedSet(copy(points), points.length, objectives);
+				assertEquals(expected, Hypervolume.nondominated(points, objectives).length);
+			}
+		}
+	}
+
+	@Test
+	public void test_monteCarlo() {
+		Random random = new Random(2);
+		for (int objectives = 2; objectives <= 6; objectives++) {
+			double[] origin = new double[objectives];
+			double[][] points = points(random, 30, objectives, 0);
+			double exact = Hypervolume.exact(copy(points), origin);
+			double estimate = Hypervolume.monteCarlo(points, origin, 200000, new SplitMixRandom(objectives));
+			assertEquals(exact, estimate, 0.02 * exact);
+			// Same stream gives the same estimate
+			assertEquals(estimate, Hypervolume.monteCarlo(points, origin, 200000, new SplitMixRandom(objectives)), 0);
+		}
+	}
+}
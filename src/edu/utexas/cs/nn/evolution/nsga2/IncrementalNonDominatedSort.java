@@ -0,0 +1,143 @@
+package edu.utexas.cs.nn.evolution.nsga2;
+
+import java.util.ArrayList;
+
+/**
+ * Population kept sorted into Pareto fronts while individuals are added and
+ * removed one at a time, as in a steady-state EA, instead of sorting the
+ * whole population again after every change.
+ *
+ * A new score is placed in the first front that has no member dominating
+ * it. Members of that front that the new score dominates move down to the
+ * next front, where they in turn push down the members they dominate, and
+ * so on. Only the fronts that changed have their crowding distances
+ * recomputed. Removing a member of the last front never changes the rank
+ * of any other member, so the worst member can always be removed cheaply.
+ *
+ * Domination is decided by NSGA2Score.isBetter, as in NSGA2, but crowding
+ * distances are computed within each front rather than across the whole
+ * population, so that a change to one front does not change the distances
+ * in others.
+ *
+ * @param <T>
+ *            phenotype
+ */
+public class IncrementalNonDominatedSort<T> {
+
+	// fronts.get(0) is the non-dominated front
+	private final ArrayList<ArrayList<NSGA2Score<T>>> fronts = new ArrayList<ArrayList<NSGA2Score<T>>>();
+	private int size = 0;
+
+	/**
+	 * Add a score to the population, and assign ranks and crowding distances
+	 * to it and any members whose front changed.
+	 *
+	 * @param score
+	 *            score of new member
+	 */
+	public void add(NSGA2Score<T> score) {
+		int front = 0;
+		while (front < fronts.size() && dominated(score, fronts.get(front))) {
+			front++;
+		}
+		ArrayList<NSGA2Score<T>> moving = new ArrayList<NSGA2Score<T>>(1);
+		moving.add(score);
+		// Each set of moving scores pushes the members it dominates down
+		while (!moving.isEmpty()) {
+			if (front == fronts.size()) {
+				fronts.add(new ArrayList<NSGA2Score<T>>());
+			}
+			ArrayList<NSGA2Score<T>> members = fronts.get(front);
+			ArrayList<NSGA2Score<T>> pushed = new ArrayList<NSGA2Score<T>>();
+			for (int i = 0; i < members.size(); i++) {
+				NSGA2Score<T> member = members.get(i);
+				if (dominates(moving, member)) {
+					pushed.add(member);
+					members.remove(i--);
+				}
+			}
+			for (NSGA2Score<T> s : moving) {
+				s.assign(front);
+				members.add(s);
+			}
+			assignCrowdingDistance(members);
+			moving = pushed;
+			front++;
+		}
+		size++;
+	}
+
+	/**
+	 * Remove the member of the last front that is in the most crowded area,
+	 * which is the member NSGA2 selection would drop first.
+	 *
+	 * @return removed score
+	 */
+	public NSGA2Score<T> removeWorst() {
+		assert size > 0 : "Cannot remove from an empty population";
+		ArrayList<NSGA2Score<T>> last = fronts.get(fronts.size() - 1);
+		int worst = 0;
+		for (int i = 1; i < last.size(); i++) {
+			if (last.get(i).getCrowdingDistance() < last.get(worst).getCrowdingDistance()) {
+				worst = i;
+			}
+		}
+		NSGA2Score<T> removed = last.remove(worst);
+		if (last.isEmpty()) {
+			fronts.remove(fronts.size() - 1);
+		} else {
+			assignCrowdingDistance(last);
+		}
+		size--;
+		return removed;
+	}
+
+	/**
+	 * @return number of members
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return number of Pareto fronts
+	 */
+	public int numFronts() {
+		return fronts.size();
+	}
+
+	/**
+	 * @return all members, from the first front to the last
+	 */
+	public ArrayList<NSGA2Score<T>> members() {
+		ArrayList<NSGA2Score<T>> result = new ArrayList<NSGA2Score<T>>(size);
+		for (ArrayList<NSGA2Score<T>> front : fronts) {
+			result.addAll(front);
+		}
+		return result;
+	}
+
+	private static <T> boolean dominated(NSGA2Score<T> score, ArrayList<NSGA2Score<T>> front) {
+		for (NSGA2Score<T> member : front) {
+			if (member.isBetter(score)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static <T> boolean dominates(ArrayList<NSGA2Score<T>> scores, NSGA2Score<T> member) {
+		for (NSGA2Score<T> s : scores) {
+			if (s.isBetter(member)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static <T> void assignCrowdingDistance(ArrayList<NSGA2Score<T>> front) {
+		// Sorting the array leaves the order of the front itself unchanged
+		NSGA2.assignCrowdingDistance(front.toArray(new NSGA2Score[front.size()]));
+	}
+}
@@ -0,0 +1,82 @@
+package edu.utexas.cs.nn.evolution.nsga2;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.utexas.cs.nn.scores.Score;
+
+public class IncrementalNonDominatedSortTest {
+
+	private static NSGA2Score<Object> randomScore(Random random, int objectives, int distinctValues) {
+		double[] s = new double[objectives];
+		for (int j = 0; j < s.length; j++) {
+			s[j] = random.nextInt(distinctValues);
+		}
+		return new NSGA2Score<Object>(new Score<Object>(null, s, null));
+	}
+
+	/**
+	 * Every member has the rank that sorting the whole population from
+	 * scratch would give it
+	 */
+	private static void assertRanksMatch(IncrementalNonDominatedSort<Object> sort) {
+		ArrayList<NSGA2Score<Object>> members = sort.members();
+		assertEquals(sort.size(), members.size());
+		double[][] objectives = new double[members.size()][];
+		for (int i = 0; i < objectives.length; i++) {
+			objectives[i] = members.get(i).scores;
+		}
+		int[] expected = EfficientNonDominatedSort.ranks(objectives);
+		int maxRank = -1;
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], members.get(i).getRank());
+			maxRank = Math.max(maxRank, expected[i]);
+		}
+		assertEquals(maxRank + 1, sort.numFronts());
+	}
+
+	/**
+	 * Ranks stay correct while members are added and removed in the way a
+	 * steady-state EA would, including many ties and duplicate points
+	 */
+	@Test
+	public void test_addAndRemoveWorst() {
+		Random random = new Random(7);
+		for (int objectives = 2; objectives <= 4; objectives++) {
+			IncrementalNonDominatedSort<Object> sort = new IncrementalNonDominatedSort<Object>();
+			for (int i = 0; i < 400; i++) {
+				sort.add(randomScore(random, objectives, 8));
+				if (sort.size() > 50) {
+					NSGA2Score<Object> removed = sort.removeWorst();
+					// Nothing is in a worse front than the removed member
+					for (NSGA2Score<Object> s : sort.members()) {
+						assertTrue(s.getRank() <= removed.getRank());
+					}
+				}
+				assertRanksMatch(sort);
+			}
+		}
+	}
+
+	/**
+	 * A new point that dominates everything pushes every front down one
+	 * level
+	 */
+	@Test
+	public void test_cascade() {
+		IncrementalNonDominatedSort<Object> sort = new IncrementalNonDominatedSort<Object>();
+		for (int i = 0; i < 5; i++) {
+			sort.add(new NSGA2Score<Object>(new Score<Object>(null, new double[] { i, i }, null)));
+			assertEquals(i + 1, sort.numFronts());
+			assertEquals(0, sort.members().get(0).getRank());
+			assertEquals(i, sort.members().get(0).scores[0], 0.0);
+		}
+		assertEquals(0.0, sort.removeWorst().scores[0], 0.0);
+		assertEquals(4, sort.numFronts());
+		assertRanksMatch(sort);
+	}
+}
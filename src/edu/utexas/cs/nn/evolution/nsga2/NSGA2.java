@@ -1,8 +1,10 @@
 package edu.utexas.cs.nn.evolution.nsga2;
 
 import edu.utexas.cs.nn.evolution.EvolutionaryHistory;
+import edu.utexas.cs.nn.evolution.Litter;
 import edu.utexas.cs.nn.evolution.genotypes.Genotype;
 import edu.utexas.cs.nn.evolution.mulambda.MuPlusLambda;
+import edu.utexas.cs.nn.log.PlotLog;
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
 import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.parameters.Parameters;
@@ -29,6 +31,7 @@ public class NSGA2<T> extends MuPlusLambda<T> {
 
 	protected boolean mating;// whether or not mating will occur
 	protected double crossoverRate;// rate at which phenotypes are crossed over
+	protected PlotLog hypervolumeLog;// hypervolume of parents each generation, if logHV is set
 
 	/**
 	 * Default constructor
@@ -63,6 +66,50 @@ public class NSGA2<T> extends MuPlusLambda<T> {
 		super(task, mu, mu, io);
 		mating = Parameters.parameters.booleanParameter("mating");
 		crossoverRate = Parameters.parameters.doubleParameter("crossoverRate");
+		if (writeOutput && io && Parameters.parameters.booleanParameter("logHV")) {
+			ArrayList<String> labels = new ArrayList<String>();
+			labels.add("Hypervolume");
+			labels.add("Pareto Front Size");
+			hypervolumeLog = new PlotLog("parentsHV", labels);
+		}
+	}
+
+	/**
+	 * Also logs the hypervolume of the parents, measured from the minimum
+	 * scores of the task, in the same way that processHV computes it after
+	 * evolution from the parent generation files
+	 *
+	 * @param parentScores
+	 *            Score details of all parents after evaluation
+	 */
+	@Override
+	public void logParentInfo(ArrayList<Score<T>> parentScores) {
+		super.logParentInfo(parentScores);
+		if (hypervolumeLog != null) {
+			int numObjectives = task.numObjectives();
+			double[][] points = new double[parentScores.size()][];
+			for (int i = 0; i < points.length; i++) {
+				// Leave out meta-heuristic objectives
+				points[i] = Arrays.copyOf(parentScores.get(i).scores, numObjectives);
+			}
+			Pair<Double, Integer> hypervolume = Hypervolume.ofFront(points, task.minScores(),
+					Parameters.parameters.integerParameter("runNumber"), generation);
+			ArrayList<Double> values = new ArrayList<Double>(2);
+			values.add(hypervolume.t1);
+			values.add((double) hypervolume.t2);
+			hypervolumeLog.log(generation, values);
+		}
+	}
+
+	/**
+	 * Close the hypervolume log along with the others
+	 */
+	@Override
+	protected void closeLogs() {
+		super.closeLogs();
+		if (hypervolumeLog != null) {
+			hypervolumeLog.close();
+		}
 	}
 
 	/**
@@ -107,68 +154,114 @@ public class NSGA2<T> extends MuPlusLambda<T> {
 			judge = new ParentComparator<T>();
 		}
 
-		for (int i = 0; i < numChildren; i++) {
-			int e1 = RandomNumbers.randomGenerator.nextInt(scoresArray.length);
-			int e2 = RandomNumbers.randomGenerator.nextInt(scoresArray.length);
-			// determines which of the two randomly chosen scores is better
-			NSGA2Score<T> better = judge.better(scoresArray[e1], scoresArray[e2]);
-			Genotype<T> source = better.individual;// stores better genotype
-			long parentId1 = source.getId();
-			long parentId2 = -1;
-			Genotype<T> e = source.copy();
-
-			// This restriction on mutation and crossover only makes sense when
-			// using pacman coevolution with a fitness/population for each 
-			// individual level
-			if (!CommonConstants.requireFitnessDifferenceForChange || better.scores[0] > 0) {
-				// If neither net has reached a given level, the scores of 0
-				// will prevent evolution mating only occurs if on and randomly
-				if (mating && RandomNumbers.randomGenerator.nextDouble() < crossoverRate) {
-					e1 = RandomNumbers.randomGenerator.nextInt(scoresArray.length);
-					e2 = RandomNumbers.randomGenerator.nextInt(scoresArray.length);
-
-					Genotype<T> otherSource = judge.better(scoresArray[e1], scoresArray[e2]).individual;
-					parentId2 = otherSource.getId();
-					Genotype<T> otherOffspring;
-
-					if (CommonConstants.cullCrossovers) {
-						ArrayList<Genotype<T>> keepers = cullCrossovers(e, otherSource);
-						// Best two of litter get kept
-						e = keepers.get(0);
-						otherOffspring = keepers.get(1);
-					} else {// keeps all crossovers
-						Genotype<T> other = otherSource.copy();
-                                                // Genotype e is directly modified by the crossover call.
-                                                // Genotype otherOffspring is now a modified version of other.
-						otherOffspring = e.crossover(other);
-                                                assert otherOffspring.getId() != other.getId() : "otherOffspring should be a newly created genotype";
-					}
-					i++;
-					/*
-					 * The offspring e will be added no matter what. Because i
-					 * is increased and then checked, otherOffspring will NOT
-					 * always be added.
-					 */
-					if (i < numChildren) {
-						otherOffspring.mutate();
-						offspring.add(otherOffspring);
-						EvolutionaryHistory.logLineageData(parentId1 + " X " + parentId2 + " -> " + otherOffspring.getId());
-					}
-				}
-
-				// for phased search. todo: refactor so that EA performs mutation?
-				e.setGeneration(generation);
-				e.mutate();// randomly mutates copied source
+		if (Litter.canBreedInParallel(scoresArray[0].individual)) {
+			// Select all parents first, then breed all litters at once
+			ArrayList<Litter<T>> litters = new ArrayList<Litter<T>>();
+			int planned = 0;
+			while (planned < numChildren) {
+				Litter<T> litter = selectLitter(planned, numChildren, scoresArray, judge, generation, mating, crossoverRate);
+				litters.add(litter);
+				planned += litter.size();
 			}
+			return Litter.breedAll(litters);
+		}
+		while (offspring.size() < numChildren) {
+			addOffspring(offspring, numChildren, scoresArray, judge, generation, mating, crossoverRate);
+		}
+		return offspring;
+	}
 
-			offspring.add(e);
-			if (parentId2 == -1) {
-				EvolutionaryHistory.logLineageData(parentId1 + " -> " + e.getId());
-			} else {
-				EvolutionaryHistory.logLineageData(parentId1 + " X " + parentId2 + " -> " + e.getId());
+	/**
+	 * Create one offspring by tournament selection from the scores, and
+	 * mutation and possibly crossover. When crossover happens, the other
+	 * offspring of the crossover is also added if there is room for it.
+	 *
+	 * @param <T> phenotype
+	 * @param offspring
+	 *            list that new offspring are added to
+	 * @param numChildren
+	 *            size the offspring list must not exceed
+	 * @param scoresArray
+	 *            scores of individuals to select from
+	 * @param judge
+	 *            comparison used in tournaments
+	 * @param generation
+	 *            current generation
+	 * @param mating
+	 *            whether crossover is allowed
+	 * @param crossoverRate
+	 *            chance of crossover
+	 */
+	public static <T> void addOffspring(ArrayList<Genotype<T>> offspring, int numChildren, NSGA2Score<T>[] scoresArray,
+			Better<NSGA2Score<T>> judge, int generation, boolean mating, double crossoverRate) {
+		offspring.addAll(selectLitter(offspring.size(), numChildren, scoresArray, judge, generation, mating, crossoverRate).breed());
+	}
+
+	/**
+	 * Select the parents of one offspring by tournament selection from the
+	 * scores, and possibly a second parent to cross it with. The other
+	 * offspring of the crossover is only kept if there is room for it.
+	 *
+	 * @param <T> phenotype
+	 * @param numOffspring
+	 *            number of offspring before this litter
+	 * @param numChildren
+	 *            number of offspring that must not be exceeded
+	 * @param scoresArray
+	 *            scores of individuals to select from
+	 * @param judge
+	 *            comparison used in tournaments
+	 * @param generation
+	 *            current generation
+	 * @param mating
+	 *            whether crossover is allowed
+	 * @param crossoverRate
+	 *            chance of crossover
+	 * @return litter to breed
+	 */
+	public static <T> Litter<T> selectLitter(int numOffspring, int numChildren, NSGA2Score<T>[] scoresArray,
+			Better<NSGA2Score<T>> judge, int generation, boolean mating, double crossoverRate) {
+		int e1 = RandomNumbers.generator().nextInt(scoresArray.length);
+		int e2 = RandomNumbers.generator().nextInt(scoresArray.length);
+		// determines which of the two randomly chosen scores is better
+		NSGA2Score<T> better = judge.better(scoresArray[e1], scoresArray[e2]);
+		Genotype<T> source = better.individual;// stores better genotype
+		Genotype<T> e = source.copy();
+
+		// This restriction on mutation and crossover only makes sense when
+		// using pacman coevolution with a fitness/population for each 
+		// individual level
+		boolean change = !CommonConstants.requireFitnessDifferenceForChange || better.scores[0] > 0;
+		if (!change) {
+			return new Litter<T>(e, source.getId(), generation, false);
+		}
+		// If neither net has reached a given level, the scores of 0
+		// will prevent evolution mating only occurs if on and randomly
+		if (mating && RandomNumbers.generator().nextDouble() < crossoverRate) {
+			e1 = RandomNumbers.generator().nextInt(scoresArray.length);
+			e2 = RandomNumbers.generator().nextInt(scoresArray.length);
+
+			Genotype<T> otherSource = judge.better(scoresArray[e1], scoresArray[e2]).individual;
+			/*
+			 * The offspring e will be added no matter what, but
+			 * otherOffspring is only added if there is room for both.
+			 */
+			boolean room = numOffspring + 1 < numChildren;
+			if (CommonConstants.cullCrossovers) {
+				ArrayList<Genotype<T>> keepers = cullCrossovers(e, otherSource);
+				// Best two of litter get kept
+				Litter<T> litter = new Litter<T>(keepers.get(0), source.getId(), generation, true);
+				litter.mate(keepers.get(1), otherSource.getId(), true, room);
+				return litter;
 			}
+			// keeps all crossovers. Genotype e is directly modified by the
+			// crossover, and the other offspring is a modified version of
+			// this copy.
+			Litter<T> litter = new Litter<T>(e, source.getId(), generation, true);
+			litter.mate(otherSource.copy(), otherSource.getId(), false, room);
+			return litter;
 		}
-		return offspring;
+		return new Litter<T>(e, source.getId(), generation, true);
 	}
 
 	/**
@@ -264,7 +357,7 @@ public class NSGA2<T> extends MuPlusLambda<T> {
 	 *            Each instance is a set of multiple scores for a member of the
 	 *            population that was just evaluated.
 	 */
-	private static <T> void assignCrowdingDistance(NSGA2Score<T>[] scores) {
+	static <T> void assignCrowdingDistance(NSGA2Score<T>[] scores) {
 		// reset distances
 		for (int i = 0; i < scores.length; i++) {
 			scores[i].setCrowdingDistance(0);
@@ -312,6 +405,14 @@ public class NSGA2<T> extends MuPlusLambda<T> {
 			scores[i].reset();
 		}
 
+		if (CommonConstants.efficientNonDominatedSort) {
+			double[][] objectives = dominationObjectives(scores);
+			// NaN scores break the lexicographic ordering, so are left to the pairwise sort
+			if (objectives != null) {
+				return efficientNonDominatedSort(scores, objectives);
+			}
+		}
+
 		for (int i = 0; i < scores.length; i++) {
 			NSGA2Score<T> p = scores[i];
 			for (int j = 0; j < scores.length; j++) {
@@ -354,6 +455,58 @@ public class NSGA2<T> extends MuPlusLambda<T> {
 		return frontSet;
 	}
 
+	/**
+	 * Objective scores compared for domination, as primitive arrays
+	 *
+	 * @param scores
+	 *            scores of the population
+	 * @return objectives of each score, or null if any objective is NaN
+	 */
+	private static <T> double[][] dominationObjectives(NSGA2Score<T>[] scores) {
+		double[][] objectives = new double[scores.length][];
+		for (int i = 0; i < scores.length; i++) {
+			objectives[i] = scores[i].dominationObjectives();
+			for (int j = 0; j < objectives[i].length; j++) {
+				if (Double.isNaN(objectives[i][j])) {
+					return null;
+				}
+			}
+		}
+		return objectives;
+	}
+
+	/**
+	 * Same result as the pairwise comparisons of fastNonDominatedSort, but
+	 * the fronts are found with EfficientNonDominatedSort, which does not
+	 * compare every pair of scores or store the individuals each one
+	 * dominates. Members of each front are still listed in population order.
+	 *
+	 * @param scores
+	 *            scores of the population, already reset
+	 * @param objectives
+	 *            objective scores compared for domination
+	 * @return list of Pareto fronts
+	 */
+	private static <T> ArrayList<ArrayList<NSGA2Score<T>>> efficientNonDominatedSort(NSGA2Score<T>[] scores, double[][] objectives) {
+		int[] ranks = EfficientNonDominatedSort.ranks(objectives);
+		int numFronts = 0;
+		int[] frontSizes = new int[scores.length];
+		for (int i = 0; i < ranks.length; i++) {
+			numFronts = Math.max(numFronts, ranks[i] + 1);
+			frontSizes[ranks[i]]++;
+		}
+		ArrayList<ArrayList<NSGA2Score<T>>> frontSet = new ArrayList<ArrayList<NSGA2Score<T>>>(numFronts);
+		for (int f = 0; f < numFronts; f++) {
+			frontSet.add(new ArrayList<NSGA2Score<T>>(frontSizes[f]));
+		}
+		for (int i = 0; i < scores.length; i++) {
+			frontSet.get(ranks[i]).add(scores[i]);
+			scores[i].assign(ranks[i]);
+			scores[i].processed = true;
+		}
+		return frontSet;
+	}
+
 	/**
 	 * Return just the Pareto front for a given population of scores.
 	 * 
@@ -79,4 +79,13 @@ public class NSGA2Score<T> extends MultiObjectiveScore<T> {
 	public boolean useObjective(int objective) {
 		return true;
 	}
+
+	/**
+	 * Objective scores that isBetter compares when deciding domination
+	 *
+	 * @return objective scores
+	 */
+	public double[] dominationObjectives() {
+		return scores;
+	}
 }
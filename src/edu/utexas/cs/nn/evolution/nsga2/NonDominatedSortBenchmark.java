@@ -0,0 +1,76 @@
+package edu.utexas.cs.nn.evolution.nsga2;
+
+import java.util.Random;
+
+import edu.utexas.cs.nn.parameters.CommonConstants;
+import edu.utexas.cs.nn.scores.Score;
+
+/**
+ * Compares the time taken by the pairwise fast non-dominated sort of NSGA2
+ * with EfficientNonDominatedSort on random populations of different sizes.
+ * Scores are random integers, so there are ties as in real fitness scores.
+ *
+ * Usage: NonDominatedSortBenchmark [objectives] [repetitions] [sizes...]
+ */
+public class NonDominatedSortBenchmark {
+
+	public static final int[] DEFAULT_SIZES = new int[] { 100, 500, 1000, 2000, 5000, 10000, 20000 };
+
+	public static void main(String[] args) {
+		int objectives = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+		int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		int[] sizes = DEFAULT_SIZES;
+		if (args.length > 2) {
+			sizes = new int[args.length - 2];
+			for (int i = 0; i < sizes.length; i++) {
+				sizes[i] = Integer.parseInt(args[i + 2]);
+			}
+		}
+
+		System.out.println("Objectives: " + objectives + ", repetitions: " + repetitions);
+		System.out.println("Size\tFronts\tPairwise(ms)\tENS(ms)\tSpeedup");
+		Random random = new Random(0);
+		for (int size : sizes) {
+			NSGA2Score<Object>[] scores = population(random, size, objectives);
+			// Warm up both sorts before timing
+			time(scores, false, 1);
+			time(scores, true, 1);
+			double pairwise;
+			try {
+				pairwise = time(scores, false, repetitions);
+			} catch (OutOfMemoryError e) {
+				pairwise = Double.NaN;
+			}
+			double efficient = time(scores, true, repetitions);
+			int fronts = NSGA2.getParetoLayers(scores).size();
+			System.out.println(size + "\t" + fronts + "\t" + pairwise + "\t" + efficient + "\t" + (pairwise / efficient));
+		}
+		CommonConstants.efficientNonDominatedSort = false;
+	}
+
+	/**
+	 * Average milliseconds to sort the population into fronts
+	 */
+	private static double time(NSGA2Score<Object>[] scores, boolean efficient, int repetitions) {
+		CommonConstants.efficientNonDominatedSort = efficient;
+		long before = System.nanoTime();
+		for (int i = 0; i < repetitions; i++) {
+			NSGA2.getParetoLayers(scores);
+		}
+		long after = System.nanoTime();
+		return (after - before) / (1000000.0 * repetitions);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static NSGA2Score<Object>[] population(Random random, int size, int objectives) {
+		NSGA2Score<Object>[] scores = new NSGA2Score[size];
+		for (int i = 0; i < size; i++) {
+			double[] s = new double[objectives];
+			for (int j = 0; j < objectives; j++) {
+				s[j] = random.nextInt(1000);
+			}
+			scores[i] = new NSGA2Score<Object>(new Score<Object>(null, s, null));
+		}
+		return scores;
+	}
+}
@@ -0,0 +1,259 @@
+package edu.utexas.cs.nn.evolution.nsga2;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
+import edu.utexas.cs.nn.parameters.CommonConstants;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.scores.Score;
+import edu.utexas.cs.nn.tasks.EvaluationExecutor;
+import edu.utexas.cs.nn.tasks.LonerTask;
+import edu.utexas.cs.nn.tasks.SinglePopulationTask;
+import edu.utexas.cs.nn.util.PopulationUtil;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Steady-state version of NSGA2 without generational barriers. A fixed
+ * number of evaluations are always running. Whenever one finishes, the
+ * individual is immediately inserted into the population, which is kept
+ * sorted into Pareto fronts incrementally, the worst member is removed if
+ * the population is larger than mu, and a new child is bred from the current
+ * population to take the free evaluation slot. So one slow evaluation never
+ * leaves the other evaluation threads idle.
+ *
+ * To work with experiments and logs designed for generational EAs, every
+ * lambda completed evaluations count as one generation: getNextGeneration
+ * returns the population once that many more evaluations have finished,
+ * after logging it. Evaluations still running at that point continue in the
+ * background and count toward the next generation, but individuals that
+ * have not finished evaluating are not part of the returned population, and
+ * are lost if evolution is stopped and resumed.
+ *
+ * Children are chosen by binary tournament on rank and crowding distance,
+ * and created by the same mutation and crossover as in NSGA2. Requires a
+ * LonerTask, since individuals are evaluated one at a time.
+ *
+ * @param <T>
+ *            phenotype
+ */
+public class SteadyStateNSGA2<T> extends NSGA2<T> {
+
+	private final LonerTask<T> lonerTask;
+	private final ParentComparator<T> judge = new ParentComparator<T>();
+	// Evaluated members, or null before the first generation
+	private IncrementalNonDominatedSort<T> population = null;
+	// Individuals waiting to be evaluated
+	private final LinkedList<Genotype<T>> waiting = new LinkedList<Genotype<T>>();
+	private CompletionService<Score<T>> evaluations;
+	private int maxInFlight;
+	private int inFlight = 0;
+	// Only used if the experiment has no executor of its own
+	private EvaluationExecutor ownExecutor = null;
+
+	/**
+	 * Default constructor
+	 */
+	public SteadyStateNSGA2() {
+		this(Parameters.parameters.booleanParameter("io"));
+	}
+
+	/**
+	 * @param io
+	 *            whether or not to output files
+	 */
+	@SuppressWarnings("unchecked")
+	public SteadyStateNSGA2(boolean io) {
+		this((SinglePopulationTask<T>) MMNEAT.task, Parameters.parameters.integerParameter("mu"), io);
+	}
+
+	/**
+	 * @param task
+	 *            task to be evolved, which must be a LonerTask
+	 * @param mu
+	 *            size of population
+	 * @param io
+	 *            whether or not to output files
+	 */
+	public SteadyStateNSGA2(SinglePopulationTask<T> task, int mu, boolean io) {
+		super(task, mu, io);
+		if (!(task instanceof LonerTask)) {
+			System.out.println("Steady-state evolution requires a LonerTask, not " + task);
+			System.exit(1);
+		}
+		lonerTask = (LonerTask<T>) task;
+	}
+
+	/**
+	 * Run evaluations until lambda more have finished, adding each evaluated
+	 * individual to the population as soon as it is done.
+	 *
+	 * @param parents
+	 *            individuals to evaluate first, if evolution is just
+	 *            starting. Ignored afterward, since the population is kept
+	 *            between generations.
+	 * @return current population
+	 */
+	@Override
+	public ArrayList<Genotype<T>> getNextGeneration(ArrayList<Genotype<T>> parents) {
+		if (population == null) {
+			start(parents);
+		}
+		ArrayList<Score<T>> completed = new ArrayList<Score<T>>(lambda);
+		while (completed.size() < lambda) {
+			fillEvaluationSlots();
+			Score<T> s = nextCompleted();
+			completed.add(s);
+			population.add(new NSGA2Score<T>(s));
+			if (population.size() > mu) {
+				population.removeWorst();
+			}
+		}
+
+		ArrayList<Score<T>> scores = new ArrayList<Score<T>>(population.members());
+		logParentInfo(scores);
+		if (writeOutput) {
+			if (CommonConstants.logChildScores) {
+				childLog.log(completed, generation);
+			}
+			MMNEAT.logPerformanceInformation(completed, generation);
+		}
+		if (CommonConstants.netio) {
+			saveBest(scores);
+		}
+		ArrayList<Genotype<T>> result = new ArrayList<Genotype<T>>(scores.size());
+		for (Score<T> s : scores) {
+			result.add(s.individual);
+		}
+		advanceGeneration(result);
+		return result;
+	}
+
+	/**
+	 * Set up evaluation threads, and queue the initial population for
+	 * evaluation.
+	 */
+	private void start(ArrayList<Genotype<T>> parents) {
+		assert !parents.isEmpty() : "Steady-state evolution needs an initial population";
+		population = new IncrementalNonDominatedSort<T>();
+		waiting.addAll(parents);
+		EvaluationExecutor executor = MMNEAT.evaluationExecutor;
+		if (executor == null) {
+			// Without parallelEvaluations, one evaluation runs at a time
+			ownExecutor = new EvaluationExecutor(1, 1);
+			executor = ownExecutor;
+		}
+		evaluations = executor.completionService();
+		int requested = Parameters.parameters.integerParameter("steadyStateInFlight");
+		maxInFlight = ownExecutor != null || !lonerTask.canEvaluateInParallel() ? 1
+				: (requested > 0 ? requested : executor.threads());
+		System.out.println("Steady-state evolution with " + maxInFlight + " evaluations at once");
+	}
+
+	/**
+	 * Start evaluations until maxInFlight are running. Unevaluated members of
+	 * the initial population go first, and new children are bred afterward.
+	 */
+	private void fillEvaluationSlots() {
+		while (inFlight < maxInFlight && (!waiting.isEmpty() || population.size() > 0)) {
+			if (waiting.isEmpty()) {
+				breed();
+			}
+			final Genotype<T> individual = waiting.poll();
+			evaluations.submit(new Callable<Score<T>>() {
+				@Override
+				public Score<T> call() {
+					return lonerTask.evaluateOne(individual);
+				}
+			});
+			inFlight++;
+		}
+	}
+
+	/**
+	 * Add one or two new children of the current population to the waiting
+	 * list (two if they came from the same crossover).
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void breed() {
+		ArrayList<NSGA2Score<T>> members = population.members();
+		NSGA2Score<T>[] scoresArray = members.toArray(new NSGA2Score[members.size()]);
+		ArrayList<Genotype<T>> offspring = new ArrayList<Genotype<T>>(2);
+		addOffspring(offspring, 2, scoresArray, judge, generation, mating, crossoverRate);
+		waiting.addAll(offspring);
+	}
+
+	/**
+	 * Wait for whichever running evaluation finishes first
+	 *
+	 * @return its score
+	 */
+	private Score<T> nextCompleted() {
+		try {
+			Score<T> s = evaluations.take().get();
+			inFlight--;
+			return s;
+		} catch (InterruptedException | ExecutionException ex) {
+			ex.printStackTrace();
+			System.exit(1);
+			return null;
+		}
+	}
+
+	/**
+	 * Save the best member of the population in each objective, as LonerTask
+	 * does after evaluating each generation.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void saveBest(ArrayList<Score<T>> scores) {
+		int numObjectives = scores.get(0).scores.length;
+		double[] bestObjectives = new double[numObjectives];
+		Genotype<T>[] bestGenotypes = new Genotype[numObjectives];
+		Score<T>[] bestScores = new Score[numObjectives];
+		for (int i = 0; i < scores.size(); i++) {
+			Score<T> s = scores.get(i);
+			for (int j = 0; j < numObjectives; j++) {
+				if (i == 0 || s.scores[j] >= bestObjectives[j]) {
+					bestGenotypes[j] = s.individual;
+					bestObjectives[j] = s.scores[j];
+					bestScores[j] = s;
+				}
+			}
+		}
+		PopulationUtil.saveBestOfCurrentGen(bestObjectives, bestGenotypes, bestScores);
+	}
+
+	/**
+	 * Log the final population and close logs. Evaluations still running are
+	 * waited for, but not added to the population.
+	 *
+	 * @param finalPopulation
+	 *            population returned by the last generation
+	 */
+	@Override
+	public void close(ArrayList<Genotype<T>> finalPopulation) {
+		if (population == null) {
+			// No generation was evolved, so the population was never evaluated
+			super.close(finalPopulation);
+			return;
+		}
+		while (inFlight > 0) {
+			nextCompleted();
+		}
+		if (ownExecutor != null) {
+			ownExecutor.close();
+		}
+		logParentInfo(new ArrayList<Score<T>>(population.members()));
+		closeLogs();
+	}
+
+	/**
+	 * @return number of evaluations that make up one generation
+	 */
+	@Override
+	public int evaluationsPerGeneration() {
+		return lambda;
+	}
+}
@@ -0,0 +1,98 @@
+package edu.utexas.cs.nn.evolution.nsga2;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
+import edu.utexas.cs.nn.evolution.genotypes.RealValuedGenotype;
+import edu.utexas.cs.nn.evolution.metaheuristics.Metaheuristic;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.scores.Score;
+import edu.utexas.cs.nn.tasks.EvaluationExecutor;
+import edu.utexas.cs.nn.tasks.LonerTask;
+import edu.utexas.cs.nn.util.random.GaussianGenerator;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+
+public class SteadyStateNSGA2Test {
+
+	/**
+	 * Two conflicting objectives, with evaluations that take different
+	 * amounts of time so that they finish out of order
+	 */
+	static class TradeOffTask extends LonerTask<ArrayList<Double>> {
+
+		final AtomicInteger evaluations = new AtomicInteger(0);
+
+		@Override
+		public int numObjectives() {
+			return 2;
+		}
+
+		@Override
+		public double getTimeStamp() {
+			return 0;
+		}
+
+		@Override
+		public Score<ArrayList<Double>> evaluate(Genotype<ArrayList<Double>> individual) {
+			int count = evaluations.incrementAndGet();
+			try {
+				Thread.sleep(count % 3);
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+			double x = individual.getPhenotype().get(0);
+			return new Score<ArrayList<Double>>(individual, new double[] { x, -x * x }, null, new double[0]);
+		}
+	}
+
+	@Before
+	@SuppressWarnings("rawtypes")
+	public void setUp() throws Exception {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "mating:false" });
+		MMNEAT.metaheuristics = new ArrayList<Metaheuristic>();
+		MMNEAT.weightPerturber = new GaussianGenerator();
+		MMNEAT.evaluationExecutor = new EvaluationExecutor(4, 4);
+		RandomNumbers.reset(0);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.evaluationExecutor.close();
+		MMNEAT.clearClasses();
+	}
+
+	/**
+	 * Each generation evaluates lambda individuals, and the population stays
+	 * at mu distinct members
+	 */
+	@Test
+	public void test_generations() {
+		TradeOffTask task = new TradeOffTask();
+		int mu = 10;
+		SteadyStateNSGA2<ArrayList<Double>> ea = new SteadyStateNSGA2<ArrayList<Double>>(task, mu, false);
+		ArrayList<Genotype<ArrayList<Double>>> population = ea.initialPopulation(new RealValuedGenotype(new double[] { 0.5 }));
+		for (int gen = 1; gen <= 5; gen++) {
+			population = ea.getNextGeneration(population);
+			assertEquals(gen, ea.currentGeneration());
+			assertEquals(mu, population.size());
+			HashSet<Long> ids = new HashSet<Long>();
+			for (Genotype<ArrayList<Double>> g : population) {
+				ids.add(g.getId());
+			}
+			assertEquals(mu, ids.size());
+			// Evaluations that had not finished are not counted yet
+			assertTrue(task.evaluations.get() >= gen * ea.evaluationsPerGeneration());
+			assertTrue(task.evaluations.get() <= gen * ea.evaluationsPerGeneration() + MMNEAT.evaluationExecutor.threads());
+		}
+		ea.close(population);
+	}
+}
@@ -4,6 +4,7 @@ import edu.utexas.cs.nn.evolution.genotypes.Genotype;
 import edu.utexas.cs.nn.evolution.nsga2.NSGA2;
 import edu.utexas.cs.nn.evolution.nsga2.bd.characterizations.BehaviorCharacterization;
 import edu.utexas.cs.nn.evolution.nsga2.bd.vectors.BehaviorVector;
+import edu.utexas.cs.nn.evolution.nsga2.bd.vectors.VantagePointTree;
 import edu.utexas.cs.nn.util.ClassCreation;
 import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.scores.Score;
@@ -117,6 +118,32 @@ public class BDNSGA2<T> extends NSGA2<T> {
 		return diversityScore;
 	}
 
+	/**
+	 * Same as diversityScore, but the nearest neighbors are found with
+	 * indexes of the population and archive behaviors rather than by
+	 * comparing against every behavior.
+	 *
+	 * @param populationIndex
+	 *            index of the population behavior vectors
+	 * @param archiveIndex
+	 *            index of the archive behaviors, or null if the archive is not
+	 *            compared
+	 * @param individualBehavior
+	 *            behavior of the individual
+	 * @param individualIndex
+	 *            index of the individual in the population
+	 * @return distance to nearest other behavior
+	 */
+	private static double diversityScore(VantagePointTree populationIndex, VantagePointTree archiveIndex,
+			BehaviorVector individualBehavior, int individualIndex) {
+		double diversityScore = populationIndex.nearestDistance(individualBehavior, individualIndex, false);
+		if (archiveIndex != null) {
+			// Assume that only identical agent would have zero distance
+			diversityScore = Math.min(diversityScore, archiveIndex.nearestDistance(individualBehavior, -1, true));
+		}
+		return diversityScore;
+	}
+
 	/**
 	 * Given the behavior vectors of all members of the population, calculate
 	 * each member's diversity score.
@@ -132,8 +159,10 @@ public class BDNSGA2<T> extends NSGA2<T> {
 		ArrayList<Double> result = new ArrayList<Double>(behaviorVectors.size());
 		double maxDiversity = -Double.MAX_VALUE;// more negative = more diverse
 		int mostDiverseIndex = -1;
+		VantagePointTree populationIndex = new VantagePointTree(behaviorVectors);
+		VantagePointTree archiveIndex = compareArchive ? new VantagePointTree(archiveBehaviors) : null;
 		for (int i = 0; i < behaviorVectors.size(); i++) {
-			double score = diversityScore(behaviorVectors, i, compareArchive);
+			double score = diversityScore(populationIndex, archiveIndex, behaviorVectors.get(i), i);
 			result.add(score);
 			if (score > maxDiversity) {
 				maxDiversity = score;
@@ -4,6 +4,7 @@ import edu.utexas.cs.nn.evolution.nsga2.bd.vectors.BehaviorVector;
 import edu.utexas.cs.nn.evolution.nsga2.bd.vectors.RealBehaviorVector;
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
 import edu.utexas.cs.nn.networks.Network;
+import edu.utexas.cs.nn.networks.NetworkUtil;
 import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.scores.Score;
 import edu.utexas.cs.nn.util.random.RandomNumbers;
@@ -59,19 +60,18 @@ public class GeneralNetworkCharacterization<T extends Network> implements Behavi
 	 *            syllabus
 	 * @return behavior vector
 	 */
-	protected ArrayList<Double> getBehaviorVector(T net, ArrayList<double[]> syllabus) {
+	protected double[] getBehaviorVector(T net, ArrayList<double[]> syllabus) {
 		net.flush();// clears internal state of network
-		ArrayList<Double> behaviorVector = new ArrayList<Double>(syllabus.size() * net.numOutputs());
+		double[] output = NetworkUtil.outputBuffer(net, null);
+		int numOutputs = output.length;
+		double[] behaviorVector = new double[syllabus.size() * numOutputs];
 		for (int x = 0; x < syllabus.size(); x++) {// gets behavior vector by
 													// processing syllabus
 													// through net
-			double[] output = net.process(syllabus.get(x));// uses processed
-															// syllabus to
-															// compare networks'
-															// diversity
-			for (int i = 0; i < output.length; i++) {
-				behaviorVector.add(output[i]);
-			}
+			net.process(syllabus.get(x), output);// uses processed syllabus
+													// to compare networks'
+													// diversity
+			System.arraycopy(output, 0, behaviorVector, x * numOutputs, numOutputs);
 		}
 		return behaviorVector;
 	}
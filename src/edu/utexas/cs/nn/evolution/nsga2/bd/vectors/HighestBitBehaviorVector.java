@@ -6,7 +6,6 @@ package edu.utexas.cs.nn.evolution.nsga2.bd.vectors;
 
 import edu.utexas.cs.nn.util.stats.StatisticsUtilities;
 import java.util.BitSet;
-import java.util.ArrayList;
 
 /**
  * Gets the highest bit behavior vector for behavioral diversity
@@ -24,7 +23,7 @@ public class HighestBitBehaviorVector extends BitBehaviorVector {
 	 * @param groupSize
 	 *            size of group toget behavior vectors
 	 */
-	public HighestBitBehaviorVector(ArrayList<Double> xs, int groupSize) {
+	public HighestBitBehaviorVector(double[] xs, int groupSize) {
 		super(groupBits(xs, groupSize));
 	}
 
@@ -33,12 +32,12 @@ public class HighestBitBehaviorVector extends BitBehaviorVector {
 	 * highest output value. That position is mapped to 1 and the un-chosen
 	 * actions map to 0.
 	 */
-	public static BitSet groupBits(ArrayList<Double> xs, int groupSize) {
-		BitSet bs = new BitSet(xs.size());
-		for (int i = 0; i < xs.size(); i += groupSize) {
+	public static BitSet groupBits(double[] xs, int groupSize) {
+		BitSet bs = new BitSet(xs.length);
+		for (int i = 0; i < xs.length; i += groupSize) {
 			double[] set = new double[groupSize];
 			for (int j = 0; j < groupSize; j++) {
-				set[j] = xs.get(i + j);
+				set[j] = xs[i + j];
 			}
 			int highest = StatisticsUtilities.argmax(set);
 			bs.set(i + highest);
@@ -4,48 +4,52 @@
  */
 package edu.utexas.cs.nn.evolution.nsga2.bd.vectors;
 
-import edu.utexas.cs.nn.util.CartesianGeometricUtilities;
 import java.util.ArrayList;
 
 /**
+ * Behavior vector of real numbers, compared by Euclidean distance. Values are
+ * stored as a primitive array so that distance calculations need no unboxing.
  *
  * @author Jacob Schrum
  */
 public class RealBehaviorVector implements BehaviorVector {
 
-	private final ArrayList<Double> v;
+	private final double[] v;
 
 	public RealBehaviorVector(ArrayList<Double> v) {
-		this.v = v;
+		this.v = new double[v.size()];
+		for (int j = 0; j < this.v.length; j++) {
+			this.v[j] = v.get(j);
+		}
 	}
 
 	public RealBehaviorVector(int[] i) {
-		this.v = new ArrayList<Double>(i.length);
+		this.v = new double[i.length];
 		for (int j = 0; j < i.length; j++) {
-			v.add(new Double(i[j]));
+			v[j] = i[j];
 		}
 	}
 
 	public RealBehaviorVector(double[] d) {
-		this.v = new ArrayList<Double>(d.length);
-		for (int j = 0; j < d.length; j++) {
-			v.add(new Double(d[j]));
-		}
+		this.v = d;
 	}
 
+	/**
+	 * Euclidean distance. If the vectors have different lengths, the missing
+	 * values of the shorter vector are treated as zero.
+	 */
 	public double distance(BehaviorVector rhs) {
-		ArrayList<Double> shorter = v;
-		ArrayList<Double> longer = ((RealBehaviorVector) rhs).v;
-		if (shorter.size() != longer.size()) {
-			if (shorter.size() > longer.size()) {
-				shorter = longer;
-				longer = v;
-			}
-
-			for (int i = shorter.size(); i < longer.size(); i++) {
-				shorter.add(0.0);
-			}
+		double[] other = ((RealBehaviorVector) rhs).v;
+		int common = Math.min(v.length, other.length);
+		double sum = 0;
+		for (int i = 0; i < common; i++) {
+			double diff = v[i] - other[i];
+			sum += diff * diff;
+		}
+		double[] longer = v.length > other.length ? v : other;
+		for (int i = common; i < longer.length; i++) {
+			sum += longer[i] * longer[i];
 		}
-		return CartesianGeometricUtilities.euclideanDistance(shorter, longer);
+		return Math.sqrt(sum);
 	}
 }
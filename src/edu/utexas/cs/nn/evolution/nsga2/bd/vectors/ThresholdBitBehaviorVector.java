@@ -5,7 +5,6 @@
 package edu.utexas.cs.nn.evolution.nsga2.bd.vectors;
 
 import java.util.BitSet;
-import java.util.ArrayList;
 
 /**
  *
@@ -13,14 +12,14 @@ import java.util.ArrayList;
  */
 public class ThresholdBitBehaviorVector extends BitBehaviorVector {
 
-	public ThresholdBitBehaviorVector(ArrayList<Double> xs) {
+	public ThresholdBitBehaviorVector(double[] xs) {
 		super(thresholdAll(xs));
 	}
 
-	public static BitSet thresholdAll(ArrayList<Double> xs) {
-		BitSet bs = new BitSet(xs.size());
-		for (int i = 0; i < xs.size(); i++) {
-			bs.set(i, xs.get(i) > 0);
+	public static BitSet thresholdAll(double[] xs) {
+		BitSet bs = new BitSet(xs.length);
+		for (int i = 0; i < xs.length; i++) {
+			bs.set(i, xs[i] > 0);
 		}
 		return bs;
 	}
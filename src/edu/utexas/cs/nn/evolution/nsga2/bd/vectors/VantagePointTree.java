@@ -0,0 +1,174 @@
+package edu.utexas.cs.nn.evolution.nsga2.bd.vectors;
+
+import java.util.List;
+
+/**
+ * Vantage point tree for finding the nearest neighbor of a behavior vector.
+ * Only the distance method of the vectors is used, so any kind of behavior
+ * vector can be indexed as long as its distance is a metric, which is true of
+ * both Euclidean and Hamming distance.
+ *
+ * Each node is a vantage point, and the remaining points of its subtree are
+ * split at the median distance from it into an inner and outer half. The
+ * tree is stored implicitly in an array of point indices: the subtree for
+ * positions [lo,hi) has its vantage point at lo, its inner half at
+ * [lo+1,mid), and its outer half at [mid,hi). The triangle inequality allows
+ * whole halves to be skipped while searching, so a query examines roughly a
+ * logarithmic number of points instead of all of them. Results are exactly
+ * those of a linear scan.
+ */
+public class VantagePointTree {
+
+	// Relative slack in pruning tests, so rounding error in distances can
+	// never cause the true nearest neighbor to be skipped
+	private static final double SLACK = 1e-9;
+
+	private final BehaviorVector[] points;
+	// Point index at each position in the tree
+	private final int[] order;
+	// Median distance from the vantage point at each position
+	private final double[] radius;
+	// Scratch space used while building
+	private double[] distances;
+
+	/**
+	 * Index the vectors
+	 *
+	 * @param vectors
+	 *            behavior vectors to index. Their positions in the list are
+	 *            the indices used by queries.
+	 */
+	public VantagePointTree(List<? extends BehaviorVector> vectors) {
+		int n = vectors.size();
+		this.points = vectors.toArray(new BehaviorVector[n]);
+		this.order = new int[n];
+		this.radius = new double[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+		}
+		this.distances = new double[n];
+		build(0, n);
+		this.distances = null;
+	}
+
+	/**
+	 * @return number of indexed vectors
+	 */
+	public int size() {
+		return points.length;
+	}
+
+	private static int middle(int lo, int hi) {
+		return lo + 1 + (hi - lo - 1) / 2;
+	}
+
+	private void build(int lo, int hi) {
+		if (hi - lo < 2) {
+			return;
+		}
+		BehaviorVector vantage = points[order[lo]];
+		for (int i = lo + 1; i < hi; i++) {
+			distances[i] = points[order[i]].distance(vantage);
+		}
+		int mid = middle(lo, hi);
+		// Everything before mid is no farther than everything from mid on
+		select(lo + 1, hi, mid);
+		radius[lo] = distances[mid];
+		build(lo + 1, mid);
+		build(mid, hi);
+	}
+
+	/**
+	 * Rearrange positions [from,to) so that position k holds the value that
+	 * would be there if sorted by distance, with no larger distance before it
+	 * and no smaller distance after it.
+	 */
+	private void select(int from, int to, int k) {
+		int left = from;
+		int right = to - 1;
+		while (left < right) {
+			double pivot = distances[(left + right) >>> 1];
+			int i = left;
+			int j = right;
+			while (i <= j) {
+				while (distances[i] < pivot) {
+					i++;
+				}
+				while (distances[j] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					swap(i++, j--);
+				}
+			}
+			if (k <= j) {
+				right = j;
+			} else if (k >= i) {
+				left = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	private void swap(int i, int j) {
+		int tempIndex = order[i];
+		order[i] = order[j];
+		order[j] = tempIndex;
+		double tempDistance = distances[i];
+		distances[i] = distances[j];
+		distances[j] = tempDistance;
+	}
+
+	/**
+	 * Distance from the query to the nearest indexed vector
+	 *
+	 * @param query
+	 *            behavior vector to find the neighbor of
+	 * @param exclude
+	 *            index of a vector to ignore, such as the query itself, or -1
+	 * @param ignoreIdentical
+	 *            whether vectors at a distance of zero are ignored
+	 * @return distance to nearest neighbor, or Double.MAX_VALUE if there is
+	 *         none
+	 */
+	public double nearestDistance(BehaviorVector query, int exclude, boolean ignoreIdentical) {
+		double[] best = new double[] { Double.MAX_VALUE };
+		search(0, points.length, query, exclude, ignoreIdentical, best);
+		return best[0];
+	}
+
+	private void search(int lo, int hi, BehaviorVector query, int exclude, boolean ignoreIdentical, double[] best) {
+		if (lo >= hi) {
+			return;
+		}
+		int index = order[lo];
+		double d = points[index].distance(query);
+		if (index != exclude && !(ignoreIdentical && d <= 0) && d < best[0]) {
+			best[0] = d;
+		}
+		if (hi - lo < 2) {
+			return;
+		}
+		int mid = middle(lo, hi);
+		double mu = radius[lo];
+		double slack = SLACK * (d + mu);
+		// Search the half containing the query first, since it is more
+		// likely to hold the nearest neighbor and shrink the search radius
+		if (d <= mu) {
+			if (d - best[0] <= mu + slack) {
+				search(lo + 1, mid, query, exclude, ignoreIdentical, best);
+			}
+			if (d + best[0] >= mu - slack) {
+				search(mid, hi, query, exclude, ignoreIdentical, best);
+			}
+		} else {
+			if (d + best[0] >= mu - slack) {
+				search(mid, hi, query, exclude, ignoreIdentical, best);
+			}
+			if (d - best[0] <= mu + slack) {
+				search(lo + 1, mid, query, exclude, ignoreIdentical, best);
+			}
+		}
+	}
+}
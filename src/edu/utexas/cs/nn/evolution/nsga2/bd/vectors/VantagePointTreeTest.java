@@ -0,0 +1,89 @@
+package edu.utexas.cs.nn.evolution.nsga2.bd.vectors;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class VantagePointTreeTest {
+
+	/**
+	 * Linear scan that the tree must match exactly
+	 */
+	private static double bruteForce(ArrayList<BehaviorVector> vectors, BehaviorVector query, int exclude, boolean ignoreIdentical) {
+		double best = Double.MAX_VALUE;
+		for (int i = 0; i < vectors.size(); i++) {
+			if (i != exclude) {
+				double d = vectors.get(i).distance(query);
+				if (!ignoreIdentical || d > 0) {
+					best = Math.min(best, d);
+				}
+			}
+		}
+		return best;
+	}
+
+	private static void assertMatchesBruteForce(ArrayList<BehaviorVector> vectors, ArrayList<BehaviorVector> queries) {
+		VantagePointTree tree = new VantagePointTree(vectors);
+		assertEquals(vectors.size(), tree.size());
+		for (int i = 0; i < vectors.size(); i++) {
+			BehaviorVector v = vectors.get(i);
+			assertEquals(bruteForce(vectors, v, i, false), tree.nearestDistance(v, i, false), 0.0);
+			assertEquals(bruteForce(vectors, v, -1, true), tree.nearestDistance(v, -1, true), 0.0);
+		}
+		for (BehaviorVector q : queries) {
+			assertEquals(bruteForce(vectors, q, -1, true), tree.nearestDistance(q, -1, true), 0.0);
+		}
+	}
+
+	@Test
+	public void test_realVectors() {
+		Random random = new Random(3);
+		for (int size : new int[] { 0, 1, 2, 7, 500 }) {
+			ArrayList<BehaviorVector> vectors = new ArrayList<BehaviorVector>();
+			ArrayList<BehaviorVector> queries = new ArrayList<BehaviorVector>();
+			for (int i = 0; i < size; i++) {
+				double[] v = new double[5];
+				for (int j = 0; j < v.length; j++) {
+					// Few distinct values, so many duplicates and ties
+					v[j] = random.nextInt(4) * 0.5;
+				}
+				vectors.add(new RealBehaviorVector(v));
+				double[] q = new double[5];
+				for (int j = 0; j < q.length; j++) {
+					q[j] = random.nextGaussian();
+				}
+				queries.add(new RealBehaviorVector(q));
+			}
+			assertMatchesBruteForce(vectors, queries);
+		}
+	}
+
+	@Test
+	public void test_bitVectors() {
+		Random random = new Random(11);
+		ArrayList<BehaviorVector> vectors = new ArrayList<BehaviorVector>();
+		for (int i = 0; i < 300; i++) {
+			double[] xs = new double[40];
+			for (int j = 0; j < xs.length; j++) {
+				xs[j] = random.nextDouble() - 0.5;
+			}
+			vectors.add(new ThresholdBitBehaviorVector(xs));
+		}
+		assertMatchesBruteForce(vectors, new ArrayList<BehaviorVector>());
+	}
+
+	@Test
+	public void test_realDistance() {
+		RealBehaviorVector a = new RealBehaviorVector(new double[] { 3, 0 });
+		RealBehaviorVector b = new RealBehaviorVector(new double[] { 0, 4 });
+		RealBehaviorVector shorter = new RealBehaviorVector(new int[] { 0 });
+		assertEquals(5.0, a.distance(b), 0.0);
+		// Missing values count as zero, and neither vector is changed
+		assertEquals(4.0, shorter.distance(b), 0.0);
+		assertEquals(4.0, b.distance(shorter), 0.0);
+		assertEquals(3.0, a.distance(shorter), 0.0);
+	}
+}
@@ -41,7 +41,7 @@ public class CompareNSGA2ToTUG<T> extends TUGNSGA2<T> {
 	 * @param scores, an arrayList of Scores
 	 */
 	public ArrayList<Genotype<T>> selection(int numParents, ArrayList<Score<T>> scores) {
-		long seed = RandomNumbers.randomGenerator.nextLong();
+		long seed = RandomNumbers.generator().nextLong();
 		RandomNumbers.randomGenerator = new Random(seed);
 		ArrayList<Genotype<T>> tugResult = super.selection(numParents, scores);
 
@@ -71,7 +71,7 @@ public class CompareNSGA2ToTUG<T> extends TUGNSGA2<T> {
 	 * @param parentScores, an arrayList of the Scores of the parents
 	 */
 	public ArrayList<Genotype<T>> generateChildren(int numChildren, ArrayList<Score<T>> parentScores) {
-		long seed = RandomNumbers.randomGenerator.nextLong();
+		long seed = RandomNumbers.generator().nextLong();
 		RandomNumbers.randomGenerator = new Random(seed);
 		ArrayList<Genotype<T>> tugResult = super.generateChildren(numChildren, parentScores);
 
@@ -55,6 +55,15 @@ public class TUGNSGA2Score<T> extends NSGA2Score<T> {
 		return reducedObjectives;
 	}
 
+	@Override
+	/**
+	 * Only active objectives are compared when deciding domination
+	 * @return scores of the active objectives
+	 */
+	public double[] dominationObjectives() {
+		return filterByGoals(scores, active);
+	}
+
 	@Override
 	/**
 	 * Finds whether or not this score is better than the score given as a parameter
@@ -134,11 +134,11 @@ public class SelectiveBreedingEA<T> implements SinglePopulationGenerationalEA<T>
 		for(int i = scores.size(); i < size; i++) {
 			long parentId1 = -1;
 			long parentId2 = -1;
-			Genotype<T> parent1 = scores.get(RandomNumbers.randomGenerator.nextInt(scores.size())).individual;
+			Genotype<T> parent1 = scores.get(RandomNumbers.generator().nextInt(scores.size())).individual;
 			parentId1 = parent1.getId();
 			Genotype<T> g1 = parent1.copy();
-			if (mating && RandomNumbers.randomGenerator.nextDouble() < crossoverRate) {
-				Genotype<T> parent2 = scores.get(RandomNumbers.randomGenerator.nextInt(scores.size())).individual;
+			if (mating && RandomNumbers.generator().nextDouble() < crossoverRate) {
+				Genotype<T> parent2 = scores.get(RandomNumbers.generator().nextInt(scores.size())).individual;
 				parentId2 = parent2.getId();
 				Genotype<T> g2 = parent2.copy();
 				Genotype<T> offspring1 = g1.crossover(g2);
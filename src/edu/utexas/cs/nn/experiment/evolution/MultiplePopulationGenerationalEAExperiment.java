@@ -277,6 +277,6 @@ public abstract class MultiplePopulationGenerationalEAExperiment implements Expe
 	@SuppressWarnings("rawtypes") // Each population can be a different type
 	public long randomIdFromSubpop(int subpop) {
 		ArrayList<Genotype> pop = populations.get(subpop);
-		return pop.get(RandomNumbers.randomGenerator.nextInt(pop.size())).getId();
+		return pop.get(RandomNumbers.generator().nextInt(pop.size())).getId();
 	}
 }
\ No newline at end of file
@@ -1,12 +1,16 @@
 package edu.utexas.cs.nn.experiment.evolution;
 
+import edu.utexas.cs.nn.data.BinarySerializer;
+import edu.utexas.cs.nn.data.CheckpointWriter;
 import edu.utexas.cs.nn.data.SaveThread;
 import edu.utexas.cs.nn.evolution.EvolutionaryHistory;
 import edu.utexas.cs.nn.evolution.SinglePopulationGenerationalEA;
 import edu.utexas.cs.nn.evolution.crossover.network.CombiningTWEANNCrossover;
 import edu.utexas.cs.nn.evolution.genotypes.Genotype;
 import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype.NodeGene;
 import edu.utexas.cs.nn.experiment.Experiment;
+import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.util.PopulationUtil;
 import edu.utexas.cs.nn.util.file.FileUtilities;
@@ -18,6 +22,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import wox.serial.Easy;
 
 /**
  * Evolve a single population of genotypes one generation at a time.
@@ -41,6 +46,8 @@ public abstract class SinglePopulationGenerationalEAExperiment<T> implements Exp
 	private boolean loaded = false;
 	// Whether file saving should occur in a parellel thread
 	private boolean parallel;
+	// Writes generations in the background, if asyncCheckpoints is set
+	private CheckpointWriter checkpoints = null;
 
 	public SinglePopulationGenerationalEAExperiment() {
 		// Dummy constructor used by Post Evolution Evaluation Experiment
@@ -52,6 +59,9 @@ public abstract class SinglePopulationGenerationalEAExperiment<T> implements Exp
 		parallel = Parameters.parameters.booleanParameter("parallelSave");
 		writeOutput = Parameters.parameters.booleanParameter("netio");
 		deleteOld = Parameters.parameters.booleanParameter("cleanOldNetworks");
+		if (Parameters.parameters.booleanParameter("asyncCheckpoints")) {
+			checkpoints = new CheckpointWriter(Parameters.parameters.integerParameter("maxPendingCheckpoints"));
+		}
 		boolean io = Parameters.parameters.booleanParameter("io");
 
 		this.ea = ea;
@@ -104,7 +114,7 @@ public abstract class SinglePopulationGenerationalEAExperiment<T> implements Exp
 			Genotype<T> g = population.get(0);
 			assert g instanceof TWEANNGenotype : "Cannot init Combining Crossover on genotype other than TWEANNGenotype";
 			if (((TWEANNGenotype) g).numModules == 1) {
-				Collections.shuffle(population, RandomNumbers.randomGenerator);
+				Collections.shuffle(population, RandomNumbers.generator());
 				CombiningTWEANNCrossover combCross = new CombiningTWEANNCrossover();
 				assert population.size()
 						% 2 == 0 : "Need even number of individuals to properly pair off entire population";
@@ -221,7 +231,9 @@ public abstract class SinglePopulationGenerationalEAExperiment<T> implements Exp
 				}
 				EvolutionaryHistory.cleanArchetype(0, tweannPopulation, gen);
 			}
-			if (writeOutput) {
+			if (writeOutput && checkpoints != null) {
+				checkpoint(gen);
+			} else if (writeOutput) {
 				save("gen" + gen);
 				Parameters.parameters.setInteger("lastSavedGeneration", gen);
 				Parameters.parameters.saveParameters();
@@ -235,6 +247,9 @@ public abstract class SinglePopulationGenerationalEAExperiment<T> implements Exp
 				}
 			}
 		}
+		if (checkpoints != null) {
+			checkpoints.finish();
+		}
 		ea.close(population);
 		System.out.println("Finished evolving");
 	}
@@ -244,7 +259,8 @@ public abstract class SinglePopulationGenerationalEAExperiment<T> implements Exp
 	}
 
 	/**
-	 * Save all members of population as xml files in the dir saveDirectory.
+	 * Save all members of population as xml files in the dir saveDirectory,
+	 * or as a single binary population file if binaryPopulations is set.
 	 *
 	 * @param <T>
 	 *            phenotype of genotype
@@ -259,13 +275,49 @@ public abstract class SinglePopulationGenerationalEAExperiment<T> implements Exp
 	 *            whether or not the save is executed with parallel threads
 	 */
 	public static <T> void save(String prefix, String saveDirectory, ArrayList<Genotype<T>> population, boolean parallel) {
-		String experimentPrefix = Parameters.parameters.stringParameter("log") + Parameters.parameters.integerParameter("runNumber");
 		String fullSaveDir = saveDirectory + "/" + prefix;
-		prefix = experimentPrefix + "_" + prefix + "_";
-
 		new File(fullSaveDir).mkdir();
 		Parameters.parameters.setString("lastSavedDirectory", fullSaveDir);
+		savePopulation(fullSaveDir, filePrefix(prefix), population, parallel);
+		// Better to save archetype immediately after network saves so that
+		// unexpected crash/restarts don't make archetype out of sync with
+		// population.
+		EvolutionaryHistory.saveArchetype(0);
+	}
+
+	/**
+	 * Start of the name of each file saved for a generation
+	 *
+	 * @param prefix
+	 *            name of the generation, such as gen40
+	 * @return file name prefix, also identifying the experiment
+	 */
+	private static String filePrefix(String prefix) {
+		String experimentPrefix = Parameters.parameters.stringParameter("log") + Parameters.parameters.integerParameter("runNumber");
+		return experimentPrefix + "_" + prefix + "_";
+	}
+
+	/**
+	 * Save the genotypes of a population in an existing directory, without
+	 * touching the parameters or the archetype.
+	 *
+	 * @param <T>
+	 *            phenotype of genotype
+	 * @param fullSaveDir
+	 *            directory to save in
+	 * @param prefix
+	 *            start of each file name
+	 * @param population
+	 *            list of genotypes to save
+	 * @param parallel
+	 *            whether or not the save is executed with parallel threads
+	 */
+	private static <T> void savePopulation(String fullSaveDir, String prefix, ArrayList<Genotype<T>> population, boolean parallel) {
 		System.out.println("Saving to \"" + fullSaveDir + "\" with prefix \"" + prefix + "\"");
+		if (Parameters.parameters.booleanParameter("binaryPopulations")) {
+			PopulationUtil.saveBinaryPopulation(fullSaveDir, prefix, population);
+			return;
+		}
 
 		ExecutorService poolExecutor = null;
 		ArrayList<Future<Boolean>> futures = null;
@@ -293,12 +345,12 @@ public abstract class SinglePopulationGenerationalEAExperiment<T> implements Exp
 			try {
 				Boolean result = parallel ? futures.get(i).get() : saves.get(i).call();
 				if (!result) {
-					System.out.println("Failure saving " + population.get(i));
+					System.out.println("Failure saving " + population.get(i).getId());
 					System.exit(1);
 				}
 			} catch (InterruptedException | ExecutionException ex) {
 				ex.printStackTrace();
-				System.out.println("Failure saving " + population.get(i));
+				System.out.println("Failure saving " + population.get(i).getId());
 				System.exit(1);
 			}
 		}
@@ -306,18 +358,77 @@ public abstract class SinglePopulationGenerationalEAExperiment<T> implements Exp
 		if (parallel) {
 			poolExecutor.shutdown();
 		}
+	}
 
-		// Better to save archetype immediately after network saves so that
-		// unexpected crash/restarts don't make archetype out of sync with
-		// population.
-		EvolutionaryHistory.saveArchetype(0);
+	/**
+	 * Save the current generation in the background while evolution
+	 * continues. The population, archetype and parameters are copied first,
+	 * so the checkpoint holds them as they are now. Files are written to a
+	 * temporary directory that is renamed once complete, and the archetype is
+	 * saved inside that directory, so it always matches the population next
+	 * to it. The background thread only writes files: once the checkpoint is
+	 * written, this thread saves the copied parameters, which point at the
+	 * new directory and its archetype, and only then deletes the previous
+	 * generation if deleteOld is set. A crash at any point leaves the
+	 * parameters pointing at a complete generation and its archetype.
+	 *
+	 * @param gen
+	 *            generation that was just produced
+	 */
+	private void checkpoint(final int gen) {
+		final String prefix = "gen" + gen;
+		final File fullSaveDir = new File(saveDirectory + "/" + prefix);
+		final File tempDir = new File(fullSaveDir.getPath() + ".tmp");
+		final String filePrefix = filePrefix(prefix);
+		final ArrayList<Genotype<T>> snapshot = BinarySerializer.snapshot(population);
+		final ArrayList<NodeGene> archetype = EvolutionaryHistory.archetypes != null && CommonConstants.netio
+				? BinarySerializer.snapshot(EvolutionaryHistory.archetypes[0]) : null;
+		// Same name that EvolutionaryHistory.archetypeFile gives population 0
+		final String archetypePrefix = fullSaveDir.getPath() + "/archetype";
+		if (archetype != null) {
+			// Small and rarely used, so saved right away
+			CombiningTWEANNCrossover.saveCombiningCrossoverInformation();
+		}
+		final Parameters savedParameters = Parameters.parameters.copy();
+		savedParameters.setString("lastSavedDirectory", fullSaveDir.getPath());
+		savedParameters.setInteger("lastSavedGeneration", gen);
+		if (archetype != null) {
+			savedParameters.setString("archetype", archetypePrefix);
+		}
+		final File lastDir = gen > 1 ? new File(saveDirectory + "/gen" + (gen - 1)) : new File(saveDirectory + "/initial");
+		checkpoints.submit(new Runnable() {
+			@Override
+			public void run() {
+				tempDir.mkdir();
+				savePopulation(tempDir.getPath(), filePrefix, snapshot, parallel);
+				if (archetype != null) {
+					Easy.save(archetype, tempDir.getPath() + "/archetype0.xml");
+				}
+				FileUtilities.moveAtomically(tempDir, fullSaveDir);
+			}
+		}, new Runnable() {
+			@Override
+			public void run() {
+				Parameters.parameters.setString("lastSavedDirectory", fullSaveDir.getPath());
+				Parameters.parameters.setInteger("lastSavedGeneration", gen);
+				if (archetype != null) {
+					Parameters.parameters.setString("archetype", archetypePrefix);
+				}
+				savedParameters.saveParameters();
+				if (deleteOld && lastDir.exists()) {
+					FileUtilities.deleteDirectoryContents(lastDir);
+					lastDir.delete();
+				}
+			}
+		});
 	}
 
 	/**
 	 * Load population and return true on success
 	 *
 	 * @param directory
-	 *            directory full of xml files of saved genotypes
+	 *            directory full of xml files of saved genotypes, or
+	 *            containing a binary population file
 	 * @return true if successful, false otherwise
 	 */
 	public final boolean load(String directory) {
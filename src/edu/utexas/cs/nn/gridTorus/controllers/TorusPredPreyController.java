@@ -4,7 +4,7 @@ package edu.utexas.cs.nn.gridTorus.controllers;
 import edu.utexas.cs.nn.gridTorus.TorusAgent;
 import edu.utexas.cs.nn.gridTorus.TorusPredPreyGame;
 import edu.utexas.cs.nn.gridTorus.TorusWorld;
-import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.parameters.BooleanHandle;
 
 /**
  *
@@ -21,6 +21,8 @@ public abstract class TorusPredPreyController {
 	public static final int DOWN_INDEX = 2;
 	public static final int LEFT_INDEX = 3;
 	public static final int NOTHING_INDEX = 4;
+	private static final BooleanHandle PREDATORS_CAN_DO_NOTHING = new BooleanHandle("allowDoNothingActionForPredators");
+	private static final BooleanHandle PREY_CAN_DO_NOTHING = new BooleanHandle("allowDoNothingActionForPreys");
 
 	public TorusPredPreyController() {
 	}
@@ -31,7 +33,7 @@ public abstract class TorusPredPreyController {
 	 *         LEFT, or possibly Nothing
 	 */
 	public static int[][] predatorActions() {
-		int[][] predAct = Parameters.parameters.booleanParameter("allowDoNothingActionForPredators")
+		int[][] predAct = PREDATORS_CAN_DO_NOTHING.get()
 				? new int[][] { { 0, 1 }, { 1, 0 }, { 0, -1 }, { -1, 0 }, { 0, 0 } }
 				: new int[][] { { 0, 1 }, { 1, 0 }, { 0, -1 }, { -1, 0 } };
 		return predAct;
@@ -43,7 +45,7 @@ public abstract class TorusPredPreyController {
 	 *         LEFT, or possibly Nothing
 	 */
 	public static int[][] preyActions() {
-		int[][] preyAct = Parameters.parameters.booleanParameter("allowDoNothingActionForPreys")
+		int[][] preyAct = PREY_CAN_DO_NOTHING.get()
 				? new int[][] { { 0, 1 }, { 1, 0 }, { 0, -1 }, { -1, 0 }, { 0, 0 } }
 				: new int[][] { { 0, 1 }, { 1, 0 }, { 0, -1 }, { -1, 0 } };
 		return preyAct;
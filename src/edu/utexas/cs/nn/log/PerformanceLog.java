@@ -36,9 +36,9 @@ public class PerformanceLog<T> extends StatisticsLog<Score<T>> {
 			nextStage[i][0] = scores.get(i).totalEvalTime;
 			nextStage[i][1] = scores.get(i).averageEvalTime;
 			nextStage[i][2] = CommonConstants.trials;
-			nextStage[i][3] = NNPacManController.timesAllLevelsBeaten;
-			nextStage[i][4] = NNPacManController.timesTimeLimitReached;
-			nextStage[i][5] = NNPacManController.timesDied;
+			nextStage[i][3] = NNPacManController.timesAllLevelsBeaten.get();
+			nextStage[i][4] = NNPacManController.timesTimeLimitReached.get();
+			nextStage[i][5] = NNPacManController.timesDied.get();
 			NNPacManController.resetTimes();
 		}
 		logAverages(nextStage, generation);
@@ -0,0 +1,143 @@
+package edu.utexas.cs.nn.networks;
+
+import java.util.Arrays;
+
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype.LinkGene;
+import edu.utexas.cs.nn.parameters.CommonConstants;
+import edu.utexas.cs.nn.util.datastructures.LongIntHashMap;
+
+/**
+ * A TWEANN whose activation is lowered into flat primitive arrays. Each neuron
+ * is identified by its position in the node list, and all active links are
+ * stored grouped by source neuron in the same order as the linked lists of a
+ * standard TWEANN. Activation is a single tight loop over these arrays with
+ * no allocation and no pointer chasing, and produces exactly the same sums and
+ * activations as TWEANN.process, since every neuron receives its incoming
+ * signals in the same order.
+ *
+ * The Node and Link objects of the parent class are still built, so that the
+ * network can be drawn, inspected, and converted back into a genotype.
+ * Neuron activations are only copied back into the Node objects when the
+ * network is being displayed.
+ */
+public class CompiledTWEANN extends TWEANN {
+
+	// Per neuron information, indexed by position in the node list
+	private final int[] ftypes;
+	private final double[] biases;
+	private final double[] sums;
+	private final double[] activations;
+	// Links from neuron i are at positions linkStart[i] to linkStart[i+1] - 1
+	private final int[] linkStart;
+	private final int[] linkTarget;
+	private final double[] linkWeight;
+
+	/**
+	 * Create compiled TWEANN based on TWEANNGenotype.
+	 *
+	 * @param g
+	 *            The genotype
+	 */
+	public CompiledTWEANN(TWEANNGenotype g) {
+		super(g);
+		int numNodes = g.nodes.size();
+		ftypes = new int[numNodes];
+		biases = new double[numNodes];
+		sums = new double[numNodes];
+		activations = new double[numNodes];
+		LongIntHashMap nodeIndex = new LongIntHashMap(numNodes, -1);
+		for (int i = 0; i < numNodes; i++) {
+			TWEANNGenotype.NodeGene ng = g.nodes.get(i);
+			ftypes[i] = ng.ftype;
+			biases[i] = ng.getBias();
+			nodeIndex.put(ng.innovation, i);
+		}
+
+		// Count links leaving each neuron
+		linkStart = new int[numNodes + 1];
+		int numLinks = 0;
+		for (LinkGene lg : g.links) {
+			if (lg.isActive()) {
+				linkStart[nodeIndex.get(lg.sourceInnovation) + 1]++;
+				numLinks++;
+			}
+		}
+		for (int i = 0; i < numNodes; i++) {
+			linkStart[i + 1] += linkStart[i];
+		}
+
+		// Fill in links while maintaining the genotype order for each source
+		linkTarget = new int[numLinks];
+		linkWeight = new double[numLinks];
+		int[] next = Arrays.copyOf(linkStart, numNodes);
+		for (LinkGene lg : g.links) {
+			if (lg.isActive()) {
+				int position = next[nodeIndex.get(lg.sourceInnovation)]++;
+				linkTarget[position] = nodeIndex.get(lg.targetInnovation);
+				linkWeight[position] = lg.weight;
+			}
+		}
+		flushArrays();
+	}
+
+	/**
+	 * Equivalent to the Node by Node activation of TWEANN, but performed
+	 * directly on the compiled arrays.
+	 *
+	 * @param inputs
+	 *            sensor readings for the network
+	 */
+	@Override
+	protected void activateNodes(double[] inputs) {
+		for (int i = 0; i < numIn; i++) {
+			assert !Double.isNaN(inputs[i]) : "Input " + i + " is NaN!" + Arrays.toString(inputs);
+			sums[i] += inputs[i];
+		}
+
+		final int numNodes = sums.length;
+		for (int i = 0; i < numNodes; i++) {
+			double activation = ActivationFunctions.activation(ftypes[i], sums[i]);
+			activations[i] = activation;
+			// reset sum to original bias after activation
+			sums[i] = biases[i];
+			final int end = linkStart[i + 1];
+			for (int l = linkStart[i]; l < end; l++) {
+				sums[linkTarget[l]] += (activation * linkWeight[l]);
+			}
+		}
+
+		if (canDraw && (panel != null || CommonConstants.monitorSubstrates)) {
+			synchronizeNodes();
+		}
+	}
+
+	@Override
+	protected double nodeOutput(int index) {
+		return activations[index];
+	}
+
+	@Override
+	public void flush() {
+		super.flush();
+		flushArrays();
+	}
+
+	/**
+	 * Reset sums to biases and clear activations
+	 */
+	private void flushArrays() {
+		System.arraycopy(biases, 0, sums, 0, sums.length);
+		Arrays.fill(activations, 0.0);
+	}
+
+	/**
+	 * Copy compiled activations into the Node objects so that the network
+	 * can be drawn.
+	 */
+	private void synchronizeNodes() {
+		for (int i = 0; i < activations.length; i++) {
+			nodes.get(i).artificiallySetActivation(activations[i]);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package edu.utexas.cs.nn.networks;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.EvolutionaryHistory;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+
+public class CompiledTWEANNTest {
+
+	final static int MUTATIONS = 30;
+	final static int STEPS = 50;
+
+	@Before
+	public void setUp() throws Exception {
+		MMNEAT.clearClasses();
+		EvolutionaryHistory.setInnovation(0);
+		EvolutionaryHistory.setHighestGenotypeId(0);
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false",
+				"allowMultipleFunctions:true", "recurrency:true", "preferenceNeuronFatigueUnit:0.1",
+				"preferenceNeuronDecay:0.5", "mmdRate:0.1" });
+		MMNEAT.loadClasses();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	/**
+	 * Compiled and standard phenotypes of the same genotype must produce
+	 * identical outputs over several time steps, since recurrent activation
+	 * and preference neuron fatigue carry over between steps.
+	 */
+	@Test
+	public void test_sameOutputs() {
+		TWEANNGenotype tg = new TWEANNGenotype(5, 3, 0);
+		MMNEAT.genotype = tg.copy();
+		EvolutionaryHistory.initArchetype(0);
+		for (int i = 0; i < MUTATIONS; i++) {
+			tg.mutate();
+			if (i % 10 == 0) {
+				tg.moduleDuplication();
+			}
+		}
+
+		TWEANN standard = new TWEANN(tg);
+		CompiledTWEANN compiled = new CompiledTWEANN(tg);
+		assertEquals(standard.numInputs(), compiled.numInputs());
+		assertEquals(standard.numOutputs(), compiled.numOutputs());
+		assertEquals(standard.numModules(), compiled.numModules());
+		assertTrue(standard.numModules() > 1);
+
+		for (int trial = 0; trial < 2; trial++) {
+			standard.flush();
+			compiled.flush();
+			for (int step = 0; step < STEPS; step++) {
+				double[] inputs = RandomNumbers.randomArray(tg.numIn);
+				assertArrayEquals(standard.process(inputs), compiled.process(inputs), 0.0);
+				assertEquals(standard.lastModule(), compiled.lastModule());
+				for (int m = 0; m < standard.numModules(); m++) {
+					assertArrayEquals(standard.moduleOutput(m), compiled.moduleOutput(m), 0.0);
+				}
+			}
+		}
+		assertArrayEquals(standard.getModuleUsage(), compiled.getModuleUsage());
+	}
+
+	/**
+	 * Filling a reused output array must give the same results as allocating
+	 * a new array on each time step, for both kinds of phenotype.
+	 */
+	@Test
+	public void test_processIntoBuffer() {
+		TWEANNGenotype tg = new TWEANNGenotype(5, 3, 0);
+		MMNEAT.genotype = tg.copy();
+		EvolutionaryHistory.initArchetype(0);
+		for (int i = 0; i < MUTATIONS; i++) {
+			tg.mutate();
+			if (i % 10 == 0) {
+				tg.moduleDuplication();
+			}
+		}
+
+		TWEANN[] allocating = new TWEANN[] { new TWEANN(tg), new CompiledTWEANN(tg) };
+		TWEANN[] buffered = new TWEANN[] { new TWEANN(tg), new CompiledTWEANN(tg) };
+		for (int n = 0; n < allocating.length; n++) {
+			double[] outputs = NetworkUtil.outputBuffer(buffered[n], null);
+			assertEquals(allocating[n].effectiveNumOutputs(), outputs.length);
+			assertSame(outputs, NetworkUtil.outputBuffer(buffered[n], outputs));
+			for (int step = 0; step < STEPS; step++) {
+				double[] inputs = RandomNumbers.randomArray(tg.numIn);
+				buffered[n].process(inputs, outputs);
+				assertArrayEquals(allocating[n].process(inputs), outputs, 0.0);
+				assertEquals(allocating[n].lastModule(), buffered[n].lastModule());
+			}
+		}
+	}
+}
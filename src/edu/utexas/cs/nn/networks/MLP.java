@@ -39,6 +39,14 @@ public class MLP implements Network {
 		return propagate(inputs);
 	}
 
+	@Override
+	/**
+	 * processes inputs via propagation and copies the outputs
+	 */
+	public void process(double[] inputs, double[] outputs) {
+		System.arraycopy(process(inputs), 0, outputs, 0, outputs.length);
+	}
+
 	@Override
 	/**
 	 * Clears MLP so SRN can be reused
@@ -439,10 +447,10 @@ public class MLP implements Network {
 
 	@Override
 	/**
-	 * Not supported yet
+	 * MLPs only have one module, so all outputs are used
 	 */
 	public int effectiveNumOutputs() {
-		throw new UnsupportedOperationException("Not supported yet.");
+		return numOutputs();
 	}
 
 	@Override
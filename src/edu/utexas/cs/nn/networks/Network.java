@@ -40,6 +40,20 @@ public interface Network {
 	 **/
 	public double[] process(double[] inputs);
 
+	/**
+	 * Same as process(double[]), but the outputs after mode arbitration are
+	 * written into an array supplied by the caller. Controllers that activate
+	 * a network on every time step should reuse one output array with this
+	 * method rather than receive a new array each time. pre: inputs.length ==
+	 * numInputs() and outputs.length == effectiveNumOutputs()
+	 *
+	 * @param inputs
+	 *            Array of sensor inputs
+	 * @param outputs
+	 *            Array that is filled with the network outputs
+	 */
+	public void process(double[] inputs, double[] outputs);
+
 	/**
 	 * Clear any internal state
 	 */
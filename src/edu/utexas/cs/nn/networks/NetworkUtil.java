@@ -9,6 +9,24 @@ import edu.utexas.cs.nn.parameters.CommonConstants;
  */
 public class NetworkUtil {
 
+	/**
+	 * Provides an array that can be passed to Network.process(inputs, outputs)
+	 * for the given network. The given buffer is reused whenever its length is
+	 * already correct, so callers that keep the result in a field only
+	 * allocate when the network changes to one with a different number of
+	 * outputs.
+	 *
+	 * @param n
+	 *            network that will fill the buffer
+	 * @param buffer
+	 *            previously used output buffer (may be null)
+	 * @return array of length n.effectiveNumOutputs()
+	 */
+	public static double[] outputBuffer(Network n, double[] buffer) {
+		int size = n.effectiveNumOutputs();
+		return buffer != null && buffer.length == size ? buffer : new double[size];
+	}
+
 	/**
 	 * Used for standard HyperNEAT link expression. If a link is to be
 	 * expressed, then values beyond a threshold slide back to 0 so that weights
@@ -64,6 +82,141 @@ public class NetworkUtil {
 		}
 	}
 
+	/**
+	 * Number of matrix columns, and therefore of source values, that the
+	 * matrix-vector kernels process together. A block of a source vector
+	 * takes 4KB, so it stays in the L1 cache while every row of the matrix
+	 * is applied to it.
+	 */
+	public static final int BLOCK_SIZE = 512;
+
+	/**
+	 * Adds the product of a weight matrix and a source vector to a target
+	 * vector. The matrix is stored in one array in row-major order, with one
+	 * row per target value and one column per source value, so the weight
+	 * from source s to target t is at index t * source.length + s. Columns
+	 * are processed in blocks of BLOCK_SIZE so that large source vectors are
+	 * not reloaded from memory for every row.
+	 *
+	 * @param weights row-major target.length by source.length matrix
+	 * @param source values multiplied by each row of the matrix
+	 * @param target receives the sum of each row product (modified)
+	 */
+	public static void multiplyAdd(double[] weights, double[] source, double[] target) {
+		int columns = source.length;
+		assert weights.length == columns * target.length : "matrix size " + weights.length + " does not match " + target.length + " by " + columns;
+		for (int start = 0; start < columns; start += BLOCK_SIZE) {
+			int end = Math.min(start + BLOCK_SIZE, columns);
+			int row = 0;
+			for (int t = 0; t < target.length; t++) {
+				target[t] += dot(weights, row, source, start, end);
+				row += columns;
+			}
+		}
+	}
+
+	/**
+	 * Batched version of multiplyAdd: the product of the same weight matrix
+	 * and each of many source vectors is added to the corresponding target
+	 * vector. Each block of a weight row is read from memory once and
+	 * applied to every vector while it is still in the cache, and vectors
+	 * are handled in pairs that share every weight load. Results are exactly
+	 * the same as calling multiplyAdd for each vector.
+	 *
+	 * @param weights row-major matrix with one row per target value and one column per source value
+	 * @param sources source vectors, all of the same length
+	 * @param targets target vectors, one per source vector (modified)
+	 */
+	public static void multiplyAdd(double[] weights, double[][] sources, double[][] targets) {
+		assert sources.length == targets.length : "batch has " + sources.length + " sources but " + targets.length + " targets";
+		if (sources.length == 0) {
+			return;
+		}
+		int columns = sources[0].length;
+		int rows = targets[0].length;
+		assert weights.length == columns * rows : "matrix size " + weights.length + " does not match " + rows + " by " + columns;
+		for (int start = 0; start < columns; start += BLOCK_SIZE) {
+			int end = Math.min(start + BLOCK_SIZE, columns);
+			int row = 0;
+			for (int t = 0; t < rows; t++) {
+				int b = 0;
+				for (; b + 1 < sources.length; b += 2) {
+					double[] a = sources[b];
+					double[] c = sources[b + 1];
+					// Same partial sums as dot, for each of the two vectors
+					double a0 = 0, a1 = 0, a2 = 0, a3 = 0;
+					double c0 = 0, c1 = 0, c2 = 0, c3 = 0;
+					int s = start;
+					for (; s + 3 < end; s += 4) {
+						double w0 = weights[row + s];
+						double w1 = weights[row + s + 1];
+						double w2 = weights[row + s + 2];
+						double w3 = weights[row + s + 3];
+						a0 += w0 * a[s];
+						a1 += w1 * a[s + 1];
+						a2 += w2 * a[s + 2];
+						a3 += w3 * a[s + 3];
+						c0 += w0 * c[s];
+						c1 += w1 * c[s + 1];
+						c2 += w2 * c[s + 2];
+						c3 += w3 * c[s + 3];
+					}
+					double sumA = (a0 + a1) + (a2 + a3);
+					double sumC = (c0 + c1) + (c2 + c3);
+					for (; s < end; s++) {
+						sumA += weights[row + s] * a[s];
+						sumC += weights[row + s] * c[s];
+					}
+					targets[b][t] += sumA;
+					targets[b + 1][t] += sumC;
+				}
+				if (b < sources.length) {
+					targets[b][t] += dot(weights, row, sources[b], start, end);
+				}
+				row += columns;
+			}
+		}
+	}
+
+	/**
+	 * Dot product of part of a matrix row and the same part of a vector.
+	 * Four independent partial sums are kept, so that each addition does not
+	 * have to wait for the previous one to finish.
+	 *
+	 * @param weights row-major matrix
+	 * @param row index in weights where the row starts
+	 * @param source vector
+	 * @param start first column included
+	 * @param end column after the last one included
+	 * @return sum of products over the columns from start to end
+	 */
+	private static double dot(double[] weights, int row, double[] source, int start, int end) {
+		double sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+		int s = start;
+		for (; s + 3 < end; s += 4) {
+			sum0 += weights[row + s] * source[s];
+			sum1 += weights[row + s + 1] * source[s + 1];
+			sum2 += weights[row + s + 2] * source[s + 2];
+			sum3 += weights[row + s + 3] * source[s + 3];
+		}
+		double sum = (sum0 + sum1) + (sum2 + sum3);
+		for (; s < end; s++) {
+			sum += weights[row + s] * source[s];
+		}
+		return sum;
+	}
+
+	/**
+	 * Activate all neurons in layer with specified activation function
+	 * @param nodes array of pre-activated neuron sums (modified)
+	 * @param ftype Valid activation function type in ActivationFunctions
+	 */
+	public static void activateLayer(double[] nodes, int ftype) {
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = ActivationFunctions.activation(ftype, nodes[i]);
+		}
+	}
+
 	/**
 	 * Activate all neurons in layer with specified activation function
 	 * @param nodes 2D array of pre-activated neuron sums
@@ -78,4 +78,36 @@ public class NetworkUtilTest {
 			}
 		}
 	}
+
+	@Test
+	public void testMultiplyAdd() {
+		// Wider than one block, so partial sums of several blocks are added
+		int columns = NetworkUtil.BLOCK_SIZE * 2 + 37;
+		int rows = 5;
+		double[] weights = new double[rows * columns];
+		double[][] sources = new double[3][columns];
+		for(int i = 0; i < weights.length; i++) {
+			weights[i] = Math.sin(i);
+		}
+		for(int b = 0; b < sources.length; b++) {
+			for(int s = 0; s < columns; s++) {
+				sources[b][s] = Math.cos(b * columns + s);
+			}
+		}
+		double[][] batchTargets = new double[sources.length][rows];
+		NetworkUtil.multiplyAdd(weights, sources, batchTargets);
+		for(int b = 0; b < sources.length; b++) {
+			double[] target = new double[rows];
+			target[0] = 1;
+			NetworkUtil.multiplyAdd(weights, sources[b], target);
+			for(int t = 0; t < rows; t++) {
+				double expected = 0;
+				for(int s = 0; s < columns; s++) {
+					expected += weights[t * columns + s] * sources[b][s];
+				}
+				assertEquals(expected + (t == 0 ? 1 : 0), target[t], 0.00000001);
+				assertEquals(expected, batchTargets[b][t], 0.00000001);
+			}
+		}
+	}
 }
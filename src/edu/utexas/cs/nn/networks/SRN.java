@@ -15,6 +15,8 @@ import java.util.Arrays;
 public class SRN extends MLP {
 
 	protected int numActualInputs;
+	// Actual inputs followed by copied hidden activations, reused every time step
+	private double[] combinedInputs;
 
 	public SRN(int numberOfInputs, int numberOfHidden, int numberOfOutputs) {
 		super(numberOfInputs + numberOfHidden, numberOfHidden, numberOfOutputs);
@@ -43,7 +45,9 @@ public class SRN extends MLP {
 
 	@Override
 	public double[] process(double[] inputs) {
-		double[] combinedInputs = new double[numActualInputs + hiddenNeurons.length];
+		if (combinedInputs == null) {
+			combinedInputs = new double[numActualInputs + hiddenNeurons.length];
+		}
 		// System.out.println("actual:" + numActualInputs + ",in:"+inputs.length
 		// + ",hidden:"+hiddenNeurons.length+ ",combined:"
 		// +combinedInputs.length);
@@ -1,23 +1,28 @@
 package edu.utexas.cs.nn.networks;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import edu.utexas.cs.nn.MMNEAT.MMNEAT;
 import edu.utexas.cs.nn.evolution.genotypes.HyperNEATCPPNGenotype;
 import edu.utexas.cs.nn.networks.hyperneat.HyperNEATTask;
 import edu.utexas.cs.nn.networks.hyperneat.Substrate;
 import edu.utexas.cs.nn.parameters.CommonConstants;
-import edu.utexas.cs.nn.util.datastructures.ArrayUtil;
 import edu.utexas.cs.nn.util.datastructures.Pair;
-import edu.utexas.cs.nn.util.util2D.ILocated2D;
-import edu.utexas.cs.nn.util.util2D.Tuple2D;
 
 /**
  * Multi-Layer Perceptron class that has a generalized
- * number of in, hidden, and out layers that can be 
+ * number of in, hidden, and out layers that can be
  * used as an alternative to TWEANNs, also will
  * hopefully speed up hyperNEAT considerably
- * 
+ *
+ * Each layer is stored as one array of neuron values, and each connection
+ * between layers as one row-major weight matrix, so that processing the
+ * network is a sequence of matrix-vector products computed by
+ * NetworkUtil.multiplyAdd. The network computes the same function as the
+ * TWEANN that HyperNEATCPPNGenotype builds from the same CPPN: every neuron
+ * starts from its bias, sums the input from all of its incoming connections,
+ * and is then activated once, with layers processed in substrate order.
+ *
  * @author Lauren Gillespie
  *
  */
@@ -37,21 +42,44 @@ public class SubstrateMLP implements Network {
 		public final static int OUTPUT_LAYER = 2;
 
 		//information stored by MLPLayer class
-		public double[][] nodes;
+		// Neuron (x,y) is at index y * width + x, the same row major order
+		// as network inputs and outputs
+		public double[] nodes;
 		public String name;
 		public int ltype;
+		public int width;
+		public int height;
+		// Bias of each neuron, or null if all are 0
+		public double[] bias = null;
+		// Connections that have this layer as their target
+		public List<MLPConnection> incoming = new ArrayList<MLPConnection>();
 
 		/**
 		 * Constructor for MLPLayer
-		 * @param nodes nodes in layer
+		 * @param width width of substrate
+		 * @param height height of substrate
 		 * @param name name of layer
 		 * @param ltype type of layer
 		 */
-		public MLPLayer(double[][] nodes, String name, int ltype) {
-			this.nodes = nodes;
+		public MLPLayer(int width, int height, String name, int ltype) {
+			this.nodes = new double[width * height];
+			this.width = width;
+			this.height = height;
 			this.name = name;
 			this.ltype = ltype;
 		}
+
+		/**
+		 * Set all neurons to their sums before receiving any input
+		 * @param sums neuron values to reset (modified)
+		 */
+		private void reset(double[] sums) {
+			if (bias == null) {
+				Arrays.fill(sums, 0);
+			} else {
+				System.arraycopy(bias, 0, sums, 0, sums.length);
+			}
+		}
 	}
 
 	/**
@@ -63,21 +91,35 @@ public class SubstrateMLP implements Network {
 	public class MLPConnection {
 
 		//information stored by MLPConnection class
-		// (x,y) of source followed by (x,y) of target
-		public double[][][][] connection;
+		// Row major matrix with a row for each target neuron and a column for
+		// each source neuron, using the neuron indices of the layers
+		public double[] weights;
 		public MLPLayer source;
 		public MLPLayer target;
 
 		/**
 		 * Constructor for mlpConnection
-		 * @param connection connection between layers
-		 * @param connects the layers connected by MLPConnection
+		 * @param weights weight matrix of connection between layers
+		 * @param source layer the connection comes from
+		 * @param target layer the connection goes to
 		 */
-		public MLPConnection(double[][][][] connection, MLPLayer source, MLPLayer target) { 
-			this.connection = connection;
+		public MLPConnection(double[] weights, MLPLayer source, MLPLayer target) {
+			this.weights = weights;
 			this.source = source;
 			this.target = target;
 		}
+
+		/**
+		 * Weight of link between two neurons
+		 * @param X1 x coordinate of the source neuron
+		 * @param Y1 y coordinate of the source neuron
+		 * @param X2 x coordinate of the target neuron
+		 * @param Y2 y coordinate of the target neuron
+		 * @return weight, which is 0 if the link is not expressed
+		 */
+		public double weight(int X1, int Y1, int X2, int Y2) {
+			return weights[(Y2 * target.width + X2) * source.nodes.length + Y1 * source.width + X1];
+		}
 	}
 
 
@@ -87,10 +129,12 @@ public class SubstrateMLP implements Network {
 	private int numInputs = 0;
 	private int numOutputs = 0;
 	private int ftype;
+	// Neuron values of each layer, in the same order as layers
+	private double[][] layerNodes;
 
 	public SubstrateMLP(List<Substrate> subs,  List<Pair<String, String>> connections, Network network) {
 		this(subs, connections, network, CommonConstants.ftype);
-	}	
+	}
 
 	/**
 	 * Constructor
@@ -104,68 +148,116 @@ public class SubstrateMLP implements Network {
 		this.ftype = ftype;
 		this.connections = new ArrayList<MLPConnection>();
 		layers = new ArrayList<MLPLayer>();
+		addLayers(subs, layers, network);
+		layerNodes = new double[layers.size()][];
+		for(int i = 0; i < layerNodes.length; i++) {
+			layerNodes[i] = layers.get(i).nodes;
+		}
 		int connectionsIndex = 0;
-		addLayers(subs, layers);
 		for(Pair<String, String> connection : connections) {
 			Substrate sourceSub = null;
 			Substrate targetSub = null;
+			MLPLayer sourceLayer = null;
+			MLPLayer toLayer = null;
 			for(int z = 0; z < subs.size(); z++) {
-				if(subs.get(z).name.equals(connection.t1)) { 
+				if(subs.get(z).name.equals(connection.t1)) {
 					sourceSub = subs.get(z);
+					sourceLayer = layers.get(z);
 				} else if(subs.get(z).name.equals(connection.t2)) {
 					targetSub = subs.get(z);
+					toLayer = layers.get(z);
 				}
-			} 
+			}
 			assert(sourceSub != null && targetSub != null):"either source or target substrate is not in subs list!";
-			double[][][][] connect = new double[sourceSub.size.t1][sourceSub.size.t2][targetSub.size.t1][targetSub.size.t2];
-			for(int X1 = 0; X1 < sourceSub.size.t1; X1++) {
-				for(int Y1 = 0; Y1 < sourceSub.size.t2; Y1++) {
-					for(int X2 = 0; X2 < targetSub.size.t1; X2++) {
-						for(int Y2 = 0; Y2 < targetSub.size.t2; Y2++) {
-							// CPPN inputs need to be centered and scaled
-							ILocated2D scaledSourceCoordinates = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(X1, Y1), sourceSub.size.t1, sourceSub.size.t2);
-							ILocated2D scaledTargetCoordinates = MMNEAT.substrateMapping.transformCoordinates(new Tuple2D(X2, Y2), targetSub.size.t1, targetSub.size.t2);
-							// inputs to CPPN 
-							double[] inputs = { scaledSourceCoordinates.getX(), scaledSourceCoordinates.getY(), scaledTargetCoordinates.getX(), scaledTargetCoordinates.getY(), HyperNEATCPPNGenotype.BIAS}; 
-							double[] outputs = network.process(inputs);
-							boolean expressLink = Math.abs(outputs[connectionsIndex]) > CommonConstants.linkExpressionThreshold;
-							//whether or not to place a link in location
-							if (expressLink) {
-								connect[X1][Y1][X2][Y2] = NetworkUtil.calculateWeight(outputs[connectionsIndex]);
-							} else {//if not, make weight 0, synonymous to no link in first place
-								connect[X1][Y1][X2][Y2] = 0;
-							}
+			MLPConnection conn = new MLPConnection(connectionWeights(network, connectionsIndex, sourceSub, targetSub), sourceLayer, toLayer);
+			this.connections.add(conn);
+			toLayer.incoming.add(conn);
+			connectionsIndex++;
+		}
+	}
+
+	/**
+	 * Weight matrix of the connection from one source substrate to one target
+	 * substrate, built by querying the CPPN once for each pair of live
+	 * neurons. Link expression and weights follow the same rules as
+	 * HyperNEATCPPNGenotype.loopThroughLinks. The matrix is row major, with a
+	 * row for each target neuron and a column for each source neuron, so the
+	 * weight from (X1,Y1) to (X2,Y2) is at index
+	 * (Y2 * target width + X2) * source size + Y1 * source width + X1.
+	 * Links that are not expressed, or that involve dead neurons, have a
+	 * weight of 0.
+	 * @param cppn network that produces link weights
+	 * @param outputIndex index of the substrate connection, which selects the CPPN outputs to use
+	 * @param sourceSub substrate the links come from
+	 * @param targetSub substrate the links go to
+	 * @return weight matrix of length source size * target size
+	 */
+	private static double[] connectionWeights(Network cppn, int outputIndex, Substrate sourceSub, Substrate targetSub) {
+		int sourceSize = sourceSub.size.t1 * sourceSub.size.t2;
+		double[] weights = new double[sourceSize * targetSub.size.t1 * targetSub.size.t2];
+		// CPPN inputs need to be centered and scaled, but this only depends on the neuron
+		double[] sourceCoordinates = HyperNEATCPPNGenotype.scaledCoordinates(sourceSub);
+		double[] targetCoordinates = HyperNEATCPPNGenotype.scaledCoordinates(targetSub);
+		int linkIndex = (HyperNEATCPPNGenotype.numCPPNOutputsPerLayerPair * outputIndex) + HyperNEATCPPNGenotype.LINK_INDEX;
+		int expressionIndex = (HyperNEATCPPNGenotype.numCPPNOutputsPerLayerPair * outputIndex) + HyperNEATCPPNGenotype.leoIndex;
+		double[] inputs = new double[HyperNEATTask.NUM_CPPN_INPUTS];
+		inputs[4] = HyperNEATCPPNGenotype.BIAS;
+		double[] outputs = NetworkUtil.outputBuffer(cppn, null);
+		for(int X1 = 0; X1 < sourceSub.size.t1; X1++) {
+			for(int Y1 = 0; Y1 < sourceSub.size.t2; Y1++) {
+				if(sourceSub.isNeuronDead(X1, Y1)) continue;
+				int source = 2 * (X1 * sourceSub.size.t2 + Y1);
+				inputs[0] = sourceCoordinates[source];
+				inputs[1] = sourceCoordinates[source + 1];
+				int column = Y1 * sourceSub.size.t1 + X1;
+				for(int X2 = 0; X2 < targetSub.size.t1; X2++) {
+					for(int Y2 = 0; Y2 < targetSub.size.t2; Y2++) {
+						if(targetSub.isNeuronDead(X2, Y2)) continue;
+						int target = 2 * (X2 * targetSub.size.t2 + Y2);
+						inputs[2] = targetCoordinates[target];
+						inputs[3] = targetCoordinates[target + 1];
+						cppn.process(inputs, outputs);
+						boolean expressLink = CommonConstants.leo
+								? outputs[expressionIndex] > CommonConstants.linkExpressionThreshold
+								: Math.abs(outputs[linkIndex]) > CommonConstants.linkExpressionThreshold;
+						//whether or not to place a link in location. If not, weight stays 0, synonymous to no link in first place
+						if (expressLink) {
+							int row = Y2 * targetSub.size.t1 + X2;
+							weights[row * sourceSize + column] = CommonConstants.leo ? outputs[linkIndex] : NetworkUtil.calculateWeight(outputs[linkIndex]);
 						}
 					}
 				}
 			}
-			MLPLayer sourceLayer = null;
-			MLPLayer toLayer = null;
-			for(MLPLayer layer : layers) {
-			if(layer.name.equals(sourceSub.name)) {
-				sourceLayer = layer;
-				} else if(layer.name.equals(targetSub.name)) { 
-				toLayer = layer;
-					}
-		}
-			assert(sourceLayer != null && toLayer != null):"can't find layers corresponding to substrate!";
-			MLPConnection conn = new MLPConnection(connect, sourceLayer, toLayer);
-			this.connections.add(conn);
-			connectionsIndex++;			
 		}
+		return weights;
 	}
 
 	/**
 	 * adds nodes from substrates to layers list
 	 * @param subs substrate list
-	 * @param layers node array to add to 
+	 * @param layers node array to add to
+	 * @param cppn network that produces neuron biases, if they are evolved
 	 */
-	private final void addLayers(List<Substrate> subs, List<MLPLayer> layers) { 
+	private final void addLayers(List<Substrate> subs, List<MLPLayer> layers, Network cppn) {
 		for(Substrate sub: subs) {
-			MLPLayer layer = new MLPLayer(new double[sub.size.t1][sub.size.t2], sub.name, sub.stype);
+			MLPLayer layer = new MLPLayer(sub.size.t1, sub.size.t2, sub.name, sub.stype);
 			layers.add(layer);
 			if(sub.stype == Substrate.INPUT_SUBSTRATE){ numInputs += sub.size.t1 * sub.size.t2;
 			}else if(sub.stype == Substrate.OUTPUT_SUBSTRATE){ numOutputs += sub.size.t1 * sub.size.t2;}
+			// Same bias query as HyperNEATCPPNGenotype.createSubstrateNodes
+			if(CommonConstants.evolveHyperNEATBias && sub.stype != Substrate.INPUT_SUBSTRATE) {
+				layer.bias = new double[layer.nodes.length];
+				double[] inputs = new double[]{0, 0, 0, 0, HyperNEATCPPNGenotype.BIAS};
+				double[] outputs = NetworkUtil.outputBuffer(cppn, null);
+				for(int y = 0; y < sub.size.t2; y++) {
+					for(int x = 0; x < sub.size.t1; x++) {
+						inputs[2] = x;
+						inputs[3] = y;
+						cppn.process(inputs, outputs);
+						layer.bias[y * sub.size.t1 + x] = outputs[HyperNEATCPPNGenotype.biasIndex];
+					}
+				}
+			}
 		}
 	}
 
@@ -173,29 +265,23 @@ public class SubstrateMLP implements Network {
 	 * Fills layers with correct inputs.
 	 * Assumes input layers are at start of layer
 	 * list in order that they will be filled.
-	 * @param layers list of layers
-	 * @param inputs inputs 
+	 * @param sums neuron values of each layer (modified)
+	 * @param inputs inputs
 	 */
-	private void fillLayers(List<MLPLayer> layers, double[] inputs) { 
+	private void fillLayers(double[][] sums, double[] inputs) {
 		int x = 0;
-		for(MLPLayer mlplayer : layers) {
-			assert (mlplayer.ltype == Substrate.INPUT_SUBSTRATE) : "Input layers must be at front of list and have room for inputs";
-			if(mlplayer.ltype == Substrate.INPUT_SUBSTRATE) {
-				for(int j = 0; j< mlplayer.nodes[0].length; j++) {
-					for(int i = 0; i < mlplayer.nodes.length; i++) {
-						mlplayer.nodes[i][j] = inputs[x++];
-					}
-				}
-			}
+		for(int i = 0; x < inputs.length; i++) {
+			assert (layers.get(i).ltype == Substrate.INPUT_SUBSTRATE) : "Input layers must be at front of list and have room for inputs";
+			System.arraycopy(inputs, x, sums[i], 0, sums[i].length);
+			x += sums[i].length;
 			// To replicate TWEANN behavior, all input neurons also
 			// transmit through an activation function. This is not
 			// normal MLP behavior, but I don't think there are any
-			// problems with this. 
-			NetworkUtil.activateLayer(mlplayer.nodes, ftype);
-			// After input layers have been passed
-			if(x == inputs.length) break;
+			// problems with this.
+			NetworkUtil.activateLayer(sums[i], ftype);
 		}
 	}
+
 	/**
 	 * Returns number of inputs
 	 */
@@ -217,83 +303,141 @@ public class SubstrateMLP implements Network {
 	 */
 	@Override
 	public double[] process(double[] inputs) {
+		double[] outputs = new double[numOutputs];
+		process(inputs, outputs);
+		return outputs;
+	}
+
+	/**
+	 * Processes inputs through network, and fills the given output array
+	 */
+	@Override
+	public void process(double[] inputs, double[] outputs) {
 		assert numInputs == inputs.length: "number of inputs " + numInputs + " does not match size of inputs given: " + inputs.length;
-		fillLayers(layers, inputs);
-		for(MLPConnection connect: connections) { //process through rest of network
-			propagateOneStep(connect);
+		fillLayers(layerNodes, inputs);
+		for(MLPLayer layer : layers) { //process through rest of network
+			if(layer.ltype != Substrate.INPUT_SUBSTRATE) {
+				layer.reset(layer.nodes);
+				for(MLPConnection connect : layer.incoming) {
+					NetworkUtil.multiplyAdd(connect.weights, connect.source.nodes, layer.nodes);
+				}
+				NetworkUtil.activateLayer(layer.nodes, ftype);
+			}
+		}
+		// Output substrates in order, each in row major order
+		int index = 0;
+		for(MLPLayer layer : layers) {
+			if(layer.ltype == Substrate.OUTPUT_SUBSTRATE) {
+				System.arraycopy(layer.nodes, 0, outputs, index, layer.nodes.length);
+				index += layer.nodes.length;
+			}
 		}
-		// TODO Outputs may actually come from multiple output substrates
-		double[] outputs = ArrayUtil.doubleArrayFrom2DdoubleArrayRowMajor(layers.get(layers.size() - 1).nodes);
-		// Therefore, this size() - 1 trick may not always work.
-//		double[] outputs =  ArrayUtil.doubleArrayFrom2DdoubleArrayRowMajor(layers.get(0).nodes);
-//		for(int i = 1; i < layers.size(); i++) {
-//			if(layers.get(i).ltype == MLPLayer.OUTPUT_LAYER) { 
-//				MLPLayer layer = layers.get(i);
-//				double[] newOutputs = ArrayUtil.doubleArrayFrom2DdoubleArrayRowMajor(layer.nodes);
-//				outputs = ArrayUtil.combineArrays(outputs, newOutputs);
-//			}
-//		}
-		return outputs;
 	}
 
 	/**
-	 * Propagates one step through network
-	 * @param inputs inputs to layer
-	 * @return outputs from layer
+	 * Processes many input vectors at once. Each weight matrix is read from
+	 * memory once for the whole batch instead of once per input vector, which
+	 * is much faster for large substrates. The result for each input vector
+	 * is the same as that of process.
+	 * @param inputs array of input vectors
+	 * @return array of output vectors, one for each input vector
 	 */
-	private void propagateOneStep(MLPConnection connection) {
-		MLPLayer fromLayer = connection.source;
-		MLPLayer toLayer = connection.target;
-		assert(fromLayer != null && toLayer != null):"either from or to layer was not properly initialized!";
-		// Modifies toLayer.nodes
-		NetworkUtil.propagateOneStep(fromLayer.nodes, toLayer.nodes, connection.connection);
-		NetworkUtil.activateLayer(toLayer.nodes, ftype);
+	public double[][] process(double[][] inputs) {
+		int batch = inputs.length;
+		// sums[layer][vector][neuron]
+		double[][][] sums = new double[layers.size()][batch][];
+		for(int i = 0; i < layers.size(); i++) {
+			for(int b = 0; b < batch; b++) {
+				sums[i][b] = new double[layers.get(i).nodes.length];
+			}
+		}
+		double[][] inputSums = new double[layers.size()][];
+		for(int b = 0; b < batch; b++) {
+			assert numInputs == inputs[b].length: "number of inputs " + numInputs + " does not match size of inputs given: " + inputs[b].length;
+			for(int i = 0; i < layers.size(); i++) {
+				inputSums[i] = sums[i][b];
+			}
+			fillLayers(inputSums, inputs[b]);
+		}
+		for(int i = 0; i < layers.size(); i++) {
+			MLPLayer layer = layers.get(i);
+			if(layer.ltype != Substrate.INPUT_SUBSTRATE) {
+				for(int b = 0; b < batch; b++) {
+					layer.reset(sums[i][b]);
+				}
+				for(MLPConnection connect : layer.incoming) {
+					NetworkUtil.multiplyAdd(connect.weights, sums[layers.indexOf(connect.source)], sums[i]);
+				}
+				for(int b = 0; b < batch; b++) {
+					NetworkUtil.activateLayer(sums[i][b], ftype);
+				}
+			}
+		}
+		double[][] outputs = new double[batch][numOutputs];
+		int index = 0;
+		for(int i = 0; i < layers.size(); i++) {
+			if(layers.get(i).ltype == Substrate.OUTPUT_SUBSTRATE) {
+				for(int b = 0; b < batch; b++) {
+					System.arraycopy(sums[i][b], 0, outputs[b], index, sums[i][b].length);
+				}
+				index += layers.get(i).nodes.length;
+			}
+		}
+		return outputs;
 	}
 
 	/**
-	 * Clears out all previous activations in nodes
+	 * Clears out all previous activations in nodes.
+	 * Processing does not depend on previous activations,
+	 * since the network is not recurrent.
 	 */
 	@Override
 	public void flush() {
 		for(MLPLayer toClear : layers) {
-			clear(toClear.nodes);
+			Arrays.fill(toClear.nodes, 0);
 		}
 
 	}
 	@Override
-	public String toString() { 
-		//System.out.println("connections size: " + connections.size());
-		String result = "";
-		result += numInputs + " Inputs\n";
-		result += numOutputs + " Outputs\n";
-		result += ActivationFunctions.activationName(ftype) + " activation\n";
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		result.append(numInputs + " Inputs\n");
+		result.append(numOutputs + " Outputs\n");
+		result.append(ActivationFunctions.activationName(ftype) + " activation\n");
 		for(MLPConnection connection : connections) {
-			for(int X1 = 0; X1 < connection.connection.length; X1++) {
-				for(int Y1 = 0; Y1 < connection.connection[0].length; Y1++) {
-					for(int X2 = 0; X2 < connection.connection[0][0].length; X2++) {
-						for(int Y2 = 0; Y2 < connection.connection[0][0][0].length; Y2++) {
-							result += connection.source.name + ": [" + X1 + ", " + Y1 + "]" + " : " + connection.connection[X1][Y1][X2][Y2] + " : " + connection.target.name +  ": [" + X2 + ", " + Y2 + "]" +"\n";
+			for(int X1 = 0; X1 < connection.source.width; X1++) {
+				for(int Y1 = 0; Y1 < connection.source.height; Y1++) {
+					for(int X2 = 0; X2 < connection.target.width; X2++) {
+						for(int Y2 = 0; Y2 < connection.target.height; Y2++) {
+							result.append(connection.source.name + ": [" + X1 + ", " + Y1 + "]" + " : " + connection.weight(X1, Y1, X2, Y2) + " : " + connection.target.name +  ": [" + X2 + ", " + Y2 + "]" +"\n");
 						}
 					}
 				}
 			}
 		}
-		return result;
+		return result.toString();
 	}
+
 	/**
-	 * Clears given double array
-	 * @param toClear array to clear
+	 * Weights of a connection indexed by (x,y) of source followed by (x,y)
+	 * of target. This is a copy of the weight matrix, so changing it does
+	 * not change the network.
+	 * @param index index of connection in substrate connectivity list
+	 * @return weights of connection
 	 */
-	private void clear(double[][] toClear) {
-		for(int x = 0; x < toClear.length; x++) {
-			for(int y = 0; y < toClear[0].length; y++) {
-				toClear[x][y] = 0;
+	public double[][][][] getConnections(int index) {
+		MLPConnection connection = connections.get(index);
+		double[][][][] result = new double[connection.source.width][connection.source.height][connection.target.width][connection.target.height];
+		for(int X1 = 0; X1 < connection.source.width; X1++) {
+			for(int Y1 = 0; Y1 < connection.source.height; Y1++) {
+				for(int X2 = 0; X2 < connection.target.width; X2++) {
+					for(int Y2 = 0; Y2 < connection.target.height; Y2++) {
+						result[X1][Y1][X2][Y2] = connection.weight(X1, Y1, X2, Y2);
+					}
+				}
 			}
 		}
-	}
-
-	public double[][][][] getConnections(int index) { 
-		return connections.get(index).connection;
+		return result;
 	}
 
 	@Override
@@ -309,10 +453,10 @@ public class SubstrateMLP implements Network {
 
 	@Override
 	/**
-	 * not supported yet
+	 * Only one module, so all outputs are used
 	 */
 	public int effectiveNumOutputs() {
-		throw new UnsupportedOperationException("Not supported yet.");
+		return numOutputs;
 	}
 	@Override
 	/**
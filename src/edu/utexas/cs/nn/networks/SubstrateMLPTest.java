@@ -68,10 +68,37 @@ public class SubstrateMLPTest {
 		}
 	}
 
+	@Test
+	public void testRepeatedProcess() {
+		double[] inputs = new double[9];
+		for(int i = 0; i < inputs.length; i++) {
+			inputs[i] = (1.0 + i) / inputs.length;
+		}
+		double[] first = mlp.process(inputs);
+		// Results do not depend on earlier activations
+		mlp.process(new double[9]);
+		assertArrayEquals(first, mlp.process(inputs), 0.0);
+	}
+
+	@Test
+	public void testProcessBatch() {
+		double[][] inputs = new double[20][9];
+		for(int b = 0; b < inputs.length; b++) {
+			for(int i = 0; i < inputs[b].length; i++) {
+				inputs[b][i] = Math.sin(b * inputs[b].length + i);
+			}
+		}
+		double[][] outputs = mlp.process(inputs);
+		assertEquals(inputs.length, outputs.length);
+		for(int b = 0; b < inputs.length; b++) {
+			assertArrayEquals(mlp.process(inputs[b]), outputs[b], 0.0);
+		}
+	}
+
 	public abstract class AggregateHyperNEATTask implements Task, HyperNEATTask {
 	}
 
-	//@Test
+	@Test
 	public void testComplexMLP() {
 		try {
 			tearDown();
@@ -10,8 +10,10 @@ import edu.utexas.cs.nn.graphics.Plot;
 import edu.utexas.cs.nn.networks.hyperneat.HyperNEATUtil;
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
 import edu.utexas.cs.nn.parameters.CommonConstants;
+import edu.utexas.cs.nn.parameters.BooleanHandle;
 import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.util.CombinatoricUtilities;
+import edu.utexas.cs.nn.util.datastructures.LongIntHashMap;
 import edu.utexas.cs.nn.util.random.RandomNumbers;
 import edu.utexas.cs.nn.util.stats.StatisticsUtilities;
 
@@ -45,6 +47,7 @@ public class TWEANN implements Network {
 	public static final int NODE_DIM = 6;
 	public static final int DISPLAY_BORDER = 25;
 	public static final int LINK_CURVE_OFFSET = 7;
+	private static final BooleanHandle ANIMATE_NETWORK = new BooleanHandle("animateNetwork");
 	public static DrawingPanel panel = null;
 	public static DrawingPanel inputPanel = null;
 	public static DrawingPanel preferenceNeuronPanel = null;
@@ -344,6 +347,8 @@ public class TWEANN implements Network {
 	public ArrayList<Node> nodes;
 	public int[] moduleUsage;
 	private double[] preferenceFatigue;
+	// Scratch space for mode preferences, reused on every activation
+	private double[] preferences;
 	public int chosenModule = 0;
 	public boolean canDraw = true;
 	public final int archetypeIndex;
@@ -402,7 +407,6 @@ public class TWEANN implements Network {
 		this.archetypeIndex = archetypeIndex;
 		this.numIn = numIn;
 		this.moduleUsage = new int[numModes];
-		this.preferenceFatigue = new double[numModes];
 		this.hierarchicalMultitask = CommonConstants.hierarchicalMultitask;
 
 		int startingPrefModes = Parameters.parameters.integerParameter("startingModes");
@@ -480,6 +484,8 @@ public class TWEANN implements Network {
 			}
 		}
 		outputStart = nodes.size() - numOut;
+		this.preferenceFatigue = new double[this.numModes];
+		this.preferences = new double[this.numModes];
 
 		// In a new network, each Multitask mode has one network module.
 		// This is really only needed if hierarchicalMultitask is true.
@@ -504,6 +510,8 @@ public class TWEANN implements Network {
 		this.archetypeIndex = g.archetypeIndex;
 		this.id = g.getId();
 		this.nodes = new ArrayList<Node>(g.nodes.size());
+		// Position of each innovation number in nodes, for linking
+		LongIntHashMap nodeIndex = new LongIntHashMap(g.nodes.size(), -1);
 
 		int countIn = 0;
 		int countOut = 0;
@@ -532,6 +540,9 @@ public class TWEANN implements Network {
 				countOut++;
 				break;
 			}
+			if (!nodeIndex.containsKey(ng.innovation)) {
+				nodeIndex.put(ng.innovation, i);
+			}
 			nodes.add(n);
 		}
 
@@ -564,13 +575,16 @@ public class TWEANN implements Network {
 
 		this.moduleUsage = new int[numModes];
 		this.preferenceFatigue = new double[numModes];
+		this.preferences = new double[numModes];
 
 		for (LinkGene lg : g.links) {
 			if (lg.isActive()) {
-				Node source = getNode(lg.sourceInnovation);
-				Node target = getNode(lg.targetInnovation);
-				assert(target != null) : "No target: " + lg + "\nNet:" + g.getId();
-				assert(source != null) : "How could the source be null?";
+				int sourceIndex = nodeIndex.get(lg.sourceInnovation);
+				int targetIndex = nodeIndex.get(lg.targetInnovation);
+				assert(targetIndex != -1) : "No target: " + lg + "\nNet:" + g.getId();
+				assert(sourceIndex != -1) : "How could the source be null?";
+				Node source = nodes.get(sourceIndex);
+				Node target = nodes.get(targetIndex);
 				source.connect(target, lg.weight, lg.innovation, lg.isRecurrent(), lg.isFrozen());
 			}
 		}
@@ -655,23 +669,31 @@ public class TWEANN implements Network {
 	 */
 	@Override
 	public double[] process(double[] inputs) {
+		double[] outputs = new double[neuronsPerModule];
+		process(inputs, outputs);
+		return outputs;
+	}
+
+	/**
+	 * Take array of inputs to network and process them to fill the given
+	 * output vector. Apart from the outputs, no new arrays are created.
+	 *
+	 * @param inputs
+	 *            sensor readings for the network
+	 * @param outputs
+	 *            filled with network output (single module)
+	 */
+	@Override
+	public void process(double[] inputs, double[] outputs) {
+		assert(outputs.length == neuronsPerModule) : "Output buffer has length " + outputs.length + " instead of " + neuronsPerModule;
 		assert(inputs.length == numIn) : "Input mismatch! numIn = " + numIn + "\n" + "inputs.length = " + inputs.length + "\n" + Arrays.toString(inputs);
 		assert(numIn <= nodes.size()) : "Input mismatch! numIn = " + numIn + "\n" + "nodes.size() = " + nodes.size() + "\n" + nodes;
 
-		// Load inputs
-		for (int i = 0; i < numIn; i++) {
-			assert !Double.isNaN(inputs[i]) : "Input " + i + " is NaN!" + Arrays.toString(inputs);
-			nodes.get(i).load(inputs[i]);
-		}
-
-		// Activate nodes in forward order
-		for (int i = 0; i < nodes.size(); i++) {
-			nodes.get(i).activateAndTransmit();
-		}
+		activateNodes(inputs);
 
 		// All outputs
 
-		double[] preferences = new double[numModes];
+		Arrays.fill(preferences, 0.0);
 		if (CommonConstants.ensembleModeMutation) {
 			// Give all equal preference and then take average across modes
 			Arrays.fill(preferences, 1.0);
@@ -682,9 +704,9 @@ public class TWEANN implements Network {
 				preferences[presetMode] = 1.0;
 			} else {
 				for (int m = 0; m < numModes; m++) {
-					Node out = nodes.get(outputStart + (m * (neuronsPerModule + 1)) + neuronsPerModule);
+					int out = outputStart + (m * (neuronsPerModule + 1)) + neuronsPerModule;
 					// Inviable modes have minimal preference
-					preferences[m] = viableModes[m] ? out.output() : -Double.MAX_VALUE;
+					preferences[m] = viableModes[m] ? nodeOutput(out) : -Double.MAX_VALUE;
 				}
 			}
 			// subtract fatigue
@@ -718,25 +740,25 @@ public class TWEANN implements Network {
 			}
 		}
 
-		double[] outputs = new double[neuronsPerModule];
 		if (CommonConstants.ensembleModeMutation || CommonConstants.weightedAverageModeAggregation) {
 			// Calculate weighted average across all modes
 			for (int i = 0; i < outputs.length; i++) {
+				outputs[i] = 0;
 				for (int j = 0; j < numModes; j++) {
 					int modeStart = outputStart + (j * (neuronsPerModule + (CommonConstants.ensembleModeMutation ? 0 : 1)));
-					outputs[i] += preferences[j] * nodes.get(modeStart + i).output();
+					outputs[i] += preferences[j] * nodeOutput(modeStart + i);
 				}
 				outputs[i] /= numModes;
 			}
 		} else {
-			outputs = moduleOutput(chosenModule);
+			moduleOutput(chosenModule, outputs);
 		}
 		if (canDraw) {
 			if(!HyperNEATCPPNGenotype.constructingNetwork && CommonConstants.hyperNEAT && CommonConstants.monitorSubstrates) {
 				animateSubstrate();
 			}
 				
-			if (panel != null && Parameters.parameters.booleanParameter("animateNetwork")) {
+			if (panel != null && ANIMATE_NETWORK.get()) {
 				draw(panel);
 			}
 			if (inputPanel != null) {
@@ -744,7 +766,39 @@ public class TWEANN implements Network {
 				refreshActivation(inputPanel, inputs, outputs, preferences, standardMultitask, preferenceFatigue);
 			}
 		}
-		return outputs;
+	}
+
+	/**
+	 * Load the inputs into the input neurons and then activate every neuron
+	 * in forward order, transmitting each activation along the outgoing links.
+	 * Signals on forward links arrive in the same time step, and signals on
+	 * recurrent links arrive on the next time step.
+	 *
+	 * @param inputs
+	 *            sensor readings for the network
+	 */
+	protected void activateNodes(double[] inputs) {
+		// Load inputs
+		for (int i = 0; i < numIn; i++) {
+			assert !Double.isNaN(inputs[i]) : "Input " + i + " is NaN!" + Arrays.toString(inputs);
+			nodes.get(i).load(inputs[i]);
+		}
+
+		// Activate nodes in forward order
+		for (int i = 0; i < nodes.size(); i++) {
+			nodes.get(i).activateAndTransmit();
+		}
+	}
+
+	/**
+	 * Activation of a neuron after the most recent activation of the network
+	 *
+	 * @param index
+	 *            position of the neuron in the list of nodes
+	 * @return activation of that neuron
+	 */
+	protected double nodeOutput(int index) {
+		return nodes.get(index).output();
 	}
 
 	/**
@@ -757,13 +811,24 @@ public class TWEANN implements Network {
 	 */
 	@Override
 	public double[] moduleOutput(int mode) {
-		int selectedModeStart = outputStart + (mode * (neuronsPerModule + (standardMultitask ? 0 : 1)));
 		double[] outputs = new double[neuronsPerModule];
+		moduleOutput(mode, outputs);
+		return outputs;
+	}
+
+	/**
+	 * Copy the outputs of a specific mode into the given array
+	 *
+	 * @param mode
+	 *            mode outputs to access
+	 * @param outputs
+	 *            filled with outputs of specific mode
+	 */
+	private void moduleOutput(int mode, double[] outputs) {
+		int selectedModeStart = outputStart + (mode * (neuronsPerModule + (standardMultitask ? 0 : 1)));
 		for (int i = 0; i < neuronsPerModule; i++) {
-			Node out = nodes.get(selectedModeStart + i);
-			outputs[i] = out.output();
+			outputs[i] = nodeOutput(selectedModeStart + i);
 		}
-		return outputs;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -779,25 +844,13 @@ public class TWEANN implements Network {
 				preferenceActivationHistory[i] = new ArrayList<Double>();
 			}
 		}
-		this.preferenceFatigue = new double[numModes];
+		Arrays.fill(preferenceFatigue, 0.0);
 		if (inputPanel != null) {
 			refreshActivation(inputPanel, new double[numIn], new double[neuronsPerModule], new double[numModes],
 					standardMultitask, new double[numModes]);
 		}
 	}
 
-	private Node getNode(long targetInnovation) {
-		Node targetNode = null;
-		for (Node n : nodes) {
-			if (n.innovation == targetInnovation) {
-				targetNode = n;
-				break;
-			}
-		}
-		assert targetNode != null : "No node with innovation " + targetInnovation + " existed";
-		return targetNode;
-	}
-
 	@Override
 	public String toString() {
 		String result = "";
@@ -0,0 +1,30 @@
+package edu.utexas.cs.nn.parameters;
+
+/**
+ * Handle for a boolean parameter. See ParameterHandle.
+ */
+public class BooleanHandle extends ParameterHandle {
+
+	private volatile boolean value;
+
+	/**
+	 * @param label
+	 *            label of a boolean parameter defined in Parameters.fillDefaults
+	 */
+	public BooleanHandle(String label) {
+		super(label);
+	}
+
+	@Override
+	protected void resolve(Parameters parameters) {
+		checkLabel(parameters.booleanOptions, "boolean");
+		value = parameters.booleanOptions.get(label);
+	}
+
+	/**
+	 * @return value of the parameter when it was last loaded or changed
+	 */
+	public boolean get() {
+		return value;
+	}
+}
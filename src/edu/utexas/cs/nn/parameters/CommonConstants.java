@@ -4,7 +4,8 @@ package edu.utexas.cs.nn.parameters;
  * Contains Parameter values loaded via Parameters that never change once they
  * are loaded, and are repeatedly used through the simulation. It is more
  * efficient to save the variable values here than to use the HashMap of each
- * ParameterCollection over and over.
+ * ParameterCollection over and over. Parameters needed by only one class
+ * can instead be read through a ParameterHandle declared in that class.
  *
  * @author Jacob Schrum
  */
@@ -36,6 +37,8 @@ public class CommonConstants {
 	public static boolean constantTUGGoalIncrements;
 	public static boolean cullCrossovers;
 	public static boolean cullModeMutations;
+	public static boolean compiledTWEANN;
+	public static boolean efficientNonDominatedSort;
 	public static boolean deleteLeastUsed;
 	public static boolean eliminateImpossibleDirections;
 	public static boolean ensembleModeMutation;
@@ -154,6 +157,8 @@ public class CommonConstants {
 		constantTUGGoalIncrements = Parameters.parameters.booleanParameter("constantTUGGoalIncrements");
 		cullCrossovers = Parameters.parameters.booleanParameter("cullCrossovers");
 		cullModeMutations = Parameters.parameters.booleanParameter("cullModeMutations");
+		compiledTWEANN = Parameters.parameters.booleanParameter("compiledTWEANN");
+		efficientNonDominatedSort = Parameters.parameters.booleanParameter("efficientNonDominatedSort");
 		deleteLeastUsed = Parameters.parameters.booleanParameter("deleteLeastUsed");
 		eliminateImpossibleDirections = Parameters.parameters.booleanParameter("eliminateImpossibleDirections");
 		ensembleModeMutation = Parameters.parameters.booleanParameter("ensembleModeMutation");
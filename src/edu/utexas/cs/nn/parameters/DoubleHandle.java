@@ -0,0 +1,30 @@
+package edu.utexas.cs.nn.parameters;
+
+/**
+ * Handle for a double parameter. See ParameterHandle.
+ */
+public class DoubleHandle extends ParameterHandle {
+
+	private volatile double value;
+
+	/**
+	 * @param label
+	 *            label of a double parameter defined in Parameters.fillDefaults
+	 */
+	public DoubleHandle(String label) {
+		super(label);
+	}
+
+	@Override
+	protected void resolve(Parameters parameters) {
+		checkLabel(parameters.doubleOptions, "double");
+		value = parameters.doubleOptions.get(label);
+	}
+
+	/**
+	 * @return value of the parameter when it was last loaded or changed
+	 */
+	public double get() {
+		return value;
+	}
+}
@@ -0,0 +1,30 @@
+package edu.utexas.cs.nn.parameters;
+
+/**
+ * Handle for an integer parameter. See ParameterHandle.
+ */
+public class IntegerHandle extends ParameterHandle {
+
+	private volatile int value;
+
+	/**
+	 * @param label
+	 *            label of an integer parameter defined in Parameters.fillDefaults
+	 */
+	public IntegerHandle(String label) {
+		super(label);
+	}
+
+	@Override
+	protected void resolve(Parameters parameters) {
+		checkLabel(parameters.integerOptions, "integer");
+		value = parameters.integerOptions.get(label);
+	}
+
+	/**
+	 * @return value of the parameter when it was last loaded or changed
+	 */
+	public int get() {
+		return value;
+	}
+}
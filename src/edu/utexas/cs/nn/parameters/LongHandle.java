@@ -0,0 +1,30 @@
+package edu.utexas.cs.nn.parameters;
+
+/**
+ * Handle for a long parameter. See ParameterHandle.
+ */
+public class LongHandle extends ParameterHandle {
+
+	private volatile long value;
+
+	/**
+	 * @param label
+	 *            label of a long parameter defined in Parameters.fillDefaults
+	 */
+	public LongHandle(String label) {
+		super(label);
+	}
+
+	@Override
+	protected void resolve(Parameters parameters) {
+		checkLabel(parameters.longOptions, "long");
+		value = parameters.longOptions.get(label);
+	}
+
+	/**
+	 * @return value of the parameter when it was last loaded or changed
+	 */
+	public long get() {
+		return value;
+	}
+}
@@ -27,6 +27,18 @@ public class ParameterCollection<T> {
 		descriptions = new HashMap<String, String>();
 	}
 
+	/**
+	 * Construct a collection with the same parameters and values as another.
+	 * Later changes to either collection do not affect the other.
+	 *
+	 * @param other
+	 *            collection to copy
+	 */
+	public ParameterCollection(ParameterCollection<T> other) {
+		options = new HashMap<String, T>(other.options);
+		descriptions = new HashMap<String, String>(other.descriptions);
+	}
+
 	/**
 	 * Add a parameter with a specified value and description.
 	 * 
@@ -0,0 +1,121 @@
+package edu.utexas.cs.nn.parameters;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * A parameter that is looked up once and then read from a field, for code
+ * that reads parameters in inner loops, such as network activation, sensors,
+ * and controllers that act every time step. It generalizes CommonConstants:
+ * instead of adding a field to CommonConstants and a line to
+ * CommonConstants.load, a class that needs a parameter often declares its own
+ * handle, for example
+ *
+ * private static final BooleanHandle ANIMATE_NETWORK = new BooleanHandle("animateNetwork");
+ *
+ * and reads ANIMATE_NETWORK.get() instead of calling
+ * Parameters.parameters.booleanParameter("animateNetwork"), which hashes the
+ * label on every call.
+ *
+ * Every handle ever created is resolved again whenever parameters are
+ * initialized or loaded from a file, and the handles of a label are resolved
+ * again whenever its value is changed with one of the set methods of
+ * Parameters, so a handle never holds a stale value. Values are volatile, so
+ * threads reading a handle see a change made by another thread once the set
+ * method returns. Resolving fails immediately if the label was never given a
+ * default in Parameters.fillDefaults, so a misspelled label is caught as soon
+ * as the handle is used instead of causing a NullPointerException in the
+ * middle of an evaluation.
+ */
+public abstract class ParameterHandle {
+
+	// Every handle that has been created, by label, so all can be resolved again
+	private static final HashMap<String, ArrayList<ParameterHandle>> HANDLES = new HashMap<String, ArrayList<ParameterHandle>>();
+
+	public final String label;
+
+	/**
+	 * Create and register a handle. It is resolved right away if parameters
+	 * have already been initialized.
+	 *
+	 * @param label
+	 *            parameter label, as used at the command line
+	 */
+	protected ParameterHandle(String label) {
+		this.label = label;
+		synchronized (HANDLES) {
+			if (Parameters.parameters != null) {
+				resolve(Parameters.parameters);
+			}
+			// Only added once resolved, so a bad label does not break later resolution
+			ArrayList<ParameterHandle> sameLabel = HANDLES.get(label);
+			if (sameLabel == null) {
+				sameLabel = new ArrayList<ParameterHandle>(1);
+				HANDLES.put(label, sameLabel);
+			}
+			sameLabel.add(this);
+		}
+	}
+
+	/**
+	 * Read the current value of the parameter into this handle
+	 *
+	 * @param parameters
+	 *            parameters to read from
+	 */
+	protected abstract void resolve(Parameters parameters);
+
+	/**
+	 * Check that the label exists in the given collection
+	 *
+	 * @param collection
+	 *            parameters of the type of this handle
+	 * @param type
+	 *            name of the type, for the error message
+	 */
+	protected void checkLabel(ParameterCollection<?> collection, String type) {
+		if (!collection.hasLabel(label)) {
+			throw new IllegalArgumentException("No " + type + " parameter named \"" + label + "\"");
+		}
+	}
+
+	/**
+	 * Resolve every handle against the current parameters. Called by
+	 * Parameters whenever parameter values are loaded.
+	 */
+	public static void resolveAll() {
+		synchronized (HANDLES) {
+			if (Parameters.parameters != null) {
+				for (ArrayList<ParameterHandle> sameLabel : HANDLES.values()) {
+					for (ParameterHandle handle : sameLabel) {
+						handle.resolve(Parameters.parameters);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Resolve the handles of one label against the current parameters.
+	 * Called by the set methods of Parameters, which can be frequent, such as
+	 * every time an innovation number is allocated.
+	 *
+	 * @param label
+	 *            label of the parameter that changed
+	 */
+	public static void resolve(String label) {
+		synchronized (HANDLES) {
+			ArrayList<ParameterHandle> sameLabel = HANDLES.get(label);
+			if (sameLabel != null && Parameters.parameters != null) {
+				for (ParameterHandle handle : sameLabel) {
+					handle.resolve(Parameters.parameters);
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return label;
+	}
+}
@@ -0,0 +1,72 @@
+package edu.utexas.cs.nn.parameters;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+
+public class ParameterHandleTest {
+
+	@Before
+	public void setUp() throws Exception {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "trials:7", "watch:true" });
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	@Test
+	public void test_resolvedOnCreation() {
+		assertEquals(7, new IntegerHandle("trials").get());
+		assertTrue(new BooleanHandle("watch").get());
+		assertEquals(Parameters.parameters.doubleParameter("linkExpressionThreshold"), new DoubleHandle("linkExpressionThreshold").get(), 0.0);
+		assertEquals(Parameters.parameters.longParameter("lastInnovation"), new LongHandle("lastInnovation").get());
+	}
+
+	@Test
+	public void test_followsChanges() {
+		IntegerHandle trials = new IntegerHandle("trials");
+		BooleanHandle watch = new BooleanHandle("watch");
+		DoubleHandle threshold = new DoubleHandle("linkExpressionThreshold");
+		Parameters.parameters.setInteger("trials", 3);
+		Parameters.parameters.setBoolean("watch", false);
+		Parameters.parameters.setDouble("linkExpressionThreshold", 0.25);
+		assertEquals(3, trials.get());
+		assertFalse(watch.get());
+		assertEquals(0.25, threshold.get(), 0.0);
+		// Initializing again resolves every handle from the new values
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "trials:11" });
+		assertEquals(11, trials.get());
+		assertFalse(watch.get());
+	}
+
+	@Test
+	public void test_changeResolvesSameLabelOnly() {
+		IntegerHandle trials = new IntegerHandle("trials");
+		IntegerHandle otherTrials = new IntegerHandle("trials");
+		LongHandle innovation = new LongHandle("lastInnovation");
+		// Changed behind the handles' backs, so only resolving shows it
+		Parameters.parameters.integerOptions.change("trials", 5);
+		Parameters.parameters.setLong("lastInnovation", 42);
+		assertEquals(42, innovation.get());
+		assertEquals(7, trials.get());
+		Parameters.parameters.setInteger("trials", 9);
+		assertEquals(9, trials.get());
+		assertEquals(9, otherTrials.get());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_unknownLabel() {
+		new BooleanHandle("noSuchParameter");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_wrongType() {
+		new IntegerHandle("watch");
+	}
+}
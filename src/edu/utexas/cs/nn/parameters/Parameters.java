@@ -29,6 +29,7 @@ import edu.utexas.cs.nn.tasks.rlglue.featureextractors.StateVariableExtractor;
 import edu.utexas.cs.nn.tasks.ut2004.actuators.OpponentRelativeMovementOutputModel;
 import edu.utexas.cs.nn.tasks.ut2004.sensors.OpponentRelativeSensorModel;
 import edu.utexas.cs.nn.tasks.ut2004.weapons.SimpleWeaponManager;
+import edu.utexas.cs.nn.util.file.FileUtilities;
 import edu.utexas.cs.nn.util.random.GaussianGenerator;
 import edu.utexas.cs.nn.util.stats.Average;
 import edu.utexas.cs.nn.util.stats.Max;
@@ -82,6 +83,7 @@ public class Parameters {
 			}
 		}
 		CommonConstants.load();
+		ParameterHandle.resolveAll();
 	}
 
 	/**
@@ -98,6 +100,7 @@ public class Parameters {
 		System.out.println("Loading parameters from " + parameterFile);
 		parameters.loadParameters(parameterFile);
 		CommonConstants.load();
+		ParameterHandle.resolveAll();
 	}
 
 	/**
@@ -141,6 +144,32 @@ public class Parameters {
 		parseArgs(args, true);
 	}
 
+	/**
+	 * Copy all parameter values of another instance
+	 *
+	 * @param other
+	 *            parameters to copy
+	 */
+	@SuppressWarnings("rawtypes")
+	private Parameters(Parameters other) {
+		booleanOptions = new ParameterCollection<Boolean>(other.booleanOptions);
+		classOptions = new ParameterCollection<Class>(other.classOptions);
+		doubleOptions = new ParameterCollection<Double>(other.doubleOptions);
+		integerOptions = new ParameterCollection<Integer>(other.integerOptions);
+		longOptions = new ParameterCollection<Long>(other.longOptions);
+		stringOptions = new ParameterCollection<String>(other.stringOptions);
+	}
+
+	/**
+	 * Copy of the current parameter values. Saving the copy later writes the
+	 * values as they are now, even if these parameters change in between.
+	 *
+	 * @return independent copy of these parameters
+	 */
+	public synchronized Parameters copy() {
+		return new Parameters(this);
+	}
+
 	/**
 	 * Save parameters to the path and filename specified by the "base",
 	 * "saveTo", "log", and "runNumber" parameters
@@ -157,14 +186,17 @@ public class Parameters {
 	}
 
 	/**
-	 * Save parameters to specified filename
+	 * Save parameters to specified filename. The parameters are written to a
+	 * temporary file that then replaces the old file, so a crash while saving
+	 * never leaves a partially written parameter file behind.
 	 *
 	 * @param filename
 	 *            Name of file to save parameters in
 	 */
-	public void saveParameters(String filename) {
+	public synchronized void saveParameters(String filename) {
+		File temp = new File(filename + ".tmp");
 		// PrintStream will be cleaned up as part of the try
-		try (PrintStream stream = new PrintStream(new FileOutputStream(filename))) {
+		try (PrintStream stream = new PrintStream(new FileOutputStream(temp))) {
 			integerOptions.writeLabels(stream);
 			longOptions.writeLabels(stream);
 			booleanOptions.writeLabels(stream);
@@ -175,6 +207,7 @@ public class Parameters {
 			System.out.println("Could not save parameters");
 			System.exit(1);
 		}
+		FileUtilities.moveAtomically(temp, new File(filename));
 	}
 
 	/**
@@ -237,6 +270,16 @@ public class Parameters {
 		integerOptions.add("lastSavedGeneration", 0, "Last generation where genotypes were saved");
 		integerOptions.add("runNumber", 0, "Number to designate this run of an experiment");
 		integerOptions.add("threads", 4, "Number of threads if evaluating in parallel");
+		integerOptions.add("evaluationQueueSize", 0, "Evaluations waiting for a free thread when evaluating in parallel (0 means one per thread)");
+		integerOptions.add("scoreCachePolicy", 0, "Scores of surviving individuals: 0 always re-evaluate, 1 reuse, 2 re-evaluate and average, 3 reuse for scoreCachePeriod generations");
+		integerOptions.add("scoreCachePeriod", 5, "Generations that scoreCachePolicy 3 reuses a score for before re-evaluating");
+		integerOptions.add("maxPendingCheckpoints", 1, "Number of unwritten background checkpoints allowed before evolution waits for them");
+		integerOptions.add("steadyStateInFlight", 0, "Evaluations a steady-state EA keeps running at once, or 0 for one per evaluation thread");
+		integerOptions.add("benchmarkWarmups", 3, "Unmeasured iterations of each benchmark, run before the measured ones");
+		integerOptions.add("benchmarkIterations", 5, "Measured iterations of each benchmark");
+		integerOptions.add("benchmarkMillis", 1000, "Milliseconds that each benchmark iteration repeats its operation for");
+		integerOptions.add("hvExactObjectives", 8, "Largest number of objectives whose hypervolume is computed exactly; more objectives are estimated by Monte-Carlo sampling");
+		integerOptions.add("hvSamples", 100000, "Number of Monte-Carlo samples used to estimate hypervolume");
 		integerOptions.add("multitaskModes", 1, "Number of multitask modes (1 if not multitask at all)");
 		integerOptions.add("pacmanLives", 1, "Lives that a pacman agent starts with");
 		integerOptions.add("hiddenMLPNeurons", 10, "Number of hidden neurons for MLPs");
@@ -339,6 +382,7 @@ public class Parameters {
 		booleanOptions.add("torusInvertSensorInputs", false, "Causes agents' sensor inputs to be inverted in torusPredPreyTask");
 		booleanOptions.add("torusSenseByProximity", true, "Causes agents' sensor inputs to be by proximity of the agent instead of simply each agent by indices");
 		booleanOptions.add("processHV", false, "Turns on the hyperVolume processing in postProcess, off by default");
+		booleanOptions.add("logHV", false, "NSGA2 logs the hypervolume of the parent population every generation, which processHV then reuses");
 		
 		booleanOptions.add("homogeneousTeamSelection", false, "Homogeneous Predators with encouraged distance minimization and maximizing prey caught for all populations at once");
 		booleanOptions.add("homogeneousAggregateTeamSelection", false, "Homogeneous Predators with encouraged distance minimization and maximizing prey caught as a team");
@@ -533,8 +577,15 @@ public class Parameters {
 		booleanOptions.add("showSubnetAnalysis", false, "Show extra info about subnets in cooperative coevolution");
 		booleanOptions.add("absenceNegative", false, "Sense absence of input as -1 instead of 0");
 		booleanOptions.add("parallelEvaluations", false, "Perform evaluations in parallel");
+		booleanOptions.add("parallelTrials", false, "Perform the trials of each evaluation in parallel, if supported");
+		booleanOptions.add("rlGlueDirect", false, "Run RL-Glue episodes directly with an environment and agent per thread, so they can be evaluated in parallel");
+		booleanOptions.add("evaluationStreams", false, "Give each evaluation its own random stream derived from randomSeed, generation and genotype id, so parallel runs are reproducible");
+		booleanOptions.add("parallelOffspring", false, "Create offspring with several threads, giving the same offspring no matter how many threads are used");
 		booleanOptions.add("parallelSave", false, "Perform file saving in parallel");
 		booleanOptions.add("cleanOldNetworks", true, "Delete old network xml files once new networks are saved");
+		booleanOptions.add("binaryPopulations", false, "Save each population in a single binary file instead of one xml file per genotype");
+		booleanOptions.add("compressPopulations", true, "Compress the genotypes in binary population files");
+		booleanOptions.add("asyncCheckpoints", false, "Save each generation in a background thread while the next generation is evaluated");
 		booleanOptions.add("deterministic", false, "Make evaluations deterministic, if supported");
 		booleanOptions.add("deleteLeastUsed", false, "Delete least-used mode when doing mode deletion");
 		booleanOptions.add("relativePacmanDirections", true, "Ms. Pac-Man senses and actions for directions are relative to current direction");
@@ -560,6 +611,8 @@ public class Parameters {
 		booleanOptions.add("minimalSubnetExecution", false, "Don't execute subnets whose results are not needed");
 		booleanOptions.add("limitedRecurrentMemory", false, "Reset subnet recurrent memory at the end of consecutive usage");
 		booleanOptions.add("recurrency", true, "Allow recurrent links");
+		booleanOptions.add("compiledTWEANN", false, "TWEANN phenotypes are compiled into flat arrays for faster activation");
+		booleanOptions.add("efficientNonDominatedSort", false, "NSGA2 sorts Pareto fronts with ENS rather than comparing every pair of individuals");
 		booleanOptions.add("trialsMatchGenerations", false, "Trials increase with generations");
 		booleanOptions.add("allowRandomGhostReversals", true, "Random ghost reversals happen in pacman");
 		booleanOptions.add("pacManTimeFitness", false, "Fitness based on survival and speedy level completion");
@@ -924,6 +977,7 @@ public class Parameters {
          */
 	public void setInteger(String label, int value) {
 		this.integerOptions.change(label, value);
+		ParameterHandle.resolve(label);
 	}
 
         /**
@@ -933,6 +987,7 @@ public class Parameters {
          */
 	public void setLong(String label, long value) {
 		this.longOptions.change(label, value);
+		ParameterHandle.resolve(label);
 	}
 
         /**
@@ -942,6 +997,7 @@ public class Parameters {
          */
 	public void setDouble(String label, double value) {
 		this.doubleOptions.change(label, value);
+		ParameterHandle.resolve(label);
 	}
 
         /**
@@ -951,6 +1007,7 @@ public class Parameters {
          */
 	public void setBoolean(String label, boolean value) {
 		this.booleanOptions.change(label, value);
+		ParameterHandle.resolve(label);
 	}
 
         /**
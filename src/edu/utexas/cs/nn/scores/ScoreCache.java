@@ -0,0 +1,155 @@
+package edu.utexas.cs.nn.scores;
+
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * Scores of recently evaluated genotypes, indexed by genotype id, so that
+ * individuals surviving into the next generation (such as the parents of a
+ * mu + lambda EA) need not be simulated again. Genotype ids are never
+ * reused, and a genotype does not change once evaluated, so a stored score
+ * always belongs to the genotype with the same id.
+ *
+ * The policy decides when stored scores are used:
+ * REUSE never evaluates a genotype twice, which is only appropriate for
+ * deterministic tasks. AVERAGE always evaluates again, but combines the new
+ * score with all previous ones, so scores of noisy tasks become more
+ * accurate the longer an individual survives. PERIODIC reuses a score for a
+ * fixed number of generations before evaluating again.
+ *
+ * Scores not used in the previous or current generation are discarded, so
+ * the cache never holds much more than two generations of individuals.
+ *
+ * @param <T>
+ *            Phenotype of evaluated genotypes
+ */
+public class ScoreCache<T> {
+
+	public static final int POLICY_NONE = 0;
+	public static final int POLICY_REUSE = 1;
+	public static final int POLICY_AVERAGE = 2;
+	public static final int POLICY_PERIODIC = 3;
+
+	/**
+	 * Stored score, and the generations in which it was last evaluated and
+	 * last used.
+	 */
+	private static class Entry<T> {
+		Score<T> score;
+		int evaluated;
+		int used;
+	}
+
+	private final int policy;
+	private final int period;
+	private final HashMap<Long, Entry<T>> entries = new HashMap<Long, Entry<T>>();
+	private int hits = 0;
+
+	/**
+	 * @param policy
+	 *            POLICY_REUSE, POLICY_AVERAGE or POLICY_PERIODIC
+	 * @param period
+	 *            generations that a score is reused for by POLICY_PERIODIC
+	 */
+	public ScoreCache(int policy, int period) {
+		if (policy < POLICY_REUSE || policy > POLICY_PERIODIC) {
+			throw new IllegalArgumentException("Invalid score cache policy: " + policy);
+		}
+		this.policy = policy;
+		this.period = period;
+	}
+
+	/**
+	 * Stored score that can stand in for an evaluation of the genotype in
+	 * the current generation, if there is one.
+	 *
+	 * @param individual
+	 *            genotype about to be evaluated
+	 * @param generation
+	 *            current generation
+	 * @return copy of stored score for the individual, or null if it must be
+	 *         evaluated
+	 */
+	public synchronized Score<T> lookup(Genotype<T> individual, int generation) {
+		Entry<T> entry = entries.get(individual.getId());
+		if (entry == null || policy == POLICY_AVERAGE
+				|| (policy == POLICY_PERIODIC && generation - entry.evaluated >= period)) {
+			return null;
+		}
+		entry.used = generation;
+		hits++;
+		return copy(entry.score, individual);
+	}
+
+	/**
+	 * Store the score of a new evaluation. With POLICY_AVERAGE the score is
+	 * averaged with previous scores of the same genotype.
+	 *
+	 * @param score
+	 *            score from evaluating score.individual
+	 * @param generation
+	 *            current generation
+	 * @return score that should be used for the individual
+	 */
+	public synchronized Score<T> store(Score<T> score, int generation) {
+		long id = score.individual.getId();
+		Entry<T> entry = entries.get(id);
+		if (entry == null) {
+			entry = new Entry<T>();
+			entries.put(id, entry);
+		} else if (policy == POLICY_AVERAGE) {
+			Score<T> average = entry.score.incrementalAverage(score);
+			average.totalEvalTime = score.totalEvalTime;
+			average.averageEvalTime = score.averageEvalTime;
+			score = average;
+		}
+		entry.score = copy(score, score.individual);
+		entry.evaluated = generation;
+		entry.used = generation;
+		return score;
+	}
+
+	/**
+	 * Discard scores of genotypes that were not used in the previous or
+	 * current generation, since they are no longer in the population.
+	 *
+	 * @param generation
+	 *            current generation
+	 */
+	public synchronized void discardOld(int generation) {
+		Iterator<Entry<T>> it = entries.values().iterator();
+		while (it.hasNext()) {
+			if (it.next().used < generation - 1) {
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return number of scores currently stored
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return number of evaluations avoided so far
+	 */
+	public synchronized int hits() {
+		return hits;
+	}
+
+	/**
+	 * Copy that does not share arrays with the original, since some EAs add
+	 * extra scores to the scores they are given.
+	 */
+	private static <T> Score<T> copy(Score<T> score, Genotype<T> individual) {
+		Score<T> result = score.copy();
+		result.individual = individual;
+		result.evals = score.evals;
+		result.totalEvalTime = score.totalEvalTime;
+		result.averageEvalTime = score.averageEvalTime;
+		return result;
+	}
+}
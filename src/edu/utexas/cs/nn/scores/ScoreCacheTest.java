@@ -0,0 +1,142 @@
+package edu.utexas.cs.nn.scores;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
+import edu.utexas.cs.nn.evolution.genotypes.RealValuedGenotype;
+import edu.utexas.cs.nn.evolution.metaheuristics.Metaheuristic;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.tasks.LonerTask;
+
+public class ScoreCacheTest {
+
+	/**
+	 * Each evaluation scores the number of evaluations performed so far
+	 */
+	static class CountingTask extends LonerTask<ArrayList<Double>> {
+
+		int evaluations = 0;
+
+		@Override
+		public int numObjectives() {
+			return 1;
+		}
+
+		@Override
+		public double getTimeStamp() {
+			return 0;
+		}
+
+		@Override
+		public Score<ArrayList<Double>> evaluate(Genotype<ArrayList<Double>> individual) {
+			evaluations++;
+			return new Score<ArrayList<Double>>(individual, new double[] { evaluations }, null, new double[0]);
+		}
+	}
+
+	@Before
+	@SuppressWarnings("rawtypes")
+	public void setUp() throws Exception {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false" });
+		MMNEAT.metaheuristics = new ArrayList<Metaheuristic>();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	private static Score<ArrayList<Double>> score(Genotype<ArrayList<Double>> g, double value) {
+		return new Score<ArrayList<Double>>(g, new double[] { value }, null, new double[] { 2 * value });
+	}
+
+	@Test
+	public void test_reuse() {
+		ScoreCache<ArrayList<Double>> cache = new ScoreCache<ArrayList<Double>>(ScoreCache.POLICY_REUSE, 0);
+		RealValuedGenotype g = new RealValuedGenotype(new double[] { 0 });
+		assertNull(cache.lookup(g, 0));
+		cache.store(score(g, 3), 0);
+		Score<ArrayList<Double>> cached = cache.lookup(g, 5);
+		assertEquals(3, cached.scores[0], 0.0);
+		assertEquals(6, cached.otherStats[0], 0.0);
+		assertSame(g, cached.individual);
+		// Changing a returned score does not change the stored score
+		cached.scores[0] = 100;
+		assertEquals(3, cache.lookup(g, 6).scores[0], 0.0);
+		assertEquals(2, cache.hits());
+	}
+
+	@Test
+	public void test_average() {
+		ScoreCache<ArrayList<Double>> cache = new ScoreCache<ArrayList<Double>>(ScoreCache.POLICY_AVERAGE, 0);
+		RealValuedGenotype g = new RealValuedGenotype(new double[] { 0 });
+		assertEquals(2, cache.store(score(g, 2), 0).scores[0], 0.0);
+		assertNull(cache.lookup(g, 1));
+		assertEquals(3, cache.store(score(g, 4), 1).scores[0], 0.0);
+		Score<ArrayList<Double>> average = cache.store(score(g, 9), 2);
+		assertEquals(5, average.scores[0], 0.0);
+		assertEquals(10, average.otherStats[0], 0.0);
+		assertEquals(3, average.evals);
+	}
+
+	@Test
+	public void test_periodic() {
+		ScoreCache<ArrayList<Double>> cache = new ScoreCache<ArrayList<Double>>(ScoreCache.POLICY_PERIODIC, 2);
+		RealValuedGenotype g = new RealValuedGenotype(new double[] { 0 });
+		cache.store(score(g, 1), 0);
+		assertNotNull(cache.lookup(g, 1));
+		assertNull(cache.lookup(g, 2));
+		cache.store(score(g, 7), 2);
+		assertEquals(7, cache.lookup(g, 3).scores[0], 0.0);
+	}
+
+	@Test
+	public void test_discardOld() {
+		ScoreCache<ArrayList<Double>> cache = new ScoreCache<ArrayList<Double>>(ScoreCache.POLICY_REUSE, 0);
+		RealValuedGenotype survivor = new RealValuedGenotype(new double[] { 0 });
+		RealValuedGenotype dropped = new RealValuedGenotype(new double[] { 0 });
+		cache.store(score(survivor, 1), 0);
+		cache.store(score(dropped, 1), 0);
+		cache.discardOld(1);
+		assertEquals(2, cache.size());
+		cache.lookup(survivor, 1);
+		cache.discardOld(2);
+		assertEquals(1, cache.size());
+		assertNotNull(cache.lookup(survivor, 2));
+		assertNull(cache.lookup(dropped, 2));
+	}
+
+	/**
+	 * Individuals that were already evaluated are not evaluated again by a
+	 * LonerTask using a cache, and keep their scores
+	 */
+	@Test
+	public void test_lonerTaskReusesScores() {
+		Parameters.parameters.setInteger("scoreCachePolicy", ScoreCache.POLICY_REUSE);
+		CountingTask task = new CountingTask();
+		ArrayList<Genotype<ArrayList<Double>>> parents = new ArrayList<Genotype<ArrayList<Double>>>();
+		for (int i = 0; i < 3; i++) {
+			parents.add(new RealValuedGenotype(new double[] { i }));
+		}
+		ArrayList<Score<ArrayList<Double>>> first = task.evaluateAll(parents);
+		assertEquals(3, task.evaluations);
+		ArrayList<Genotype<ArrayList<Double>>> next = new ArrayList<Genotype<ArrayList<Double>>>(parents);
+		next.add(1, new RealValuedGenotype(new double[] { 5 }));
+		ArrayList<Score<ArrayList<Double>>> second = task.evaluateAll(next);
+		// Only the new individual was evaluated
+		assertEquals(4, task.evaluations);
+		assertEquals(4, second.size());
+		assertEquals(first.get(0).scores[0], second.get(0).scores[0], 0.0);
+		assertEquals(4, second.get(1).scores[0], 0.0);
+		assertSame(next.get(1), second.get(1).individual);
+		assertEquals(first.get(1).scores[0], second.get(2).scores[0], 0.0);
+		assertEquals(first.get(2).scores[0], second.get(3).scores[0], 0.0);
+	}
+}
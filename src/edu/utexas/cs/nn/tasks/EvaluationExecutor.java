@@ -0,0 +1,188 @@
+package edu.utexas.cs.nn.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+
+/**
+ * Long-lived pool of evaluation threads that is shared across generations,
+ * instead of creating and destroying a new pool for every generation. Since
+ * the same threads are used throughout evolution, any per-thread context a
+ * task keeps in a ThreadLocal (such as a game instance) is created once per
+ * thread and then reused.
+ *
+ * Evaluations are fed to the pool gradually: only a bounded number are
+ * running or waiting in the queue at any time, and a new one is submitted
+ * each time any evaluation completes, in whatever order they complete. The
+ * results are still returned in the order of the evaluations, so callers
+ * process them exactly as they would when evaluating sequentially.
+ */
+public class EvaluationExecutor {
+
+	private final ThreadPoolExecutor pool;
+	private final int threads;
+	// Maximum number of evaluations running or waiting at once
+	private final int maxInFlight;
+
+	/**
+	 * Start the threads of the pool
+	 *
+	 * @param threads
+	 *            number of evaluation threads
+	 * @param queueSize
+	 *            number of evaluations that can wait for a free thread
+	 */
+	public EvaluationExecutor(int threads, int queueSize) {
+		this.threads = Math.max(1, threads);
+		queueSize = Math.max(1, queueSize);
+		this.maxInFlight = this.threads + queueSize;
+		final AtomicInteger count = new AtomicInteger(0);
+		ThreadFactory factory = new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "Evaluation-" + count.incrementAndGet());
+				// Never keep the program alive if the pool was not closed
+				t.setDaemon(true);
+				return t;
+			}
+		};
+		// A full queue makes the submitter wait for space rather than fail
+		RejectedExecutionHandler waitForSpace = new RejectedExecutionHandler() {
+			@Override
+			public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+				if (executor.isShutdown()) {
+					throw new RejectedExecutionException("Evaluation threads already closed");
+				}
+				try {
+					executor.getQueue().put(r);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new RejectedExecutionException(ex);
+				}
+			}
+		};
+		this.pool = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(queueSize), factory, waitForSpace);
+		pool.prestartAllCoreThreads();
+	}
+
+	/**
+	 * @return number of evaluation threads
+	 */
+	public int threads() {
+		return threads;
+	}
+
+	/**
+	 * Perform all evaluations with the threads of the pool and wait for them
+	 * to finish.
+	 *
+	 * @param <V>
+	 *            result of each evaluation
+	 * @param calls
+	 *            evaluations to perform
+	 * @return results in the same order as calls
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 * @throws ExecutionException
+	 *             if any evaluation fails, in which case the remaining
+	 *             evaluations are cancelled
+	 */
+	public <V> ArrayList<V> evaluateAll(List<? extends Callable<V>> calls) throws InterruptedException, ExecutionException {
+		final ArrayList<V> results = new ArrayList<V>(calls.size());
+		for (int i = 0; i < calls.size(); i++) {
+			results.add(null);
+		}
+		CompletionService<Integer> completion = new ExecutorCompletionService<Integer>(pool);
+		ArrayList<Future<Integer>> futures = new ArrayList<Future<Integer>>(calls.size());
+		int submitted = 0;
+		int completed = 0;
+		try {
+			while (completed < calls.size()) {
+				// Keep the bounded queue full
+				while (submitted < calls.size() && submitted - completed < maxInFlight) {
+					final int index = submitted++;
+					final Callable<V> call = calls.get(index);
+					futures.add(completion.submit(new Callable<Integer>() {
+						@Override
+						public Integer call() throws Exception {
+							// Each slot is written by one thread, and read after Future.get
+							results.set(index, call.call());
+							return index;
+						}
+					}));
+				}
+				// Whichever evaluation finishes first
+				completion.take().get();
+				completed++;
+			}
+		} catch (InterruptedException | ExecutionException ex) {
+			for (Future<Integer> f : futures) {
+				f.cancel(true);
+			}
+			throw ex;
+		}
+		return results;
+	}
+
+	/**
+	 * Completion service that runs evaluations with the threads of the pool,
+	 * for callers that want each result as soon as it is ready rather than
+	 * waiting for a whole batch. Submitting waits if the queue is full.
+	 *
+	 * @param <V>
+	 *            result of each evaluation
+	 * @return new completion service
+	 */
+	public <V> CompletionService<V> completionService() {
+		return new ExecutorCompletionService<V>(pool);
+	}
+
+	/**
+	 * Stop the threads once queued evaluations are done
+	 */
+	public void close() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Evaluate with the executor of the current experiment if there is one, and
+	 * otherwise with a temporary pool that is closed afterward.
+	 *
+	 * @param <V>
+	 *            result of each evaluation
+	 * @param calls
+	 *            evaluations to perform
+	 * @param threads
+	 *            number of threads for a temporary pool
+	 * @return results in the same order as calls
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 * @throws ExecutionException
+	 *             if any evaluation fails
+	 */
+	public static <V> ArrayList<V> evaluateAll(List<? extends Callable<V>> calls, int threads) throws InterruptedException, ExecutionException {
+		if (MMNEAT.evaluationExecutor != null) {
+			return MMNEAT.evaluationExecutor.evaluateAll(calls);
+		}
+		EvaluationExecutor temporary = new EvaluationExecutor(threads, threads);
+		try {
+			return temporary.evaluateAll(calls);
+		} finally {
+			temporary.close();
+		}
+	}
+}
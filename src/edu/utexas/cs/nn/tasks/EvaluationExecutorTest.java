@@ -0,0 +1,108 @@
+package edu.utexas.cs.nn.tasks;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EvaluationExecutorTest {
+
+	final static int THREADS = 4;
+	final static int QUEUE = 2;
+
+	EvaluationExecutor executor;
+
+	@Before
+	public void setUp() throws Exception {
+		executor = new EvaluationExecutor(THREADS, QUEUE);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		executor.close();
+	}
+
+	/**
+	 * Results come back in the order of the calls even though later calls
+	 * finish first, and the pool is reused by several batches.
+	 */
+	@Test
+	public void test_resultOrder() throws InterruptedException, ExecutionException {
+		for (int batch = 0; batch < 3; batch++) {
+			ArrayList<Callable<Integer>> calls = new ArrayList<Callable<Integer>>();
+			for (int i = 0; i < 20; i++) {
+				final int value = i;
+				calls.add(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						Thread.sleep(20 - value);
+						return value * value;
+					}
+				});
+			}
+			ArrayList<Integer> results = executor.evaluateAll(calls);
+			assertEquals(calls.size(), results.size());
+			for (int i = 0; i < results.size(); i++) {
+				assertEquals(i * i, results.get(i).intValue());
+			}
+		}
+	}
+
+	/**
+	 * Never more evaluations in progress than there are threads, and never
+	 * more submitted than fit in the threads and the queue.
+	 */
+	@Test
+	public void test_bounded() throws InterruptedException, ExecutionException {
+		final AtomicInteger started = new AtomicInteger(0);
+		final AtomicInteger finished = new AtomicInteger(0);
+		final AtomicInteger running = new AtomicInteger(0);
+		final AtomicInteger maxRunning = new AtomicInteger(0);
+		final AtomicInteger maxAhead = new AtomicInteger(0);
+		ArrayList<Callable<Integer>> calls = new ArrayList<Callable<Integer>>();
+		for (int i = 0; i < 50; i++) {
+			calls.add(new Callable<Integer>() {
+				@Override
+				public Integer call() throws Exception {
+					int now = running.incrementAndGet();
+					synchronized (maxRunning) {
+						maxRunning.set(Math.max(maxRunning.get(), now));
+						maxAhead.set(Math.max(maxAhead.get(), started.incrementAndGet() - finished.get()));
+					}
+					Thread.sleep(2);
+					running.decrementAndGet();
+					finished.incrementAndGet();
+					return now;
+				}
+			});
+		}
+		executor.evaluateAll(calls);
+		assertTrue(maxRunning.get() <= THREADS);
+		assertTrue(maxAhead.get() <= THREADS + QUEUE);
+		assertEquals(calls.size(), finished.get());
+	}
+
+	@Test(expected = ExecutionException.class)
+	public void test_failure() throws InterruptedException, ExecutionException {
+		ArrayList<Callable<Integer>> calls = new ArrayList<Callable<Integer>>();
+		for (int i = 0; i < 10; i++) {
+			final int value = i;
+			calls.add(new Callable<Integer>() {
+				@Override
+				public Integer call() throws Exception {
+					if (value == 5) {
+						throw new IllegalStateException("Failed evaluation");
+					}
+					return value;
+				}
+			});
+		}
+		executor.evaluateAll(calls);
+	}
+}
@@ -5,6 +5,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import wox.serial.Easy;
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
@@ -54,6 +57,10 @@ public abstract class GroupTask implements MultiplePopulationTask {
         // Logging team data
 	public MMNEATLog teamLog;
 	private final boolean bestTeamScore;
+	// Same settings used by LonerTask for parallel evaluation
+	private final boolean parallel;
+	private final int threads;
+	private final boolean evaluationStreams;
 
 	public GroupTask() {
 		this.teams = Parameters.parameters.integerParameter("teams");
@@ -62,6 +69,99 @@ public abstract class GroupTask implements MultiplePopulationTask {
 		}
 		TWEANN.NETWORK_VIEW_DIM = 800 / 5; // Why these magic numbers? Why not 160?
 		this.bestTeamScore = Parameters.parameters.booleanParameter("bestTeamScore");
+		this.parallel = Parameters.parameters.booleanParameter("parallelEvaluations");
+		this.threads = Parameters.parameters.integerParameter("threads");
+		this.evaluationStreams = Parameters.parameters.booleanParameter("evaluationStreams");
+	}
+
+	/**
+	 * Whether evaluate(team) can be called by several threads at once. This
+	 * requires all state used during an evaluation to be either created by the
+	 * evaluation itself or confined to the evaluating thread. Tasks that share
+	 * evaluation state between teams should return false, so that their teams
+	 * are evaluated sequentially even when parallelEvaluations is true.
+	 *
+	 * @return true if teams can be evaluated in parallel
+	 */
+	protected boolean canEvaluateTeamsInParallel() {
+		return true;
+	}
+
+	/**
+	 * Teams are only evaluated in parallel if requested, supported by the
+	 * task, and nothing is being displayed, since the displays assume that
+	 * only one evaluation happens at a time.
+	 *
+	 * @return true if teams should be evaluated in parallel
+	 */
+	private boolean evaluateTeamsInParallel() {
+		return parallel && canEvaluateTeamsInParallel() && !CommonConstants.watch && !CommonConstants.showNetworks
+				&& !CommonConstants.monitorInputs;
+	}
+
+	/**
+	 * Evaluation of a single team, so that teams can be evaluated by a
+	 * thread pool.
+	 */
+	@SuppressWarnings("rawtypes") // because each population can have a different genotype
+	private class TeamEvaluationThread implements Callable<ArrayList<Score>> {
+
+		private final Genotype[] team;
+		private final Random stream;
+
+		/**
+		 * @param team
+		 *            members of the team
+		 * @param stream
+		 *            generator for this evaluation only, or null
+		 */
+		public TeamEvaluationThread(Genotype[] team, Random stream) {
+			this.team = team;
+			this.stream = stream;
+		}
+
+		@Override
+		public ArrayList<Score> call() {
+			if (stream == null) {
+				return evaluate(team);
+			}
+			RandomNumbers.setThreadGenerator(stream);
+			try {
+				return evaluate(team);
+			} finally {
+				RandomNumbers.setThreadGenerator(null);
+			}
+		}
+	}
+
+	/**
+	 * Random stream for the evaluation of one team, if evaluationStreams is
+	 * true. The stream depends only on the random seed, the generation, the
+	 * position of the team in the join order and the ids of its members, so
+	 * teams get the same results whether they are evaluated sequentially or
+	 * in parallel.
+	 *
+	 * @param generation
+	 *            current generation
+	 * @param index
+	 *            position of the team in the join order
+	 * @param team
+	 *            members of the team
+	 * @return generator for the evaluation, or null if the generator of the
+	 *         evaluating thread should be used
+	 */
+	@SuppressWarnings("rawtypes")
+	private Random teamStream(int generation, int index, Genotype[] team) {
+		if (!evaluationStreams) {
+			return null;
+		}
+		long[] keys = new long[team.length + 2];
+		keys[0] = generation;
+		keys[1] = index;
+		for (int i = 0; i < team.length; i++) {
+			keys[i + 2] = team[i].getId();
+		}
+		return RandomNumbers.stream(keys);
 	}
 
 	/**
@@ -98,7 +198,7 @@ public abstract class GroupTask implements MultiplePopulationTask {
 
 		// Shuffling happens whether the order is new or not
 		for (int i = 0; i < pops; i++) {
-			Collections.shuffle(joinOrder.get(i), RandomNumbers.randomGenerator);
+			Collections.shuffle(joinOrder.get(i), RandomNumbers.generator());
 		}
 
 		return evaluateAllPopulations(populations, joinOrder);
@@ -152,13 +252,36 @@ public abstract class GroupTask implements MultiplePopulationTask {
 			bestScores[j] = new Score[bestObjectives[j].length]; 
 		}
 
+		// Start all evaluations at once if evaluating in parallel
+		boolean parallelTeams = evaluateTeamsInParallel();
+		int generation = MMNEAT.ea == null ? 0 : MMNEAT.ea.currentGeneration();
+		ArrayList<ArrayList<Score>> parallelScores = null;
+		if (parallelTeams) {
+			ArrayList<TeamEvaluationThread> calls = new ArrayList<TeamEvaluationThread>(totalEvals);
+			for (int i = 0; i < totalEvals; i++) {
+				Genotype[] team = getTeam(populations, teamOrder, i);
+				calls.add(new TeamEvaluationThread(team, teamStream(generation, i, team)));
+			}
+			// Threads are shared across generations, and team evaluations
+			// that vary in length are collected as soon as they finish
+			try {
+				parallelScores = EvaluationExecutor.evaluateAll(calls, threads);
+			} catch (InterruptedException | ExecutionException ex) {
+				ex.printStackTrace();
+				System.exit(1);
+			}
+		}
+
+		// Results are always processed in team order, so the merged scores
+		// do not depend on which evaluations finish first
 		for (int i = 0; i < totalEvals; i++) {
 			// Create team
 			Genotype[] team = getTeam(populations, teamOrder, i);
 			// Visualize (conditional)
-			DrawingPanel[] panels = drawNetworks(team);
+			DrawingPanel[] panels = parallelTeams ? null : drawNetworks(team);
 			// Evaluate
-			ArrayList<Score> scores = evaluate(team);
+			ArrayList<Score> scores = parallelTeams ? parallelScores.get(i)
+					: new TeamEvaluationThread(team, teamStream(generation, i, team)).call();
 			// Track the best ms pacman team in each generation
 			if (trackBestPacManScore) {
 				Score firstScoreSet = scores.get(0);
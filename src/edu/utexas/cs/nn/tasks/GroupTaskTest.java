@@ -0,0 +1,137 @@
+package edu.utexas.cs.nn.tasks;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Test;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
+import edu.utexas.cs.nn.evolution.genotypes.RealValuedGenotype;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.scores.Score;
+
+public class GroupTaskTest {
+
+	final static int POP_SIZE = 20;
+
+	/**
+	 * Scores each team member with a value determined by the whole team, and
+	 * records how many teams were evaluated at the same time.
+	 */
+	static class ProductTask extends GroupTask {
+
+		int running = 0;
+		int maxRunning = 0;
+
+		@Override
+		public int numberOfPopulations() {
+			return 2;
+		}
+
+		@Override
+		public int[] objectivesPerPopulation() {
+			return new int[] { 1, 1 };
+		}
+
+		@Override
+		public int[] otherStatsPerPopulation() {
+			return new int[] { 0, 0 };
+		}
+
+		@Override
+		public double getTimeStamp() {
+			return 0;
+		}
+
+		@Override
+		public void finalCleanup() {
+		}
+
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		@Override
+		public ArrayList<Score> evaluate(Genotype[] team) {
+			synchronized (this) {
+				maxRunning = Math.max(maxRunning, ++running);
+			}
+			try {
+				Thread.sleep(2);
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+			double a = ((RealValuedGenotype) team[0]).getPhenotype().get(0);
+			double b = ((RealValuedGenotype) team[1]).getPhenotype().get(0);
+			ArrayList<Score> scores = new ArrayList<Score>(2);
+			scores.add(new Score(team[0], new double[] { a * b + a }, null, new double[0]));
+			scores.add(new Score(team[1], new double[] { a * b - b }, null, new double[0]));
+			synchronized (this) {
+				running--;
+			}
+			return scores;
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	@SuppressWarnings("rawtypes")
+	private ArrayList<ArrayList<Score>> evaluate(ProductTask task, ArrayList<ArrayList<Genotype>> populations) {
+		// Fixed team order so that both runs form the same teams
+		ArrayList<ArrayList<Integer>> order = new ArrayList<ArrayList<Integer>>();
+		for (int p = 0; p < populations.size(); p++) {
+			ArrayList<Integer> popOrder = new ArrayList<Integer>();
+			for (int t = 0; t < 3; t++) {
+				for (int i = 0; i < POP_SIZE; i++) {
+					popOrder.add(p == 0 ? i : (i * (t + 1) + t) % POP_SIZE);
+				}
+			}
+			order.add(popOrder);
+		}
+		return task.evaluateAllPopulations(populations, order);
+	}
+
+	/**
+	 * Parallel team evaluation must merge exactly the same scores as
+	 * sequential evaluation, both when averaging and when keeping the best
+	 * team score.
+	 */
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void test_parallelMatchesSequential() {
+		for (String bestTeamScore : new String[] { "true", "false" }) {
+			Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "teams:3",
+					"threads:4", "parallelEvaluations:false", "bestTeamScore:" + bestTeamScore });
+			ArrayList<ArrayList<Genotype>> populations = new ArrayList<ArrayList<Genotype>>();
+			for (int p = 0; p < 2; p++) {
+				ArrayList<Genotype> pop = new ArrayList<Genotype>();
+				for (int i = 0; i < POP_SIZE; i++) {
+					pop.add(new RealValuedGenotype(new double[] { (p + 1) * 0.37 * i - 1 }));
+				}
+				populations.add(pop);
+			}
+			ProductTask sequential = new ProductTask();
+			ArrayList<ArrayList<Score>> expected = evaluate(sequential, populations);
+			assertEquals(1, sequential.maxRunning);
+
+			Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "teams:3",
+					"threads:4", "parallelEvaluations:true", "bestTeamScore:" + bestTeamScore });
+			ProductTask parallel = new ProductTask();
+			ArrayList<ArrayList<Score>> actual = evaluate(parallel, populations);
+			assertTrue(parallel.maxRunning > 1);
+
+			for (int p = 0; p < expected.size(); p++) {
+				for (int i = 0; i < POP_SIZE; i++) {
+					Score e = expected.get(p).get(i);
+					Score a = actual.get(p).get(i);
+					assertSame(e.individual, a.individual);
+					assertEquals(e.evals, a.evals);
+					assertArrayEquals(e.scores, a.scores, 0.0);
+				}
+			}
+		}
+	}
+}
@@ -17,11 +17,13 @@ import edu.utexas.cs.nn.networks.hyperneat.HyperNEATUtil;
 import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.scores.Score;
+import edu.utexas.cs.nn.scores.ScoreCache;
 import edu.utexas.cs.nn.tasks.breve2D.Breve2DTask;
 import edu.utexas.cs.nn.tasks.gridTorus.TorusPredPreyTask;
 import edu.utexas.cs.nn.tasks.mspacman.MsPacManTask;
 import edu.utexas.cs.nn.util.PopulationUtil;
 import edu.utexas.cs.nn.util.file.FileUtilities;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
 
 import java.io.File;
 import java.io.IOException;
@@ -32,7 +34,9 @@ import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.concurrent.*;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import wox.serial.Easy;
 
 /**
@@ -58,6 +62,9 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 
 		private final Genotype<T> genotype;
 		private final LonerTask<T> task;
+		// Random generator used for the whole evaluation, or null to use
+		// the generator of whichever thread performs it
+		private final Random stream;
 
 		/**
 		 * a constructor for creating an evaluation thread
@@ -66,8 +73,23 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 		 * @param g
 		 */
 		public EvaluationThread(LonerTask<T> task, Genotype<T> g) {
+			this(task, g, null);
+		}
+
+		/**
+		 * an evaluation thread that draws all random numbers from its own
+		 * stream, so its result does not depend on which thread performs it
+		 * or on what other evaluations happen at the same time
+		 * 
+		 * @param task
+		 * @param g
+		 * @param stream
+		 *            generator for this evaluation only, or null
+		 */
+		public EvaluationThread(LonerTask<T> task, Genotype<T> g, Random stream) {
 			this.genotype = g;
 			this.task = task;
+			this.stream = stream;
 		}
 
 		/**
@@ -77,9 +99,21 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 		 * @return score the fitness score of the agent of this task based on
 		 *         evaluation
 		 */
-		@SuppressWarnings("unchecked")
 		@Override
 		public Score<T> call() {//TODO 
+			if (stream == null) {
+				return evaluate();
+			}
+			RandomNumbers.setThreadGenerator(stream);
+			try {
+				return evaluate();
+			} finally {
+				RandomNumbers.setThreadGenerator(null);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private Score<T> evaluate() {
 			DrawingPanel panel = null;
 			DrawingPanel cppnPanel = null;
 			@SuppressWarnings("unused")
@@ -181,6 +215,10 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 
 	private final boolean parallel;
 	private final int threads;
+	// Whether each evaluation gets its own random stream
+	private final boolean evaluationStreams;
+	// Scores of recently evaluated genotypes, or null if not used
+	private final ScoreCache<T> scoreCache;
 
 	/**
 	 * constructor for a LonerTask based upon command line specified evaluation
@@ -189,6 +227,38 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 	public LonerTask() {
 		this.parallel = Parameters.parameters.booleanParameter("parallelEvaluations");
 		this.threads = Parameters.parameters.integerParameter("threads");
+		this.evaluationStreams = Parameters.parameters.booleanParameter("evaluationStreams");
+		int cachePolicy = Parameters.parameters.integerParameter("scoreCachePolicy");
+		this.scoreCache = cachePolicy == ScoreCache.POLICY_NONE ? null
+				: new ScoreCache<T>(cachePolicy, Parameters.parameters.integerParameter("scoreCachePeriod"));
+	}
+
+	/**
+	 * Whether different individuals can be evaluated at the same time by
+	 * different threads. Tasks whose evaluations share state that changes
+	 * while an agent is evaluated override this, and are evaluated
+	 * sequentially even when parallelEvaluations is true.
+	 *
+	 * @return true if the population can be evaluated in parallel
+	 */
+	public boolean canEvaluateInParallel() {
+		return true;
+	}
+
+	/**
+	 * Random stream for one evaluation, if evaluationStreams is true. The
+	 * stream depends only on the random seed and the keys, so evaluations
+	 * give the same results whether they are performed sequentially or in
+	 * parallel.
+	 *
+	 * @param keys
+	 *            generation, genotype id, and anything else that makes the
+	 *            evaluation unique
+	 * @return generator for the evaluation, or null if the generator of the
+	 *         evaluating thread should be used
+	 */
+	protected Random evaluationStream(long... keys) {
+		return evaluationStreams ? RandomNumbers.stream(keys) : null;
 	}
 
 	/**
@@ -203,7 +273,9 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 	}
 
 	/**
-	 * evaluate all of the genotypes in the population
+	 * evaluate all of the genotypes in the population. If a score cache is
+	 * used, genotypes with a usable score from an earlier generation (such as
+	 * surviving parents) are not evaluated again.
 	 * 
 	 * @param population
 	 *            the population
@@ -215,24 +287,32 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 		// a list of the fitness scores of the population
 		ArrayList<Score<T>> scores = new ArrayList<Score<T>>(population.size());
 
-		ExecutorService poolExecutor = null;
-		ArrayList<Future<Score<T>>> futures = null;
 		ArrayList<EvaluationThread> calls = new ArrayList<EvaluationThread>(population.size());
+		int generation = MMNEAT.ea == null ? 0 : MMNEAT.ea.currentGeneration();
+		ArrayList<Score<T>> cachedScores = new ArrayList<Score<T>>(population.size());
 
 		// get each genotype for the population and add an EvaluationThread for
-		// it to the calls list
+		// it to the calls list, unless it already has a score
 		for (int i = 0; i < population.size(); i++) {
 			Genotype<T> genotype = population.get(i);
-			EvaluationThread callable = new EvaluationThread(this, genotype);
-			calls.add(callable);
+			Score<T> cached = scoreCache == null ? null : scoreCache.lookup(genotype, generation);
+			cachedScores.add(cached);
+			if (cached == null) {
+				EvaluationThread callable = new EvaluationThread(this, genotype, evaluationStream(generation, genotype.getId()));
+				calls.add(callable);
+			}
 		}
 
-		if (parallel) {
-			poolExecutor = Executors.newFixedThreadPool(threads);
-			futures = new ArrayList<Future<Score<T>>>(population.size());
-			for (int i = 0; i < population.size(); i++) {
-				Future<Score<T>> future = poolExecutor.submit(calls.get(i));
-				futures.add(future);
+		ArrayList<Score<T>> parallelScores = null;
+		boolean inParallel = parallel && canEvaluateInParallel();
+		if (inParallel) {
+			// Threads are shared across generations, and results are
+			// collected as they complete, but stored in population order
+			try {
+				parallelScores = EvaluationExecutor.evaluateAll(calls, threads);
+			} catch (InterruptedException | ExecutionException ex) {
+				ex.printStackTrace();
+				System.exit(1);
 			}
 		}
 
@@ -249,34 +329,40 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 		boolean trackBestPacManScore = 
                                    CommonConstants.netio && this instanceof MsPacManTask
 				&& MMNEAT.ea instanceof MuLambda && ((MuLambda<T>) MMNEAT.ea).evaluatingParents;
+		int nextCall = 0;
 		for (int i = 0; i < population.size(); i++) {
-			try {
-				Score<T> s = parallel ? futures.get(i).get() : calls.get(i).call();
-				// Specific to Ms Pac-Man
-				if (trackBestPacManScore) {
-					int gameScore = (int) s.otherStats[0]; // Game Score is always first
-					if (gameScore >= maxPacManScore) {
-						bestPacMan = s.individual;
-						maxPacManScore = gameScore;
-						bestScoreSet = s;
-					}
+			Score<T> s = cachedScores.get(i);
+			if (s == null) {
+				s = inParallel ? parallelScores.get(nextCall) : calls.get(nextCall).call();
+				nextCall++;
+				if (scoreCache != null) {
+					s = scoreCache.store(s, generation);
 				}
-				// Best in each objective
-				for (int j = 0; j < bestObjectives.length; j++) {
-					double objectiveScore = s.scores[j];
+			}
+			// Specific to Ms Pac-Man
+			if (trackBestPacManScore) {
+				int gameScore = (int) s.otherStats[0]; // Game Score is always first
+				if (gameScore >= maxPacManScore) {
+					bestPacMan = s.individual;
+					maxPacManScore = gameScore;
+					bestScoreSet = s;
+				}
+			}
+			// Best in each objective
+			for (int j = 0; j < bestObjectives.length; j++) {
+				double objectiveScore = s.scores[j];
                     // i == 0 saves first member of the population as the tentative best until a better individual is found
-					if (i == 0 || objectiveScore >= bestObjectives[j]) {
+				if (i == 0 || objectiveScore >= bestObjectives[j]) {
                         // update best individual in objective j
-						bestGenotypes[j] = s.individual;
-						bestObjectives[j] = objectiveScore;
-						bestScores[j] = s;
-					}
+					bestGenotypes[j] = s.individual;
+					bestObjectives[j] = objectiveScore;
+					bestScores[j] = s;
 				}
-				scores.add(s);
-			} catch (InterruptedException | ExecutionException ex) {
-				ex.printStackTrace();
-				System.exit(1);
 			}
+			scores.add(s);
+		}
+		if (scoreCache != null) {
+			scoreCache.discardOld(generation);
 		}
 
 		if (bestPacMan != null) {
@@ -299,10 +385,6 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 			PopulationUtil.saveBestOfCurrentGen(bestObjectives, bestGenotypes, bestScores);
 		}
 
-		if (parallel) {
-			poolExecutor.shutdown();
-		}
-
 		/**
 		 * If using UCB to decide who to give extra evals to, then by this point
 		 * every member of the population will have been evaluated (preferably
@@ -327,7 +409,8 @@ public abstract class LonerTask<T> implements SinglePopulationTask<T> {
 				Score<T> oldScore = scores.get(last);
 				// System.out.print(ucb1.ucb1(oldScore) + "::" + oldScore +
 				// "->");
-				EvaluationThread callable = new EvaluationThread(this, oldScore.individual);
+				EvaluationThread callable = new EvaluationThread(this, oldScore.individual,
+						evaluationStream(generation, oldScore.individual.getId(), i + 1));
 				Score<T> newScore = oldScore.incrementalAverage(callable.call());
 				// After eval, insert the individual into the correct slot in
 				// sorted list
@@ -4,6 +4,8 @@ import edu.utexas.cs.nn.evolution.genotypes.Genotype;
 import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
 import edu.utexas.cs.nn.parameters.CommonConstants;
+import edu.utexas.cs.nn.parameters.BooleanHandle;
+import edu.utexas.cs.nn.parameters.IntegerHandle;
 import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.scores.MultiObjectiveScore;
 import edu.utexas.cs.nn.scores.Score;
@@ -13,8 +15,13 @@ import edu.utexas.cs.nn.util.datastructures.ArrayUtil;
 import edu.utexas.cs.nn.util.datastructures.Pair;
 import edu.utexas.cs.nn.util.stats.Average;
 import edu.utexas.cs.nn.util.stats.Statistic;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+import edu.utexas.cs.nn.util.random.SplitMixRandom;
 import edu.utexas.cs.nn.util.stats.StatisticsUtilities;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Any task in which multiple trials are needed because evaluations are noisy.
@@ -25,8 +32,47 @@ import java.util.Arrays;
  */
 public abstract class NoisyLonerTask<T> extends LonerTask<T> {
 
+	private static final BooleanHandle SCALE_TRIALS = new BooleanHandle("scaleTrials");
+	private static final IntegerHandle MAX_GENS = new IntegerHandle("maxGens");
 	public Statistic stat;
 	public final boolean printFitness;
+	// Whether the trials of one individual may be evaluated in parallel
+	private final boolean parallelTrials;
+	private final int trialThreads;
+	// Created the first time trials are evaluated in parallel
+	private EvaluationExecutor trialExecutor = null;
+
+	/**
+	 * Performs one trial with its own random generator, and records how long
+	 * the trial took.
+	 */
+	private class TrialThread implements Callable<Pair<double[], double[]>> {
+
+		private final Genotype<T> individual;
+		private final int num;
+		private final long seed;
+		private final long[] times;
+
+		public TrialThread(Genotype<T> individual, int num, long seed, long[] times) {
+			this.individual = individual;
+			this.num = num;
+			this.seed = seed;
+			this.times = times;
+		}
+
+		@Override
+		public Pair<double[], double[]> call() {
+			RandomNumbers.setThreadGenerator(new SplitMixRandom(seed));
+			try {
+				long before = System.currentTimeMillis();
+				Pair<double[], double[]> result = oneEval(individual, num);
+				times[num] = System.currentTimeMillis() - before;
+				return result;
+			} finally {
+				RandomNumbers.setThreadGenerator(null);
+			}
+		}
+	}
 
 	/**
 	 * constructor for a noisy loner task. Assigns fitness according to
@@ -34,6 +80,8 @@ public abstract class NoisyLonerTask<T> extends LonerTask<T> {
 	 */
 	public NoisyLonerTask() {
 		this.printFitness = Parameters.parameters.booleanParameter("printFitness");
+		this.parallelTrials = Parameters.parameters.booleanParameter("parallelTrials");
+		this.trialThreads = Parameters.parameters.integerParameter("threads");
 		try {
 			stat = (Statistic) ClassCreation.createObject("noisyTaskStat");
 		} catch (NoSuchMethodException ex) {
@@ -67,6 +115,82 @@ public abstract class NoisyLonerTask<T> extends LonerTask<T> {
 	 */
 	public abstract Pair<double[], double[]> oneEval(Genotype<T> individual, int num);
 
+	/**
+	 * Whether oneEval can be called by several threads at once for the same
+	 * individual. Each trial must create its own phenotype and game rather
+	 * than using fields of the task. Tasks that cannot guarantee this keep
+	 * the default, and their trials are performed sequentially even when
+	 * parallelTrials is true.
+	 *
+	 * @return true if trials can be evaluated in parallel
+	 */
+	protected boolean canEvaluateTrialsInParallel() {
+		return false;
+	}
+
+	/**
+	 * Trials are only evaluated in parallel if requested, supported by the
+	 * task, and nothing is being displayed or logged per trial.
+	 *
+	 * @param numTrials
+	 *            number of trials to perform
+	 * @return true if trials should be evaluated in parallel
+	 */
+	private boolean evaluateTrialsInParallel(int numTrials) {
+		return parallelTrials && numTrials > 1 && canEvaluateTrialsInParallel() && MMNEAT.evalReport == null
+				&& !CommonConstants.watch && !CommonConstants.showNetworks && !CommonConstants.monitorInputs;
+	}
+
+	/**
+	 * Perform all trials of one individual at once. Each trial uses a
+	 * generator seeded from a single draw of the shared generator and the
+	 * trial number, so results do not depend on how threads are scheduled.
+	 * The trials have their own threads, separate from those evaluating
+	 * different individuals, so that an evaluation thread waiting on its
+	 * trials can never block them.
+	 *
+	 * @param individual
+	 *            genotype to evaluate
+	 * @param numTrials
+	 *            number of trials
+	 * @param times
+	 *            filled with the time taken by each trial
+	 * @return results of the trials in order
+	 */
+	private ArrayList<Pair<double[], double[]>> performTrialsInParallel(Genotype<T> individual, int numTrials, long[] times) {
+		long evaluationSeed = RandomNumbers.generator().nextLong();
+		ArrayList<TrialThread> calls = new ArrayList<TrialThread>(numTrials);
+		for (int i = 0; i < numTrials; i++) {
+			calls.add(new TrialThread(individual, i, trialSeed(evaluationSeed, i), times));
+		}
+		synchronized (this) {
+			if (trialExecutor == null) {
+				trialExecutor = new EvaluationExecutor(trialThreads, trialThreads);
+			}
+		}
+		ArrayList<Pair<double[], double[]>> results = null;
+		try {
+			results = trialExecutor.evaluateAll(calls);
+		} catch (InterruptedException | ExecutionException ex) {
+			ex.printStackTrace();
+			System.exit(1);
+		}
+		return results;
+	}
+
+	/**
+	 * Seed for one trial of an evaluation
+	 *
+	 * @param evaluationSeed
+	 *            seed shared by all trials of the evaluation
+	 * @param num
+	 *            trial number
+	 * @return distinct seed for the trial
+	 */
+	public static long trialSeed(long evaluationSeed, int num) {
+		return SplitMixRandom.derive(evaluationSeed, num);
+	}
+
 	/**
 	 * Evaluate an agent by subjecting it to several separate evaluations/trials
 	 * in the domain. Return the fitness score(s)
@@ -80,9 +204,9 @@ public abstract class NoisyLonerTask<T> extends LonerTask<T> {
 	public Score<T> evaluate(Genotype<T> individual) {
 		prep();
 		int numTrials;
-		if(Parameters.parameters.booleanParameter("scaleTrials")){
+		if(SCALE_TRIALS.get()){
 			numTrials = (int) Math.ceil((((double) MMNEAT.ea.currentGeneration() + 0.01) / 
-					Parameters.parameters.integerParameter("maxGens")) * CommonConstants.trials);
+					MAX_GENS.get()) * CommonConstants.trials);
 			numTrials = Math.min(numTrials, CommonConstants.trials);
 		} else {
 			numTrials = CommonConstants.trials;
@@ -91,12 +215,15 @@ public abstract class NoisyLonerTask<T> extends LonerTask<T> {
 		double[][] objectiveScores = new double[numTrials][this.numObjectives()];
 		double[][] otherScores = new double[numTrials][this.numOtherScores()];
 		double evalTimeSum = 0;
+		long[] trialTimes = new long[numTrials];
+		ArrayList<Pair<double[], double[]>> parallelResults = evaluateTrialsInParallel(numTrials)
+				? performTrialsInParallel(individual, numTrials, trialTimes) : null;
 		for (int i = 0; i < numTrials; i++) {
 			long before = System.currentTimeMillis();
 			if (MMNEAT.evalReport != null) {
 				MMNEAT.evalReport.log("Eval " + i + ":");
 			}
-			Pair<double[], double[]> result = oneEval(individual, i);
+			Pair<double[], double[]> result = parallelResults == null ? oneEval(individual, i) : parallelResults.get(i);
 			if (printFitness) {
 				System.out.println(Arrays.toString(result.t1) + Arrays.toString(result.t2));
 				if (individual instanceof TWEANNGenotype) {
@@ -105,7 +232,7 @@ public abstract class NoisyLonerTask<T> extends LonerTask<T> {
 				}
 			}
 			long after = System.currentTimeMillis();
-			evalTimeSum += (after - before);
+			evalTimeSum += parallelResults == null ? (after - before) : trialTimes[i];
 			objectiveScores[i] = result.t1; // fitness scores
 			// ScoreHistory.add(individual.getId(), result.t1);
 			otherScores[i] = result.t2; // other scores
@@ -194,6 +321,19 @@ public abstract class NoisyLonerTask<T> extends LonerTask<T> {
 		return s;
 	}
 
+	/**
+	 * Stop the threads used for parallel trials
+	 */
+	@Override
+	public void finalCleanup() {
+		synchronized (this) {
+			if (trialExecutor != null) {
+				trialExecutor.close();
+				trialExecutor = null;
+			}
+		}
+	}
+
 	public static String scoreSummary(double[][] objectiveScores, double[][] otherScores, double[] fitness, double[] other) {
 		return scoreSummary(objectiveScores, otherScores, fitness, other, 0);
 	}	
@@ -0,0 +1,171 @@
+package edu.utexas.cs.nn.tasks;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.EvolutionaryHistory;
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
+import edu.utexas.cs.nn.evolution.genotypes.RealValuedGenotype;
+import edu.utexas.cs.nn.evolution.metaheuristics.Metaheuristic;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.scores.Score;
+import edu.utexas.cs.nn.util.datastructures.Pair;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+import edu.utexas.cs.nn.util.random.SplitMixRandom;
+import edu.utexas.cs.nn.util.stats.Statistic;
+
+public class NoisyLonerTaskTest {
+
+	final static int TRIALS = 12;
+	final static long SEED = 5;
+
+	/**
+	 * Each trial scores a random number and the trial number, and records how
+	 * many trials were running at the same time.
+	 */
+	static class RandomTrialTask extends NoisyLonerTask<ArrayList<Double>> {
+
+		int running = 0;
+		int maxRunning = 0;
+
+		@Override
+		public int numObjectives() {
+			return 1;
+		}
+
+		@Override
+		public int numOtherScores() {
+			return 1;
+		}
+
+		@Override
+		public double getTimeStamp() {
+			return 0;
+		}
+
+		@Override
+		protected boolean canEvaluateTrialsInParallel() {
+			return true;
+		}
+
+		@Override
+		public Pair<double[], double[]> oneEval(Genotype<ArrayList<Double>> individual, int num) {
+			synchronized (this) {
+				maxRunning = Math.max(maxRunning, ++running);
+			}
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+			double value = individual.getPhenotype().get(0) + RandomNumbers.fullSmallRand();
+			synchronized (this) {
+				running--;
+			}
+			return new Pair<double[], double[]>(new double[] { value }, new double[] { num });
+		}
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "trials:" + TRIALS,
+				"threads:4", "parallelTrials:true" });
+		MMNEAT.aggregationOverrides = new ArrayList<Statistic>();
+		MMNEAT.aggregationOverrides.add(null);
+		MMNEAT.aggregationOverrides.add(null);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+		RandomNumbers.reset();
+	}
+
+	/**
+	 * Parallel trials each use a generator seeded by the trial number, so the
+	 * aggregate score is the same no matter how the trials are scheduled.
+	 */
+	@Test
+	public void test_parallelTrialsSeeded() {
+		RealValuedGenotype individual = new RealValuedGenotype(new double[] { 0.5 });
+		RandomTrialTask task = new RandomTrialTask();
+		RandomNumbers.randomGenerator = new Random(SEED);
+		Score<ArrayList<Double>> score = task.evaluate(individual);
+		task.finalCleanup();
+		assertTrue(task.maxRunning > 1);
+
+		long evaluationSeed = new Random(SEED).nextLong();
+		double sum = 0;
+		double trialSum = 0;
+		for (int i = 0; i < TRIALS; i++) {
+			Random trialRandom = new SplitMixRandom(NoisyLonerTask.trialSeed(evaluationSeed, i));
+			sum += 0.5 + (trialRandom.nextDouble() * 2.0) - 1.0;
+			trialSum += i;
+		}
+		assertEquals(sum / TRIALS, score.scores[0], 0.000001);
+		assertEquals(trialSum / TRIALS, score.otherStats[0], 0.000001);
+		// Shared generator only used once to seed all trials
+		Random shared = new Random(SEED);
+		shared.nextLong();
+		assertEquals(shared.nextDouble(), RandomNumbers.randomGenerator.nextDouble(), 0.0);
+	}
+
+	/**
+	 * Scores of a population evaluated with evaluationStreams, in population
+	 * order
+	 */
+	@SuppressWarnings("rawtypes")
+	private static double[] streamScores(boolean parallel) {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "trials:3", "threads:4",
+				"parallelEvaluations:" + parallel, "evaluationStreams:true", "randomSeed:" + SEED });
+		MMNEAT.metaheuristics = new ArrayList<Metaheuristic>();
+		RandomNumbers.reset();
+		EvolutionaryHistory.setHighestGenotypeId(0);
+		ArrayList<Genotype<ArrayList<Double>>> population = new ArrayList<Genotype<ArrayList<Double>>>();
+		for (int i = 0; i < 16; i++) {
+			population.add(new RealValuedGenotype(new double[] { i }));
+		}
+		RandomTrialTask task = new RandomTrialTask();
+		ArrayList<Score<ArrayList<Double>>> scores = task.evaluateAll(population);
+		task.finalCleanup();
+		double[] result = new double[scores.size()];
+		for (int i = 0; i < result.length; i++) {
+			assertSame(population.get(i), scores.get(i).individual);
+			result[i] = scores.get(i).scores[0];
+		}
+		return result;
+	}
+
+	/**
+	 * With evaluationStreams, each individual draws from its own stream, so
+	 * evaluating the population in parallel gives exactly the same scores as
+	 * evaluating it sequentially, and the same scores again in a new run
+	 */
+	@Test
+	public void test_evaluationStreams() {
+		double[] sequential = streamScores(false);
+		double[] parallel = streamScores(true);
+		assertArrayEquals(sequential, parallel, 0.0);
+		assertArrayEquals(sequential, streamScores(true), 0.0);
+		// Streams differ between individuals
+		assertTrue(sequential[0] - 0 != sequential[1] - 1);
+	}
+
+	/**
+	 * Trials are sequential when the option is off
+	 */
+	@Test
+	public void test_sequentialByDefault() {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "trials:" + TRIALS });
+		RandomTrialTask task = new RandomTrialTask();
+		task.evaluate(new RealValuedGenotype(new double[] { 0.5 }));
+		assertEquals(1, task.maxRunning);
+	}
+}
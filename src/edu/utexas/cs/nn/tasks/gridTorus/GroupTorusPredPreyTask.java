@@ -132,7 +132,7 @@ public abstract class GroupTorusPredPreyTask<T extends Network> extends GroupTas
 			// Fitness function requires an organism, so make this genotype into an organism
 			// this erases information stored about module usage, so was saved in
 			// order to be reset after the creation of this organism
-			Organism<T> organism = new NNTorusPredPreyAgent<T>(team[i], !TorusPredPreyTask.preyEvolve);
+			Organism<T> organism = new NNTorusPredPreyAgent<T>(team[i], !TorusPredPreyTask.preyEvolve());
 			for (int j = 0; j < fitnesses.length; j++) {
 				fitnesses[j] = task.objectives.get(i).get(j).score(game, organism);
 			}
@@ -5,6 +5,7 @@ import edu.utexas.cs.nn.gridTorus.TorusAgent;
 import edu.utexas.cs.nn.gridTorus.TorusWorld;
 import edu.utexas.cs.nn.gridTorus.controllers.TorusPredPreyController;
 import edu.utexas.cs.nn.networks.Network;
+import edu.utexas.cs.nn.networks.NetworkUtil;
 import edu.utexas.cs.nn.networks.hyperneat.HyperNEATTask;
 import edu.utexas.cs.nn.util.stats.StatisticsUtilities;
 
@@ -34,7 +35,8 @@ public class HyperNEATNNTorusPredPreyController extends NNTorusPredPreyControlle
 	@Override
 	public int[] getAction(TorusAgent me, TorusWorld world, TorusAgent[] preds, TorusAgent[] prey) {
 		double[] inputs = inputs();
-		double[] outputs = nn.process(inputs);
+		outputs = NetworkUtil.outputBuffer(nn, outputs);
+		nn.process(inputs, outputs);
 		double[] modifiedOutputs = mapSubstrateOutputsToStandardOutputs(outputs);
 		// Assume one output for each direction
 		return isPredator 
@@ -9,7 +9,9 @@ import edu.utexas.cs.nn.gridTorus.TorusAgent;
 import edu.utexas.cs.nn.gridTorus.TorusWorld;
 import edu.utexas.cs.nn.gridTorus.controllers.TorusPredPreyController;
 import edu.utexas.cs.nn.networks.Network;
+import edu.utexas.cs.nn.networks.NetworkUtil;
 import edu.utexas.cs.nn.networks.TWEANN;
+import edu.utexas.cs.nn.parameters.BooleanHandle;
 import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.tasks.gridTorus.sensors.BiasSensorBlock;
 import edu.utexas.cs.nn.tasks.gridTorus.sensors.TorusPredPreySensorBlock;
@@ -29,6 +31,7 @@ import edu.utexas.cs.nn.util.stats.StatisticsUtilities;
  */
 public class NNTorusPredPreyController extends TorusPredPreyController {
 
+	private static final BooleanHandle INVERT_SENSOR_INPUTS = new BooleanHandle("torusInvertSensorInputs");
 	private final TorusPredPreySensorBlock[] sensorBlocks;
 	private int numInputs;
 
@@ -38,6 +41,8 @@ public class NNTorusPredPreyController extends TorusPredPreyController {
 	 * Initializes the network to be used.
 	 */
 	public final Network nn;
+	// Reused every time the network is activated
+	protected double[] outputs = null;
 	// true if this agent is a predator
 	protected final boolean isPredator;
 
@@ -94,7 +99,7 @@ public class NNTorusPredPreyController extends TorusPredPreyController {
 	public int[] getAction(TorusAgent me, TorusWorld world, TorusAgent[] preds, TorusAgent[] prey) {
 		double[] inputs = inputs(me, world, preds, prey);
 
-		if(Parameters.parameters.booleanParameter("torusInvertSensorInputs")){
+		if(INVERT_SENSOR_INPUTS.get()){
 			for(int i = 0; i < inputs.length; i++){
 				assert -1 <= inputs[i] && inputs[i] <= 1 : "Input not in proper range: inputs["+i+"] = " + inputs[i]; 
 				inputs[i] = MiscUtil.unitInvert(inputs[i]);
@@ -106,8 +111,9 @@ public class NNTorusPredPreyController extends TorusPredPreyController {
 		}
 		// Have to set this so that outputLabels and sensorLabels are
 		// correct when both predators and prey are co-evolving
-		TorusPredPreyTask.preyEvolve = !isPredator; 
-		double[] outputs = nn.process(inputs);
+		TorusPredPreyTask.setActingAgent(isPredator);
+		outputs = NetworkUtil.outputBuffer(nn, outputs);
+		nn.process(inputs, outputs);
 		// Assume one output for each direction
 		return isPredator ? predatorActions()[StatisticsUtilities.argmax(outputs)]
 				: preyActions()[StatisticsUtilities.argmax(outputs)];
@@ -42,7 +42,7 @@ public class TorusEvolvedPredatorsVsStaticPreyTask<T extends Network> extends To
 	 */
 	@Override
 	public TorusPredPreyController[] getPredAgents(Genotype<T> individual) {
-		evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPredators")];
+		TorusPredPreyController[] evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPredators")];
 		getEvolvedControllers(evolved, individual, true);
 		return evolved;
 	}
@@ -61,7 +61,9 @@ public class TorusEvolvedPredatorsVsStaticPreyTask<T extends Network> extends To
 	 *            the genotype that will be given to all prey agents
 	 *            (homogeneous team)
 	 */
-	public TorusPredPreyController[] getPreyAgents(Genotype<T> individual) {
+	public synchronized TorusPredPreyController[] getPreyAgents(Genotype<T> individual) {
+		// Static agents keep no state between actions, so threads that
+		// evaluate at the same time can all use the same ones
 		if (staticAgents == null)
 			staticAgents = getStaticControllers(false,Parameters.parameters.integerParameter("torusPreys"));
 
@@ -43,7 +43,9 @@ public class TorusEvolvedPreyVsStaticPredatorsTask<T extends Network> extends To
 	 *            the genotype that will be given to all predator agents
 	 *            (homogeneous team)
 	 */
-	public TorusPredPreyController[] getPredAgents(Genotype<T> individual) {
+	public synchronized TorusPredPreyController[] getPredAgents(Genotype<T> individual) {
+		// Static agents keep no state between actions, so threads that
+		// evaluate at the same time can all use the same ones
 		if (staticAgents == null)
 			staticAgents = getStaticControllers(true,Parameters.parameters.integerParameter("torusPredators"));
 
@@ -64,7 +66,7 @@ public class TorusEvolvedPreyVsStaticPredatorsTask<T extends Network> extends To
 	 *            (homogeneous team)
 	 */
 	public TorusPredPreyController[] getPreyAgents(Genotype<T> individual) {
-		evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPreys")];
+		TorusPredPreyController[] evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPreys")];
 		getEvolvedControllers(evolved, individual, false);
 		return evolved; 
 	}
@@ -81,10 +81,6 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 	 */
 	public abstract TorusPredPreyController[] getPredAgents(Genotype<T> individual);
 
-	// Remember which agents are evolved. Can be cast to
-	// NNTorusPreyPreyController later
-	public TorusPredPreyController[] evolved = null;
-
 	/**
 	 * The getter method that returns the list of controllers for the preys
 	 *
@@ -97,6 +93,10 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 
 	// boolean to indicate which agent is to be evolved
 	public static boolean preyEvolve;
+	// Type of the evolved agent whose network the current thread is running.
+	// Takes precedence over preyEvolve, so that threads playing different
+	// games at the same time do not change each other's labels.
+	private static final ThreadLocal<Boolean> actingPrey = new ThreadLocal<Boolean>();
 	// boolean to indicate if competitive coevolution is happening
 	public final boolean competitive;
 
@@ -105,7 +105,8 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 	// list of other scores, which don't effect evolution
 	public ArrayList<ArrayList<GridTorusObjective<T>>> otherScores = new ArrayList<ArrayList<GridTorusObjective<T>>>();
 
-	private TorusWorldExec exec;
+	// Each thread running evaluations has its own game
+	private final ThreadLocal<TorusWorldExec> exec = new ThreadLocal<TorusWorldExec>();
 
 	/**
 	 * ONLY FOR COMPETITIVE COEVOLUTION
@@ -181,15 +182,16 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 
 		TorusPredPreyGame game = runEval(predAgents, preyAgents);
 
-		// gets the controller of the evolved agent(s), gets its network, and
+		// gets the controllers of the evolved agent(s), gets their network, and
 		// stores the number of modules for that network
-		int numModes = ((NNTorusPredPreyController) evolved[0]).nn.numModules();
+		ArrayList<NNTorusPredPreyController> evolved = evolvedControllers(predAgents, preyAgents);
+		int numModes = evolved.get(0).nn.numModules();
 		// this will store the number of times each module is used by each agent
 		int[] overallAgentModeUsage = new int[numModes];
-		for (TorusPredPreyController agent : evolved) {
+		for (NNTorusPredPreyController agent : evolved) {
 			// get the list of all modules used by this agent and store how many
 			// times that module is used in that spot in the array
-			int[] thisAgentModeUsage = ((NNTorusPredPreyController) agent).nn.getModuleUsage();
+			int[] thisAgentModeUsage = agent.nn.getModuleUsage();
 			// combine this agent's module usage with the module usage of all agents
 			overallAgentModeUsage = ArrayUtil.zipAdd(overallAgentModeUsage, thisAgentModeUsage);
 		}
@@ -200,7 +202,7 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 		// Fitness function requires an organism, so make this genotype into an organism
 		// this erases information stored about module usage, so was saved in
 		// order to be reset after the creation of this organism
-		Organism<T> organism = new NNTorusPredPreyAgent<T>(individual, !preyEvolve);
+		Organism<T> organism = new NNTorusPredPreyAgent<T>(individual, !preyEvolve());
 		for (int i = 0; i < objectives.get(0).size(); i++) {
 			fitnesses[i] = objectives.get(0).get(i).score(game, organism);
 		}
@@ -217,25 +219,76 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 	}
 
 	public TorusPredPreyGame runEval(TorusPredPreyController[] predAgents, TorusPredPreyController[] preyAgents) {
-		exec = new TorusWorldExec();
+		TorusWorldExec exec = new TorusWorldExec();
+		this.exec.set(exec);
 		TorusPredPreyGame game;
-		if (CommonConstants.watch) {
-			game = exec.runGameTimed(predAgents, preyAgents, true);
-		} else {
-			game = exec.runExperiment(predAgents, preyAgents);
+		try {
+			if (CommonConstants.watch) {
+				game = exec.runGameTimed(predAgents, preyAgents, true);
+			} else {
+				game = exec.runExperiment(predAgents, preyAgents);
+			}
+		} finally {
+			// The game is over, so no agent is acting any more
+			actingPrey.remove();
 		}
 
 		// dispose of all panels inside of agents/controllers
 		if (CommonConstants.monitorInputs) {
 			// Dispose of existing panels
-			for (int i = 0; i < evolved.length; i++) {
-				((NNTorusPredPreyController) (evolved)[i]).networkInputs.dispose();
+			for (NNTorusPredPreyController agent : evolvedControllers(predAgents, preyAgents)) {
+				agent.networkInputs.dispose();
 			}
 		}
 
 		return game;
 	}
 
+	/**
+	 * the controllers of evolved agents among the predators and prey of a
+	 * game, in that order
+	 *
+	 * @param predAgents
+	 *            predator controllers
+	 * @param preyAgents
+	 *            prey controllers
+	 * @return the controllers that are driven by evolved networks
+	 */
+	private static ArrayList<NNTorusPredPreyController> evolvedControllers(TorusPredPreyController[] predAgents, TorusPredPreyController[] preyAgents) {
+		ArrayList<NNTorusPredPreyController> evolved = new ArrayList<NNTorusPredPreyController>(predAgents.length + preyAgents.length);
+		for (TorusPredPreyController[] agents : new TorusPredPreyController[][] { predAgents, preyAgents }) {
+			for (TorusPredPreyController agent : agents) {
+				if (agent instanceof NNTorusPredPreyController) {
+					evolved.add((NNTorusPredPreyController) agent);
+				}
+			}
+		}
+		return evolved;
+	}
+
+	/**
+	 * Whether the evolved agent is a prey. While an evolved agent acts, this
+	 * is the type of that agent in the current thread. Otherwise, it is the
+	 * type of agent that the task evolves.
+	 *
+	 * @return true if prey are being evolved
+	 */
+	public static boolean preyEvolve() {
+		Boolean current = actingPrey.get();
+		return current == null ? preyEvolve : current;
+	}
+
+	/**
+	 * Records the type of the evolved agent that is about to act in the
+	 * current thread, so that sensor and output labels match its network.
+	 *
+	 * @param isPredator
+	 *            true if a predator is acting, false if a prey is acting
+	 */
+	static void setActingAgent(boolean isPredator) {
+		actingPrey.set(!isPredator);
+	}
+
 	/**
 	 * @return the number of fitness scores for this genotype
 	 */
@@ -279,7 +332,7 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 	 */
 	@Override
 	public String[] sensorLabels() {
-		return TorusPredPreyTask.preyEvolve 
+		return preyEvolve() 
 				? (new NNTorusPredPreyController(null,false)).sensorLabels()
 						: (new NNTorusPredPreyController(null,true)).sensorLabels();
 	}
@@ -293,7 +346,7 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 	 */
 	@Override
 	public String[] outputLabels() {
-		return outputLabels(!preyEvolve);
+		return outputLabels(!preyEvolve());
 	}
 
 	public static String[] outputLabels(boolean forPredators) {
@@ -313,7 +366,9 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 	 */
 	@Override
 	public double getTimeStamp() {
-		return exec.game.getTime();
+		TorusWorldExec current = exec.get();
+		// Only evaluating threads have a current game
+		return current == null ? 0 : current.game.getTime();
 	}
 
 	/**
@@ -363,8 +418,12 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 		//copy g into an array
 		@SuppressWarnings("unchecked")
 		Genotype<T>[] agents = new Genotype[numCopies];
-		for(int i = 0; i < agents.length; i++) {
-			agents[i] = g.copy();
+		// copying briefly changes the module usage of g, which can be a
+		// member of several teams that are evaluated at once
+		synchronized (g) {
+			for(int i = 0; i < agents.length; i++) {
+				agents[i] = g.copy();
+			}
 		}
 		getEvolvedControllers(container, agents, isPred, startIndex);
 	}
@@ -398,7 +457,7 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 			// if requested, adds visual panels for each of the evolved agents showing its inputs
 			// (offsets to other agents), outputs (possible directional movements), and game time
 			if (CommonConstants.monitorInputs) {
-				preyEvolve = !isPred;
+				setActingAgent(isPred);
 				DrawingPanel panel = new DrawingPanel(Plot.BROWSE_DIM, (int) (Plot.BROWSE_DIM * 3.5), (isPred ? "Predator " + typeIndex : "Prey " + typeIndex));
 				((NNTorusPredPreyController) container[i]).networkInputs = panel;
 				panel.setLocation(i * (Plot.BROWSE_DIM + 10), 0);
@@ -778,26 +837,26 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 			Pair<Integer, Integer> outputSubstrateDimension = new Pair<Integer, Integer>(HYPERNEAT_OUTPUT_SUBSTRATE_DIMENSION, HYPERNEAT_OUTPUT_SUBSTRATE_DIMENSION);
 			// Ordering of input substrate names
 
-			Substrate predator = new Substrate(substrateDimension, Substrate.INPUT_SUBSTRATE, preyEvolve ? firstInputLocation : secondInputLocation, "input_predator");
-			Substrate prey = new Substrate(substrateDimension, Substrate.INPUT_SUBSTRATE, preyEvolve ? secondInputLocation : firstInputLocation, "input_prey");
+			Substrate predator = new Substrate(substrateDimension, Substrate.INPUT_SUBSTRATE, preyEvolve() ? firstInputLocation : secondInputLocation, "input_predator");
+			Substrate prey = new Substrate(substrateDimension, Substrate.INPUT_SUBSTRATE, preyEvolve() ? secondInputLocation : firstInputLocation, "input_prey");
 
 			substrateInformation = new LinkedList<Substrate>();
 			// order of pred/prey substrate important, helps in sorting later on
 			// in get substrate inputs method
 			// Input layers
 			numSubstrateInputs = 0;
-			Substrate firstSubstrate = preyEvolve ? predator : prey;
+			Substrate firstSubstrate = preyEvolve() ? predator : prey;
 			numSubstrateInputs += firstSubstrate.size.t1 * firstSubstrate.size.t2;
 			secondSubstrateStartingIndex = numSubstrateInputs;
 			substrateInformation.add(firstSubstrate);
 			if (senseTeammates) {
-				Substrate secondSubstrate = preyEvolve ? prey : predator;
+				Substrate secondSubstrate = preyEvolve() ? prey : predator;
 				numSubstrateInputs += secondSubstrate.size.t1 * secondSubstrate.size.t2;
 				substrateInformation.add(secondSubstrate);
 			}
 
-			substrateForPredators = preyEvolve || senseTeammates;
-			substrateForPrey = !preyEvolve || senseTeammates;
+			substrateForPredators = preyEvolve() || senseTeammates;
+			substrateForPrey = !preyEvolve() || senseTeammates;
 
 			// Processing layer
 			substrateInformation.add(new Substrate(substrateDimension, Substrate.PROCCESS_SUBSTRATE, processingLocation, "process_0"));
@@ -818,9 +877,9 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 	public List<Pair<String, String>> getSubstrateConnectivity() {
 		if (substrateConnectivity == null) {
 			substrateConnectivity = new LinkedList<Pair<String, String>>();
-			substrateConnectivity.add(new Pair<String, String>(preyEvolve ? "input_predator" : "input_prey", "process_0"));
+			substrateConnectivity.add(new Pair<String, String>(preyEvolve() ? "input_predator" : "input_prey", "process_0"));
 			if (Parameters.parameters.booleanParameter("torusSenseTeammates"))
-				substrateConnectivity.add(new Pair<String, String>(preyEvolve ? "input_prey" : "input_predator", "process_0"));
+				substrateConnectivity.add(new Pair<String, String>(preyEvolve() ? "input_prey" : "input_predator", "process_0"));
 			substrateConnectivity.add(new Pair<String, String>("process_0", "output_0"));
 		}
 		return substrateConnectivity;
@@ -835,7 +894,8 @@ public abstract class TorusPredPreyTask<T extends Network> extends NoisyLonerTas
 	 *         gridworld
 	 */
 	public double[] getSubstrateInputs(List<Substrate> subs) {
-		int torusWidth = this.exec.game.getWorld().width();
+		TorusWorldExec exec = this.exec.get();
+		int torusWidth = exec.game.getWorld().width();
 		double[] inputs = new double[numSubstrateInputs]; // defaults to 0.0
 
 		if (substrateForPredators) {
@@ -9,12 +9,14 @@ import org.junit.Before;
 import org.junit.Test;
 
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.genotypes.Genotype;
 import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
 import edu.utexas.cs.nn.gridTorus.controllers.PreyFleeClosestPredatorController;
 import edu.utexas.cs.nn.gridTorus.controllers.RandomPredatorController;
 import edu.utexas.cs.nn.gridTorus.controllers.TorusPredPreyController;
 import edu.utexas.cs.nn.networks.Network;
 import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.scores.Score;
 import edu.utexas.cs.nn.tasks.gridTorus.competitive.CompetitiveHomogeneousPredatorsVsPreyTask;
 import edu.utexas.cs.nn.tasks.gridTorus.cooperative.CooperativePredatorsVsStaticPreyTask;
 import edu.utexas.cs.nn.tasks.gridTorus.cooperative.CooperativePreyVsStaticPredatorsTask;
@@ -975,6 +977,65 @@ public class TorusPredPreyTaskTest <T extends Network> {
 		
 	}
 	
+	/**
+	 * Co-evolved predators and prey evaluated in parallel must get the same
+	 * scores as when their teams are evaluated one at a time, since each team
+	 * has its own random stream.
+	 */
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void test_competitiveCoevolutionParallelMatchesSequential() {
+		ArrayList<ArrayList<Genotype>> populations = null;
+		ArrayList<ArrayList<Score>> sequential = null;
+		ArrayList<ArrayList<Score>> parallel = null;
+		for (boolean inParallel : new boolean[] { false, true }) {
+			Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "torusTimeLimit:200",
+					"torusPreys:2", "torusPredators:3", "teams:3", "threads:4", "parallelEvaluations:" + inParallel,
+					"evaluationStreams:true", "randomSeed:0",
+					"task:edu.utexas.cs.nn.tasks.gridTorus.competitive.CompetitiveHomogeneousPredatorsVsPreyTask",
+					"ea:edu.utexas.cs.nn.evolution.nsga2.CoevolutionNSGA2",
+					"experiment:edu.utexas.cs.nn.experiment.evolution.LimitedMultiplePopulationGenerationalEAExperiment" });
+			MMNEAT.loadClasses();
+			homoComp = (CompetitiveHomogeneousPredatorsVsPreyTask) MMNEAT.task;
+			if (populations == null) {
+				populations = new ArrayList<ArrayList<Genotype>>();
+				for (Genotype example : MMNEAT.genotypeExamples) {
+					ArrayList<Genotype> pop = new ArrayList<Genotype>();
+					for (int i = 0; i < 5; i++) {
+						pop.add(example.newInstance());
+					}
+					populations.add(pop);
+				}
+			}
+			// Fixed team order, so that both evaluations form the same teams
+			ArrayList<ArrayList<Integer>> order = new ArrayList<ArrayList<Integer>>();
+			for (int p = 0; p < populations.size(); p++) {
+				ArrayList<Integer> popOrder = new ArrayList<Integer>();
+				for (int t = 0; t < 3; t++) {
+					for (int i = 0; i < 5; i++) {
+						popOrder.add(p == 0 ? i : (i + t + 1) % 5);
+					}
+				}
+				order.add(popOrder);
+			}
+			ArrayList<ArrayList<Score>> scores = homoComp.evaluateAllPopulations(populations, order);
+			if (inParallel) {
+				parallel = scores;
+			} else {
+				sequential = scores;
+			}
+		}
+		assertEquals(populations.size(), sequential.size());
+		assertEquals(populations.size(), parallel.size());
+		for (int p = 0; p < sequential.size(); p++) {
+			for (int i = 0; i < sequential.get(p).size(); i++) {
+				assertSame(sequential.get(p).get(i).individual, parallel.get(p).get(i).individual);
+				assertArrayEquals(sequential.get(p).get(i).scores, parallel.get(p).get(i).scores, 0.0);
+				assertArrayEquals(sequential.get(p).get(i).otherStats, parallel.get(p).get(i).otherStats, 0.0);
+			}
+		}
+	}
+
 	//NOTE: HyperNEAT methods are untested
 
 }
@@ -29,7 +29,6 @@ public class CompetitiveHomogeneousPredatorsVsPreyTask<T extends Network> extend
 	 */
 	public CompetitiveHomogeneousPredatorsVsPreyTask() {
 		super();
-		task.evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPredators") + Parameters.parameters.integerParameter("torusPreys")];
 	}
 
 	/**
@@ -47,10 +46,12 @@ public class CompetitiveHomogeneousPredatorsVsPreyTask<T extends Network> extend
 	 */
 	@Override
 	public TorusPredPreyController[] getPredAgents(Genotype<T>[] team) {
-		TorusPredPreyTask.getEvolvedControllers(task.evolved, team[TorusPredPreyGame.AGENT_TYPE_PRED], true, 0, Parameters.parameters.integerParameter("torusPredators"));
+		// Room for the whole team, predators first, so that input panels do not overlap
+		TorusPredPreyController[] evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPredators") + Parameters.parameters.integerParameter("torusPreys")];
+		TorusPredPreyTask.getEvolvedControllers(evolved, team[TorusPredPreyGame.AGENT_TYPE_PRED], true, 0, Parameters.parameters.integerParameter("torusPredators"));
 		// Make smaller array to return just the preds
 		TorusPredPreyController[] predOnly = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPredators")];
-		System.arraycopy(task.evolved, 0, predOnly, 0, Parameters.parameters.integerParameter("torusPredators"));
+		System.arraycopy(evolved, 0, predOnly, 0, Parameters.parameters.integerParameter("torusPredators"));
 		return predOnly;
 	}
 
@@ -69,10 +70,12 @@ public class CompetitiveHomogeneousPredatorsVsPreyTask<T extends Network> extend
 	 *            (homogeneous team)
 	 */
 	public TorusPredPreyController[] getPreyAgents(Genotype<T>[] team) {
-		TorusPredPreyTask.getEvolvedControllers(task.evolved, team[TorusPredPreyGame.AGENT_TYPE_PREY], false, Parameters.parameters.integerParameter("torusPredators"), Parameters.parameters.integerParameter("torusPreys"));
+		// Room for the whole team, predators first, so that input panels do not overlap
+		TorusPredPreyController[] evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPredators") + Parameters.parameters.integerParameter("torusPreys")];
+		TorusPredPreyTask.getEvolvedControllers(evolved, team[TorusPredPreyGame.AGENT_TYPE_PREY], false, Parameters.parameters.integerParameter("torusPredators"), Parameters.parameters.integerParameter("torusPreys"));
 		// Make smaller array to return just the preys
 		TorusPredPreyController[] preyOnly = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPreys")];
-		System.arraycopy(task.evolved, Parameters.parameters.integerParameter("torusPredators"), preyOnly, 0, Parameters.parameters.integerParameter("torusPreys"));
+		System.arraycopy(evolved, Parameters.parameters.integerParameter("torusPredators"), preyOnly, 0, Parameters.parameters.integerParameter("torusPreys"));
 		return preyOnly; 
 	}
 
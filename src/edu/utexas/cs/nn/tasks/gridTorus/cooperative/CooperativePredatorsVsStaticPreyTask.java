@@ -54,9 +54,9 @@ public class CooperativePredatorsVsStaticPreyTask<T extends Network> extends Gro
 	 * @return pred agents
 	 */
 	public TorusPredPreyController[] getPredAgents(Genotype<T>[] team) {
-		task.evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPredators")];
-		TorusPredPreyTask.getEvolvedControllers(task.evolved, team, true);
-		return task.evolved; 
+		TorusPredPreyController[] evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPredators")];
+		TorusPredPreyTask.getEvolvedControllers(evolved, team, true);
+		return evolved; 
 	}
 
 }
@@ -42,9 +42,9 @@ public class CooperativePreyVsStaticPredatorsTask<T extends Network> extends Gro
 	 * @return prey agents
 	 */
 	public TorusPredPreyController[] getPreyAgents(Genotype<T>[] team) {
-		task.evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPreys")];
-		TorusPredPreyTask.getEvolvedControllers(task.evolved, team, false);
-		return task.evolved; 
+		TorusPredPreyController[] evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPreys")];
+		TorusPredPreyTask.getEvolvedControllers(evolved, team, false);
+		return evolved; 
 	}
 
 	@Override
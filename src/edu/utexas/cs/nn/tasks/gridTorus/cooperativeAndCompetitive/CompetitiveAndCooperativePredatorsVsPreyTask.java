@@ -28,7 +28,6 @@ public class CompetitiveAndCooperativePredatorsVsPreyTask<T extends Network> ext
 	 */
 	public CompetitiveAndCooperativePredatorsVsPreyTask() {
 		super();
-		task.evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPredators") + Parameters.parameters.integerParameter("torusPreys")];
 	}
 
 	/**
@@ -47,10 +46,12 @@ public class CompetitiveAndCooperativePredatorsVsPreyTask<T extends Network> ext
 		Genotype[] predTeam = new Genotype[numPreds];
 		//NOTE: Assumes that predators were stored first in the "team" list
 		System.arraycopy(team, 0, predTeam, 0, numPreds);
-		TorusPredPreyTask.getEvolvedControllers(task.evolved, predTeam, true, 0);
+		// Room for the whole team, predators first, so that input panels do not overlap
+		TorusPredPreyController[] evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPredators") + Parameters.parameters.integerParameter("torusPreys")];
+		TorusPredPreyTask.getEvolvedControllers(evolved, predTeam, true, 0);
 		// Make smaller array to return just the preds
 		TorusPredPreyController[] predOnly = new TorusPredPreyController[numPreds];
-		System.arraycopy(task.evolved, 0, predOnly, 0, numPreds);
+		System.arraycopy(evolved, 0, predOnly, 0, numPreds);
 		return predOnly;
 	}
 
@@ -71,10 +72,12 @@ public class CompetitiveAndCooperativePredatorsVsPreyTask<T extends Network> ext
 		Genotype[] preyTeam = new Genotype[numPreys];
 		//NOTE: Assumes that predators were stored first in the "team" list, then prey
 		System.arraycopy(team, numPreds, preyTeam, 0, numPreys);
-		TorusPredPreyTask.getEvolvedControllers(task.evolved, preyTeam, false, numPreds);
+		// Room for the whole team, predators first, so that input panels do not overlap
+		TorusPredPreyController[] evolved = new TorusPredPreyController[Parameters.parameters.integerParameter("torusPredators") + Parameters.parameters.integerParameter("torusPreys")];
+		TorusPredPreyTask.getEvolvedControllers(evolved, preyTeam, false, numPreds);
 		// Make smaller array to return just the preys
 		TorusPredPreyController[] preyOnly = new TorusPredPreyController[numPreys];
-		System.arraycopy(task.evolved, numPreds, preyOnly, 0, numPreys);
+		System.arraycopy(evolved, numPreds, preyOnly, 0, numPreys);
 		return preyOnly; 
 	}
 
@@ -20,6 +20,8 @@ public abstract class GridTorusObjective<T extends Network> implements FitnessFu
 	protected TorusPredPreyGame game;
 
 	/**
+	 * Objectives are shared by all threads evaluating the task, and fitness
+	 * reads the game from a field, so only one game is scored at a time.
 	 * 
 	 * @param game
 	 *            TorusPredPrey grid world game
@@ -27,7 +29,7 @@ public abstract class GridTorusObjective<T extends Network> implements FitnessFu
 	 *            organism to provide a fitness function for
 	 * @return the score/fitness of the individual
 	 */
-	public double score(TorusPredPreyGame game, Organism<T> individual) {
+	public synchronized double score(TorusPredPreyGame game, Organism<T> individual) {
 		this.game = game;
 		return fitness(individual);
 	}
@@ -2,6 +2,8 @@ package edu.utexas.cs.nn.tasks.gridTorus.sensors;
 
 import edu.utexas.cs.nn.gridTorus.TorusAgent;
 import edu.utexas.cs.nn.gridTorus.TorusWorld;
+import edu.utexas.cs.nn.parameters.BooleanHandle;
+import edu.utexas.cs.nn.parameters.IntegerHandle;
 import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.tasks.gridTorus.NNTorusPredPreyController;
 
@@ -18,6 +20,13 @@ import edu.utexas.cs.nn.tasks.gridTorus.NNTorusPredPreyController;
  */
 public class TorusPredatorsByProximitySensorBlock implements TorusPredPreySensorBlock {
 
+	private static final BooleanHandle PREDS_SENSE_ALL_PREDS = new BooleanHandle("predsSenseAllPreds");
+	private static final BooleanHandle PREY_SENSE_ALL_PREDS = new BooleanHandle("preySenseAllPreds");
+	private static final BooleanHandle PREDS_SENSE_ALL_PREY = new BooleanHandle("predsSenseAllPrey");
+	private static final BooleanHandle PREY_SENSE_ALL_PREY = new BooleanHandle("preySenseAllPrey");
+	private static final IntegerHandle NUMBER_PREDS_SENSED_BY_PREDS = new IntegerHandle("numberPredsSensedByPreds");
+	private static final IntegerHandle NUMBER_PREDS_SENSED_BY_PREY = new IntegerHandle("numberPredsSensedByPrey");
+
 	private int numPredators;
 
 	public TorusPredatorsByProximitySensorBlock() {
@@ -72,14 +81,14 @@ public class TorusPredatorsByProximitySensorBlock implements TorusPredPreySensor
 		}
 		
 		//cut off array proximityPreds so that it only senses the closest specified number of agents
-		if(me.getAgentType()==0 && !Parameters.parameters.booleanParameter("predsSenseAllPreds")){
-			double[] adjustedOffsets = new double[Parameters.parameters.integerParameter("numberPredsSensedByPreds") * 2];
-			System.arraycopy(proximityPreds, 0, adjustedOffsets, 0, Parameters.parameters.integerParameter("numberPredsSensedByPreds") * 2);
+		if(me.getAgentType()==0 && !PREDS_SENSE_ALL_PREDS.get()){
+			double[] adjustedOffsets = new double[NUMBER_PREDS_SENSED_BY_PREDS.get() * 2];
+			System.arraycopy(proximityPreds, 0, adjustedOffsets, 0, NUMBER_PREDS_SENSED_BY_PREDS.get() * 2);
 			return adjustedOffsets;
 		}
-		if(me.getAgentType()==1 && !Parameters.parameters.booleanParameter("preySenseAllPreds")){
-			double[] adjustedOffsets = new double[Parameters.parameters.integerParameter("numberPredsSensedByPrey") * 2];
-			System.arraycopy(proximityPreds, 0, adjustedOffsets, 0, Parameters.parameters.integerParameter("numberPredsSensedByPrey") * 2);
+		if(me.getAgentType()==1 && !PREY_SENSE_ALL_PREDS.get()){
+			double[] adjustedOffsets = new double[NUMBER_PREDS_SENSED_BY_PREY.get() * 2];
+			System.arraycopy(proximityPreds, 0, adjustedOffsets, 0, NUMBER_PREDS_SENSED_BY_PREY.get() * 2);
 			return adjustedOffsets;
 		}
 		
@@ -94,16 +103,16 @@ public class TorusPredatorsByProximitySensorBlock implements TorusPredPreySensor
 	public int numSensors(boolean isPredator) {
 		
 		if(isPredator){
-			if(Parameters.parameters.booleanParameter("predsSenseAllPrey")){
+			if(PREDS_SENSE_ALL_PREY.get()){
 				return numPredators * 2 - 2;
 			}else{
-				return Parameters.parameters.integerParameter("numberPredsSensedByPreds") * 2;
+				return NUMBER_PREDS_SENSED_BY_PREDS.get() * 2;
 			}
 		}else{
-			if(Parameters.parameters.booleanParameter("preySenseAllPrey")){
+			if(PREY_SENSE_ALL_PREY.get()){
 				return numPredators * 2;
 			}else{
-				return Parameters.parameters.integerParameter("numberPredsSensedByPrey") * 2;
+				return NUMBER_PREDS_SENSED_BY_PREY.get() * 2;
 			}
 		}
 	}
@@ -118,16 +127,16 @@ public class TorusPredatorsByProximitySensorBlock implements TorusPredPreySensor
 	 */
 	public String[] sensorLabels(boolean isPredator) {	
 		if(isPredator){
-			if(Parameters.parameters.booleanParameter("predsSenseAllPrey")){
+			if(PREDS_SENSE_ALL_PREY.get()){
 				return NNTorusPredPreyController.sensorLabels(numPredators-1, "Closest Pred");
 			}else{
-				return NNTorusPredPreyController.sensorLabels(Parameters.parameters.integerParameter("numberPredsSensedByPreds"), "Closest Pred");
+				return NNTorusPredPreyController.sensorLabels(NUMBER_PREDS_SENSED_BY_PREDS.get(), "Closest Pred");
 			}
 		}else{
-			if(Parameters.parameters.booleanParameter("preySenseAllPrey")){
+			if(PREY_SENSE_ALL_PREY.get()){
 				return NNTorusPredPreyController.sensorLabels(numPredators, "Closest Pred");
 			}else{
-				return NNTorusPredPreyController.sensorLabels(Parameters.parameters.integerParameter("numberPredsSensedByPrey"), "Closest Pred");
+				return NNTorusPredPreyController.sensorLabels(NUMBER_PREDS_SENSED_BY_PREY.get(), "Closest Pred");
 			}
 		}
 	}
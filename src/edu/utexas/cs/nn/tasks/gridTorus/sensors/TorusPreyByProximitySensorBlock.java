@@ -2,6 +2,8 @@ package edu.utexas.cs.nn.tasks.gridTorus.sensors;
 
 import edu.utexas.cs.nn.gridTorus.TorusAgent;
 import edu.utexas.cs.nn.gridTorus.TorusWorld;
+import edu.utexas.cs.nn.parameters.BooleanHandle;
+import edu.utexas.cs.nn.parameters.IntegerHandle;
 import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.tasks.gridTorus.NNTorusPredPreyController;
 
@@ -18,6 +20,11 @@ import edu.utexas.cs.nn.tasks.gridTorus.NNTorusPredPreyController;
  */
 public class TorusPreyByProximitySensorBlock implements TorusPredPreySensorBlock {
 
+	private static final BooleanHandle PREDS_SENSE_ALL_PREY = new BooleanHandle("predsSenseAllPrey");
+	private static final BooleanHandle PREY_SENSE_ALL_PREY = new BooleanHandle("preySenseAllPrey");
+	private static final IntegerHandle NUMBER_PREY_SENSED_BY_PREDS = new IntegerHandle("numberPreySensedByPreds");
+	private static final IntegerHandle NUMBER_PREY_SENSED_BY_PREY = new IntegerHandle("numberPreySensedByPrey");
+
 	private int numPrey;
 
 	public TorusPreyByProximitySensorBlock() {
@@ -73,15 +80,15 @@ public class TorusPreyByProximitySensorBlock implements TorusPredPreySensorBlock
 		
 		//cut off array proximityPreds so that it only senses the closest specified number of agents
 		//agent type 0 is predator
-		if(me.getAgentType()==0 && !Parameters.parameters.booleanParameter("predsSenseAllPrey")){
-			double[] adjustedOffsets = new double[Parameters.parameters.integerParameter("numberPreySensedByPreds") * 2];
-			System.arraycopy(proximityPrey, 0, adjustedOffsets, 0, Parameters.parameters.integerParameter("numberPreySensedByPreds") * 2);
+		if(me.getAgentType()==0 && !PREDS_SENSE_ALL_PREY.get()){
+			double[] adjustedOffsets = new double[NUMBER_PREY_SENSED_BY_PREDS.get() * 2];
+			System.arraycopy(proximityPrey, 0, adjustedOffsets, 0, NUMBER_PREY_SENSED_BY_PREDS.get() * 2);
 			return adjustedOffsets;
 		}
 		//agent type 1 is prey
-		if(me.getAgentType()==1 && !Parameters.parameters.booleanParameter("preySenseAllPrey")){
-			double[] adjustedOffsets = new double[Parameters.parameters.integerParameter("numberPreySensedByPrey") * 2];
-			System.arraycopy(proximityPrey, 0, adjustedOffsets, 0, Parameters.parameters.integerParameter("numberPreySensedByPrey") * 2);
+		if(me.getAgentType()==1 && !PREY_SENSE_ALL_PREY.get()){
+			double[] adjustedOffsets = new double[NUMBER_PREY_SENSED_BY_PREY.get() * 2];
+			System.arraycopy(proximityPrey, 0, adjustedOffsets, 0, NUMBER_PREY_SENSED_BY_PREY.get() * 2);
 			return adjustedOffsets;
 		}
 		
@@ -95,16 +102,16 @@ public class TorusPreyByProximitySensorBlock implements TorusPredPreySensorBlock
 	 */
 	public int numSensors(boolean isPredator) {
 		if(isPredator){
-			if(Parameters.parameters.booleanParameter("predsSenseAllPrey")){
+			if(PREDS_SENSE_ALL_PREY.get()){
 				return numPrey*2;
 			}else{
-				return Parameters.parameters.integerParameter("numberPreySensedByPreds") * 2;
+				return NUMBER_PREY_SENSED_BY_PREDS.get() * 2;
 			}
 		}else{
-			if(Parameters.parameters.booleanParameter("preySenseAllPrey")){
+			if(PREY_SENSE_ALL_PREY.get()){
 				return numPrey * 2 - 2;
 			}else{
-				return Parameters.parameters.integerParameter("numberPreySensedByPrey") * 2;
+				return NUMBER_PREY_SENSED_BY_PREY.get() * 2;
 			}
 		}
 	}
@@ -119,16 +126,16 @@ public class TorusPreyByProximitySensorBlock implements TorusPredPreySensorBlock
 	 */
 	public String[] sensorLabels(boolean isPredator) {
 		if(isPredator){
-			if(Parameters.parameters.booleanParameter("predsSenseAllPrey")){
+			if(PREDS_SENSE_ALL_PREY.get()){
 				return NNTorusPredPreyController.sensorLabels(numPrey, "Closest Prey");
 			}else{
-				return NNTorusPredPreyController.sensorLabels(Parameters.parameters.integerParameter("numberPreySensedByPreds"), "Closest Prey");
+				return NNTorusPredPreyController.sensorLabels(NUMBER_PREY_SENSED_BY_PREDS.get(), "Closest Prey");
 			}
 		}else{
-			if(Parameters.parameters.booleanParameter("preySenseAllPrey")){
+			if(PREY_SENSE_ALL_PREY.get()){
 				return NNTorusPredPreyController.sensorLabels(numPrey-1, "Closest Prey");
 			}else{
-				return NNTorusPredPreyController.sensorLabels(Parameters.parameters.integerParameter("numberPreySensedByPrey"), "Closest Prey");
+				return NNTorusPredPreyController.sensorLabels(NUMBER_PREY_SENSED_BY_PREY.get(), "Closest Prey");
 			}
 		}
 	}
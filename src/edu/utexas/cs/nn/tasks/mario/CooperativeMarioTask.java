@@ -60,6 +60,15 @@ public class CooperativeMarioTask <T extends Network> extends GroupTask implemen
         return scoreList;
     }
 
+    /**
+     * Every team member is evaluated by the same MarioTask, so teams can be
+     * evaluated in parallel whenever that task can evaluate in parallel
+     */
+    @Override
+    protected boolean canEvaluateTeamsInParallel() {
+        return task.canEvaluateInParallel();
+    }
+
     @Override
     public int numberOfPopulations() {
         // delegate to subclass?
@@ -86,6 +86,16 @@ public class MarioTask<T extends Network> extends NoisyLonerTask<T>implements Ne
 		//Note: These may not be correct, as there are only 5/6 -Gab
 	}
 
+	/**
+	 * The Mario engine plays every level in one global MarioComponent, and
+	 * keeps the state of Mario himself in static fields, so only one level
+	 * can be played at a time.
+	 */
+	@Override
+	public boolean canEvaluateInParallel() {
+		return false;
+	}
+
 	
 	@Override
 	public Pair<double[], double[]> oneEval(Genotype<T> individual, int num) {
@@ -94,7 +104,7 @@ public class MarioTask<T extends Network> extends NoisyLonerTask<T>implements Ne
 		double marioMode = 0;
 		double timeSpent = 0;
 		options.setAgent(new NNMarioAgent<T>(individual));
-		options.setLevelRandSeed(RandomNumbers.randomGenerator.nextInt(Integer.MAX_VALUE));
+		options.setLevelRandSeed(RandomNumbers.generator().nextInt(Integer.MAX_VALUE));
 		Evaluator evaluator = new Evaluator(options);
 		List<EvaluationInfo> results = evaluator.evaluate();
 		for (EvaluationInfo result : results) {
@@ -19,19 +19,19 @@ public class CooperativeCheckEachMultitaskSelectorMsPacManTask<T extends Network
 	public static final int MULTITASK_INDEX = 0;
 	public static final int PREFERENCE_INDEX = 1;
 	/**
-	 * Pass multitask network via static field
+	 * Pass multitask network of the team being evaluated by the current thread
 	 */
 	@SuppressWarnings("rawtypes")
-	public static Genotype multitaskGenotype = null;
+	public static final ThreadLocal<Genotype> multitaskGenotype = new ThreadLocal<Genotype>();
 
 	public CooperativeCheckEachMultitaskSelectorMsPacManTask() {
-		super();
+		super(CooperativeMsPacManTask.<T>sequentialTrialsTask());
 	}
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	@Override
 	public ArrayList<Score> evaluate(Genotype[] team) {
-		multitaskGenotype = team[MULTITASK_INDEX];
+		multitaskGenotype.set(team[MULTITASK_INDEX]);
 		Genotype<T> preferenceGenotype = team[PREFERENCE_INDEX];
 
 		if (task.printFitness) {
@@ -53,7 +53,7 @@ public class CooperativeCheckEachMultitaskSelectorMsPacManTask<T extends Network
 			System.arraycopy(taskScores.otherStats, 0, otherStatsCopy, 0, taskScores.otherStats.length);
 			genotypeScores.add(new Score<T>(team[i], scoresCopy, null, otherStatsCopy));
 		}
-		multitaskGenotype = null;
+		multitaskGenotype.remove();
 
 		return genotypeScores;
 	}
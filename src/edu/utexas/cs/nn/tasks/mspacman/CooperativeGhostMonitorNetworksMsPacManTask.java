@@ -16,7 +16,8 @@ import java.util.ArrayList;
 public class CooperativeGhostMonitorNetworksMsPacManTask<T extends Network> extends CooperativeMsPacManTask<T> {
 
 	public CooperativeGhostMonitorNetworksMsPacManTask() {
-		super();
+		// Ghost monitors of each team are swapped into the shared mediator
+		super(CooperativeMsPacManTask.<T>sharedStateTask());
 		for (int i = 0; i < CommonConstants.numActiveGhosts; i++) {
 			task.addObjective(new SpecificGhostScore<T>(i), task.otherScores, false);
 		}
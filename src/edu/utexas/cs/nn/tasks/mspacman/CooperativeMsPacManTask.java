@@ -38,7 +38,52 @@ public abstract class CooperativeMsPacManTask<T extends Network> extends GroupTa
 	}
 
 	public CooperativeMsPacManTask() {
-		task = new MsPacManTask<T>();
+		this(new MsPacManTask<T>());
+	}
+
+	/**
+	 * @param task
+	 *            task that evaluates the agent built from each team
+	 */
+	protected CooperativeMsPacManTask(MsPacManTask<T> task) {
+		this.task = task;
+	}
+
+	/**
+	 * For teams that swap their members into sensor mediators or mode
+	 * selectors that are shared by all teams. Evaluations of the returned
+	 * task are never independent, so teams and trials are evaluated one at
+	 * a time.
+	 *
+	 * @param <T>
+	 *            phenotype
+	 * @return task whose evaluations share state
+	 */
+	protected static <T extends Network> MsPacManTask<T> sharedStateTask() {
+		return new MsPacManTask<T>() {
+			@Override
+			protected boolean evaluationsAreIndependent() {
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * For teams that pass members to the controller through the evaluating
+	 * thread. Threads performing trials would not see them, so trials are
+	 * evaluated in the thread evaluating the team.
+	 *
+	 * @param <T>
+	 *            phenotype
+	 * @return task whose trials are evaluated sequentially
+	 */
+	protected static <T extends Network> MsPacManTask<T> sequentialTrialsTask() {
+		return new MsPacManTask<T>() {
+			@Override
+			protected boolean canEvaluateTrialsInParallel() {
+				return false;
+			}
+		};
 	}
 
         @Override
@@ -64,6 +109,16 @@ public abstract class CooperativeMsPacManTask<T extends Network> extends GroupTa
         @Override
 	public abstract int numberOfPopulations();
 
+	/**
+	 * Each thread plays its games in its own evaluation context of the
+	 * shared MsPacManTask, so teams can be evaluated in parallel whenever
+	 * evaluations of that task are independent.
+	 */
+	@Override
+	protected boolean canEvaluateTeamsInParallel() {
+		return task.canEvaluateInParallel();
+	}
+
         @Override
 	public void finalCleanup() {
 	}
@@ -48,7 +48,8 @@ public abstract class CooperativeNonHierarchicalMultiNetMsPacManTask<T extends N
 
 	public CooperativeNonHierarchicalMultiNetMsPacManTask(int numMembers, boolean ensemble, String fitnessMapKey,
 			boolean ghostMonitors, MsPacManControllerInputOutputMediator[] mediators) {
-		super();
+		// All teams use the same subnetwork mediators and fitness map
+		super(CooperativeMsPacManTask.<T>sharedStateTask());
 		this.members = numMembers;
 		// Copy of same mediator for each mode
 		try {
@@ -23,7 +23,8 @@ public class CooperativeSubtaskCombinerMsPacManTask<T extends Network> extends C
 	private final int[] fitnessPreferences;
 
 	public CooperativeSubtaskCombinerMsPacManTask() {
-		super();
+		// Subnetworks of each team are swapped into the shared mediator
+		super(CooperativeMsPacManTask.<T>sharedStateTask());
 		FitnessToModeMap fitnessMap = null;
 		try {
 			fitnessMap = (FitnessToModeMap) ClassCreation.createObject("pacmanFitnessModeMap");
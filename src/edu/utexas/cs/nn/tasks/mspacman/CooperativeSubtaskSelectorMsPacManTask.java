@@ -27,7 +27,8 @@ public class CooperativeSubtaskSelectorMsPacManTask<T extends Network> extends C
 	private final int[] fitnessPreferences;
 
 	public CooperativeSubtaskSelectorMsPacManTask() {
-		super();
+		// Subnetworks read their sensors from the shared coevolution mediators
+		super(CooperativeMsPacManTask.<T>sharedStateTask());
 		Parameters.parameters.setBoolean("evolveNetworkSelector", true);
 		FitnessToModeMap fitnessMap = null;
 		try {
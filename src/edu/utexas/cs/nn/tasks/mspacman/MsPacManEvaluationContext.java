@@ -0,0 +1,105 @@
+package edu.utexas.cs.nn.tasks.mspacman;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.tasks.mspacman.facades.ExecutorFacade;
+import edu.utexas.cs.nn.tasks.mspacman.facades.GameFacade;
+import edu.utexas.cs.nn.tasks.mspacman.facades.GhostControllerFacade;
+import edu.utexas.cs.nn.tasks.mspacman.facades.PacManControllerFacade;
+import edu.utexas.cs.nn.tasks.mspacman.sensors.MsPacManControllerInputOutputMediator;
+import edu.utexas.cs.nn.util.ClassCreation;
+import pacman.controllers.NewGhostController;
+import pacman.controllers.NewPacManController;
+
+/**
+ * Everything that changes while MsPacManTask evaluates an agent: the game,
+ * both controllers, and the sensor mediator used by evolved controllers.
+ * Each thread performing evaluations has its own context, so evaluations in
+ * different threads never share a game or a controller. The executor only
+ * runs games, and is shared by all contexts of a task.
+ *
+ * While a context is active, controllers created in its thread take their
+ * sensors from the context's mediator instead of the one in MMNEAT.
+ */
+public class MsPacManEvaluationContext {
+
+	// Context of the evaluation being performed by each thread, if any
+	private static final ThreadLocal<MsPacManEvaluationContext> active = new ThreadLocal<MsPacManEvaluationContext>();
+
+	public GameFacade game = null;
+	public PacManControllerFacade mspacman = null;
+	public GhostControllerFacade ghosts = null;
+	public final ExecutorFacade exec;
+	// Null if the context uses MMNEAT.pacmanInputOutputMediator
+	private final MsPacManControllerInputOutputMediator mediator;
+
+	/**
+	 * @param exec
+	 *            executor that runs the games
+	 * @param mediator
+	 *            sensors for controllers created in this context, or null to
+	 *            use the shared mediator in MMNEAT
+	 */
+	public MsPacManEvaluationContext(ExecutorFacade exec, MsPacManControllerInputOutputMediator mediator) {
+		this.exec = exec;
+		this.mediator = mediator;
+	}
+
+	/**
+	 * Make this the context of the current thread until deactivate is called
+	 */
+	public void activate() {
+		active.set(this);
+	}
+
+	/**
+	 * The current thread no longer has an active context
+	 */
+	public static void deactivate() {
+		active.remove();
+	}
+
+	/**
+	 * Sensor mediator that a Ms. Pac-Man controller created in the current
+	 * thread should use.
+	 *
+	 * @return mediator of the active context if it has one, and the shared
+	 *         mediator otherwise
+	 */
+	public static MsPacManControllerInputOutputMediator pacmanInputOutputMediator() {
+		MsPacManEvaluationContext context = active.get();
+		return context == null || context.mediator == null ? MMNEAT.pacmanInputOutputMediator : context.mediator;
+	}
+
+	/**
+	 * Define the Ghost team to evolve against
+	 */
+	public void loadGhosts() {
+		if (ghosts == null) {
+			try {
+				ghosts = new GhostControllerFacade((NewGhostController) ClassCreation.createObject("ghostTeam"));
+			} catch (NoSuchMethodException ex) {
+				ex.printStackTrace();
+				System.exit(1);
+			}
+		} else {
+			ghosts.reset();
+		}
+	}
+
+	/**
+	 * If a static pacman is being used against evolving ghosts, then this
+	 * method loads it.
+	 */
+	public void loadPacMan() {
+		if (mspacman == null) {
+			try {
+				mspacman = new PacManControllerFacade((NewPacManController) ClassCreation.createObject("staticPacMan"));
+			} catch (NoSuchMethodException ex) {
+				ex.printStackTrace();
+				System.exit(1);
+			}
+		} else {
+			mspacman.reset();
+		}
+	}
+}
@@ -41,6 +41,16 @@ public abstract class MsPacManIsolatedMultitask<T extends Network> extends MsPac
 
 	}
 
+        /**
+         * The preparation for each task changes settings of the task itself,
+         * so evaluations are never performed in parallel
+         * @return false
+         */
+	@Override
+	protected boolean evaluationsAreIndependent() {
+		return false;
+	}
+
         /**
          * Prepares for each individual task and combines results afterward
          * @param individual genotype to evaluate
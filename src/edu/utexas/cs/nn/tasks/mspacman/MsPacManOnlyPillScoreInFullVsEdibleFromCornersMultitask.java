@@ -28,7 +28,7 @@ public class MsPacManOnlyPillScoreInFullVsEdibleFromCornersMultitask<T extends N
 	public static int NUM_GHOST_LOCATION_OPTIONS = 100;
 
 	public static int newGhostLocation(int mazeIndex, Ghost ghost) {
-		int randomChoice = RandomNumbers.randomGenerator.nextInt(NUM_GHOST_LOCATION_OPTIONS);
+		int randomChoice = RandomNumbers.generator().nextInt(NUM_GHOST_LOCATION_OPTIONS);
 		// System.out.println("mazeIndex:"+mazeIndex+",pacmanStartingPowerPillIndex:"+CommonConstants.pacmanStartingPowerPillIndex+",randomChoice:"+randomChoice+",ghostIndex:"+GameFacade.ghostToIndex(ghost.type));
 		return mazePowerPillGhostMap[mazeIndex][CommonConstants.pacmanStartingPowerPillIndex][randomChoice][GameFacade
 				.ghostToIndex(ghost.type)];
@@ -75,6 +75,15 @@ public class MsPacManOnlyPillScoreInFullVsEdibleFromCornersMultitask<T extends N
 		}
 	}
 
+	/**
+	 * Each evaluation changes settings of the task itself, so evaluations are
+	 * never performed in parallel
+	 */
+	@Override
+	protected boolean evaluationsAreIndependent() {
+		return false;
+	}
+
 	@Override
 	public Pair<double[], double[]> oneEval(Genotype<T> individual, int num) {
 		// Do an eval in interleave domain, just don't count ghost score at end
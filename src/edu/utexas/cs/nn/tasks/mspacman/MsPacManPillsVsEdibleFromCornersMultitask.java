@@ -23,6 +23,15 @@ public class MsPacManPillsVsEdibleFromCornersMultitask<T extends Network> extend
 		MsPacManOnlyPillScoreInFullVsEdibleFromCornersMultitask.loadMapPowerPillGhostMap(Parameters.parameters.stringParameter("mazePowerPillGhostMapping"));
 	}
 
+	/**
+	 * Each evaluation changes settings of the task itself, so evaluations are
+	 * never performed in parallel
+	 */
+	@Override
+	protected boolean evaluationsAreIndependent() {
+		return false;
+	}
+
 	@Override
 	public Pair<double[], double[]> oneEval(Genotype<T> individual, int num) {
 		removePillsNearPowerPills = Parameters.parameters.booleanParameter("removePillsNearPowerPills");
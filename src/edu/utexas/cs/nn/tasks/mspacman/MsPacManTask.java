@@ -21,6 +21,7 @@ import edu.utexas.cs.nn.tasks.NoisyLonerTask;
 import edu.utexas.cs.nn.tasks.mspacman.agentcontroller.ghosts.SharedNNGhosts;
 import edu.utexas.cs.nn.tasks.mspacman.agentcontroller.pacman.MultinetworkMsPacManController;
 import edu.utexas.cs.nn.tasks.mspacman.agentcontroller.pacman.NNMsPacMan;
+import edu.utexas.cs.nn.tasks.mspacman.data.ScentPath;
 import edu.utexas.cs.nn.tasks.mspacman.data.TrainingCampManager;
 import edu.utexas.cs.nn.tasks.mspacman.facades.ExecutorFacade;
 import edu.utexas.cs.nn.tasks.mspacman.facades.GameFacade;
@@ -55,6 +56,8 @@ import edu.utexas.cs.nn.tasks.mspacman.objectives.SurvivalAndSpeedTimeScore;
 import edu.utexas.cs.nn.tasks.mspacman.objectives.TimeFramesGhostScore;
 import edu.utexas.cs.nn.tasks.mspacman.objectives.TimeFramesPillScore;
 import edu.utexas.cs.nn.tasks.mspacman.objectives.TimeToEatAllGhostsScore;
+import edu.utexas.cs.nn.tasks.mspacman.sensors.CombiningInputOutputMediator;
+import edu.utexas.cs.nn.tasks.mspacman.sensors.MsPacManControllerInputOutputMediator;
 import edu.utexas.cs.nn.util.ClassCreation;
 import edu.utexas.cs.nn.util.datastructures.Pair;
 import edu.utexas.cs.nn.util.datastructures.Triple;
@@ -109,10 +112,11 @@ public class MsPacManTask<T extends Network> extends NoisyLonerTask<T>implements
 	//objectives and scores used for multitask
 	protected ArrayList<MsPacManObjective<T>> objectives;
 	protected ArrayList<MsPacManObjective<T>> otherScores;
-	protected GhostControllerFacade ghosts;
-	protected PacManControllerFacade mspacman;
-	protected ExecutorFacade exec;
-	protected GameFacade game;
+	protected final ExecutorFacade exec;
+	// Game and controllers of the evaluation performed by each thread
+	private final ThreadLocal<MsPacManEvaluationContext> contexts = new ThreadLocal<MsPacManEvaluationContext>();
+	// Thread that created the task, which uses the shared mediator
+	private final Thread creator = Thread.currentThread();
 	//indices used for calculation of fitness TODO
 	private final int scoreIndexInOtherScores;
 	private final int pillScoreIndexInOtherScores;
@@ -141,6 +145,8 @@ public class MsPacManTask<T extends Network> extends NoisyLonerTask<T>implements
 	private final boolean eachComponentTracksScoreToo;
 	private final boolean plainGhostScore;
 	private final TrainingCampManager tcManager;
+	// Network selectors drive subnetworks through the shared mediator
+	private final boolean evolveNetworkSelector;
 
 	/**
 	 * Default constructor
@@ -158,6 +164,7 @@ public class MsPacManTask<T extends Network> extends NoisyLonerTask<T>implements
 		exec = new ExecutorFacade(new Executor());
 		this.deterministic = det;//if game is deterministic
 		tcManager = new TrainingCampManager();
+		evolveNetworkSelector = Parameters.parameters.booleanParameter("evolveNetworkSelector");
 
 		//variables from command line parameters
 		onlyOneLairExitAllowed = false;
@@ -412,19 +419,67 @@ public class MsPacManTask<T extends Network> extends NoisyLonerTask<T>implements
 	}
 
 	/**
-	 * Define the Ghost team to evolve against
+	 * Evaluation context of the current thread, created the first time the
+	 * thread evaluates an agent. Threads other than the one that created the
+	 * task get their own sensor mediator if evaluations are independent, so
+	 * that sensor state is never shared between threads.
+	 *
+	 * @return context of the current thread
 	 */
-	public void loadGhosts() {
-		if (ghosts == null) {
-			try {
-				this.ghosts = new GhostControllerFacade((NewGhostController) ClassCreation.createObject("ghostTeam"));
-			} catch (NoSuchMethodException ex) {
-				ex.printStackTrace();
-				System.exit(1);
+	protected MsPacManEvaluationContext context() {
+		MsPacManEvaluationContext context = contexts.get();
+		if (context == null) {
+			MsPacManControllerInputOutputMediator mediator = null;
+			if (Thread.currentThread() != creator && evaluationsAreIndependent()) {
+				try {
+					mediator = (MsPacManControllerInputOutputMediator) ClassCreation.createObject("pacmanInputOutputMediator");
+				} catch (NoSuchMethodException ex) {
+					ex.printStackTrace();
+					System.exit(1);
+				}
 			}
-		} else {
-			ghosts.reset();
+			context = new MsPacManEvaluationContext(exec, mediator);
+			contexts.set(context);
 		}
+		return context;
+	}
+
+	/**
+	 * Whether evaluations in different threads are independent of each
+	 * other, so that performing them at the same time gives the same results
+	 * as performing them one after another. Everything that changes during a
+	 * game must belong to the evaluation context or to the thread. Features
+	 * that change shared state during evaluation (training camps, evaluation
+	 * logs, evolved ghosts, shared mode selectors, HyperNEAT substrates and
+	 * mediators that combine other networks) are not supported, and tasks
+	 * that use them are evaluated sequentially.
+	 *
+	 * @return true if evaluations can be performed in parallel
+	 */
+	protected boolean evaluationsAreIndependent() {
+		return !evolveGhosts && !tcManager.active() && !Executor.logOutput && Executor.deaths == null
+				&& MMNEAT.evalReport == null && !CommonConstants.watch && !CommonConstants.recordPacman
+				&& !CommonConstants.timedPacman && !CommonConstants.hyperNEAT && !CommonConstants.monitorInputs
+				&& MMNEAT.pacmanMultitaskScheme == null && MMNEAT.directionalSafetyFunction == null
+				&& MMNEAT.ensembleArbitrator == null && ScentPath.modeScents == null && !evolveNetworkSelector
+				&& !(MMNEAT.pacmanInputOutputMediator instanceof CombiningInputOutputMediator);
+	}
+
+	@Override
+	public boolean canEvaluateInParallel() {
+		return evaluationsAreIndependent();
+	}
+
+	@Override
+	protected boolean canEvaluateTrialsInParallel() {
+		return evaluationsAreIndependent();
+	}
+
+	/**
+	 * Define the Ghost team to evolve against
+	 */
+	public void loadGhosts() {
+		context().loadGhosts();
 	}
 
 	/**
@@ -434,16 +489,7 @@ public class MsPacManTask<T extends Network> extends NoisyLonerTask<T>implements
 	 * Is this actually used anywhere?
 	 */
 	public void loadPacMan() {
-		if (mspacman == null) {
-			try {
-				this.mspacman = new PacManControllerFacade((NewPacManController) ClassCreation.createObject("staticPacMan"));
-			} catch (NoSuchMethodException ex) {
-				ex.printStackTrace();
-				System.exit(1);
-			}
-		} else {
-			mspacman.reset();
-		}
+		context().loadPacMan();
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -459,48 +505,81 @@ public class MsPacManTask<T extends Network> extends NoisyLonerTask<T>implements
 
 	@Override
 	public Score<T> evaluate(Genotype<T> individual) {
-		exec.log("Genotype ID: " + individual.getId());
+		context().exec.log("Genotype ID: " + individual.getId());
 		return super.evaluate(individual);
 	}
 
 	@SuppressWarnings("rawtypes")
 	@Override
 	public Pair<double[], double[]> oneEval(Genotype<T> individual, int num) {
-		Organism<T> organism = evolveGhosts ? new SharedNNGhosts<T>(individual) : new NNMsPacMan<T>(individual);
-		if (evolveGhosts) {
-			loadPacMan();
-			ghosts = new GhostControllerFacade((NewGhostController) ((SharedNNGhosts<T>) organism).controller);
-		} else {
-			mspacman = new PacManControllerFacade((NewPacManController) ((NNMsPacMan<T>) organism).controller);
-		}
+		MsPacManEvaluationContext context = context();
+		// Controllers created for this evaluation use the context's sensors
+		context.activate();
+		try {
+			Organism<T> organism = evolveGhosts ? new SharedNNGhosts<T>(individual) : new NNMsPacMan<T>(individual);
+			if (evolveGhosts) {
+				context.loadPacMan();
+				context.ghosts = new GhostControllerFacade((NewGhostController) ((SharedNNGhosts<T>) organism).controller);
+			} else {
+				context.mspacman = new PacManControllerFacade((NewPacManController) ((NNMsPacMan<T>) organism).controller);
+			}
 
-		// Side-effects to "game"
-		agentEval(mspacman, num);
-		if (mspacman.newP instanceof MultinetworkMsPacManController && individual instanceof NetworkGenotype) {
-			// Track subnet selections as if they were modes
-			((NetworkGenotype<T>) individual).setModuleUsage(((MultinetworkMsPacManController) mspacman.newP).fullUsage);
-		}
+			// Side-effects to "game"
+			GameFacade game = agentEval(context, context.mspacman, num);
+			if (context.mspacman.newP instanceof MultinetworkMsPacManController && individual instanceof NetworkGenotype) {
+				// Track subnet selections as if they were modes
+				((NetworkGenotype<T>) individual).setModuleUsage(((MultinetworkMsPacManController) context.mspacman.newP).fullUsage);
+			}
 
-		double[] fitnesses = new double[this.numObjectives()];
-		double[] scores = new double[this.numOtherScores()];
-		// When evolving ghosts, all fitness scores are flipped to negative,
-		// because the ghosts are in direct opposition to pacman
-		for (int j = 0; j < objectives.size(); j++) {
-			fitnesses[j] = (evolveGhosts ? -1 : 1) * objectives.get(j).score(game, organism);
-		}
-		for (int j = 0; j < otherScores.size(); j++) {
-			scores[j] = otherScores.get(j).score(game, organism);
+			double[] fitnesses = new double[this.numObjectives()];
+			double[] scores = new double[this.numOtherScores()];
+			// When evolving ghosts, all fitness scores are flipped to negative,
+			// because the ghosts are in direct opposition to pacman
+			for (int j = 0; j < objectives.size(); j++) {
+				fitnesses[j] = (evolveGhosts ? -1 : 1) * objectives.get(j).score(game, organism);
+			}
+			for (int j = 0; j < otherScores.size(); j++) {
+				scores[j] = otherScores.get(j).score(game, organism);
+			}
+			return new Pair<double[], double[]>(fitnesses, scores);
+		} finally {
+			MsPacManEvaluationContext.deactivate();
 		}
-		return new Pair<double[], double[]>(fitnesses, scores);
 	}
 
+	/**
+	 * Play one game with the given pacman in the current thread's context
+	 *
+	 * @param mspacman
+	 *            pacman controller
+	 * @param num
+	 *            evaluation number, which is the seed in deterministic games
+	 * @return game after it ends
+	 */
 	public GameFacade agentEval(PacManControllerFacade mspacman, int num) {
+		return agentEval(context(), mspacman, num);
+	}
+
+	/**
+	 * Play one game with the given pacman, using the game, ghosts and
+	 * executor of the given context
+	 *
+	 * @param context
+	 *            evaluation context of the current thread
+	 * @param mspacman
+	 *            pacman controller
+	 * @param num
+	 *            evaluation number, which is the seed in deterministic games
+	 * @return game after it ends
+	 */
+	protected GameFacade agentEval(MsPacManEvaluationContext context, PacManControllerFacade mspacman, int num) {
 		// System.out.println("Agent Eval");
 		if (!evolveGhosts) {
-			loadGhosts();
+			context.loadGhosts();
 		}
 		tcManager.preEval();
-		game = new GameFacade(new Game(deterministic ? num : RandomNumbers.randomGenerator.nextLong()));
+		GameFacade game = new GameFacade(new Game(deterministic ? num : RandomNumbers.generator().nextLong()));
+		context.game = game;
 		game.setExitLairEdible(exitLairEdible);
 		game.setEndOnlyOnTimeLimit(endOnlyOnTimeLimit);
 		game.setRandomLairExit(randomLairExit);
@@ -516,6 +595,8 @@ public class MsPacManTask<T extends Network> extends NoisyLonerTask<T>implements
 		int campNum = tcManager.campSetup(game, num);
 		int startingLevel = game.getCurrentLevel();
 		mspacman.reset();
+		GhostControllerFacade ghosts = context.ghosts;
+		ExecutorFacade exec = context.exec;
 		if (CommonConstants.recordPacman) {
 			exec.runGameTimedRecorded(game, mspacman, ghosts, CommonConstants.watch,
 					saveFilePrefix + Parameters.parameters.stringParameter("pacmanSaveFile"));
@@ -580,7 +661,7 @@ public class MsPacManTask<T extends Network> extends NoisyLonerTask<T>implements
 
 	@Override
 	public double getTimeStamp() {
-		return game.getTotalTime();
+		return context().game.getTotalTime();
 	}
 
 
@@ -0,0 +1,87 @@
+package edu.utexas.cs.nn.tasks.mspacman;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
+import edu.utexas.cs.nn.networks.TWEANN;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.util.datastructures.Pair;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+
+public class MsPacManTaskTest {
+
+	final static int AGENTS = 3;
+	final static int TRIALS = 2;
+
+	@Before
+	public void setUp() throws Exception {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "watch:false",
+				"task:edu.utexas.cs.nn.tasks.mspacman.MsPacManTask", "deterministic:true",
+				"pacManLevelTimeLimit:1500", "pacmanMaxLevel:2" });
+		MMNEAT.loadClasses();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+		RandomNumbers.reset();
+	}
+
+	/**
+	 * Games played at the same time in different threads must give exactly
+	 * the results of the same games played one after another
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void test_parallelMatchesSerial() throws Exception {
+		final MsPacManTask<TWEANN> task = (MsPacManTask<TWEANN>) MMNEAT.task;
+		assertTrue(task.canEvaluateInParallel());
+		final ArrayList<TWEANNGenotype> agents = new ArrayList<TWEANNGenotype>();
+		for (int i = 0; i < AGENTS; i++) {
+			agents.add(new TWEANNGenotype(MMNEAT.pacmanInputOutputMediator.numIn(),
+					MMNEAT.pacmanInputOutputMediator.numOut(), 0));
+		}
+		ArrayList<Pair<double[], double[]>> serial = new ArrayList<Pair<double[], double[]>>();
+		ArrayList<Callable<Pair<double[], double[]>>> calls = new ArrayList<Callable<Pair<double[], double[]>>>();
+		for (final TWEANNGenotype agent : agents) {
+			for (int trial = 0; trial < TRIALS; trial++) {
+				serial.add(task.oneEval(agent, trial));
+				final int num = trial;
+				calls.add(new Callable<Pair<double[], double[]>>() {
+					@Override
+					public Pair<double[], double[]> call() throws Exception {
+						return task.oneEval(agent, num);
+					}
+				});
+			}
+		}
+		ExecutorService threads = Executors.newFixedThreadPool(3);
+		try {
+			// Twice, so that threads reuse their contexts
+			for (int repeat = 0; repeat < 2; repeat++) {
+				ArrayList<Future<Pair<double[], double[]>>> futures = new ArrayList<Future<Pair<double[], double[]>>>();
+				for (Callable<Pair<double[], double[]>> call : calls) {
+					futures.add(threads.submit(call));
+				}
+				for (int i = 0; i < futures.size(); i++) {
+					Pair<double[], double[]> result = futures.get(i).get();
+					assertArrayEquals(serial.get(i).t1, result.t1, 0.0);
+					assertArrayEquals(serial.get(i).t2, result.t2, 0.0);
+				}
+			}
+		} finally {
+			threads.shutdown();
+		}
+	}
+}
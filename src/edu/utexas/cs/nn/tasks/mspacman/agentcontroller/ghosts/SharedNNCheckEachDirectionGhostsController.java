@@ -1,6 +1,7 @@
 package edu.utexas.cs.nn.tasks.mspacman.agentcontroller.ghosts;
 
 import edu.utexas.cs.nn.networks.Network;
+import edu.utexas.cs.nn.networks.NetworkUtil;
 import edu.utexas.cs.nn.tasks.mspacman.facades.GameFacade;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.ghosts.VariableDirectionGhostBlockLoadedInputOutputMediator;
 import java.util.Arrays;
@@ -26,9 +27,10 @@ public class SharedNNCheckEachDirectionGhostsController extends SharedNNDirectio
 			if (neighbors[i] != -1) {
 				((VariableDirectionGhostBlockLoadedInputOutputMediator) this.inputMediator).setDirection(i);
 				double[] inputs = this.inputMediator.getInputs(gf, ghostIndex);
-				double[] outputs = nn.process(inputs);
-				assert outputs.length == 1 : "Network should have a lone output for the utility of the move in the given direction";
-				preferences[i] = outputs[0];
+				networkOutputs = NetworkUtil.outputBuffer(nn, networkOutputs);
+				nn.process(inputs, networkOutputs);
+				assert networkOutputs.length == 1 : "Network should have a lone output for the utility of the move in the given direction";
+				preferences[i] = networkOutputs[0];
 			}
 		}
 		return preferences;
@@ -17,6 +17,8 @@ import pacman.game.Game;
 public abstract class SharedNNGhostsController extends NewGhostController {
 
 	protected Network nn;
+	// Reused by subclasses when activating nn
+	protected double[] networkOutputs = null;
 	public GhostControllerInputOutputMediator inputMediator;
 	// No such thing yet
 	// protected GhostModeSelector ms = null;
@@ -1,6 +1,7 @@
 package edu.utexas.cs.nn.tasks.mspacman.agentcontroller.pacman;
 
 import edu.utexas.cs.nn.networks.Network;
+import edu.utexas.cs.nn.networks.NetworkUtil;
 import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.tasks.mspacman.facades.GameFacade;
 import edu.utexas.cs.nn.util.datastructures.Pair;
@@ -40,8 +41,9 @@ public abstract class AfterStateNNPacManController extends NNDirectionalPacManCo
 				double[] inputs = inputMediator.getInputs(afterstates[i], lastDir);
 				nn.flush();
 				// Should just be one output for preference
-				double[] outputs = nn.process(inputs);
-				directionPreferences[i] = outputs[0];
+				networkOutputs = NetworkUtil.outputBuffer(nn, networkOutputs);
+				nn.process(inputs, networkOutputs);
+				directionPreferences[i] = networkOutputs[0];
 			}
 		}
 
@@ -1,6 +1,7 @@
 package edu.utexas.cs.nn.tasks.mspacman.agentcontroller.pacman;
 
 import edu.utexas.cs.nn.networks.Network;
+import edu.utexas.cs.nn.networks.NetworkUtil;
 import edu.utexas.cs.nn.networks.TWEANN;
 import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.tasks.mspacman.agentcontroller.pacman.actions.MsPacManAction;
@@ -82,7 +83,8 @@ public class NNActionPacManController extends NNPacManController {
 			ms.giveGame(gf);
 			nn.chooseMode(ms.mode());
 		}
-		double[] outputs = nn.process(inputs);
-		return outputs;
+		networkOutputs = NetworkUtil.outputBuffer(nn, networkOutputs);
+		nn.process(inputs, networkOutputs);
+		return networkOutputs;
 	}
 }
@@ -7,6 +7,7 @@ import edu.utexas.cs.nn.graphics.DrawingPanel;
 import edu.utexas.cs.nn.graphics.Plot;
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
 import edu.utexas.cs.nn.networks.Network;
+import edu.utexas.cs.nn.networks.NetworkUtil;
 import edu.utexas.cs.nn.networks.TWEANN;
 import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.parameters.Parameters;
@@ -191,7 +192,9 @@ public class NNCheckEachDirectionPacManController extends NNDirectionalPacManCon
 					TWEANN.inputPanel = panels[i];
 				}
 				usageCounts[i]++;
-				double[] outputs = this.directionalNetworks[i].process(inputs);
+				networkOutputs = NetworkUtil.outputBuffer(this.directionalNetworks[i], networkOutputs);
+				double[] outputs = networkOutputs;
+				this.directionalNetworks[i].process(inputs, outputs);
 				// Much of mode usage tracking for eval reports
 				int lastMode = directionalNetworks[i].lastModule();
 				if (gf.anyIsEdible()) {
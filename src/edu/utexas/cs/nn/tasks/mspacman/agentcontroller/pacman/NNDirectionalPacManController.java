@@ -15,13 +15,29 @@ import edu.utexas.cs.nn.util.stats.StatisticsUtilities;
 public abstract class NNDirectionalPacManController extends NNPacManController {
 
 	protected final boolean externalPreferenceNeurons;
-	public static double[] previousPreferences = new double[GameFacade.NUM_DIRS];
+	// Preferences of the last time step in the game played by each thread
+	private static final ThreadLocal<double[]> previousPreferences = new ThreadLocal<double[]>();
 
 	public NNDirectionalPacManController(Network n) {
 		super(n);
 		externalPreferenceNeurons = Parameters.parameters.booleanParameter("externalPreferenceNeurons");
 	}
 
+	/**
+	 * Direction preferences from the previous time step of the game being
+	 * played in the current thread
+	 *
+	 * @return preference for each direction
+	 */
+	public static double[] previousPreferences() {
+		double[] preferences = previousPreferences.get();
+		if (preferences == null) {
+			preferences = new double[GameFacade.NUM_DIRS];
+			previousPreferences.set(preferences);
+		}
+		return preferences;
+	}
+
 	/**
 	 * finds the current direction
 	 * 
@@ -31,7 +47,7 @@ public abstract class NNDirectionalPacManController extends NNPacManController {
 	 */
 	public int getDirection(GameFacade gs) {
 		double[] dirPreferences = getDirectionPreferences(gs);
-		System.arraycopy(dirPreferences, 0, previousPreferences, 0, GameFacade.NUM_DIRS);
+		System.arraycopy(dirPreferences, 0, previousPreferences(), 0, GameFacade.NUM_DIRS);
 		// if (watch && (nn instanceof TWEANN) && ((TWEANN) nn).numModes() > 1)
 		// {
 		// // Need to have a better indicator of current mode
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
 import edu.utexas.cs.nn.evolution.genotypes.HyperNEATCPPNGenotype;
 import edu.utexas.cs.nn.networks.Network;
+import edu.utexas.cs.nn.networks.NetworkUtil;
 import edu.utexas.cs.nn.networks.hyperneat.HyperNEATUtil;
 import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.parameters.Parameters;
@@ -58,7 +59,9 @@ public class NNHyperNEATPacManController extends NNPacManController {
 			}
 		}
 		double[] inputs = inputMediator.getInputs(gf, gf.getPacmanLastMoveMade());
-		double[] outputs = nn.process(inputs);
+		networkOutputs = NetworkUtil.outputBuffer(nn, networkOutputs);
+		double[] outputs = networkOutputs;
+		nn.process(inputs, outputs);
 		if(pacManFullScreenOutput) {
 			int chosenNode = -1;
 			double nodePreference = Double.NEGATIVE_INFINITY;		
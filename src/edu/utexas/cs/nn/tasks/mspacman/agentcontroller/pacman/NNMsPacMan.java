@@ -68,9 +68,9 @@ public class NNMsPacMan<T extends Network> extends Organism<T> {
 						// evolved Multitask policy networks
 						controller = new NNMultitaskSelectorCheckEachDirectionPacManController(genotype,
 								MMNEAT.sharedPreferenceNetwork, MMNEAT.directionalSafetyFunction);
-					} else if (CooperativeCheckEachMultitaskSelectorMsPacManTask.multitaskGenotype != null) {
+					} else if (CooperativeCheckEachMultitaskSelectorMsPacManTask.multitaskGenotype.get() != null) {
 						controller = new NNMultitaskSelectorCheckEachDirectionPacManController(
-								CooperativeCheckEachMultitaskSelectorMsPacManTask.multitaskGenotype, genotype,
+								CooperativeCheckEachMultitaskSelectorMsPacManTask.multitaskGenotype.get(), genotype,
 								MMNEAT.directionalSafetyFunction);
 					} else {
 						controller = new NNCheckEachDirectionPacManController(genotype, MMNEAT.directionalSafetyFunction);
@@ -6,6 +6,7 @@ import edu.utexas.cs.nn.evolution.lineage.Offspring;
 import edu.utexas.cs.nn.graphics.DrawingPanel;
 import edu.utexas.cs.nn.graphics.Plot;
 import edu.utexas.cs.nn.networks.Network;
+import edu.utexas.cs.nn.networks.NetworkUtil;
 import edu.utexas.cs.nn.networks.TWEANN;
 import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.tasks.mspacman.facades.GameFacade;
@@ -23,6 +24,8 @@ public class NNMultitaskSelectorCheckEachDirectionPacManController extends NNDir
 	// Needed so each direction can have its own recurrent state
 	private Network[] directionalPolicyNetworks;
 	private Network[] directionalPreferenceNetworks;
+	// Preference network outputs (policy outputs use networkOutputs)
+	private double[] preferenceOutputs = null;
 	private static DrawingPanel[] policyPanels = null;
 	private static DrawingPanel[] preferencePanels = null;
 	private final VariableDirectionBlock safe;
@@ -83,7 +86,8 @@ public class NNMultitaskSelectorCheckEachDirectionPacManController extends NNDir
 				if (preferencePanels != null) {
 					TWEANN.inputPanel = preferencePanels[i];
 				}
-				double[] preferenceOutputs = this.directionalPreferenceNetworks[i].process(inputs);
+				preferenceOutputs = NetworkUtil.outputBuffer(this.directionalPreferenceNetworks[i], preferenceOutputs);
+				this.directionalPreferenceNetworks[i].process(inputs, preferenceOutputs);
 				// Determine mode
 				int mode = StatisticsUtilities.argmax(preferenceOutputs);
 				// Get policy
@@ -91,8 +95,9 @@ public class NNMultitaskSelectorCheckEachDirectionPacManController extends NNDir
 					TWEANN.inputPanel = policyPanels[i];
 				}
 				this.directionalPolicyNetworks[i].chooseMode(mode);
-				double[] policyOutput = this.directionalPolicyNetworks[i].process(inputs);
-				preferences[i] = policyOutput[0];
+				networkOutputs = NetworkUtil.outputBuffer(this.directionalPolicyNetworks[i], networkOutputs);
+				this.directionalPolicyNetworks[i].process(inputs, networkOutputs);
+				preferences[i] = networkOutputs[0];
 			} else {
 				if (policyPanels != null) {
 					TWEANN.inputPanel = policyPanels[i];
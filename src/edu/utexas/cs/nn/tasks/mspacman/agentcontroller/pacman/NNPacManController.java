@@ -5,11 +5,13 @@ import edu.utexas.cs.nn.networks.Network;
 import edu.utexas.cs.nn.networks.TWEANN;
 import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.tasks.mspacman.MsPacManEvaluationContext;
 import edu.utexas.cs.nn.tasks.mspacman.data.ScentPath;
 import edu.utexas.cs.nn.tasks.mspacman.facades.GameFacade;
 import edu.utexas.cs.nn.tasks.mspacman.multitask.MsPacManModeSelector;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.MsPacManControllerInputOutputMediator;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 import pacman.controllers.NewPacManController;
 import pacman.game.Game;
 
@@ -21,23 +23,26 @@ import pacman.game.Game;
 public abstract class NNPacManController extends NewPacManController {
 
 	protected Network nn;
+	// Reused by subclasses when activating nn, to avoid allocation every time step
+	protected double[] networkOutputs = null;
 	public int lives = -1;
 	public MsPacManControllerInputOutputMediator inputMediator;
 	private int maxLevel;
 	protected MsPacManModeSelector ms = null;
-	// Accessed and reset by Performance log
-	public static int timesAllLevelsBeaten = 0;
-	public static int timesTimeLimitReached = 0;
-	public static int timesDied = 0;
+	// Accessed and reset by Performance log. Atomic, since games may be
+	// played in parallel
+	public static final AtomicInteger timesAllLevelsBeaten = new AtomicInteger();
+	public static final AtomicInteger timesTimeLimitReached = new AtomicInteger();
+	public static final AtomicInteger timesDied = new AtomicInteger();
 
 	/**
 	 * Called once a generation by Performance log resets the data for the times
 	 * all levels are beaten, times the time limit is reached, and times died
 	 */
 	public static void resetTimes() {
-		timesAllLevelsBeaten = 0;
-		timesTimeLimitReached = 0;
-		timesDied = 0;
+		timesAllLevelsBeaten.set(0);
+		timesTimeLimitReached.set(0);
+		timesDied.set(0);
 	}
 
 	/**
@@ -50,7 +55,7 @@ public abstract class NNPacManController extends NewPacManController {
 		nn = n;
 		maxLevel = Parameters.parameters.integerParameter("pacmanMaxLevel");
 
-		inputMediator = MMNEAT.pacmanInputOutputMediator;
+		inputMediator = MsPacManEvaluationContext.pacmanInputOutputMediator();
 		if (inputMediator != null) {
 			inputMediator.reset();
 		}
@@ -85,7 +90,7 @@ public abstract class NNPacManController extends NewPacManController {
 	 * @return the action to take or a number indicating the end of the game
 	 */
 	public int getAction(GameFacade gs, long timeDue) {
-		ScentPath.scents.visit(gs, gs.getPacmanCurrentNodeIndex());
+		ScentPath.scents().visit(gs, gs.getPacmanCurrentNodeIndex());
 		int curLevel = gs.getCurrentLevel();
 		if (curLevel >= maxLevel) {
 			// System.out.println("Beat all levels");
@@ -112,7 +117,7 @@ public abstract class NNPacManController extends NewPacManController {
 		inputMediator.mediatorStateUpdate(gs);
 		int levelTime = gs.getCurrentLevelTime();
 		if (CommonConstants.pacmanFatalTimeLimit && levelTime >= CommonConstants.pacManLevelTimeLimit) {
-			timesTimeLimitReached++;
+			timesTimeLimitReached.incrementAndGet();
 			if (MMNEAT.evalReport != null) {
 				MMNEAT.evalReport.log("Level Time Limit Reached");
 				MMNEAT.evalReport.log("");
@@ -138,7 +143,7 @@ public abstract class NNPacManController extends NewPacManController {
 		super.reset();
 		if(nn != null) nn.flush();//might be null when using hyperNEAT w/ msPacMan
 		inputMediator.reset();
-		ScentPath.scents.reset();
+		ScentPath.scents().reset();
 		if (ScentPath.modeScents != null) {
 			for (int i = 0; i < ScentPath.modeScents.length; i++) {
 				ScentPath.modeScents[i].reset();
@@ -1,6 +1,7 @@
 package edu.utexas.cs.nn.tasks.mspacman.agentcontroller.pacman;
 
 import edu.utexas.cs.nn.networks.Network;
+import edu.utexas.cs.nn.networks.NetworkUtil;
 import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.tasks.mspacman.facades.GameFacade;
 
@@ -25,7 +26,9 @@ public class ReactiveNNPacManController extends NNDirectionalPacManController {
 			ms.giveGame(gf);
 			nn.chooseMode(ms.mode());
 		}
-		double[] outputs = nn.process(inputs);
+		networkOutputs = NetworkUtil.outputBuffer(nn, networkOutputs);
+		double[] outputs = networkOutputs;
+		nn.process(inputs, outputs);
 
 		// Make directions towards walls impossible to choose
 		final int referenceDir = CommonConstants.relativePacmanDirections ? gf.getPacmanLastMoveMade() : 0;
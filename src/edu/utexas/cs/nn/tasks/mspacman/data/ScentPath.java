@@ -18,13 +18,26 @@ import java.util.HashMap;
 public class ScentPath {
 
 	public static final double SCENT_DROP = 0.5;
-	public static ScentPath scents = new ScentPath();
+	// Scent left by pacman in the game played by each thread
+	private static final ThreadLocal<ScentPath> scents = new ThreadLocal<ScentPath>();
 	public static ScentPath[] modeScents = null;
 	private final HashMap<Integer, Double> scent;
 	private final double scentDecay;
 	private final boolean personalScent;
 	private float[] colors;
 
+	/**
+	 * @return scent path of the game being played in the current thread
+	 */
+	public static ScentPath scents() {
+		ScentPath path = scents.get();
+		if (path == null) {
+			path = new ScentPath();
+			scents.set(path);
+		}
+		return path;
+	}
+
 	public static void resetAll() {
 		if (modeScents != null)
 			resetAll(modeScents.length);
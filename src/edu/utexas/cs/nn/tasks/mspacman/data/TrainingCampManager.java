@@ -116,7 +116,7 @@ public class TrainingCampManager {
 		}
 		if (limit > 0) {
 			List<File> camps = Arrays.asList(genDir.listFiles(new PrefixFilter(prefix)));
-			Collections.shuffle(camps, RandomNumbers.randomGenerator);
+			Collections.shuffle(camps, RandomNumbers.generator());
 			int added = 0;
 			for (File c : camps) {
 				if (mainCamps && added >= limit) {
@@ -144,6 +144,17 @@ public class TrainingCampManager {
 		}
 	}
 
+	/**
+	 * Whether training camps are being recorded, loaded or viewed. Camps are
+	 * shared by all evaluations, so evaluations that use them cannot be
+	 * performed in parallel.
+	 *
+	 * @return true if camps are in use
+	 */
+	public boolean active() {
+		return recentStates != null || viewFinalCamps || !trainingCamps.isEmpty();
+	}
+
 	public void preEval() {
 		gen = 0;
 		genPath = null;
@@ -209,9 +220,9 @@ public class TrainingCampManager {
 		// levels)
 		int remainingLives = game.getPacmanNumberOfLivesRemaining();
 		if (remainingLives == 0) {
-			NNPacManController.timesDied++;
+			NNPacManController.timesDied.incrementAndGet();
 			if (recentStates != null && recentStates.memoryFull()
-					&& RandomNumbers.randomGenerator.nextDouble() < CommonConstants.percentDeathCampsToSave) {
+					&& RandomNumbers.generator().nextDouble() < CommonConstants.percentDeathCampsToSave) {
 
 				Game shortlyBeforeDeath = recentStates.beginningOfMemory();
 				FileUtilities.simpleFileWrite(genPath + "/PreDeathState-" + gen + "-" + (saveNumber++) + ".txt",
@@ -230,7 +241,7 @@ public class TrainingCampManager {
 	public static void ghostEatingCamp(int time) {
 		// Make training camp out of this situation
 		if (TrainingCampManager.recentStates != null && TrainingCampManager.recentStates.memoryFull()
-				&& RandomNumbers.randomGenerator.nextDouble() < CommonConstants.percentPowerPillCampsToSave) {
+				&& RandomNumbers.generator().nextDouble() < CommonConstants.percentPowerPillCampsToSave) {
 			Game shortlyBeforeEatingPowerPill = TrainingCampManager.recentStates.beginningOfMemory();
 			int gen = MMNEAT.ea.currentGeneration();
 			String genPath = FileUtilities.getSaveDirectory() + "/camps/" + gen;
@@ -26,6 +26,8 @@ public class GameFacade {
 	public static final int NUM_DIRS = 4;
 	public static final int DANGEROUS_TIME = 5;
 	public Game newG = null;
+	// Sensor readings of the current tick, created when first needed
+	private SensorMemo sensorMemo = null;
 
 	/**
 	 * returns what move to make based on the 
@@ -188,6 +190,18 @@ public class GameFacade {
 		newG = g;
 	}
 
+	/**
+	 * Memo shared by all sensor blocks that read from this game, so that
+	 * readings are only computed once per tick
+	 * @return sensor memo of this game
+	 */
+	public SensorMemo sensorMemo() {
+		if (sensorMemo == null) {
+			sensorMemo = new SensorMemo(this);
+		}
+		return sensorMemo;
+	}
+
 	/**
 	 * gets times taken to eat each pill
 	 * @return list of times
@@ -0,0 +1,138 @@
+package edu.utexas.cs.nn.tasks.mspacman.facades;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sensor readings computed by sensor blocks for one game during the current
+ * game tick. Each block owns a slot (or several, when its readings depend on
+ * a direction that is being checked). Readings are stored with a key, the
+ * last direction of pacman for pacman sensors and the index of the sensing
+ * ghost for ghost sensors, and are only reused for the same key. The
+ * readings in all slots are
+ * discarded as soon as the game moves on to a different tick. Since each
+ * GameFacade has its own memo, games being evaluated at the same time in
+ * different threads never see each other's readings.
+ *
+ * Invalidation does not clear any arrays: each tick has a new generation
+ * number, and a slot is only valid if it was filled during the current
+ * generation.
+ */
+public class SensorMemo {
+
+	// Next slot not yet owned by any sensor block
+	private static final AtomicInteger nextSlot = new AtomicInteger(0);
+
+	private final GameFacade gf;
+	// Game state that identifies the current tick
+	private int totalTime = -1;
+	private int levelTime = -1;
+	private int pacmanNode = -1;
+	// Slots filled during this generation are valid
+	private int generation = 0;
+	private int[] slotGeneration = new int[0];
+	private int[] slotKey = new int[0];
+	private double[][] slotValues = new double[0][];
+
+	/**
+	 * @param gf
+	 *            game whose sensor readings are stored
+	 */
+	public SensorMemo(GameFacade gf) {
+		this.gf = gf;
+	}
+
+	/**
+	 * Reserve consecutive slots for a sensor block. No other block, pacman or
+	 * ghost, is ever given the same slots.
+	 *
+	 * @param count
+	 *            number of slots the block needs
+	 * @return first reserved slot
+	 */
+	public static int reserveSlots(int count) {
+		return nextSlot.getAndAdd(count);
+	}
+
+	/**
+	 * Copy stored readings into the inputs if the slot holds readings from
+	 * the current tick that were computed with the same key.
+	 *
+	 * @param slot
+	 *            slot of the sensor block
+	 * @param key
+	 *            last direction pacman moved in, or index of the sensing
+	 *            ghost
+	 * @param inputs
+	 *            sensor readings under construction
+	 * @param in
+	 *            position of the first reading in inputs
+	 * @param count
+	 *            number of readings
+	 * @return whether the readings were available
+	 */
+	public boolean retrieve(int slot, int key, double[] inputs, int in, int count) {
+		checkTick();
+		if (slot < slotGeneration.length && slotGeneration[slot] == generation
+				&& slotKey[slot] == key) {
+			System.arraycopy(slotValues[slot], 0, inputs, in, count);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Store readings for the current tick, reusing the slot's array
+	 *
+	 * @param slot
+	 *            slot of the sensor block
+	 * @param key
+	 *            last direction pacman moved in, or index of the sensing
+	 *            ghost
+	 * @param inputs
+	 *            sensor readings just computed
+	 * @param in
+	 *            position of the first reading in inputs
+	 * @param count
+	 *            number of readings
+	 */
+	public void store(int slot, int key, double[] inputs, int in, int count) {
+		checkTick();
+		if (slot >= slotGeneration.length) {
+			grow(slot + 1);
+		}
+		if (slotValues[slot] == null || slotValues[slot].length != count) {
+			slotValues[slot] = new double[count];
+		}
+		System.arraycopy(inputs, in, slotValues[slot], 0, count);
+		slotGeneration[slot] = generation;
+		slotKey[slot] = key;
+	}
+
+	/**
+	 * Start a new generation if the game is not at the same tick as before
+	 */
+	private void checkTick() {
+		int currentTotal = gf.getTotalTime();
+		int currentLevel = gf.getCurrentLevelTime();
+		int currentNode = gf.getPacmanCurrentNodeIndex();
+		if (currentTotal != totalTime || currentLevel != levelTime || currentNode != pacmanNode) {
+			totalTime = currentTotal;
+			levelTime = currentLevel;
+			pacmanNode = currentNode;
+			generation++;
+		}
+	}
+
+	private void grow(int minimum) {
+		int size = Math.max(minimum, 2 * slotGeneration.length);
+		int[] generations = new int[size];
+		int[] keys = new int[size];
+		double[][] values = new double[size][];
+		System.arraycopy(slotGeneration, 0, generations, 0, slotGeneration.length);
+		System.arraycopy(slotKey, 0, keys, 0, slotKey.length);
+		System.arraycopy(slotValues, 0, values, 0, slotValues.length);
+		slotGeneration = generations;
+		slotKey = keys;
+		slotValues = values;
+	}
+}
@@ -0,0 +1,129 @@
+package edu.utexas.cs.nn.tasks.mspacman.facades;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.parameters.CommonConstants;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.tasks.mspacman.sensors.VariableDirectionBlockLoadedInputOutputMediator;
+import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.ghosts.GhostBiasBlock;
+import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.ghosts.GhostEdibleBlock;
+import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.ghosts.distance.GhostVariableDirectionJunctionDistanceBlock;
+import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.ghosts.distance.GhostVariableDirectionMsPacManDistanceBlock;
+import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.ghosts.distance.GhostVariableDirectionPillDistanceBlock;
+import edu.utexas.cs.nn.tasks.mspacman.sensors.ghosts.VariableDirectionGhostBlockLoadedInputOutputMediator;
+import edu.utexas.cs.nn.tasks.mspacman.sensors.ghosts.mediators.GhostsCheckEachDirectionMediator;
+import edu.utexas.cs.nn.tasks.mspacman.sensors.mediators.CheckEachDirectionMediator;
+import pacman.controllers.examples.Legacy;
+import pacman.controllers.examples.NearestPillPacMan;
+import pacman.game.Game;
+
+public class SensorMemoTest {
+
+	@Before
+	public void setUp() throws Exception {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false" });
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		CommonConstants.pacManSensorCaching = true;
+		MMNEAT.clearClasses();
+	}
+
+	private static double[] inputs(VariableDirectionBlockLoadedInputOutputMediator mediator, GameFacade gf, int dir, boolean caching) {
+		CommonConstants.pacManSensorCaching = caching;
+		mediator.setDirection(dir);
+		return mediator.getInputs(gf, gf.getPacmanLastMoveMade());
+	}
+
+	private static double[] ghostInputs(VariableDirectionGhostBlockLoadedInputOutputMediator mediator, GameFacade gf, int ghostIndex, int dir, boolean caching) {
+		CommonConstants.pacManSensorCaching = caching;
+		mediator.setDirection(dir);
+		return mediator.getInputs(gf, ghostIndex);
+	}
+
+	/**
+	 * Cached readings in each checked direction must match freshly computed
+	 * readings throughout a game, and games must not share readings
+	 */
+	@Test
+	public void test_checkEachDirection() {
+		Game game = new Game(0);
+		GameFacade gf = new GameFacade(game);
+		CheckEachDirectionMediator mediator = new CheckEachDirectionMediator();
+		NearestPillPacMan pacman = new NearestPillPacMan();
+		Legacy ghosts = new Legacy();
+		for (int tick = 0; tick < 300 && !game.gameOver(); tick++) {
+			int[] neighbors = gf.neighbors(gf.getPacmanCurrentNodeIndex());
+			for (int dir = 0; dir < GameFacade.NUM_DIRS; dir++) {
+				if (neighbors[dir] != -1) {
+					double[] fresh = inputs(mediator, gf, dir, false);
+					assertArrayEquals(fresh, inputs(mediator, gf, dir, true), 0.0);
+					assertArrayEquals(fresh, inputs(mediator, gf, dir, true), 0.0);
+					// A copy of the game in a different state has its own memo
+					GameFacade other = new GameFacade(new Game(tick + 1));
+					int[] otherNeighbors = other.neighbors(other.getPacmanCurrentNodeIndex());
+					if (otherNeighbors[dir] != -1) {
+						assertArrayEquals(inputs(mediator, other, dir, false), inputs(mediator, other, dir, true), 0.0);
+					}
+				}
+			}
+			game.advanceGame(pacman.getMove(game.copy(), -1), ghosts.getMove(game.copy(), -1));
+		}
+	}
+
+	/**
+	 * Ghost sensors checked in each direction share the memo with pacman
+	 * sensors, so creating the ghost mediator must not turn caching off, and
+	 * cached ghost readings must match fresh ones for every ghost and
+	 * direction
+	 */
+	@Test
+	public void test_ghostsCheckEachDirection() {
+		new GhostsCheckEachDirectionMediator();
+		assertTrue(CommonConstants.pacManSensorCaching);
+		assertTrue(Parameters.parameters.booleanParameter("pacManSensorCaching"));
+		VariableDirectionGhostBlockLoadedInputOutputMediator mediator = new VariableDirectionGhostBlockLoadedInputOutputMediator() {
+			{
+				blocks.add(new GhostBiasBlock());
+				blocks.add(new GhostEdibleBlock());
+				blocks.add(new GhostVariableDirectionPillDistanceBlock(0));
+				blocks.add(new GhostVariableDirectionJunctionDistanceBlock(0));
+				blocks.add(new GhostVariableDirectionMsPacManDistanceBlock());
+			}
+		};
+		Game game = new Game(0);
+		GameFacade gf = new GameFacade(game);
+		CheckEachDirectionMediator pacmanMediator = new CheckEachDirectionMediator();
+		NearestPillPacMan pacman = new NearestPillPacMan();
+		Legacy ghosts = new Legacy();
+		for (int tick = 0; tick < 300 && !game.gameOver(); tick++) {
+			for (int ghost = 0; ghost < CommonConstants.numActiveGhosts; ghost++) {
+				if (gf.getGhostLairTime(ghost) > 0) {
+					continue;
+				}
+				int[] neighbors = gf.neighbors(gf.getGhostCurrentNodeIndex(ghost));
+				for (int dir = 0; dir < GameFacade.NUM_DIRS; dir++) {
+					if (neighbors[dir] != -1) {
+						double[] fresh = ghostInputs(mediator, gf, ghost, dir, false);
+						assertArrayEquals(fresh, ghostInputs(mediator, gf, ghost, dir, true), 0.0);
+						assertArrayEquals(fresh, ghostInputs(mediator, gf, ghost, dir, true), 0.0);
+					}
+				}
+			}
+			// Pacman readings cached on the same tick are unaffected
+			int[] neighbors = gf.neighbors(gf.getPacmanCurrentNodeIndex());
+			for (int dir = 0; dir < GameFacade.NUM_DIRS; dir++) {
+				if (neighbors[dir] != -1) {
+					assertArrayEquals(inputs(pacmanMediator, gf, dir, false), inputs(pacmanMediator, gf, dir, true), 0.0);
+				}
+			}
+			game.advanceGame(pacman.getMove(game.copy(), -1), ghosts.getMove(game.copy(), -1));
+		}
+	}
+}
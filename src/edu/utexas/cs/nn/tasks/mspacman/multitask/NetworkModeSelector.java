@@ -14,6 +14,8 @@ public class NetworkModeSelector<T extends Network> extends MsPacManModeSelector
 
 	private final T n;
 	private final MsPacManControllerInputOutputMediator mediator;
+	// Network outputs, reused each time a mode is selected
+	private final double[] outputs;
 
 	/**
 	 * constructs this mode selector and sets the class network and mediator
@@ -35,6 +37,7 @@ public class NetworkModeSelector<T extends Network> extends MsPacManModeSelector
 	public NetworkModeSelector(T n, MsPacManControllerInputOutputMediator mediator) {
 		this.n = n;
 		this.mediator = mediator;
+		this.outputs = new double[n.effectiveNumOutputs()];
 	}
 
 	/**
@@ -47,7 +50,7 @@ public class NetworkModeSelector<T extends Network> extends MsPacManModeSelector
 	public int mode() {
 		mediator.mediatorStateUpdate(gs);
 		double[] inputs = mediator.getInputs(gs, gs.getPacmanLastMoveMade());
-		double[] outputs = n.process(inputs);
+		n.process(inputs, outputs);
 		// Choose one network
 		return StatisticsUtilities.argmax(outputs);
 	}
@@ -16,7 +16,10 @@ import edu.utexas.cs.nn.util.ClassCreation;
 public abstract class MsPacManControllerInputOutputMediator {
 
 	protected final int absence;
-	public static NodeCollection escapeNodes = null;
+	// Escape nodes are shared by all mediators created in the same thread, so
+	// that games played in different threads track them separately
+	private static final ThreadLocal<NodeCollection> threadEscapeNodes = new ThreadLocal<NodeCollection>();
+	public final NodeCollection escapeNodes;
 	private final boolean evolveNetworkSelector;
 	private final boolean externalPreferenceNeurons;
 
@@ -24,14 +27,15 @@ public abstract class MsPacManControllerInputOutputMediator {
 	 * Constructor to set some global variables based on command line parameters
 	 */
 	public MsPacManControllerInputOutputMediator() {
-		if (escapeNodes == null) {
+		if (threadEscapeNodes.get() == null) {
 			try {
-				escapeNodes = (NodeCollection) ClassCreation.createObject("pacmanEscapeNodeCollection");
+				threadEscapeNodes.set((NodeCollection) ClassCreation.createObject("pacmanEscapeNodeCollection"));
 			} catch (NoSuchMethodException ex) {
 				System.out.println("Cannot initialize escape nodes");
 				System.exit(1);
 			}
 		}
+		escapeNodes = threadEscapeNodes.get();
 		externalPreferenceNeurons = Parameters.parameters.booleanParameter("externalPreferenceNeurons");
 		absence = Parameters.parameters.booleanParameter("absenceNegative") ? -1 : 0;
 		evolveNetworkSelector = Parameters.parameters.booleanParameter("evolveNetworkSelector");
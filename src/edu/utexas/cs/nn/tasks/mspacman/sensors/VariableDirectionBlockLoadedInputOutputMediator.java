@@ -1,7 +1,5 @@
 package edu.utexas.cs.nn.tasks.mspacman.sensors;
 
-import edu.utexas.cs.nn.parameters.CommonConstants;
-import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.MsPacManSensorBlock;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.directional.VariableDirectionBlock;
 
@@ -14,11 +12,9 @@ import edu.utexas.cs.nn.tasks.mspacman.sensors.directional.VariableDirectionBloc
 public class VariableDirectionBlockLoadedInputOutputMediator extends BlockLoadedInputOutputMediator {
 
 	public VariableDirectionBlockLoadedInputOutputMediator() {
+		// The same sensor blocks run multiple times with different orientations,
+		// but each orientation is cached separately, so caching is safe
 		super();
-		// Cannot cache inputs because the same sensor blocks will run multiple
-		// times with different orientations, resulting in different values
-		CommonConstants.pacManSensorCaching = false;
-		Parameters.parameters.setBoolean("pacManSensorCaching", false);
 	}
 
 	/**
@@ -1,8 +1,7 @@
 package edu.utexas.cs.nn.tasks.mspacman.sensors.blocks;
 
 import edu.utexas.cs.nn.tasks.mspacman.facades.GameFacade;
-import edu.utexas.cs.nn.util.datastructures.Pair;
-import java.util.HashMap;
+import edu.utexas.cs.nn.tasks.mspacman.facades.SensorMemo;
 
 /**
  *
@@ -10,8 +9,10 @@ import java.util.HashMap;
  */
 public abstract class MsPacManSensorBlock {
 
-	// Key is Block hash code, pair of level time and sensor values
-	private static HashMap<MsPacManSensorBlock, Pair<Integer, double[]>> sensorRecord = new HashMap<MsPacManSensorBlock, Pair<Integer, double[]>>();
+	// Number of memo slots reserved for each block, one per direction it can be checked in
+	protected static final int MEMO_VARIANTS = 5;
+	// First of the slots of this block in each game's sensor memo
+	private final int firstMemoSlot = SensorMemo.reserveSlots(MEMO_VARIANTS);
 
 	/**
 	 * Takes a set of input values under construction, and from the index of
@@ -31,32 +32,39 @@ public abstract class MsPacManSensorBlock {
 	public abstract int incorporateSensors(double[] inputs, int startPoint, GameFacade gf, int lastDirection);
 
 	/**
-	 * Performs the same action as incorporateSensors, but stores the result
-	 * statically, so that it can be retrieved by other calls that want to
-	 * access it on the same
+	 * Performs the same action as incorporateSensors, but stores the result in
+	 * the sensor memo of the game, so that it can be retrieved by other calls
+	 * that want to access it on the same game tick.
 	 * 
 	 * @param inputs
+	 *            = sensor readings under construction, modified by side effects
 	 * @param in
+	 *            = starting index in inputs
 	 * @param gf
+	 *            = Game Facade to get sensor readings from
 	 * @param lastDirection
-	 * @return
+	 *            = the actual last direction pacman was moving in
+	 * @return position of next index in inputs to add a sensor reading
 	 */
 	public int retrieveSensors(double[] inputs, int in, GameFacade gf, int lastDirection) {
-		Pair<Integer, double[]> previousCalculation = sensorRecord.get(this);
-		int currentTime = gf.getCurrentLevelTime();
+		int slot = firstMemoSlot + memoVariant();
 		int toAdd = numberAdded();
-		if (previousCalculation == null || previousCalculation.t1 != currentTime) {
-			int result = incorporateSensors(inputs, in, gf, lastDirection);
-			double[] store = new double[toAdd];
-			System.arraycopy(inputs, in, store, 0, toAdd);
-			sensorRecord.put(this, new Pair<Integer, double[]>(currentTime, store));
-			return result;
-		} else {
-			// System.out.println("Retrieved cached sensor result: " +
-			// this.getClass().getSimpleName());
-			System.arraycopy(previousCalculation.t2, 0, inputs, in, toAdd);
+		if (gf.sensorMemo().retrieve(slot, lastDirection, inputs, in, toAdd)) {
 			return in + toAdd;
 		}
+		int result = incorporateSensors(inputs, in, gf, lastDirection);
+		gf.sensorMemo().store(slot, lastDirection, inputs, in, toAdd);
+		return result;
+	}
+
+	/**
+	 * Blocks whose readings depend on some setting other than the game state
+	 * use a different memo slot for each value of that setting.
+	 * 
+	 * @return number from 0 to MEMO_VARIANTS - 1
+	 */
+	protected int memoVariant() {
+		return 0;
 	}
 
 	public abstract int incorporateLabels(String[] labels, int in);
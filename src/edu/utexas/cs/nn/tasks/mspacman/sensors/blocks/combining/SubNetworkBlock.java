@@ -2,6 +2,7 @@ package edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.combining;
 
 import edu.utexas.cs.nn.evolution.genotypes.Genotype;
 import edu.utexas.cs.nn.networks.Network;
+import edu.utexas.cs.nn.networks.NetworkUtil;
 import edu.utexas.cs.nn.networks.TWEANN;
 import edu.utexas.cs.nn.tasks.mspacman.facades.GameFacade;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.MsPacManControllerInputOutputMediator;
@@ -19,6 +20,10 @@ public class SubNetworkBlock<T extends Network> extends MsPacManSensorBlock {
 	 */
 
 	private Network subnet;
+	/*
+	 * Outputs of subnetwork, reused on every time step
+	 */
+	private double[] subnetOutputs = null;
 	/*
 	 * Inputs fed to subnetwork
 	 */
@@ -81,7 +86,8 @@ public class SubNetworkBlock<T extends Network> extends MsPacManSensorBlock {
 			}
 		}
 		assert((TWEANN) subnet).canDraw == false : "Shouldn't try to draw subnet inputs";
-		double[] subnetOutputs = subnet.process(subnetInputs);
+		subnetOutputs = NetworkUtil.outputBuffer(subnet, subnetOutputs);
+		subnet.process(subnetInputs, subnetOutputs);
 		for (int i = 0; i < subnetOutputs.length; i++) {
 			inputs[in++] = subnetOutputs[i];
 		}
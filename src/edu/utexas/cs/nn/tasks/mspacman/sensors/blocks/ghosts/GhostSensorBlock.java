@@ -5,12 +5,18 @@
 package edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.ghosts;
 
 import edu.utexas.cs.nn.tasks.mspacman.facades.GameFacade;
+import edu.utexas.cs.nn.tasks.mspacman.facades.SensorMemo;
 
 /**
  *
  * @author Jacob Schrum
  */
 public abstract class GhostSensorBlock {
+
+	// Number of memo slots reserved for each block, one per direction it can be checked in
+	protected static final int MEMO_VARIANTS = 5;
+	// First of the slots of this block in each game's sensor memo
+	private final int firstMemoSlot = SensorMemo.reserveSlots(MEMO_VARIANTS);
 	// Give all sensors a chance to be direction oriented
 	public int direction = -1;
 
@@ -26,6 +32,39 @@ public abstract class GhostSensorBlock {
 	 */
 	public abstract int incorporateSensors(double[] inputs, int in, GameFacade gf, int ghostIndex);
 
+	/**
+	 * Performs the same action as incorporateSensors, but stores the result in
+	 * the sensor memo of the game, so that it can be retrieved by other calls
+	 * for the same ghost on the same game tick.
+	 *
+	 * @param inputs
+	 * @param in
+	 * @param gf
+	 * @param ghostIndex
+	 * @return Counter to position of last filled input in inputs
+	 */
+	public int retrieveSensors(double[] inputs, int in, GameFacade gf, int ghostIndex) {
+		int slot = firstMemoSlot + memoVariant();
+		int toAdd = numberAdded();
+		if (gf.sensorMemo().retrieve(slot, ghostIndex, inputs, in, toAdd)) {
+			return in + toAdd;
+		}
+		int result = incorporateSensors(inputs, in, gf, ghostIndex);
+		gf.sensorMemo().store(slot, ghostIndex, inputs, in, toAdd);
+		return result;
+	}
+
+	/**
+	 * Blocks whose readings depend on some setting other than the game state
+	 * and the sensing ghost use a different memo slot for each value of that
+	 * setting.
+	 *
+	 * @return number from 0 to MEMO_VARIANTS - 1
+	 */
+	protected int memoVariant() {
+		return 0;
+	}
+
 	public abstract int incorporateLabels(String[] labels, int in);
 
 	public abstract int numberAdded();
@@ -13,6 +13,14 @@ import edu.utexas.cs.nn.tasks.mspacman.facades.GameFacade;
  */
 public abstract class GhostVariableDirectionBlock extends GhostSensorBlock {
 
+	/**
+	 * Each checked direction (and the unset direction -1) has its own memo slot
+	 */
+	@Override
+	protected int memoVariant() {
+		return direction + 1;
+	}
+
 	@Override
 	public int incorporateSensors(double[] inputs, int in, GameFacade gf, int ghostIndex) {
 		final int current = gf.getGhostCurrentNodeIndex(ghostIndex);
@@ -18,7 +18,9 @@ import java.util.ArrayList;
  */
 public abstract class GhostVariableDirectionDistanceBlock extends GhostVariableDirectionBlock {
 
-	public static ArrayList<Integer> excludedNodes = new ArrayList<Integer>();
+	// Nodes found by blocks earlier in the chain of exclusions, kept separately
+	// for each thread so that games in different threads do not interfere
+	private static final ThreadLocal<ArrayList<Integer>> threadExcludedNodes = new ThreadLocal<ArrayList<Integer>>();
 	public final int numberToExclude;
 
 	public GhostVariableDirectionDistanceBlock(int exclude) {
@@ -30,8 +32,21 @@ public abstract class GhostVariableDirectionDistanceBlock extends GhostVariableD
 		return "Distance to " + numberToExclude + " Nearest " + getType();
 	}
 
+	/**
+	 * @return nodes excluded by earlier blocks in the current thread
+	 */
+	public static ArrayList<Integer> excludedNodes() {
+		ArrayList<Integer> nodes = threadExcludedNodes.get();
+		if (nodes == null) {
+			nodes = new ArrayList<Integer>();
+			threadExcludedNodes.set(nodes);
+		}
+		return nodes;
+	}
+
 	@Override
 	public double getValue(GameFacade gf, int ghostIndex) {
+		ArrayList<Integer> excludedNodes = excludedNodes();
 		if (numberToExclude == 0) {
 			excludedNodes.clear();
 		}
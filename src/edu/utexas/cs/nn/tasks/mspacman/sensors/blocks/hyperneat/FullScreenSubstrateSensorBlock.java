@@ -1,5 +1,6 @@
 package edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.hyperneat;
 
+import edu.utexas.cs.nn.parameters.BooleanHandle;
 import edu.utexas.cs.nn.tasks.mspacman.MsPacManTask;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.MsPacManSensorBlock;
 /**
@@ -10,6 +11,9 @@ import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.MsPacManSensorBlock;
  */
 public abstract class FullScreenSubstrateSensorBlock extends MsPacManSensorBlock{
 
+	// Whether ghost sensors also mark the path ahead of each ghost
+	protected static final BooleanHandle SENSE_HYPERNEAT_GHOST_PATH = new BooleanHandle("senseHyperNEATGhostPath");
+
 	@Override
 	/**
 	 * Returns number of sensors added
@@ -25,6 +25,14 @@ public abstract class VariableDirectionBlock extends MsPacManSensorBlock {
 		this.dir = dir;
 	}
 
+	/**
+	 * Each checked direction (and the unset direction -1) has its own memo slot
+	 */
+	@Override
+	protected int memoVariant() {
+		return dir + 1;
+	}
+
 	public int incorporateSensors(double[] inputs, int in, GameFacade gf, int lastDirection) {
 		final int current = gf.getPacmanCurrentNodeIndex();
 		final int[] neighbors = gf.neighbors(current);
@@ -27,7 +27,7 @@ public class VariableDirectionLastActivationBlock extends VariableDirectionBlock
 
 	@Override
 	public double getValue(GameFacade gf) {
-		return NNDirectionalPacManController.previousPreferences[(dir + offset) % GameFacade.NUM_DIRS];
+		return NNDirectionalPacManController.previousPreferences()[(dir + offset) % GameFacade.NUM_DIRS];
 	}
 
 	@Override
@@ -16,7 +16,9 @@ import java.util.ArrayList;
  */
 public abstract class VariableDirectionDistanceBlock extends VariableDirectionBlock {
 
-	public static ArrayList<Integer> excludedNodes = new ArrayList<Integer>();
+	// Nodes found by blocks earlier in the chain of exclusions, kept separately
+	// for each thread so that games in different threads do not interfere
+	private static final ThreadLocal<ArrayList<Integer>> threadExcludedNodes = new ThreadLocal<ArrayList<Integer>>();
 
 	public final int numberToExclude;
 
@@ -29,7 +31,20 @@ public abstract class VariableDirectionDistanceBlock extends VariableDirectionBl
 		this.numberToExclude = exclude;
 	}
 
+	/**
+	 * @return nodes excluded by earlier blocks in the current thread
+	 */
+	public static ArrayList<Integer> excludedNodes() {
+		ArrayList<Integer> nodes = threadExcludedNodes.get();
+		if (nodes == null) {
+			nodes = new ArrayList<Integer>();
+			threadExcludedNodes.set(nodes);
+		}
+		return nodes;
+	}
+
 	public double getValue(GameFacade gf) {
+		ArrayList<Integer> excludedNodes = excludedNodes();
 		if (numberToExclude == 0) {
 			excludedNodes.clear();
 		}
@@ -60,6 +60,7 @@ public class VariableDirectionSortedGhostEdibleTimeVsDistanceBlock extends Varia
 
 	@Override
 	public double getValue(GameFacade gf) {
+		ArrayList<Integer> excludedNodes = excludedNodes();
 		if (numberToExclude == 0) {
 			excludedNodes.clear();
 		}
@@ -28,7 +28,7 @@ public class VariableDirectionPersonalScentBlock extends VariableDirectionBlock
 	public double getValue(GameFacade gf) {
 		int current = gf.getPacmanCurrentNodeIndex();
 		int[] neighbors = gf.neighbors(current);
-		return Math.min(ScentPath.scents.getScent(neighbors[dir]), 1.0);
+		return Math.min(ScentPath.scents().getScent(neighbors[dir]), 1.0);
 	}
 
 	@Override
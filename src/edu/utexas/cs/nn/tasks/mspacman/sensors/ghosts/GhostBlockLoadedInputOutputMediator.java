@@ -1,5 +1,6 @@
 package edu.utexas.cs.nn.tasks.mspacman.sensors.ghosts;
 
+import edu.utexas.cs.nn.parameters.CommonConstants;
 import edu.utexas.cs.nn.tasks.mspacman.facades.GameFacade;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.ghosts.GhostSensorBlock;
 import java.util.ArrayList;
@@ -24,7 +25,8 @@ public abstract class GhostBlockLoadedInputOutputMediator extends GhostControlle
 		double[] inputs = new double[numIn()];
 		int in = 0;
 		for (int i = 0; i < blocks.size(); i++) {
-			in = blocks.get(i).incorporateSensors(inputs, in, gs, ghostIndex);
+			in = CommonConstants.pacManSensorCaching ? blocks.get(i).retrieveSensors(inputs, in, gs, ghostIndex)
+					: blocks.get(i).incorporateSensors(inputs, in, gs, ghostIndex);
 		}
 		assert(in == numIn()) : "Improper inputs for Ghost. Only " + in + " inputs: " + Arrays.toString(inputs);
 		return inputs;
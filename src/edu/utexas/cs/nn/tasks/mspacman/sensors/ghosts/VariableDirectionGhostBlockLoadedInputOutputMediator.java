@@ -4,8 +4,6 @@
  */
 package edu.utexas.cs.nn.tasks.mspacman.sensors.ghosts;
 
-import edu.utexas.cs.nn.parameters.CommonConstants;
-import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.ghosts.GhostSensorBlock;
 
 /**
@@ -13,14 +11,6 @@ import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.ghosts.GhostSensorBlock;
  */
 public class VariableDirectionGhostBlockLoadedInputOutputMediator extends GhostBlockLoadedInputOutputMediator {
 
-	public VariableDirectionGhostBlockLoadedInputOutputMediator() {
-		super();
-		// Cannot cache inputs because the same sensor blocks will run multiple
-		// times with different orientations, resulting in different values
-		CommonConstants.pacManSensorCaching = false;
-		Parameters.parameters.setBoolean("pacManSensorCaching", false);
-	}
-
 	public void setDirection(int dir) {
 		for (GhostSensorBlock block : this.blocks) {
 			block.setDirection(dir);
@@ -4,7 +4,6 @@ import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.tasks.mspacman.agentcontroller.pacman.actions.*;
 import edu.utexas.cs.nn.tasks.mspacman.facades.GhostControllerFacade;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.ActionBlockLoadedInputOutputMediator;
-import edu.utexas.cs.nn.tasks.mspacman.sensors.MsPacManControllerInputOutputMediator;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.booleansensors.AtePowerPillBlock;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.cluster.GhostClusterBlock;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.booleansensors.GhostReversalBlock;
@@ -54,7 +53,7 @@ public class DirectionalToActionInputOutputMediator extends ActionBlockLoadedInp
 		// Actions
 		actions.add(new FromNearestPowerPillAction());
 		actions.add(new FromNearestThreatAction());
-		actions.add(new ToFarthestSafeLocationAction(Parameters.parameters.integerParameter("escapeNodeDepth"), MsPacManControllerInputOutputMediator.escapeNodes, ghostModel));
+		actions.add(new ToFarthestSafeLocationAction(Parameters.parameters.integerParameter("escapeNodeDepth"), escapeNodes, ghostModel));
 		actions.add(new ToNearestEdibleGhostAction());
 		actions.add(new ToNearestPillAction());
 		actions.add(new ToNearestPowerPillAction());
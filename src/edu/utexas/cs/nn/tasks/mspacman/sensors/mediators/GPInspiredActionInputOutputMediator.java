@@ -7,7 +7,6 @@ import edu.utexas.cs.nn.parameters.Parameters;
 import edu.utexas.cs.nn.tasks.mspacman.agentcontroller.pacman.actions.*;
 import edu.utexas.cs.nn.tasks.mspacman.facades.GhostControllerFacade;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.ActionBlockLoadedInputOutputMediator;
-import edu.utexas.cs.nn.tasks.mspacman.sensors.MsPacManControllerInputOutputMediator;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.*;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.booleansensors.*;
 import edu.utexas.cs.nn.tasks.mspacman.sensors.blocks.counting.PillsRemainingBlock;
@@ -76,7 +75,7 @@ public class GPInspiredActionInputOutputMediator extends ActionBlockLoadedInputO
 		// Actions
 		actions.add(new FromNearestPowerPillAction()); // FromEnergizer
 		actions.add(new FromNearestThreatAction()); // FromGhost
-		actions.add(new ToFarthestSafeLocationAction(Parameters.parameters.integerParameter("escapeNodeDepth"), MsPacManControllerInputOutputMediator.escapeNodes, ghostModel)); // ToSafety
+		actions.add(new ToFarthestSafeLocationAction(Parameters.parameters.integerParameter("escapeNodeDepth"), escapeNodes, ghostModel)); // ToSafety
 		actions.add(new ToNearestEdibleGhostAction()); // ToEdibleGhost
 		actions.add(new ToNearestPillAction()); // ToPill
 		actions.add(new ToNearestPowerPillAction()); // ToEnergizer
@@ -4,6 +4,7 @@ import edu.utexas.cs.nn.evolution.Organism;
 import edu.utexas.cs.nn.evolution.genotypes.Genotype;
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
 import edu.utexas.cs.nn.networks.Network;
+import edu.utexas.cs.nn.networks.NetworkUtil;
 import edu.utexas.cs.nn.util.stats.StatisticsUtilities;
 import org.rlcommunity.rlglue.codec.AgentInterface;
 import org.rlcommunity.rlglue.codec.types.Action;
@@ -24,6 +25,10 @@ import rlVizLib.messaging.agent.AgentMessages;
 public class RLGlueAgent<T extends Network> extends Organism<T>implements AgentInterface {
 
 	public T policy;
+	// Filled by consultPolicy, and reused on every call
+	private double[] policyOutputs = null;
+	// Returned by getAction, and reused on every call
+	private Action action = null;
 
 	public RLGlueAgent() {
 		super(null);
@@ -47,13 +52,16 @@ public class RLGlueAgent<T extends Network> extends Organism<T>implements AgentI
 	}
 
 	/**
-	 * Policy is taken in earlier and changed by Phenotype
+	 * Policy is taken in earlier and changed by Phenotype. The returned array
+	 * is overwritten by the next call, so it should not be stored.
 	 * 
 	 * @param inputs
 	 * @return outputs from network
 	 */
 	public double[] consultPolicy(double[] inputs) {
-		return policy.process(inputs);
+		policyOutputs = NetworkUtil.outputBuffer(policy, policyOutputs);
+		policy.process(inputs, policyOutputs);
+		return policyOutputs;
 	}
 
 	/**
@@ -102,6 +110,20 @@ public class RLGlueAgent<T extends Network> extends Organism<T>implements AgentI
 	public void agent_end(double d) {
 	}
 
+	/**
+	 * Action object to fill in and return from getAction. The environment
+	 * is done with an action before the agent is asked for the next one, so
+	 * the same object is reused on every call.
+	 *
+	 * @return action of this agent
+	 */
+	protected Action reusableAction() {
+		if (action == null) {
+			action = new Action(MMNEAT.tso.getNumDiscreteActionDims(), MMNEAT.tso.getNumContinuousActionDims());
+		}
+		return action;
+	}
+
 	/**
 	 * Give an observation, get the action the agent should take
 	 * 
@@ -109,7 +131,7 @@ public class RLGlueAgent<T extends Network> extends Organism<T>implements AgentI
 	 * @return
 	 */
 	public Action getAction(Observation o) {
-		Action action = new Action(MMNEAT.tso.getNumDiscreteActionDims(), MMNEAT.tso.getNumContinuousActionDims());
+		Action action = reusableAction();
 
 		double[] inputs = MMNEAT.rlGlueExtractor.extract(o);
 		double[] outputs = this.consultPolicy(inputs);
@@ -0,0 +1,98 @@
+package edu.utexas.cs.nn.tasks.rlglue;
+
+import java.util.ArrayList;
+
+import org.rlcommunity.rlglue.codec.types.Action;
+import org.rlcommunity.rlglue.codec.types.Observation;
+import org.rlcommunity.rlglue.codec.types.Reward_observation_terminal;
+
+import edu.utexas.cs.nn.networks.Network;
+
+/**
+ * Runs RL-Glue episodes by calling an environment and an agent directly,
+ * instead of going through the RLGlue singleton, which only allows one
+ * environment and agent per JVM. Each thread evaluating an RLGlueTask in
+ * parallel has its own runner, with its own environment and agent, so
+ * episodes in different threads share nothing.
+ *
+ * Episodes follow exactly the same sequence of calls as
+ * RLGlue.RL_episode with the local glue, and count steps and sum rewards
+ * the same way as RLGlue.RL_num_steps and RLGlue.RL_return, so results do
+ * not depend on which way episodes are run.
+ *
+ * @param <T>
+ *            phenotype of the agent
+ */
+public class RLGlueEpisodeRunner<T extends Network> {
+
+	public final RLGlueEnvironment environment;
+	public final RLGlueAgent<T> agent;
+	// Results of the episodes of the current evaluation
+	public final int[] rlNumSteps;
+	public final double[] rlReturn;
+	public ArrayList<Double> behaviorVector = null;
+
+	/**
+	 * @param environment
+	 *            environment used only by this runner
+	 * @param agent
+	 *            agent used only by this runner
+	 * @param trials
+	 *            number of episodes in each evaluation
+	 */
+	public RLGlueEpisodeRunner(RLGlueEnvironment environment, RLGlueAgent<T> agent, int trials) {
+		this.environment = environment;
+		this.agent = agent;
+		this.rlNumSteps = new int[trials];
+		this.rlReturn = new double[trials];
+	}
+
+	/**
+	 * Same as RLGlue.RL_init
+	 */
+	public void init() {
+		String taskSpec = environment.env_init();
+		agent.agent_init(taskSpec);
+	}
+
+	/**
+	 * Same as RLGlue.RL_cleanup
+	 */
+	public void cleanup() {
+		environment.env_cleanup();
+		agent.agent_cleanup();
+	}
+
+	/**
+	 * Run one episode and store its number of steps and total reward.
+	 * Counting starts at one step, and the first action does not count
+	 * against the limit, just like RLGlue.RL_episode.
+	 *
+	 * @param num
+	 *            episode number within the current evaluation
+	 * @param maxSteps
+	 *            episode is cut off after this many steps, or never if 0
+	 * @return whether the episode reached a terminal state
+	 */
+	public boolean episode(int num, int maxSteps) {
+		int numSteps = 1;
+		double totalReward = 0;
+		Observation o = environment.env_start();
+		Action action = agent.agent_start(o);
+		boolean terminal = false;
+		for (int step = 1; !terminal && (maxSteps == 0 || step < maxSteps); step++) {
+			Reward_observation_terminal rot = environment.env_step(action);
+			totalReward += rot.r;
+			if (rot.isTerminal()) {
+				terminal = true;
+				agent.agent_end(rot.r);
+			} else {
+				numSteps++;
+				action = agent.agent_step(rot.r, rot.o);
+			}
+		}
+		rlNumSteps[num] = numSteps;
+		rlReturn[num] = totalReward;
+		return terminal;
+	}
+}
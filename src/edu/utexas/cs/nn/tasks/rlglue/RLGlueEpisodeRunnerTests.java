@@ -0,0 +1,124 @@
+package edu.utexas.cs.nn.tasks.rlglue;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.rlcommunity.environments.cartpole.CartPole;
+import org.rlcommunity.rlglue.codec.RLGlue;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.evolution.EvolutionaryHistory;
+import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
+import edu.utexas.cs.nn.networks.TWEANN;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.scores.Score;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+
+public class RLGlueEpisodeRunnerTests {
+
+	private static final int TRIALS = 3;
+
+	private static void load(boolean direct) {
+		MMNEAT.clearClasses();
+		EvolutionaryHistory.setInnovation(0);
+		EvolutionaryHistory.setHighestGenotypeId(0);
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false", "recurrency:false",
+				"trials:" + TRIALS, "steps:300", "rlGlueDirect:" + direct,
+				"rlGlueEnvironment:org.rlcommunity.environments.cartpole.CartPole",
+				"task:edu.utexas.cs.nn.tasks.rlglue.cartpole.CartPoleTask" });
+		MMNEAT.loadClasses();
+		RandomNumbers.reset(0);
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		load(false);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	/**
+	 * Networks with different weights and structure, some of which balance
+	 * the pole for a while
+	 */
+	private static ArrayList<TWEANNGenotype> randomGenotypes(int num) {
+		ArrayList<TWEANNGenotype> genotypes = new ArrayList<TWEANNGenotype>(num);
+		for (int i = 0; i < num; i++) {
+			TWEANNGenotype g = new TWEANNGenotype(MMNEAT.networkInputs, MMNEAT.networkOutputs, 0);
+			for (int j = 0; j < i % 5; j++) {
+				g.mutate();
+			}
+			genotypes.add(g);
+		}
+		return genotypes;
+	}
+
+	/**
+	 * Running episodes directly gives the same steps and returns as running
+	 * them through the RLGlue singleton, including episodes cut off by the
+	 * step limit
+	 */
+	@Test
+	public void test_sameAsGlue() {
+		RLGlueEpisodeRunner<TWEANN> runner = new RLGlueEpisodeRunner<TWEANN>(new CartPole(), new RLGlueAgent<TWEANN>(), 1);
+		boolean cutOff = false;
+		for (TWEANNGenotype g : randomGenotypes(20)) {
+			for (int maxSteps : new int[] { 1, 2, 15, 300 }) {
+				RLGlueTask.agent.replaceGenotype(g);
+				RLGlue.RL_init();
+				RLGlue.RL_episode(maxSteps);
+				runner.agent.replaceGenotype(g);
+				runner.init();
+				runner.episode(0, maxSteps);
+				assertEquals(RLGlue.RL_num_steps(), runner.rlNumSteps[0]);
+				assertEquals(RLGlue.RL_return(), runner.rlReturn[0], 0.0);
+				cutOff = cutOff || runner.rlNumSteps[0] == maxSteps;
+				RLGlue.RL_cleanup();
+				runner.cleanup();
+			}
+		}
+		assertTrue(cutOff);
+	}
+
+	/**
+	 * With rlGlueDirect, a task evaluated by several threads at once gives
+	 * every individual the same scores as evaluating one at a time
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void test_parallelEvaluations() throws Exception {
+		load(true);
+		final RLGlueTask<TWEANN> task = (RLGlueTask<TWEANN>) MMNEAT.task;
+		assertTrue(task.canEvaluateInParallel());
+		ArrayList<TWEANNGenotype> genotypes = randomGenotypes(24);
+		double[] expected = new double[genotypes.size()];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = task.evaluate(genotypes.get(i)).scores[0];
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		ArrayList<Future<Score<TWEANN>>> results = new ArrayList<Future<Score<TWEANN>>>();
+		for (final TWEANNGenotype g : genotypes) {
+			results.add(pool.submit(new Callable<Score<TWEANN>>() {
+				@Override
+				public Score<TWEANN> call() {
+					return task.evaluate(g);
+				}
+			}));
+		}
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], results.get(i).get().scores[0], 0.0);
+		}
+		pool.shutdown();
+	}
+}
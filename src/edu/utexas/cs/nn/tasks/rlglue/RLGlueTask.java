@@ -46,11 +46,16 @@ public class RLGlueTask<T extends Network> extends NoisyLonerTask<T>implements N
 	protected static RLGlueEnvironment environment;
 	@SuppressWarnings("rawtypes") // Needs static access, and type T isn't known yet
 	public static RLGlueAgent agent;
-	protected int[] rlNumSteps;
-	protected double[] rlReturn;
 	// cutoff
 	protected int maxStepsPerEpisode;
-	private ArrayList<Double> behaviorVector;
+	// Run episodes without the RLGlue singleton, so evaluations can be parallel
+	private final boolean direct;
+	// Uses the static environment and agent
+	private final RLGlueEpisodeRunner<T> sharedRunner;
+	// Runner of each thread performing evaluations
+	private final ThreadLocal<RLGlueEpisodeRunner<T>> runners = new ThreadLocal<RLGlueEpisodeRunner<T>>();
+	// Thread that created the task, which uses the shared runner
+	private final Thread creator = Thread.currentThread();
 
 	/**
 	 * Initializer for the RLGlueTask, it called the
@@ -70,9 +75,8 @@ public class RLGlueTask<T extends Network> extends NoisyLonerTask<T>implements N
 	@SuppressWarnings("unchecked")
 	public RLGlueTask(RLGlueEnvironment environment) {
 		super();
-		rlNumSteps = new int[CommonConstants.trials];
-		rlReturn = new double[CommonConstants.trials];
 		maxStepsPerEpisode = Parameters.parameters.integerParameter("steps");
+		direct = Parameters.parameters.booleanParameter("rlGlueDirect");
 		RLGlueTask.environment = environment;
 
 		try {
@@ -82,8 +86,84 @@ public class RLGlueTask<T extends Network> extends NoisyLonerTask<T>implements N
 			System.out.println("Could not launch RLGlue agent");
 			System.exit(1);
 		}
-		// The local glue codec does not need any network connectivity
-		RLGlue.setGlue(new LocalGlue(environment, agent));
+		sharedRunner = new RLGlueEpisodeRunner<T>(environment, agent, CommonConstants.trials);
+		if (!direct) {
+			// The local glue codec does not need any network connectivity
+			RLGlue.setGlue(new LocalGlue(environment, agent));
+		}
+	}
+
+	/**
+	 * Episode runner of the current thread. With rlGlueDirect, every thread
+	 * other than the one that created the task gets a new environment and
+	 * agent of its own, so that episodes in different threads share nothing.
+	 * Otherwise, all threads share the static environment and agent, which
+	 * the RLGlue singleton is also set up to use.
+	 *
+	 * @return runner of the current thread
+	 */
+	@SuppressWarnings("unchecked")
+	protected RLGlueEpisodeRunner<T> runner() {
+		if (!direct || Thread.currentThread() == creator) {
+			return sharedRunner;
+		}
+		RLGlueEpisodeRunner<T> runner = runners.get();
+		if (runner == null) {
+			try {
+				RLGlueEnvironment threadEnvironment = (RLGlueEnvironment) ClassCreation.createObject("rlGlueEnvironment");
+				RLGlueAgent<T> threadAgent = (RLGlueAgent<T>) ClassCreation.createObject("rlGlueAgent");
+				runner = new RLGlueEpisodeRunner<T>(threadEnvironment, threadAgent, CommonConstants.trials);
+			} catch (NoSuchMethodException e) {
+				e.printStackTrace();
+				System.out.println("Could not launch RLGlue environment and agent");
+				System.exit(1);
+			}
+			runners.set(runner);
+		}
+		return runner;
+	}
+
+	/**
+	 * @return environment used by the current thread
+	 */
+	protected RLGlueEnvironment environment() {
+		return runner().environment;
+	}
+
+	/**
+	 * @return agent used by the current thread
+	 */
+	protected RLGlueAgent<T> agent() {
+		return runner().agent;
+	}
+
+	/**
+	 * @param num
+	 *            episode number within the current evaluation
+	 * @return number of steps in the episode
+	 */
+	protected int rlNumSteps(int num) {
+		return runner().rlNumSteps[num];
+	}
+
+	/**
+	 * @param num
+	 *            episode number within the current evaluation
+	 * @return total reward of the episode
+	 */
+	protected double rlReturn(int num) {
+		return runner().rlReturn[num];
+	}
+
+	/**
+	 * Environments and agents are only separate for each thread if episodes
+	 * are run directly. Nothing is displayed in parallel.
+	 *
+	 * @return true if the population can be evaluated in parallel
+	 */
+	@Override
+	public boolean canEvaluateInParallel() {
+		return direct && !CommonConstants.watch;
 	}
 
 	/**
@@ -91,8 +171,13 @@ public class RLGlueTask<T extends Network> extends NoisyLonerTask<T>implements N
 	 */
 	@Override
 	public void prep() {
-		behaviorVector = new ArrayList<Double>();
-		RLGlue.RL_init();
+		RLGlueEpisodeRunner<T> runner = runner();
+		runner.behaviorVector = new ArrayList<Double>();
+		if (direct) {
+			runner.init();
+		} else {
+			RLGlue.RL_init();
+		}
 	}
 
 	/**
@@ -100,7 +185,11 @@ public class RLGlueTask<T extends Network> extends NoisyLonerTask<T>implements N
 	 */
 	@Override
 	public void cleanup() {
-		RLGlue.RL_cleanup();
+		if (direct) {
+			runner().cleanup();
+		} else {
+			RLGlue.RL_cleanup();
+		}
 	}
 
 	/**
@@ -110,7 +199,7 @@ public class RLGlueTask<T extends Network> extends NoisyLonerTask<T>implements N
 	 */
 	@Override
 	public ArrayList<Double> getBehaviorVector() {
-		return behaviorVector;
+		return runner().behaviorVector;
 	}
 
 	/**
@@ -129,16 +218,21 @@ public class RLGlueTask<T extends Network> extends NoisyLonerTask<T>implements N
 	 *
 	 * @return Pair of doubles arrays: fitness scores followed by "other" scores
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public Pair<double[], double[]> oneEval(Genotype<T> individual, int num) {
-		agent.replaceGenotype(individual);
-		System.out.print("Episode: " + num);
-		RLGlue.RL_episode(maxStepsPerEpisode);
-		System.out.println("\t steps: " + RLGlue.RL_num_steps());
-		rlNumSteps[num] = RLGlue.RL_num_steps();
-		rlReturn[num] = RLGlue.RL_return();
-		behaviorVector.addAll(environment.getBehaviorVector());
+		RLGlueEpisodeRunner<T> runner = runner();
+		runner.agent.replaceGenotype(individual);
+		if (direct) {
+			runner.episode(num, maxStepsPerEpisode);
+			System.out.println("Episode: " + num + "\t steps: " + runner.rlNumSteps[num]);
+		} else {
+			System.out.print("Episode: " + num);
+			RLGlue.RL_episode(maxStepsPerEpisode);
+			System.out.println("\t steps: " + RLGlue.RL_num_steps());
+			runner.rlNumSteps[num] = RLGlue.RL_num_steps();
+			runner.rlReturn[num] = RLGlue.RL_return();
+		}
+		runner.behaviorVector.addAll(runner.environment.getBehaviorVector());
 
 		return episodeResult(num);
 	}
@@ -149,7 +243,7 @@ public class RLGlueTask<T extends Network> extends NoisyLonerTask<T>implements N
 	 * @return fitness and other scores for episode
 	 */
 	public Pair<double[], double[]> episodeResult(int num){
-		return new Pair<double[], double[]>(new double[] { rlReturn[num] }, new double[0]);
+		return new Pair<double[], double[]>(new double[] { rlReturn(num) }, new double[0]);
 	}
 	
 	/**
@@ -171,7 +265,7 @@ public class RLGlueTask<T extends Network> extends NoisyLonerTask<T>implements N
 	@Override
 	public double getTimeStamp() {
 		// Need to fix this a bit
-		return rlNumSteps[0];
+		return rlNumSteps(0);
 	}
 
 	/**
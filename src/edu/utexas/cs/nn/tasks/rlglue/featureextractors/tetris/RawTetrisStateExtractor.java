@@ -5,7 +5,7 @@ import org.rlcommunity.rlglue.codec.types.Observation;
 
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
 import edu.utexas.cs.nn.parameters.CommonConstants;
-import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.parameters.BooleanHandle;
 import edu.utexas.cs.nn.tasks.rlglue.featureextractors.FeatureExtractor;
 
 /**
@@ -16,6 +16,8 @@ import edu.utexas.cs.nn.tasks.rlglue.featureextractors.FeatureExtractor;
  */
 public class RawTetrisStateExtractor implements FeatureExtractor {
 
+	private static final BooleanHandle ABSENCE_NEGATIVE = new BooleanHandle("absenceNegative");
+	private static final BooleanHandle SENSE_HOLES_DIFFERENTLY = new BooleanHandle("senseHolesDifferently");
 	/**
 	 * One feature for each block in the world state
 	 * @return 
@@ -34,8 +36,8 @@ public class RawTetrisStateExtractor implements FeatureExtractor {
 	 */
 	@Override
 	public double[] extract(Observation o) {
-		boolean negative = Parameters.parameters.booleanParameter("absenceNegative");
-		boolean senseHoles = Parameters.parameters.booleanParameter("senseHolesDifferently");
+		boolean negative = ABSENCE_NEGATIVE.get();
+		boolean senseHoles = SENSE_HOLES_DIFFERENTLY.get();
 		int worldSize = TetrisState.worldWidth * TetrisState.worldHeight;
 		if(negative && senseHoles) {
 			System.out.println("can't have absenceNegative and senseHoles in the same experiment!");
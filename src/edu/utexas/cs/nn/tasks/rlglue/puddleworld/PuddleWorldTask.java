@@ -38,14 +38,15 @@ public class PuddleWorldTask<T extends Network> extends RLGlueTask<T> {
 	
 	@Override
 	public Pair<double[], double[]> episodeResult(int num){
-		Pair<double[], double[]> p = new Pair<double[], double[]>(new double[] { rlReturn[num] }, new double[0]);
+		Pair<double[], double[]> p = new Pair<double[], double[]>(new double[] { rlReturn(num) }, new double[0]);
 		if(moPuddleWorld) {
+			PuddleWorldState state = ((PuddleWorld) environment()).getState();
 			p = new Pair<double[], double[]>(
-					new double[] { PuddleWorldState.finalStepScore, PuddleWorldState.finalPuddleScore },
-					new double[] { rlReturn[num] });
+					new double[] { state.finalStepScore, state.finalPuddleScore },
+					new double[] { rlReturn(num) });
+			state.finalStepScore = 0;
+			state.finalPuddleScore = 0;
 		}
-		PuddleWorldState.finalStepScore = 0;
-		PuddleWorldState.finalPuddleScore = 0;
 		return p;
 	}
 	
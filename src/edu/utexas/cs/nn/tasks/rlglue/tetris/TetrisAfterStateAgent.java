@@ -14,7 +14,7 @@ import org.rlcommunity.rlglue.codec.types.Observation;
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
 import edu.utexas.cs.nn.networks.Network;
 import edu.utexas.cs.nn.parameters.CommonConstants;
-import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.parameters.BooleanHandle;
 import edu.utexas.cs.nn.tasks.rlglue.RLGlueAgent;
 import edu.utexas.cs.nn.util.MiscUtil;
 import edu.utexas.cs.nn.util.datastructures.Pair;
@@ -22,6 +22,8 @@ import edu.utexas.cs.nn.util.stats.StatisticsUtilities;
 
 public class TetrisAfterStateAgent<T extends Network> extends RLGlueAgent<T> {
 
+	private static final BooleanHandle EXCLUDES_LOSS_STATES = new BooleanHandle("tetrisExcludesLossStates");
+	private static final BooleanHandle STEP_BY_STEP = new BooleanHandle("stepByStep");
 	// Saved in order to replay actions to a desired afterstate. Gets refilled
 	// once the list of actions run out.
 	public List<Integer> currentActionList;
@@ -103,14 +105,14 @@ public class TetrisAfterStateAgent<T extends Network> extends RLGlueAgent<T> {
 				// array of 1
 				outputs = this.consultPolicy(inputsScaled);
 				// Option that gives loss states very negative scores so they will be avoided
-				if(i.t1.gameOver() && Parameters.parameters.booleanParameter("tetrisExcludesLossStates")) {
+				if(i.t1.gameOver() && EXCLUDES_LOSS_STATES.get()) {
 					// This seems to NEVER come up. Does this mean
 					// we were already excluding loss states? If so, then just remove this.
 					// Need to check.
 					outputs[0] = -Double.MAX_VALUE; // Worst possible score (should I just use -1?)
 				}
 				
-				if(Parameters.parameters.booleanParameter("stepByStep")){
+				if(STEP_BY_STEP.get()){
 					System.out.println("Utility:" + outputs[0]);
 					System.out.print("Press enter to continue");
 					MiscUtil.waitForReadStringAndEnterKeyPress();
@@ -137,7 +139,7 @@ public class TetrisAfterStateAgent<T extends Network> extends RLGlueAgent<T> {
 			currentActionList.add(TetrisState.NONE); 
 		}
 
-		Action action = new Action(MMNEAT.tso.getNumDiscreteActionDims(), MMNEAT.tso.getNumContinuousActionDims()); 
+		Action action = reusableAction();
 		// Current action is next one in list
 		action.intArray[0] = currentActionList.get(0);
 		currentActionList.remove(0);
@@ -109,6 +109,10 @@ public class TetrisAfterStateAgentTests {
 				return new double[]{1};
 			}
 			@Override
+			public void process(double[] inputs, double[] outputs) {
+				outputs[0] = 1;
+			}
+			@Override
 			public void flush() {
 			}
 			@Override
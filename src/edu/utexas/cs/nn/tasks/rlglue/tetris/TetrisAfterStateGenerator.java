@@ -13,6 +13,9 @@ import org.rlcommunity.environments.tetris.TetrisState;
 
 public class TetrisAfterStateGenerator {
 
+	// Order in which actions are tried from each position of the falling piece
+	static final int[] ACTION_ORDER = { TetrisState.FALL, TetrisState.NONE, TetrisState.LEFT, TetrisState.RIGHT, TetrisState.CW, TetrisState.CCW };
+
 	/**
 	 * Takes in the current Tetris state and finds each of the possible after
 	 * states, as well as the actions to get to that state. The after states
@@ -24,8 +27,21 @@ public class TetrisAfterStateGenerator {
 	 * @return set of pairs (evaluated after-states and list of actions)
 	 */
 	public static HashSet<TetrisStateActionPair> generateAfterStates(TetrisState ts) {
-		int[] actOrder = { TetrisState.FALL, TetrisState.NONE, TetrisState.LEFT, TetrisState.RIGHT, TetrisState.CW, TetrisState.CCW }; 
-		
+		return new TetrisBitboard(ts).afterStates();
+	}
+
+	/**
+	 * Same as generateAfterStates, but finds the after-states by simulating
+	 * every action on a copy of the TetrisState. Much slower, but useful for
+	 * checking TetrisBitboard against the Tetris rules themselves.
+	 *
+	 * @param ts
+	 *            Start state
+	 * @return set of pairs (evaluated after-states and list of actions)
+	 */
+	public static HashSet<TetrisStateActionPair> simulateAfterStates(TetrisState ts) {
+		int[] actOrder = ACTION_ORDER;
+
 		// only ever as big as # of orientations times the width
 		HashSet<TetrisStateActionPair> evaluated = new HashSet<TetrisStateActionPair>(); 
 		HashSet<TetrisState> seen = new HashSet<TetrisState>();
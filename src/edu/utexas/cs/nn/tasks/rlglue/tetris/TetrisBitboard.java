@@ -0,0 +1,322 @@
+package edu.utexas.cs.nn.tasks.rlglue.tetris;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+
+import org.rlcommunity.environments.tetris.TetrisPiece;
+import org.rlcommunity.environments.tetris.TetrisState;
+
+/**
+ * Compact copy of a Tetris board and its falling piece, used to find all
+ * after-states of the piece without simulating moves on TetrisState copies.
+ * Each row of the board is a bitmask with one bit per column, and each
+ * rotation of the piece is a set of row masks computed once, so checking
+ * whether the piece fits at a position takes one AND per row of the piece.
+ * Piece positions reached by the search are tracked in flat arrays indexed
+ * by position and rotation rather than in sets of board copies.
+ *
+ * The search visits positions in the same order and with the same move
+ * rules as TetrisState.take_action followed by TetrisState.update, so the
+ * after-states, and the actions leading to them, are exactly the ones that
+ * simulating every move would find. Only the after-states themselves are
+ * turned into TetrisState instances.
+ */
+public class TetrisBitboard {
+
+	// Tetris pieces are defined in a 5x5 grid
+	private static final int SHAPE_SIZE = 5;
+	// Empty columns and rows around the board, so that every position where
+	// part of a piece is on the board has a valid index and shift
+	private static final int PAD = SHAPE_SIZE;
+	private static final int NUM_ROTATIONS = 4;
+
+	private final TetrisState start;
+	private final int width;
+	private final int height;
+	// Bit PAD + x is set if column x is filled. Bits outside the board are
+	// always set, so they act as walls.
+	private final long[] rows;
+	// pieceRows[r][y] has bit x set if the piece in rotation r fills (x,y)
+	private final long[][] pieceRows = new long[NUM_ROTATIONS][SHAPE_SIZE];
+	// Rotations that cover the same cells as an earlier rotation placed with
+	// an offset, such as all rotations of the square piece
+	private final int[] sameAsRotation = new int[NUM_ROTATIONS];
+	private final int[] sameAsOffsetX = new int[NUM_ROTATIONS];
+	private final int[] sameAsOffsetY = new int[NUM_ROTATIONS];
+	private final int paddedWidth;
+	private final int paddedHeight;
+
+	/**
+	 * Copy the board and falling piece of a Tetris state
+	 *
+	 * @param start
+	 *            state whose after-states are wanted
+	 */
+	public TetrisBitboard(TetrisState start) {
+		this.start = start;
+		this.width = TetrisState.worldWidth;
+		this.height = TetrisState.worldHeight;
+		assert width + 2 * PAD <= Long.SIZE : "Board too wide for bitboard rows: " + width;
+		this.paddedWidth = width + 2 * PAD;
+		this.paddedHeight = height + 2 * PAD;
+
+		long walls = ~(((1L << width) - 1) << PAD);
+		rows = new long[height];
+		for (int y = 0; y < height; y++) {
+			rows[y] = walls;
+			for (int x = 0; x < width; x++) {
+				if (start.worldState[y * width + x] != 0) {
+					rows[y] |= 1L << (x + PAD);
+				}
+			}
+		}
+
+		TetrisPiece piece = start.possibleBlocks.get(start.currentBlockId);
+		long[] normalized = new long[NUM_ROTATIONS];
+		int[] minX = new int[NUM_ROTATIONS];
+		int[] minY = new int[NUM_ROTATIONS];
+		for (int r = 0; r < NUM_ROTATIONS; r++) {
+			int[][] shape = piece.getShape(r);
+			minX[r] = SHAPE_SIZE;
+			minY[r] = SHAPE_SIZE;
+			for (int x = 0; x < SHAPE_SIZE; x++) {
+				for (int y = 0; y < SHAPE_SIZE; y++) {
+					if (shape[x][y] != 0) {
+						pieceRows[r][y] |= 1L << x;
+						minX[r] = Math.min(minX[r], x);
+						minY[r] = Math.min(minY[r], y);
+					}
+				}
+			}
+			// Cells relative to the top left of the piece, for comparing rotations
+			for (int y = minY[r]; y < SHAPE_SIZE; y++) {
+				normalized[r] |= (pieceRows[r][y] >>> minX[r]) << ((y - minY[r]) * SHAPE_SIZE);
+			}
+			sameAsRotation[r] = r;
+			for (int earlier = 0; earlier < r; earlier++) {
+				if (sameAsRotation[earlier] == earlier && normalized[earlier] == normalized[r]) {
+					sameAsRotation[r] = earlier;
+					sameAsOffsetX[r] = minX[r] - minX[earlier];
+					sameAsOffsetY[r] = minY[r] - minY[earlier];
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Find every state in which the falling piece can come to rest, along
+	 * with the actions that get it there. Each distinct board appears once,
+	 * with the actions of the first way to reach it in breadth first order.
+	 *
+	 * @return set of pairs (after-state and list of actions)
+	 */
+	public HashSet<TetrisStateActionPair> afterStates() {
+		HashSet<TetrisStateActionPair> evaluated = new HashSet<TetrisStateActionPair>();
+		int positions = NUM_ROTATIONS * paddedHeight * paddedWidth;
+		boolean[] seen = new boolean[positions];
+		boolean[] placed = new boolean[positions];
+		// Position and action that each seen position was reached from
+		int[] parent = new int[positions];
+		int[] parentAction = new int[positions];
+		int[] fringe = new int[positions];
+		// Row where a piece dropped from each position lands, plus PAD + 1,
+		// or 0 if not known yet
+		int[] landing = new int[positions];
+		int head = 0;
+		int tail = 0;
+
+		int x = start.currentX;
+		int y = start.currentY;
+		int r = start.currentRotation;
+		// The start state can only be seen again if its piece is still falling
+		if (start.blockMobile && inRange(x, y)) {
+			seen[index(x, y, r)] = true;
+		}
+		int node = -1; // The start state has no index of its own
+		while (true) {
+			for (int action : TetrisAfterStateGenerator.ACTION_ORDER) {
+				int nextX = x;
+				int nextY = y;
+				int nextRotation = r;
+				switch (action) {
+				case TetrisState.CW:
+					nextRotation = (r + 1) % NUM_ROTATIONS;
+					break;
+				case TetrisState.CCW:
+					nextRotation = r == 0 ? NUM_ROTATIONS - 1 : r - 1;
+					break;
+				case TetrisState.LEFT:
+					nextX = x - 1;
+					break;
+				case TetrisState.RIGHT:
+					nextX = x + 1;
+					break;
+				case TetrisState.FALL:
+					if (node == -1) {
+						// Fall until something is hit, then back up once.
+						// The start position might not even be legal.
+						do {
+							nextY++;
+						} while (fits(nextX, nextY, nextRotation));
+						nextY--;
+					} else {
+						nextY = landingRow(x, y, r, landing);
+					}
+					break;
+				default:
+					break;
+				}
+				if (!fits(nextX, nextY, nextRotation)) {
+					continue; // Illegal actions leave the state unchanged
+				}
+				if (fits(nextX, nextY + 1, nextRotation)) {
+					// Piece is still falling after the update
+					int next = index(nextX, nextY + 1, nextRotation);
+					if (!seen[next]) {
+						seen[next] = true;
+						parent[next] = node;
+						parentAction[next] = action;
+						fringe[tail++] = next;
+					}
+				} else {
+					int key = placementIndex(nextX, nextY, nextRotation);
+					if (!placed[key]) {
+						placed[key] = true;
+						LinkedList<Integer> actions = actionsTo(node, parent, parentAction);
+						actions.add(action);
+						evaluated.add(new TetrisStateActionPair(afterState(nextX, nextY, nextRotation), actions));
+					}
+				}
+			}
+			if (head == tail) {
+				break;
+			}
+			node = fringe[head++];
+			r = node / (paddedHeight * paddedWidth);
+			y = (node / paddedWidth) % paddedHeight - PAD;
+			x = node % paddedWidth - PAD;
+		}
+		return evaluated;
+	}
+
+	/**
+	 * Whether the piece in the given rotation is entirely on the board and
+	 * does not overlap any filled cell when its 5x5 grid is at (x,y)
+	 */
+	private boolean fits(int x, int y, int rotation) {
+		if (x < -PAD || x > width) {
+			return false; // Every cell of the piece would be off the board
+		}
+		long[] piece = pieceRows[rotation];
+		for (int dy = 0; dy < SHAPE_SIZE; dy++) {
+			if (piece[dy] != 0) {
+				int row = y + dy;
+				if (row < 0 || row >= height || (rows[row] & (piece[dy] << (x + PAD))) != 0) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Row where the piece lands if dropped from a legal position. Results
+	 * are remembered for every row passed on the way down, so dropping from
+	 * all positions takes time proportional to the number of positions.
+	 */
+	private int landingRow(int x, int y, int rotation, int[] landing) {
+		int bottom = y;
+		while (true) {
+			int known = landing[index(x, bottom, rotation)];
+			if (known != 0) {
+				bottom = known - PAD - 1;
+				break;
+			}
+			if (!fits(x, bottom + 1, rotation)) {
+				break;
+			}
+			bottom++;
+		}
+		for (int row = y; row <= bottom && landing[index(x, row, rotation)] == 0; row++) {
+			landing[index(x, row, rotation)] = bottom + PAD + 1;
+		}
+		return bottom;
+	}
+
+	private boolean inRange(int x, int y) {
+		return x >= -PAD && x < width + PAD && y >= -PAD && y < height + PAD;
+	}
+
+	private int index(int x, int y, int rotation) {
+		return (rotation * paddedHeight + (y + PAD)) * paddedWidth + (x + PAD);
+	}
+
+	/**
+	 * Index that is the same for all placements covering the same cells
+	 */
+	private int placementIndex(int x, int y, int rotation) {
+		return index(x + sameAsOffsetX[rotation], y + sameAsOffsetY[rotation], sameAsRotation[rotation]);
+	}
+
+	private static LinkedList<Integer> actionsTo(int node, int[] parent, int[] parentAction) {
+		LinkedList<Integer> actions = new LinkedList<Integer>();
+		while (node != -1) {
+			actions.addFirst(parentAction[node]);
+			node = parent[node];
+		}
+		return actions;
+	}
+
+	/**
+	 * State after the piece comes to rest at (x,y) and any completed rows
+	 * are removed, exactly as TetrisState.update would leave it.
+	 */
+	private TetrisState afterState(int x, int y, int rotation) {
+		TetrisState after = new TetrisState(start);
+		after.blockMobile = false;
+		after.currentX = x;
+		after.currentY = y;
+		after.currentRotation = rotation;
+		int[] world = after.worldState;
+		long[] piece = pieceRows[rotation];
+		for (int dy = 0; dy < SHAPE_SIZE; dy++) {
+			for (int dx = 0; dx < SHAPE_SIZE; dx++) {
+				if ((piece[dy] & (1L << dx)) != 0) {
+					world[(y + dy) * width + x + dx] = start.currentBlockId + 1;
+				}
+			}
+		}
+		// Any full row is removed, even one that was full before the piece landed
+		boolean[] full = new boolean[height];
+		int numRowsCleared = 0;
+		for (int row = 0; row < height; row++) {
+			int dy = row - y;
+			long filled = dy >= 0 && dy < SHAPE_SIZE ? rows[row] | (piece[dy] << (x + PAD)) : rows[row];
+			if (filled == -1L) {
+				full[row] = true;
+				numRowsCleared++;
+			}
+		}
+		if (numRowsCleared > 0) {
+			// Move remaining rows down over the completed ones
+			int target = height - 1;
+			for (int row = height - 1; row >= 0; row--) {
+				if (!full[row]) {
+					if (target != row) {
+						System.arraycopy(world, row * width, world, target * width, width);
+					}
+					target--;
+				}
+			}
+			for (int row = target; row >= 0; row--) {
+				for (int i = row * width; i < (row + 1) * width; i++) {
+					world[i] = 0;
+				}
+			}
+		}
+		// Same scoring as TetrisState.checkIfRowAndScore
+		after.score += Math.pow(2.0d, numRowsCleared - 1);
+		return after;
+	}
+}
@@ -0,0 +1,110 @@
+package edu.utexas.cs.nn.tasks.rlglue.tetris;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.rlcommunity.environments.tetris.TetrisState;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.parameters.Parameters;
+import edu.utexas.cs.nn.util.random.RandomNumbers;
+
+public class TetrisBitboardTests {
+
+	@Before
+	public void setUp() throws Exception {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false" });
+		RandomNumbers.reset(0);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	/**
+	 * Random board with ragged columns and holes, and a newly spawned piece
+	 * that may have been moved a few times
+	 */
+	private static TetrisState randomState(Random random) {
+		TetrisState ts = new TetrisState();
+		for (int x = 0; x < TetrisState.worldWidth; x++) {
+			int columnHeight = random.nextInt(TetrisState.worldHeight / 2);
+			for (int y = TetrisState.worldHeight - columnHeight; y < TetrisState.worldHeight; y++) {
+				if (random.nextDouble() < 0.85) {
+					ts.worldState[y * TetrisState.worldWidth + x] = 1 + random.nextInt(7);
+				}
+			}
+		}
+		// Some full rows, so that row clearing is checked
+		for (int y = TetrisState.worldHeight - 1; y > TetrisState.worldHeight - 4; y--) {
+			if (random.nextBoolean()) {
+				for (int x = 0; x < TetrisState.worldWidth; x++) {
+					ts.worldState[y * TetrisState.worldWidth + x] = 1;
+				}
+				ts.worldState[y * TetrisState.worldWidth + random.nextInt(TetrisState.worldWidth)] = 0;
+			}
+		}
+		ts.score = random.nextInt(10);
+		ts.spawn_block();
+		for (int i = random.nextInt(4); i > 0 && !ts.gameOver(); i--) {
+			int action = random.nextInt(4);
+			if (ts.take_action(action)) {
+				ts.update();
+			}
+		}
+		return ts;
+	}
+
+	/**
+	 * The bitboard finds the same after-states, with the same actions, in
+	 * the same order, as simulating every move
+	 */
+	@Test
+	public void test_sameAsSimulation() {
+		Random random = new Random(11);
+		for (int i = 0; i < 300; i++) {
+			TetrisState ts = randomState(random);
+			HashSet<TetrisStateActionPair> expected = TetrisAfterStateGenerator.simulateAfterStates(ts);
+			HashSet<TetrisStateActionPair> actual = TetrisAfterStateGenerator.generateAfterStates(ts);
+			ArrayList<TetrisStateActionPair> expectedList = new ArrayList<TetrisStateActionPair>(expected);
+			ArrayList<TetrisStateActionPair> actualList = new ArrayList<TetrisStateActionPair>(actual);
+			assertEquals(expectedList.size(), actualList.size());
+			for (int j = 0; j < expectedList.size(); j++) {
+				assertEquals(expectedList.get(j).t1, actualList.get(j).t1);
+				assertEquals(expectedList.get(j).t2, actualList.get(j).t2);
+			}
+		}
+	}
+
+	/**
+	 * Starting positions partly above the board, as used in
+	 * TetrisAfterStateGeneratorTests, behave as in the simulation
+	 */
+	@Test
+	public void test_startAboveBoard() {
+		for (int id = 0; id < 7; id++) {
+			for (int rotation = 0; rotation < 4; rotation++) {
+				TetrisState ts = new TetrisState();
+				ts.worldState[199] = 1;
+				ts.currentBlockId = id;
+				ts.currentRotation = rotation;
+				ts.currentX = 3;
+				ts.currentY = -2;
+				ArrayList<TetrisStateActionPair> expected = new ArrayList<TetrisStateActionPair>(TetrisAfterStateGenerator.simulateAfterStates(ts));
+				ArrayList<TetrisStateActionPair> actual = new ArrayList<TetrisStateActionPair>(TetrisAfterStateGenerator.generateAfterStates(ts));
+				assertEquals(expected.size(), actual.size());
+				for (int j = 0; j < expected.size(); j++) {
+					assertEquals(expected.get(j).t1, actual.get(j).t1);
+					assertEquals(expected.get(j).t2, actual.get(j).t2);
+				}
+			}
+		}
+	}
+}
@@ -42,15 +42,14 @@ public class TetrisTask<T extends Network> extends RLGlueTask<T> {
 	
 	@Override
 	public Pair<double[], double[]> episodeResult(int num) {
-		double[] fitness = new double[] {rlReturn[num]}; // default
-		Tetris game = (Tetris) environment; 
+		double[] fitness = new double[] {rlReturn(num)}; // default
+		Tetris game = (Tetris) environment(); 
 		if (tetrisBlocksOnScreen || tetrisTimeSteps) {
 			if (tetrisBlocksOnScreen) {
-				@SuppressWarnings("unchecked")
-				TetrisAfterStateAgent<T> tasa = (TetrisAfterStateAgent<T>) agent;
+				TetrisAfterStateAgent<T> tasa = (TetrisAfterStateAgent<T>) agent();
 				int numberOfBlocksInState;
 				// Checks if the we have reached the last step allowed
-				if (rlNumSteps[num] == maxStepsPerEpisode) { 
+				if (rlNumSteps(num) == maxStepsPerEpisode) { 
 					// Sets to max to reward not losing for this long
 					numberOfBlocksInState = TetrisState.worldHeight * TetrisState.worldWidth; 
 					
@@ -58,12 +57,12 @@ public class TetrisTask<T extends Network> extends RLGlueTask<T> {
 					numberOfBlocksInState = tasa.getNumberOfBlocksInLastState();
 				}
 				if (tetrisBlocksOnScreen && tetrisTimeSteps) {
-					fitness = new double[] { rlNumSteps[num], numberOfBlocksInState, rlReturn[num] };
+					fitness = new double[] { rlNumSteps(num), numberOfBlocksInState, rlReturn(num) };
 				} else if (tetrisBlocksOnScreen) {
-					fitness = new double[] { rlNumSteps[num], numberOfBlocksInState, rlReturn[num] };
+					fitness = new double[] { rlNumSteps(num), numberOfBlocksInState, rlReturn(num) };
 				}
 			} else { // timeSteps only
-				fitness = new double[] { rlNumSteps[num], rlReturn[num] };
+				fitness = new double[] { rlNumSteps(num), rlReturn(num) };
 			}
 		}
 		Pair<double[], double[]> p = new Pair<double[], double[]>(fitness, game.getNumberOfRows());
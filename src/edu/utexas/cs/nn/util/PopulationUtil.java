@@ -1,8 +1,10 @@
 package edu.utexas.cs.nn.util;
 
 import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.data.BinaryPopulation;
 import edu.utexas.cs.nn.data.SaveThread;
 import edu.utexas.cs.nn.evolution.EvolutionaryHistory;
+import edu.utexas.cs.nn.evolution.Litter;
 import edu.utexas.cs.nn.evolution.genotypes.Genotype;
 import edu.utexas.cs.nn.evolution.genotypes.TWEANNGenotype;
 import edu.utexas.cs.nn.evolution.lineage.Offspring;
@@ -16,12 +18,14 @@ import edu.utexas.cs.nn.scores.Better;
 import edu.utexas.cs.nn.scores.Score;
 import edu.utexas.cs.nn.util.datastructures.ArrayUtil;
 import edu.utexas.cs.nn.util.datastructures.Pair;
+import edu.utexas.cs.nn.util.file.BinaryPopulationFilter;
 import edu.utexas.cs.nn.util.file.FileUtilities;
 import edu.utexas.cs.nn.util.file.XMLFilter;
 import edu.utexas.cs.nn.util.random.RandomNumbers;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -292,50 +296,39 @@ public class PopulationUtil {
 	 */
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public static ArrayList<Genotype> childrenFromTournamentSelection(int numChildren, ArrayList<Score> parentScores, Better<Score> judge, boolean mating, double crossoverRate) {
+		boolean parallel = Litter.canBreedInParallel(parentScores.get(0).individual);
+		ArrayList<Litter> litters = new ArrayList<Litter>();
 		ArrayList<Genotype> offspring = new ArrayList<Genotype>(numChildren);
 
 		for (int i = 0; i < numChildren; i++) {
-			int e1 = RandomNumbers.randomGenerator.nextInt(parentScores.size());
-			int e2 = RandomNumbers.randomGenerator.nextInt(parentScores.size());
+			int e1 = RandomNumbers.generator().nextInt(parentScores.size());
+			int e2 = RandomNumbers.generator().nextInt(parentScores.size());
 
 			Genotype source = judge.better(parentScores.get(e1), parentScores.get(e2)).individual;
-			long parentId1 = source.getId();
-			long parentId2 = -1;
-			Genotype e = source.copy();
+			Litter litter = new Litter(source.copy(), source.getId(), -1, true);
 
-			if (mating && RandomNumbers.randomGenerator.nextDouble() < crossoverRate) {
-				e1 = RandomNumbers.randomGenerator.nextInt(parentScores.size());
-				e2 = RandomNumbers.randomGenerator.nextInt(parentScores.size());
+			if (mating && RandomNumbers.generator().nextDouble() < crossoverRate) {
+				e1 = RandomNumbers.generator().nextInt(parentScores.size());
+				e2 = RandomNumbers.generator().nextInt(parentScores.size());
 
 				Genotype otherSource = judge.better(parentScores.get(e1), parentScores.get(e2)).individual;
-				parentId2 = otherSource.getId();
-				Genotype otherOffspring;
-
-				Genotype other = otherSource.copy();
-				otherOffspring = e.crossover(other);
 				i++;
 				/*
 				 * The offspring e will be added no matter what. Because i is
 				 * increased and then checked, otherOffspring will NOT always be
 				 * added.
 				 */
-				if (i < numChildren) {
-					// System.out.println(i + ":Mutate Child");
-					otherOffspring.mutate();
-					offspring.add(otherOffspring);
-					EvolutionaryHistory.logLineageData(parentId1 + " X " + parentId2 + " -> " + otherOffspring.getId());
-				}
+				litter.mate(otherSource.copy(), otherSource.getId(), false, i < numChildren);
 			}
 
-			e.mutate();
-			offspring.add(e);
-			if (parentId2 == -1) {
-				EvolutionaryHistory.logLineageData(parentId1 + " -> " + e.getId());
+			if (parallel) {
+				// Bred once all parents are selected
+				litters.add(litter);
 			} else {
-				EvolutionaryHistory.logLineageData(parentId1 + " X " + parentId2 + " -> " + e.getId());
+				offspring.addAll(litter.breed());
 			}
 		}
-		return offspring;
+		return parallel ? Litter.breedAll((ArrayList) litters) : offspring;
 	}
 
 	/**
@@ -389,7 +382,8 @@ public class PopulationUtil {
 	}
 
 	/**
-	 * Load all genotypes that are xml files in the given directory
+	 * Load all genotypes that are xml files in the given directory, or are
+	 * stored in binary population files in the directory
 	 *
 	 * @param <T>
 	 *            Phenotype
@@ -415,10 +409,41 @@ public class PopulationUtil {
 				Genotype<T> individual = extractGenotype(file);
 				population.add(individual);
 			}
+			for (String file : dir.list(new BinaryPopulationFilter())) {
+				System.out.println("Load File: \"" + directory + "/" + file + "\"");
+				try {
+					ArrayList<Genotype<T>> loaded = BinaryPopulation.load(directory + "/" + file);
+					population.addAll(loaded);
+				} catch (IOException ex) {
+					ex.printStackTrace();
+					System.out.println("Failure loading " + file);
+					System.exit(1);
+				}
+			}
 		}
 		return population;
 	}
 
+	/**
+	 * Save a whole population in a single binary population file inside
+	 * fullSaveDir, as an alternative to saving each genotype as an xml file.
+	 *
+	 * @param <T> phenotype
+	 * @param fullSaveDir directory to save in
+	 * @param prefix start of the file name
+	 * @param population genotypes to save
+	 */
+	public static <T> void saveBinaryPopulation(String fullSaveDir, String prefix, ArrayList<Genotype<T>> population) {
+		String filename = fullSaveDir + "/" + prefix + "population" + BinaryPopulation.EXTENSION;
+		try {
+			BinaryPopulation.save(population, filename, Parameters.parameters.booleanParameter("compressPopulations"));
+		} catch (IOException ex) {
+			ex.printStackTrace();
+			System.out.println("Failure saving " + filename);
+			System.exit(1);
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	public static <T> Genotype<T> extractGenotype(String file) {
 		System.out.print("Load File: \"" + file + "\"");
@@ -614,6 +639,10 @@ public class PopulationUtil {
 
 		new File(fullSaveDir).mkdir();
 		System.out.println("Saving to \"" + fullSaveDir + "\" with prefix \"" + prefix + "\"");
+		if (Parameters.parameters.booleanParameter("binaryPopulations")) {
+			saveBinaryPopulation(fullSaveDir, prefix, population);
+			return;
+		}
 
 		ExecutorService poolExecutor = null;
 		ArrayList<Future<Boolean>> futures = null;
@@ -0,0 +1,154 @@
+package edu.utexas.cs.nn.util.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from primitive long keys to primitive int values. Uses open
+ * addressing with linear probing, so no objects are created for entries, and
+ * no boxing is needed when looking up innovation numbers. Entries cannot be
+ * removed individually; the whole map is cleared instead.
+ */
+public class LongIntHashMap {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private long[] keys;
+	private int[] values;
+	private boolean[] used;
+	private int size;
+	// Value returned by get when a key is not present
+	private final int missingValue;
+
+	/**
+	 * Empty map that returns -1 for missing keys
+	 */
+	public LongIntHashMap() {
+		this(DEFAULT_CAPACITY, -1);
+	}
+
+	/**
+	 * Empty map with room for the expected number of entries
+	 *
+	 * @param expectedSize
+	 *            number of entries that can be added without resizing
+	 * @param missingValue
+	 *            value returned by get when a key is not present
+	 */
+	public LongIntHashMap(int expectedSize, int missingValue) {
+		this.missingValue = missingValue;
+		allocate(tableSize(expectedSize));
+	}
+
+	/**
+	 * Smallest power of two that keeps the table at most half full
+	 */
+	private static int tableSize(int expectedSize) {
+		int capacity = DEFAULT_CAPACITY;
+		while (capacity < 2 * expectedSize) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		used = new boolean[capacity];
+		size = 0;
+	}
+
+	/**
+	 * Spread the bits of the key so that consecutive innovation numbers do not
+	 * cluster in the table.
+	 */
+	private int slot(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & (keys.length - 1);
+	}
+
+	/**
+	 * Value associated with the key
+	 *
+	 * @param key
+	 *            key to look up
+	 * @return associated value, or the missing value if the key is absent
+	 */
+	public int get(long key) {
+		int mask = keys.length - 1;
+		for (int i = slot(key); used[i]; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				return values[i];
+			}
+		}
+		return missingValue;
+	}
+
+	/**
+	 * @param key
+	 *            key to look up
+	 * @return whether the map has a value for the key
+	 */
+	public boolean containsKey(long key) {
+		int mask = keys.length - 1;
+		for (int i = slot(key); used[i]; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Associate value with key, replacing any previous value
+	 *
+	 * @param key
+	 *            key
+	 * @param value
+	 *            value
+	 */
+	public void put(long key, int value) {
+		if (2 * (size + 1) > keys.length) {
+			rehash(keys.length * 2);
+		}
+		int mask = keys.length - 1;
+		int i = slot(key);
+		while (used[i]) {
+			if (keys[i] == key) {
+				values[i] = value;
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+		used[i] = true;
+		keys[i] = key;
+		values[i] = value;
+		size++;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldUsed[i]) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	/**
+	 * Remove all entries, but keep the allocated table
+	 */
+	public void clear() {
+		Arrays.fill(used, false);
+		size = 0;
+	}
+
+	/**
+	 * @return number of entries
+	 */
+	public int size() {
+		return size;
+	}
+}
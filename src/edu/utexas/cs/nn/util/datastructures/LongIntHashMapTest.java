@@ -0,0 +1,60 @@
+package edu.utexas.cs.nn.util.datastructures;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongIntHashMapTest {
+
+	@Test
+	public void testPutAndGet() {
+		LongIntHashMap map = new LongIntHashMap();
+		assertEquals(0, map.size());
+		assertEquals(-1, map.get(5));
+		assertFalse(map.containsKey(5));
+		map.put(5, 10);
+		map.put(-5, 20);
+		map.put(Long.MIN_VALUE, 30);
+		assertEquals(3, map.size());
+		assertEquals(10, map.get(5));
+		assertEquals(20, map.get(-5));
+		assertEquals(30, map.get(Long.MIN_VALUE));
+		assertTrue(map.containsKey(-5));
+		map.put(5, 11);
+		assertEquals(3, map.size());
+		assertEquals(11, map.get(5));
+		map.clear();
+		assertEquals(0, map.size());
+		assertEquals(-1, map.get(5));
+		assertFalse(map.containsKey(Long.MIN_VALUE));
+	}
+
+	@Test
+	public void testMissingValue() {
+		LongIntHashMap map = new LongIntHashMap(4, Integer.MIN_VALUE);
+		assertEquals(Integer.MIN_VALUE, map.get(0));
+		map.put(0, -1);
+		assertEquals(-1, map.get(0));
+	}
+
+	@Test
+	public void testGrowthAgainstHashMap() {
+		Random r = new Random(0);
+		LongIntHashMap map = new LongIntHashMap();
+		HashMap<Long, Integer> reference = new HashMap<Long, Integer>();
+		for (int i = 0; i < 10000; i++) {
+			// Innovation numbers are mostly consecutive, some negative
+			long key = r.nextBoolean() ? i - 100 : r.nextLong();
+			map.put(key, i);
+			reference.put(key, i);
+		}
+		assertEquals(reference.size(), map.size());
+		for (Long key : reference.keySet()) {
+			assertEquals(reference.get(key).intValue(), map.get(key));
+		}
+		assertFalse(map.containsKey(-101));
+	}
+}
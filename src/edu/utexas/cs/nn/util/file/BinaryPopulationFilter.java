@@ -0,0 +1,16 @@
+package edu.utexas.cs.nn.util.file;
+
+import edu.utexas.cs.nn.data.BinaryPopulation;
+import java.io.File;
+import java.io.FilenameFilter;
+
+/**
+ * Filename filter that accepts binary population files.
+ */
+public class BinaryPopulationFilter implements FilenameFilter {
+
+	@Override
+	public boolean accept(File dir, String name) {
+		return !name.startsWith(".") && name.endsWith(BinaryPopulation.EXTENSION);
+	}
+}
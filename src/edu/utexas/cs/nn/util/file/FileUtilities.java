@@ -8,7 +8,11 @@ import static edu.utexas.cs.nn.tasks.LonerTask.NETWORK_WINDOW_OFFSET;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Scanner;
 import wox.serial.Easy;
 
@@ -49,6 +53,37 @@ public class FileUtilities {
 		}
 	}
 
+	/**
+	 * Move a file or directory to a new name in a single step, so that
+	 * anything reading the new name sees either the old contents or the
+	 * complete new contents, even if the program crashes while moving. An
+	 * existing file with the new name is replaced, and an existing directory
+	 * is deleted first (which is not a single step). Falls back to an
+	 * ordinary move on file systems that cannot move atomically.
+	 *
+	 * @param from
+	 *            file or directory to move
+	 * @param to
+	 *            new name
+	 */
+	public static void moveAtomically(File from, File to) {
+		if (to.isDirectory()) {
+			deleteDirectoryContents(to);
+			to.delete();
+		}
+		try {
+			try {
+				Files.move(from.toPath(), to.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException ex) {
+				Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException ex) {
+			System.out.println("Could not move '" + from + "' to '" + to + "'");
+			ex.printStackTrace();
+			System.exit(1);
+		}
+	}
+
 	/**
 	 * Write a single string to a new file, then close the file
 	 *
@@ -13,6 +13,54 @@ import java.util.Random;
 public class RandomNumbers {
 
 	public static Random randomGenerator = new Random();
+	// Replaces randomGenerator for the thread that sets it, such as a thread
+	// performing one of several trials in parallel
+	private static final ThreadLocal<Random> threadGenerator = new ThreadLocal<Random>();
+	// Seed from which all streams are derived. Set along with randomGenerator
+	private static long runSeed = new Random().nextLong();
+
+	/**
+	 * Random generator for the current thread: the generator set by
+	 * setThreadGenerator if there is one, and randomGenerator otherwise.
+	 *
+	 * @return random generator to use
+	 */
+	public static Random generator() {
+		Random local = threadGenerator.get();
+		return local == null ? randomGenerator : local;
+	}
+
+	/**
+	 * Make the current thread use its own generator instead of the shared
+	 * randomGenerator, so that its random stream does not depend on other
+	 * threads.
+	 *
+	 * @param random
+	 *            generator for this thread, or null to go back to using
+	 *            randomGenerator
+	 */
+	public static void setThreadGenerator(Random random) {
+		if (random == null) {
+			threadGenerator.remove();
+		} else {
+			threadGenerator.set(random);
+		}
+	}
+
+	/**
+	 * New generator whose stream is determined by the run seed and the keys,
+	 * such as a generation number, genotype id and trial number. The same
+	 * keys always give the same stream within a run, and the same stream in
+	 * different runs with the same randomSeed, no matter which thread asks
+	 * for it or in what order. Different keys give independent streams.
+	 *
+	 * @param keys
+	 *            values identifying the stream
+	 * @return generator to be used by only one thread
+	 */
+	public static SplitMixRandom stream(long... keys) {
+		return new SplitMixRandom(SplitMixRandom.derive(runSeed, keys));
+	}
 
 	/*
 	 * Reset random generator based on seed from parameter file
@@ -23,6 +71,7 @@ public class RandomNumbers {
 			reset(seed);
 		} else {
 			randomGenerator = new Random();
+			runSeed = new Random().nextLong();
 		}
 	}
 
@@ -35,13 +84,14 @@ public class RandomNumbers {
 	public static void reset(int seed) {
 		System.out.println("Reset random seed to: " + seed);
 		randomGenerator = new Random(seed);
+		runSeed = seed;
 	}
 
 	/**
 	 * Returns random number in range [-1,1]
 	 */
 	public static double fullSmallRand() {
-		return (randomGenerator.nextDouble() * 2.0) - 1.0;
+		return (generator().nextDouble() * 2.0) - 1.0;
 	}
 
 	/**
@@ -54,7 +104,7 @@ public class RandomNumbers {
 	 * @return random number in range
 	 */
 	public static double boundedRandom(double lower, double upper) {
-		double rand = randomGenerator.nextDouble();
+		double rand = generator().nextDouble();
 		rand *= (upper - lower);
 		rand += lower;
 		return rand;
@@ -106,7 +156,7 @@ public class RandomNumbers {
 	public static Integer[] randomIntArray(int size, int[] ceilings) {
 		Integer[] result = new Integer[size];
 		for (int i = 0; i < result.length; i++) {
-			result[i] = randomGenerator.nextInt(ceilings[i]);
+			result[i] = generator().nextInt(ceilings[i]);
 		}
 		return result;
 	}
@@ -120,7 +170,7 @@ public class RandomNumbers {
 	 * @return probabilistically selected index
 	 */
 	public static int probabilisticSelection(double[] probs) {
-		double randomValue = randomGenerator.nextDouble();
+		double randomValue = generator().nextDouble();
 		double sum = 0;
 		int selection = -1;
 		// Extra case needed because floating point arithmetic may add to
@@ -149,7 +199,7 @@ public class RandomNumbers {
 		for (int i = 0; i < ceiling; i++) {
 			all.add(i);
 		}
-		Collections.shuffle(all, randomGenerator);
+		Collections.shuffle(all, generator());
 		int[] result = new int[num];
 		for (int i = 0; i < num; i++) {
 			result[i] = all.get(i);
@@ -158,7 +208,7 @@ public class RandomNumbers {
 	}
 
 	public static double randomSign() {
-		return randomGenerator.nextBoolean() ? 1 : -1;
+		return generator().nextBoolean() ? 1 : -1;
 	}
 
 	/**
@@ -179,7 +229,7 @@ public class RandomNumbers {
 		for (int i = 0; i < y; i++) {
 			source.add(i);
 		}
-		Collections.shuffle(source, randomGenerator);
+		Collections.shuffle(source, generator());
 
 		int[] result = new int[x];
 		for (int i = 0; i < x; i++) {
@@ -216,7 +266,7 @@ public class RandomNumbers {
 		double u = 0.5, Cauchy_cut = 10.0;
 
 		while (u == 0.5) {
-			u = randomGenerator.nextDouble();
+			u = generator().nextDouble();
 		}
 		u = wtrange * Math.tan(u * Math.PI);
 		if (Math.abs(u) > Cauchy_cut) { // disallows extreme ends of tails
@@ -235,7 +285,7 @@ public class RandomNumbers {
 	 * @return random T of <T>
 	 */
 	public static <T> T randomElement(ArrayList<T> list) {
-		int index = randomGenerator.nextInt(list.size());
+		int index = generator().nextInt(list.size());
 		return list.get(index);
 	}
 
@@ -250,7 +300,7 @@ public class RandomNumbers {
 		double[] gaussians = new double[size];
 		for (int i = 0; i < size; i++) {
 			cauchies[i] = randomCauchyValue();
-			gaussians[i] = randomGenerator.nextGaussian();
+			gaussians[i] = generator().nextGaussian();
 		}
 		Arrays.sort(cauchies);
 		Arrays.sort(gaussians);
@@ -43,6 +43,23 @@ public class RandomNumbersTests {
 		assertFalse(rand1 == rand2);
 	}
 	
+	/**
+	 * Tests that streams depend on the seed and keys, and not on how much
+	 * the shared generator was used before they were created
+	 */
+	@Test
+	public void stream_test() {
+		RandomNumbers.reset(3);
+		long first = RandomNumbers.stream(4, 5).nextLong();
+		RandomNumbers.randomGenerator.nextDouble();
+		assertEquals(first, RandomNumbers.stream(4, 5).nextLong());
+		assertTrue(first != RandomNumbers.stream(4, 6).nextLong());
+		RandomNumbers.reset(4);
+		assertTrue(first != RandomNumbers.stream(4, 5).nextLong());
+		RandomNumbers.reset(3);
+		assertEquals(first, RandomNumbers.stream(4, 5).nextLong());
+	}
+
 	/**
 	 * Tests that given results are in range [-1,1]
 	 */
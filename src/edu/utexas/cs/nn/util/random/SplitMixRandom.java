@@ -0,0 +1,115 @@
+package edu.utexas.cs.nn.util.random;
+
+import java.util.Random;
+
+/**
+ * Random generator based on SplitMix64, the algorithm behind
+ * java.util.SplittableRandom, but usable anywhere a java.util.Random is
+ * expected. Unlike java.util.Random, the state is a plain field rather than
+ * an AtomicLong, so drawing numbers never performs a compare-and-set. Each
+ * instance must therefore only be used by one thread at a time, which is how
+ * RandomNumbers uses it: every evaluation thread gets its own stream.
+ *
+ * Generators created from different seeds, or split from the same
+ * generator, produce statistically independent streams, so a single run
+ * seed can be turned into separate reproducible streams for each
+ * generation, individual, and trial.
+ */
+public class SplitMixRandom extends Random {
+
+	private static final long serialVersionUID = -3458227383066004717L;
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private long state;
+
+	/**
+	 * Generator whose stream is determined by the seed
+	 *
+	 * @param seed
+	 *            any long value
+	 */
+	public SplitMixRandom(long seed) {
+		super(0); // Superclass state is never used
+		state = mix(seed);
+	}
+
+	/**
+	 * The Random constructor calls this, and so can anyone who wants to
+	 * restart the stream from a seed.
+	 */
+	@Override
+	public synchronized void setSeed(long seed) {
+		super.setSeed(seed); // Clears the saved Gaussian
+		state = mix(seed);
+	}
+
+	/**
+	 * Finalizer of SplitMix64, which spreads any difference between two
+	 * inputs over all bits of the output
+	 *
+	 * @param z
+	 *            value to mix
+	 * @return mixed value
+	 */
+	public static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Seed derived from a base seed and a sequence of keys, such as a
+	 * generation number, a genotype id, and a trial number. Different key
+	 * sequences give unrelated seeds, and the same sequence always gives the
+	 * same seed.
+	 *
+	 * @param seed
+	 *            base seed
+	 * @param keys
+	 *            values identifying the stream
+	 * @return seed for the stream
+	 */
+	public static long derive(long seed, long... keys) {
+		long result = mix(seed);
+		for (long key : keys) {
+			result = mix(result + GOLDEN_GAMMA + mix(key));
+		}
+		return result;
+	}
+
+	/**
+	 * New generator that is independent of this one. Advances this
+	 * generator by one step.
+	 *
+	 * @return new generator
+	 */
+	public SplitMixRandom split() {
+		return new SplitMixRandom(nextLong());
+	}
+
+	@Override
+	protected int next(int bits) {
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public long nextLong() {
+		state += GOLDEN_GAMMA;
+		return mix(state);
+	}
+
+	@Override
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	@Override
+	public float nextFloat() {
+		return (nextLong() >>> 40) * 0x1.0p-24f;
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return nextLong() < 0;
+	}
+}
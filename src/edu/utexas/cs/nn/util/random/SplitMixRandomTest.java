@@ -0,0 +1,73 @@
+package edu.utexas.cs.nn.util.random;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class SplitMixRandomTest {
+
+	/**
+	 * Generators with the same seed give the same numbers of every type
+	 */
+	@Test
+	public void test_sameSeed() {
+		SplitMixRandom a = new SplitMixRandom(42);
+		SplitMixRandom b = new SplitMixRandom(42);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(a.nextLong(), b.nextLong());
+			assertEquals(a.nextDouble(), b.nextDouble(), 0.0);
+			assertEquals(a.nextInt(17), b.nextInt(17));
+			assertEquals(a.nextGaussian(), b.nextGaussian(), 0.0);
+		}
+		a.setSeed(7);
+		b.setSeed(7);
+		assertEquals(a.nextLong(), b.nextLong());
+	}
+
+	/**
+	 * Numbers stay in range and are spread evenly over it
+	 */
+	@Test
+	public void test_ranges() {
+		SplitMixRandom random = new SplitMixRandom(0);
+		int[] counts = new int[10];
+		for (int i = 0; i < 100000; i++) {
+			double d = random.nextDouble();
+			assertTrue(d >= 0 && d < 1);
+			float f = random.nextFloat();
+			assertTrue(f >= 0 && f < 1);
+			counts[random.nextInt(counts.length)]++;
+		}
+		for (int count : counts) {
+			assertEquals(10000, count, 500);
+		}
+	}
+
+	/**
+	 * Derived seeds depend on every key and on the order of the keys
+	 */
+	@Test
+	public void test_derive() {
+		assertEquals(SplitMixRandom.derive(1, 2, 3), SplitMixRandom.derive(1, 2, 3));
+		assertTrue(SplitMixRandom.derive(1, 2, 3) != SplitMixRandom.derive(1, 3, 2));
+		assertTrue(SplitMixRandom.derive(1, 2, 3) != SplitMixRandom.derive(2, 2, 3));
+		assertTrue(SplitMixRandom.derive(1, 2) != SplitMixRandom.derive(1, 2, 0));
+		assertTrue(SplitMixRandom.derive(1, 0) != SplitMixRandom.derive(1));
+	}
+
+	/**
+	 * A split generator does not repeat the numbers of its parent
+	 */
+	@Test
+	public void test_split() {
+		SplitMixRandom parent = new SplitMixRandom(3);
+		SplitMixRandom child = parent.split();
+		int same = 0;
+		for (int i = 0; i < 1000; i++) {
+			if (parent.nextInt(100) == child.nextInt(100)) {
+				same++;
+			}
+		}
+		assertTrue(same < 30);
+	}
+}
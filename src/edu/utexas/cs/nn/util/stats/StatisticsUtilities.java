@@ -87,7 +87,7 @@ public class StatisticsUtilities {
 			}
 		}
 		return equalMaxIndexes.get(CommonConstants.randomArgMaxTieBreak
-				? RandomNumbers.randomGenerator.nextInt(equalMaxIndexes.size()) : 0);
+				? RandomNumbers.generator().nextInt(equalMaxIndexes.size()) : 0);
 	}
 
 	/**
@@ -112,7 +112,7 @@ public class StatisticsUtilities {
 			}
 		}
 		return equalMaxIndexes.get(CommonConstants.randomArgMaxTieBreak
-				? RandomNumbers.randomGenerator.nextInt(equalMaxIndexes.size()) : 0);
+				? RandomNumbers.generator().nextInt(equalMaxIndexes.size()) : 0);
 	}
 
 	/**
@@ -167,7 +167,7 @@ public class StatisticsUtilities {
 			}
 		}
 		return equalMinIndexes.get(CommonConstants.randomArgMaxTieBreak
-				? RandomNumbers.randomGenerator.nextInt(equalMinIndexes.size()) : 0);
+				? RandomNumbers.generator().nextInt(equalMinIndexes.size()) : 0);
 	}
 
 	public static int argmin(int[] xs) {
@@ -183,7 +183,7 @@ public class StatisticsUtilities {
 			}
 		}
 		return equalMinIndexes.get(CommonConstants.randomArgMaxTieBreak
-				? RandomNumbers.randomGenerator.nextInt(equalMinIndexes.size()) : 0);
+				? RandomNumbers.generator().nextInt(equalMinIndexes.size()) : 0);
 	}
 
 	public static int softmax(double[] ps, double temperature) {
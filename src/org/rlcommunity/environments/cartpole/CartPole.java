@@ -78,6 +78,8 @@ public class CartPole extends RLGlueEnvironment implements HasAVisualizerInterfa
 	 * Watched by MMNEAT if CommonConstants.watch is true
 	 */
 	private CartPoleViewer viewer = null;
+	// Returned by makeObservation, and refilled on every call
+	private final Observation observation = new Observation(0, 4);
 
 	public CartPole() {
 		this(getDefaultParameters());
@@ -255,7 +257,7 @@ public class CartPole extends RLGlueEnvironment implements HasAVisualizerInterfa
 	 */
 	@Override
 	protected Observation makeObservation() {
-		Observation returnObs = new Observation(0, 4);
+		Observation returnObs = observation;
 		returnObs.doubleArray[0] = x;
 		returnObs.doubleArray[1] = x_dot;
 		returnObs.doubleArray[2] = theta;
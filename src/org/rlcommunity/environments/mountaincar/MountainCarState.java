@@ -48,6 +48,8 @@ public class MountainCarState {
 	final public double rewardPerStep = -1.0d;
 	final public double rewardAtGoal = 0.0d;
 	final private Random randomGenerator;
+	// Returned by makeObservation, and refilled on every call
+	final private Observation observation = new Observation(0, 2);
 	// These are configurable
 	private boolean randomStarts = false;
 	private double transitionNoise = 0.0d;
@@ -175,7 +177,7 @@ public class MountainCarState {
 	}
 
 	Observation makeObservation() {
-		Observation currentObs = new Observation(0, 2);
+		Observation currentObs = observation;
 
 		currentObs.doubleArray[0] = getPosition();
 		currentObs.doubleArray[1] = getVelocity();
@@ -37,8 +37,9 @@ import org.rlcommunity.rlglue.codec.types.Observation;
  */
 public class PuddleWorldState {
 
-	public static double finalPuddleScore = 0;
-	public static double finalStepScore = 0;
+	// Totals of each kind of reward, reset by PuddleWorldTask after each episode
+	public double finalPuddleScore = 0;
+	public double finalStepScore = 0;
 
 	static Point2D getDefaultPosition() {
 		return new Point2D.Double(.1d, .1d);
@@ -55,6 +56,8 @@ public class PuddleWorldState {
 	final public double rewardPerStep = -1.0d;
 	final public double rewardAtGoal = 0.0d;
 	private Random randomGenerator;
+	// Returned by makeObservation, and refilled on every call
+	private final Observation observation = new Observation(0, 2);
 	// These are configurable
 	private boolean randomStarts = false;
 	private double transitionNoise = 0.0d;
@@ -211,7 +214,7 @@ public class PuddleWorldState {
 	}
 
 	Observation makeObservation() {
-		Observation currentObs = new Observation(0, 2);
+		Observation currentObs = observation;
 		currentObs.doubleArray[0] = getPosition().getX();
 		currentObs.doubleArray[1] = getPosition().getY();
 
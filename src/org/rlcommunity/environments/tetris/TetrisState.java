@@ -51,7 +51,6 @@ public class TetrisState {
 			+ TETRIS_STATE_NUMBER_POSSIBLE_BLOCKS + 5;
 	public static final int[] BLOCK_ROTATIONS = { 2, 1, 4, 2, 2, 4, 4 };
 
-	private Random randomGenerator = RandomNumbers.randomGenerator;
 	public boolean blockMobile = true;
 	public int currentBlockId;/* which block we're using in the block table */
 
@@ -213,7 +212,7 @@ public class TetrisState {
 		if (theAction > 5 || theAction < 0) {
 			System.err.println("Invalid action selected in Tetrlais: " + theAction);
 			// Random >=0 < 6
-			theAction = randomGenerator.nextInt(6);
+			theAction = RandomNumbers.generator().nextInt(6);
 		}
 
 		int nextRotation = currentRotation;
@@ -476,7 +475,7 @@ public class TetrisState {
 	public void spawn_block() {
 		blockMobile = true;
 
-		currentBlockId = randomGenerator.nextInt(possibleBlocks.size());
+		currentBlockId = RandomNumbers.generator().nextInt(possibleBlocks.size());
 
 		currentRotation = 0;
 		currentX = (worldWidth / 2) - 2;
@@ -613,7 +612,7 @@ public class TetrisState {
 	}
 
 	public Random getRandom() {
-		return randomGenerator;
+		return RandomNumbers.generator();
 	}
 
 	/* End of Tetris Helper Functions */
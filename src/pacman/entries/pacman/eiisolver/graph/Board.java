@@ -7,6 +7,7 @@ import static pacman.game.Constants.LAIR_REDUCTION;
 
 import java.util.Random;
 
+import edu.utexas.cs.nn.util.random.RandomNumbers;
 import pacman.game.Game;
 import pacman.game.Constants.*;
 
@@ -59,7 +60,7 @@ public class Board {
 
 	public void initHash() {
 		for (MyGhost ghost : ghosts) {
-			ghost.initHash(Search.rand);
+			ghost.initHash(RandomNumbers.generator());
 		}
 	}
 
@@ -7,6 +7,7 @@ import static pacman.game.Constants.GHOST_EAT_SCORE;
 
 import java.util.Random;
 
+import edu.utexas.cs.nn.util.random.RandomNumbers;
 import pacman.game.Game;
 import pacman.game.Constants.GHOST;
 import pacman.game.Constants.MOVE;
@@ -51,7 +52,9 @@ public class Search {
 	 * total nr of nodes searched
 	 */
 	public static int nodesSearched = 0;
-	public static Random rand = new Random();
+	// Only draws the fixed hash keys of Board, so it has a fixed seed. Noise
+	// in the search comes from RandomNumbers.generator()
+	public static Random rand = new Random(0);
 	/**
 	 * If we reach this time, we must stop searching immediately
 	 */
@@ -732,9 +735,9 @@ public class Search {
 			 * value = 80*(60-game.getShortestPathDistance(b.pacmanLocation,
 			 * game.getGhostInitialNodeIndex())); }
 			 */
-			value += rand.nextInt(4);
+			value += RandomNumbers.generator().nextInt(4);
 		} else {
-			value = graphBonus + 5 * closestDist + farAwayBonus + rand.nextInt(5) + (p.score + edibleBonus) / 8;
+			value = graphBonus + 5 * closestDist + farAwayBonus + RandomNumbers.generator().nextInt(5) + (p.score + edibleBonus) / 8;
 			if (heuristics.isWeakOpponent()) {
 				if (nrEdibleGhosts == 0) {
 					if (pacmanCanGetToPowerPill) {
@@ -404,7 +404,7 @@ public final class Game {
 		ghostEatMultiplier = 1;
 
 		if (levelCount >= Parameters.parameters.integerParameter("pacmanMaxLevel")) {
-			NNPacManController.timesAllLevelsBeaten++;
+			NNPacManController.timesAllLevelsBeaten.incrementAndGet();
 			if (MMNEAT.evalReport != null) {
 				MMNEAT.evalReport.log("All Levels Beaten");
 				MMNEAT.evalReport.log("");
@@ -914,7 +914,7 @@ public final class Game {
 			_newLevelReset();
 		} else {
 			if (randomLairExit) {
-				ghost.currentNodeIndex = currentMaze.junctionIndices[RandomNumbers.randomGenerator
+				ghost.currentNodeIndex = currentMaze.junctionIndices[RandomNumbers.generator()
 						.nextInt(currentMaze.junctionIndices.length)];
 			} else if (lairExitDatabase) {
 				// System.out.println("currentMaze.junctionIndices.length =
@@ -1373,7 +1373,7 @@ public final class Game {
 					} else {
 						ghostRegret++;
 						TrainingCampManager.ghostEatingCamp(this.getTotalTime());
-						if (RandomNumbers.randomGenerator.nextDouble() < Parameters.parameters
+						if (RandomNumbers.generator().nextDouble() < Parameters.parameters
 								.doubleParameter("powerPillPunishmentRate")) {
 							// Harsh punishment for failing to eat all ghosts
 							if (MMNEAT.evalReport != null) {
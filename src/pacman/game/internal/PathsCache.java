@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import pacman.game.Constants.MOVE;
 import pacman.game.Game;
 
@@ -21,6 +22,10 @@ import pacman.game.Game;
  *  (a) Looking at all combinations of 2-4 junctions, choosing the shortest path that also takes into account the path to get to either of them.
  *  
  * If one only wants the distance instead of the path, a more efficient method has been implemented that does not need to copy arrays.
+ * 
+ * Distances given the last move made are stored in tables with one row per source node and last move. Each row holds the
+ * distance to every target node, and is filled in the first time any distance from that source is requested, so repeated
+ * distance queries are a single array read.
  */
 public class PathsCache {
 
@@ -29,6 +34,15 @@ public class PathsCache {
 	public Junction[] junctions;
 	public Game game;
 
+	// Marks distances that cannot be computed from the cached paths
+	private static final short UNKNOWN_DISTANCE = -1;
+	private static final int NUM_MOVES = MOVE.values().length;
+
+	// Same contents as junctionIndexConverter, indexed by node (-1 for non-junctions)
+	private final int[] junctionIds;
+	// Row for source a and last move m is at a * NUM_MOVES + m.ordinal()
+	private final AtomicReferenceArray<short[]> distanceRows;
+
 	public PathsCache(int mazeIndex) {
 		junctionIndexConverter = new HashMap<Integer, Integer>();
 
@@ -37,9 +51,13 @@ public class PathsCache {
 
 		int[] jctIndices = m.junctionIndices;
 
+		junctionIds = new int[m.graph.length];
+		Arrays.fill(junctionIds, -1);
 		for (int i = 0; i < jctIndices.length; i++) {
 			junctionIndexConverter.put(jctIndices[i], i);
+			junctionIds[jctIndices[i]] = i;
 		}
+		distanceRows = new AtomicReferenceArray<short[]>(m.graph.length * NUM_MOVES);
 
 		nodes = assignJunctionsToNodes(game);
 		junctions = junctionDistances(game);
@@ -81,9 +99,8 @@ public class PathsCache {
 				// to the first junction
 				int distance = closestFromJunctions.get(i).path.length;
 				// junction to junction
-				int[] tmpPath = junctions[junctionIndexConverter
-						.get(closestFromJunctions.get(i).nodeID)].paths[junctionIndexConverter
-								.get(closestToJunctions.get(j).nodeID)].get(MOVE.NEUTRAL);
+				int[] tmpPath = junctions[junctionIds[closestFromJunctions.get(i).nodeID]].paths[junctionIds[closestToJunctions
+						.get(j).nodeID]].get(MOVE.NEUTRAL);
 				distance += tmpPath.length;
 				// to the second junction
 				distance += closestToJunctions.get(j).path.length;
@@ -101,9 +118,111 @@ public class PathsCache {
 	}
 
 	/////// ghosts //////////
-	// To be made more efficient shortly.
 	public int getPathDistanceFromA2B(int a, int b, MOVE lastMoveMade) {
-		return getPathFromA2B(a, b, lastMoveMade).length;
+		int distance = distanceRow(a, lastMoveMade)[b];
+		if (distance == UNKNOWN_DISTANCE) {
+			// Fails in the same way as the full path would
+			return getPathFromA2B(a, b, lastMoveMade).length;
+		}
+		return distance;
+	}
+
+	/**
+	 * Distances from a to every node given the last move made, computing and
+	 * storing them on first use. Rows computed at the same time by different
+	 * threads are identical, so whichever one is stored is fine.
+	 */
+	private short[] distanceRow(int a, MOVE lastMoveMade) {
+		int index = a * NUM_MOVES + lastMoveMade.ordinal();
+		short[] row = distanceRows.get(index);
+		if (row == null) {
+			row = new short[nodes.length];
+			for (int b = 0; b < row.length; b++) {
+				int distance = computePathDistanceFromA2B(a, b, lastMoveMade);
+				row[b] = distance > Short.MAX_VALUE ? UNKNOWN_DISTANCE : (short) distance;
+			}
+			distanceRows.set(index, row);
+		}
+		return row;
+	}
+
+	/**
+	 * Length of the path returned by getPathFromA2B(a, b, lastMoveMade), but
+	 * computed from the lengths of the cached paths without building the
+	 * path. Path choices (including ties) are made in exactly the same way.
+	 *
+	 * @return path length, or UNKNOWN_DISTANCE if building the path fails
+	 */
+	private int computePathDistanceFromA2B(int a, int b, MOVE lastMoveMade) {
+		try {
+			if (a == b) {
+				return 0;
+			}
+
+			JunctionData fromJunction = nodes[a].getNearestJunction(lastMoveMade);
+			for (int i = 0; i < fromJunction.path.length; i++) {
+				if (fromJunction.path[i] == b) {
+					return i + 1;
+				}
+			}
+
+			int junctionFrom = fromJunction.nodeID;
+			int junctionFromId = junctionIds[junctionFrom];
+			MOVE moveEnteredJunction = fromJunction.lastMove.equals(MOVE.NEUTRAL) ? lastMoveMade : fromJunction.lastMove;
+			ArrayList<JunctionData> junctionsTo = nodes[b].closestJunctions;
+
+			int minDist = Integer.MAX_VALUE;
+			int shortestLength = -1;
+			int closestJunction = -1;
+			boolean onTheWay = false;
+
+			for (int q = 0; q < junctionsTo.size(); q++) {
+				int junctionToId = junctionIds[junctionsTo.get(q).nodeID];
+
+				if (junctionFromId == junctionToId) {
+					if (!game.getMoveToMakeToReachDirectNeighbour(junctionFrom, junctionsTo.get(q).reversePath[0])
+							.equals(moveEnteredJunction.opposite())) {
+						int[] reversepath = junctionsTo.get(q).reversePath;
+						int cutoff = -1;
+
+						for (int w = 0; w < reversepath.length; w++) {
+							if (reversepath[w] == b) {
+								cutoff = w;
+							}
+						}
+
+						shortestLength = cutoff + 1;
+						minDist = shortestLength;
+						closestJunction = q;
+						onTheWay = true;
+					}
+				} else {
+					EnumMap<MOVE, int[]> paths = junctions[junctionFromId].paths[junctionToId];
+
+					for (MOVE move : paths.keySet()) {
+						if (!move.opposite().equals(moveEnteredJunction) && !move.equals(MOVE.NEUTRAL)) {
+							int[] path = paths.get(move);
+
+							if (path.length + junctionsTo.get(q).path.length < minDist) {
+								minDist = path.length + junctionsTo.get(q).path.length;
+								shortestLength = path.length;
+								closestJunction = q;
+								onTheWay = false;
+							}
+						}
+					}
+				}
+			}
+
+			if (closestJunction == -1) {
+				// No path was chosen, so building the path fails
+				return UNKNOWN_DISTANCE;
+			}
+			return fromJunction.path.length + shortestLength
+					+ (onTheWay ? 0 : junctionsTo.get(closestJunction).reversePath.length);
+		} catch (RuntimeException e) {
+			return UNKNOWN_DISTANCE;
+		}
 	}
 
 	public int[] getPathFromA2B(int a, int b, MOVE lastMoveMade) {
@@ -126,7 +245,7 @@ public class PathsCache {
 		// we have reached a junction, fromJunction, which we entered with
 		// moveEnteredJunction
 		int junctionFrom = fromJunction.nodeID;
-		int junctionFromId = junctionIndexConverter.get(junctionFrom);
+		int junctionFromId = junctionIds[junctionFrom];
 		MOVE moveEnteredJunction = fromJunction.lastMove.equals(MOVE.NEUTRAL) ? lastMoveMade : fromJunction.lastMove; // if
 																														// we
 																														// are
@@ -149,7 +268,7 @@ public class PathsCache {
 		boolean onTheWay = false;
 
 		for (int q = 0; q < junctionsTo.size(); q++) {
-			int junctionToId = junctionIndexConverter.get(junctionsTo.get(q).nodeID);
+			int junctionToId = junctionIds[junctionsTo.get(q).nodeID];
 
 			if (junctionFromId == junctionToId) {
 				if (!game.getMoveToMakeToReachDirectNeighbour(junctionFrom, junctionsTo.get(q).reversePath[0])
@@ -0,0 +1,112 @@
+package pacman.game.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.utexas.cs.nn.MMNEAT.MMNEAT;
+import edu.utexas.cs.nn.parameters.Parameters;
+import pacman.game.Constants.MOVE;
+import pacman.game.Game;
+
+public class PathsCacheTest {
+
+	private static final int SAMPLED_NODES = 40;
+	private static final int FAILURES_PER_MAZE = 10;
+
+	@Before
+	public void setUp() throws Exception {
+		Parameters.initializeParameterCollections(new String[] { "io:false", "netio:false" });
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		MMNEAT.clearClasses();
+	}
+
+	/**
+	 * Random junctions and random other nodes of a maze, in equal numbers
+	 */
+	private static ArrayList<Integer> sampleNodes(PathsCache cache, Random random) {
+		ArrayList<Integer> junctions = new ArrayList<Integer>();
+		ArrayList<Integer> others = new ArrayList<Integer>();
+		for (int node = 0; node < cache.nodes.length; node++) {
+			if (cache.nodes[node].isJunction) {
+				junctions.add(node);
+			} else {
+				others.add(node);
+			}
+		}
+		ArrayList<Integer> sample = new ArrayList<Integer>(2 * SAMPLED_NODES);
+		for (int i = 0; i < SAMPLED_NODES; i++) {
+			sample.add(junctions.get(random.nextInt(junctions.size())));
+			sample.add(others.get(random.nextInt(others.size())));
+		}
+		return sample;
+	}
+
+	/**
+	 * Tabled distances must equal the length of the path the cache builds,
+	 * for junction and non-junction endpoints and every last move. Each pair
+	 * is queried twice, so the second answer comes from a stored row.
+	 */
+	@Test
+	public void test_distanceMatchesPathLength() {
+		Random random = new Random(0);
+		for (PathsCache cache : Game.caches) {
+			ArrayList<Integer> nodes = sampleNodes(cache, random);
+			for (int a : nodes) {
+				for (MOVE move : MOVE.values()) {
+					for (int b : nodes) {
+						int[] path;
+						try {
+							path = cache.getPathFromA2B(a, b, move);
+						} catch (RuntimeException e) {
+							continue; // Covered by test_unknownDistanceFailsLikePath
+						}
+						assertEquals(path.length, cache.getPathDistanceFromA2B(a, b, move));
+						assertEquals(path.length, cache.getPathDistanceFromA2B(a, b, move));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Where building the path fails, the distance is unknown to the table,
+	 * and asking for it must fail in the same way as building the path
+	 */
+	@Test
+	public void test_unknownDistanceFailsLikePath() {
+		for (PathsCache cache : Game.caches) {
+			int failures = 0;
+			for (int a = cache.nodes.length - 1; a >= 0 && failures < FAILURES_PER_MAZE; a--) {
+				for (MOVE move : MOVE.values()) {
+					for (int b = 0; b < cache.nodes.length && failures < FAILURES_PER_MAZE; b++) {
+						RuntimeException pathFailure = null;
+						try {
+							cache.getPathFromA2B(a, b, move);
+						} catch (RuntimeException e) {
+							pathFailure = e;
+						}
+						if (pathFailure != null) {
+							failures++;
+							try {
+								cache.getPathDistanceFromA2B(a, b, move);
+								fail("Distance from " + a + " to " + b + " after " + move + " should fail like the path");
+							} catch (RuntimeException e) {
+								assertEquals(pathFailure.getClass(), e.getClass());
+							}
+						}
+					}
+				}
+			}
+			assertEquals(FAILURES_PER_MAZE, failures);
+		}
+	}
+}